@@ -0,0 +1,458 @@
+package com.dbmasker.api;
+
+import com.dbmasker.data.FetchOptions;
+import com.dbmasker.data.ObfuscationRule;
+import com.dbmasker.data.ScanOptions;
+import com.dbmasker.data.ScanResult;
+import com.dbmasker.data.SensitiveColumn;
+import com.dbmasker.data.TableAttribute;
+import com.dbmasker.data.TableIndex;
+import com.dbmasker.data.TableMetaData;
+import com.dbmasker.database.CancellableConnection;
+import com.dbmasker.database.Database;
+import com.dbmasker.database.DatabaseRegistry;
+import com.dbmasker.database.RowPublisher;
+import com.dbmasker.utils.ErrorMessages;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Flow;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * AsyncDBSecManager runs the masked reads, scans and metadata calls of {@link DBSecManager} and {@link DBManager}
+ * on an executor and returns a CompletableFuture of their result, so that a non-blocking caller does not block its
+ * own threads on the database.
+ * <p>
+ * By default the calls run on virtual threads when the Java runtime provides them, and on a cached pool of daemon
+ * threads otherwise; {@link #setExecutor(Executor)} replaces that executor. Each call takes a timeout in
+ * milliseconds, 0 for none, which is applied to every statement of the call with Statement.setQueryTimeout and
+ * completes the future with a TimeoutException once elapsed. Cancelling the future, or its timeout, cancels the
+ * running statements of the call with Statement.cancel. A connection must not be used by two calls at the same time.
+ * <p>
+ * The timeout does not bound the queries a driver runs internally for DatabaseMetaData, which the metadata calls
+ * use, and once the future completes with a timeout the call may still be using the connection until it notices
+ * its cancelled statement, so the connection should not be reused before then or should be closed.
+ * <p>
+ * Query results can also be published as a Flow.Publisher of masked rows, fetched only as the subscriber requests them.
+ */
+public class AsyncDBSecManager {
+
+    // Numbers the threads of the default executor when virtual threads are not available
+    private static final AtomicInteger THREAD_COUNTER = new AtomicInteger();
+
+    private static volatile Executor executor = createDefaultExecutor();
+
+    /**
+     * A blocking call of the synchronous API.
+     *
+     * @param <T> the type of the result of the call.
+     */
+    @FunctionalInterface
+    private interface Call<T> {
+
+        /**
+         * Runs the call on a connection.
+         *
+         * @param connection The connection of the call, which tracks its statements.
+         * @return the result of the call.
+         * @throws SQLException if a database access error occurs
+         */
+        T call(Connection connection) throws SQLException;
+    }
+
+    /**
+     * Default constructor for AsyncDBSecManager class.
+     */
+    private AsyncDBSecManager() {
+        throw new UnsupportedOperationException();
+    }
+
+    /**
+     * Returns the executor running the calls.
+     *
+     * @return the executor.
+     */
+    public static Executor getExecutor() {
+        return executor;
+    }
+
+    /**
+     * Sets the executor running the calls, for example the executor of the caller's own runtime.
+     * The previous executor is not shut down.
+     *
+     * @param newExecutor The executor running the calls.
+     * @throws IllegalArgumentException if the executor is null
+     */
+    public static void setExecutor(Executor newExecutor) {
+        if (newExecutor == null) {
+            throw new IllegalArgumentException(ErrorMessages.NULL_EXECUTOR_ERROR);
+        }
+        executor = newExecutor;
+    }
+
+    /**
+     * Fetches table or view data asynchronously and applies obfuscation rules to the specified columns.
+     *
+     * @param connection       The database connection object.
+     * @param dbType           The type of the database (e.g., "sqlite", "mysql", etc.).
+     * @param schemaName       The name of the schema where the table is located.
+     * @param name             The name of the table or view.
+     * @param obfuscationRules A map where the key is the column name and the value is the ObfuscationRule object to apply to that column.
+     * @param timeoutMillis    The timeout of the call in milliseconds, 0 for no timeout.
+     * @return A future of the rows of the table or view with the specified obfuscation rules applied.
+     */
+    public static CompletableFuture<List<Map<String, Object>>> getDataWithMask(Connection connection, String dbType,
+                                                                               String schemaName, String name,
+                                                                               Map<String, ObfuscationRule> obfuscationRules,
+                                                                               long timeoutMillis) {
+        return submit(connection, timeoutMillis,
+                conn -> DBSecManager.getDataWithMask(conn, dbType, schemaName, name, obfuscationRules));
+    }
+
+    /**
+     * Fetches a page of table or view data asynchronously and applies obfuscation rules to the specified columns.
+     *
+     * @param connection       The database connection object.
+     * @param dbType           The type of the database (e.g., "sqlite", "mysql", etc.).
+     * @param schemaName       The schema name of the table or view.
+     * @param tableName        The name of the table or view.
+     * @param columnList       A list of columns to select. If null or empty, all columns will be selected.
+     * @param pageOffset       The offset for pagination. If less than or equal to 0, all data will be returned without pagination.
+     * @param pageSize         The size of a page for pagination. If less than or equal to 0, all data will be returned without pagination.
+     * @param obfuscationRules A map where the key is the column name and the value is the ObfuscationRule object to apply to that column.
+     * @param timeoutMillis    The timeout of the call in milliseconds, 0 for no timeout.
+     * @return A future of a Map containing the retrieved data in 'results' and the total pages of data in 'totalPages'.
+     */
+    public static CompletableFuture<Map<String, Object>> getDataWithPageAndMask(Connection connection, String dbType,
+                                                                                String schemaName, String tableName,
+                                                                                List<String> columnList, int pageOffset,
+                                                                                int pageSize,
+                                                                                Map<String, ObfuscationRule> obfuscationRules,
+                                                                                long timeoutMillis) {
+        return submit(connection, timeoutMillis, conn -> DBSecManager.getDataWithPageAndMask(conn, dbType, schemaName,
+                tableName, columnList, pageOffset, pageSize, obfuscationRules));
+    }
+
+    /**
+     * Executes a SQL query asynchronously and applies obfuscation rules to the specified columns.
+     *
+     * @param connection       The database connection (java.sql.Connection) used to execute the query
+     * @param dbType           The type of the database (e.g., "sqlite", "mysql", etc.).
+     * @param sql              The SQL query string (String) to be executed
+     * @param obfuscationRules A map where the key is the column name and the value is the ObfuscationRule object to apply to that column.
+     * @param timeoutMillis    The timeout of the call in milliseconds, 0 for no timeout.
+     * @return A future of the rows of the query result, with keys being column names and values being the corresponding data
+     */
+    public static CompletableFuture<List<Map<String, Object>>> execQuerySQLWithMask(Connection connection, String dbType,
+                                                                                    String sql,
+                                                                                    Map<String, ObfuscationRule> obfuscationRules,
+                                                                                    long timeoutMillis) {
+        return submit(connection, timeoutMillis,
+                conn -> DBSecManager.execQuerySQLWithMask(conn, dbType, sql, obfuscationRules));
+    }
+
+    /**
+     * Executes a SQL query and publishes its rows with the obfuscation rules applied to the specified columns.
+     * The query runs once the subscriber requests the first rows, and further rows are fetched only as the
+     * subscriber requests them, in batches of the fetch size. The rows are delivered on the executor of the
+     * asynchronous API, and the publisher accepts a single subscriber.
+     *
+     * @param connection       The database connection (java.sql.Connection) used to execute the query
+     * @param dbType           The type of the database (e.g., "sqlite", "mysql", etc.).
+     * @param sql              The SQL query string (String) to be executed
+     * @param obfuscationRules A map where the key is the column name and the value is the ObfuscationRule object to apply to that column.
+     * @param fetchOptions     The options overriding the fetch strategy of the database, or null to use the default strategy.
+     * @return A publisher of the rows of the query result
+     */
+    public static Flow.Publisher<Map<String, Object>> publishQueryWithMask(Connection connection, String dbType, String sql,
+                                                                           Map<String, ObfuscationRule> obfuscationRules,
+                                                                           FetchOptions fetchOptions) {
+        if (connection == null || dbType == null) {
+            throw new IllegalArgumentException(ErrorMessages.NULL_CONNECTION_OR_DB_TYPE_ERROR);
+        }
+
+        if (sql == null) {
+            throw new IllegalArgumentException(ErrorMessages.NULL_SQL_ERROR);
+        }
+
+        if (obfuscationRules == null) {
+            throw new IllegalArgumentException(ErrorMessages.NULL_OBFUSCATION_RULES_ERROR);
+        }
+
+        Database database = DatabaseRegistry.getDatabase(dbType);
+        return new RowPublisher(() -> database.openCursor(connection, sql, obfuscationRules, fetchOptions), executor);
+    }
+
+    /**
+     * Publishes the rows of a table or view with the obfuscation rules applied to the specified columns.
+     * The table is read once the subscriber requests the first rows, and further rows are fetched only as the
+     * subscriber requests them, in batches of the fetch size. The rows are delivered on the executor of the
+     * asynchronous API, and the publisher accepts a single subscriber.
+     *
+     * @param connection       The database connection object.
+     * @param dbType           The type of the database (e.g., "sqlite", "mysql", etc.).
+     * @param schemaName       The name of the schema where the table is located.
+     * @param name             The name of the table or view.
+     * @param obfuscationRules A map where the key is the column name and the value is the ObfuscationRule object to apply to that column.
+     * @param fetchOptions     The options overriding the fetch strategy of the database, or null to use the default strategy.
+     * @return A publisher of the rows of the table or view
+     */
+    public static Flow.Publisher<Map<String, Object>> publishDataWithMask(Connection connection, String dbType,
+                                                                          String schemaName, String name,
+                                                                          Map<String, ObfuscationRule> obfuscationRules,
+                                                                          FetchOptions fetchOptions) {
+        if (connection == null || dbType == null) {
+            throw new IllegalArgumentException(ErrorMessages.NULL_CONNECTION_OR_DB_TYPE_ERROR);
+        }
+
+        if (name == null) {
+            throw new IllegalArgumentException(ErrorMessages.NULL_TABLE_OR_VIEW_NAME_ERROR);
+        }
+
+        if (obfuscationRules == null) {
+            throw new IllegalArgumentException(ErrorMessages.NULL_OBFUSCATION_RULES_ERROR);
+        }
+
+        Database database = DatabaseRegistry.getDatabase(dbType);
+        return new RowPublisher(() -> database.openTableCursor(connection, schemaName, name, obfuscationRules,
+                fetchOptions), executor);
+    }
+
+    /**
+     * Scans a database table or view asynchronously for sensitive data based on a list of regular expressions.
+     *
+     * @param connection    The SQL connection to the database.
+     * @param dbType        The type of the database (e.g., SQLite, MySQL, PostgreSQL).
+     * @param schemaName    The name of the schema where the table is located.
+     * @param tableName     The name of the table or view to scan.
+     * @param regexList     A list of regular expressions used for matching sensitive data.
+     * @param timeoutMillis The timeout of the call in milliseconds, 0 for no timeout.
+     * @return A future of the columns which matched sensitive data.
+     */
+    public static CompletableFuture<List<SensitiveColumn>> scanTableData(Connection connection, String dbType,
+                                                                         String schemaName, String tableName,
+                                                                         List<String> regexList, long timeoutMillis) {
+        return submit(connection, timeoutMillis,
+                conn -> DBSecManager.scanTableData(conn, dbType, schemaName, tableName, regexList));
+    }
+
+    /**
+     * Scans a sample of a database table or view asynchronously for sensitive data based on a list of regular
+     * expressions, within the row and time budget of the scan options.
+     *
+     * @param connection    The SQL connection to the database.
+     * @param dbType        The type of the database (e.g., SQLite, MySQL, PostgreSQL).
+     * @param schemaName    The name of the schema where the table is located.
+     * @param tableName     The name of the table or view to scan.
+     * @param regexList     A list of regular expressions used for matching sensitive data.
+     * @param scanOptions   The sampling and budget options of the scan.
+     * @param timeoutMillis The timeout of the call in milliseconds, 0 for no timeout.
+     * @return A future of the ScanResult containing the columns which matched sensitive data.
+     */
+    public static CompletableFuture<ScanResult> scanTableData(Connection connection, String dbType, String schemaName,
+                                                              String tableName, List<String> regexList,
+                                                              ScanOptions scanOptions, long timeoutMillis) {
+        return submit(connection, timeoutMillis,
+                conn -> DBSecManager.scanTableData(conn, dbType, schemaName, tableName, regexList, scanOptions));
+    }
+
+    /**
+     * Retrieves the schema names of a database asynchronously.
+     *
+     * @param connection    A java.sql.Connection object representing the connection to the database.
+     * @param dbType        A string representing the database type (e.g., "sqlite", "mysql").
+     * @param timeoutMillis The timeout of the call in milliseconds, 0 for no timeout.
+     * @return A future of the schema names.
+     */
+    public static CompletableFuture<List<String>> getSchema(Connection connection, String dbType, long timeoutMillis) {
+        return submit(connection, timeoutMillis, conn -> DBManager.getSchema(conn, dbType));
+    }
+
+    /**
+     * Retrieves the names of all tables within a schema asynchronously.
+     *
+     * @param connection    the java.sql.Connection object for the database
+     * @param dbType        the type of the database (e.g., "sqlite", "mysql")
+     * @param schemaName    the name of the schema for which to retrieve table names
+     * @param timeoutMillis The timeout of the call in milliseconds, 0 for no timeout.
+     * @return a future of the table names within the specified schema
+     */
+    public static CompletableFuture<List<String>> getTables(Connection connection, String dbType, String schemaName,
+                                                            long timeoutMillis) {
+        return submit(connection, timeoutMillis, conn -> DBManager.getTables(conn, dbType, schemaName));
+    }
+
+    /**
+     * Retrieves the names of all views within a schema asynchronously.
+     *
+     * @param connection    the java.sql.Connection object for the database
+     * @param dbType        the type of the database (e.g., "sqlite", "mysql")
+     * @param schemaName    the name of the schema for which to retrieve view names
+     * @param timeoutMillis The timeout of the call in milliseconds, 0 for no timeout.
+     * @return a future of the view names within the specified schema
+     */
+    public static CompletableFuture<List<String>> getViews(Connection connection, String dbType, String schemaName,
+                                                           long timeoutMillis) {
+        return submit(connection, timeoutMillis, conn -> DBManager.getViews(conn, dbType, schemaName));
+    }
+
+    /**
+     * Retrieves the metadata of the tables of a schema asynchronously.
+     *
+     * @param connection    A valid database connection.
+     * @param dbType        The database type, such as "sqlite", "mysql", etc.
+     * @param schemaName    The name of the schema for which metadata is to be retrieved.
+     * @param timeoutMillis The timeout of the call in milliseconds, 0 for no timeout.
+     * @return A future of the TableMetaData objects of the tables in the given schema.
+     */
+    public static CompletableFuture<List<TableMetaData>> getMetaData(Connection connection, String dbType,
+                                                                     String schemaName, long timeoutMillis) {
+        return submit(connection, timeoutMillis, conn -> DBManager.getMetaData(conn, dbType, schemaName));
+    }
+
+    /**
+     * Retrieves the attributes of a table asynchronously.
+     *
+     * @param connection    A valid database connection.
+     * @param dbType        The database type, such as "sqlite", "mysql", etc.
+     * @param schemaName    The schema name where the table is located.
+     * @param table         The table for which attributes are to be retrieved.
+     * @param timeoutMillis The timeout of the call in milliseconds, 0 for no timeout.
+     * @return A future of the TableAttribute objects of the given table.
+     */
+    public static CompletableFuture<List<TableAttribute>> getTableAttribute(Connection connection, String dbType,
+                                                                            String schemaName, String table,
+                                                                            long timeoutMillis) {
+        return submit(connection, timeoutMillis, conn -> DBManager.getTableAttribute(conn, dbType, schemaName, table));
+    }
+
+    /**
+     * Retrieves the primary keys of a table asynchronously.
+     *
+     * @param connection    A valid database connection.
+     * @param dbType        the type of the database, such as "sqlite", "mysql", etc.
+     * @param schemaName    The specified schema name.
+     * @param table         The specified table name.
+     * @param timeoutMillis The timeout of the call in milliseconds, 0 for no timeout.
+     * @return A future of the primary key column names of the table.
+     */
+    public static CompletableFuture<Set<String>> getPrimaryKeys(Connection connection, String dbType, String schemaName,
+                                                                String table, long timeoutMillis) {
+        return submit(connection, timeoutMillis, conn -> DBManager.getPrimaryKeys(conn, dbType, schemaName, table));
+    }
+
+    /**
+     * Retrieves the unique keys of a table asynchronously.
+     *
+     * @param connection    a valid database connection.
+     * @param dbType        the type of the database, such as "sqlite", "mysql", etc.
+     * @param schemaName    the specified schema name.
+     * @param table         the specified table name.
+     * @param timeoutMillis The timeout of the call in milliseconds, 0 for no timeout.
+     * @return a future of a Map where the key is the name of the unique key and the value is the set of its column names.
+     */
+    public static CompletableFuture<Map<String, Set<String>>> getUniqueKeys(Connection connection, String dbType,
+                                                                            String schemaName, String table,
+                                                                            long timeoutMillis) {
+        return submit(connection, timeoutMillis, conn -> DBManager.getUniqueKeys(conn, dbType, schemaName, table));
+    }
+
+    /**
+     * Retrieves the indexes of a table asynchronously.
+     *
+     * @param connection    A valid database connection.
+     * @param dbType        The type of the database, such as "sqlite", "mysql", etc.
+     * @param schemaName    The name of the schema where the table is located.
+     * @param table         The name of the table for which to retrieve the indices.
+     * @param timeoutMillis The timeout of the call in milliseconds, 0 for no timeout.
+     * @return A future of the {@link TableIndex} objects of the table.
+     */
+    public static CompletableFuture<List<TableIndex>> getIndex(Connection connection, String dbType, String schemaName,
+                                                               String table, long timeoutMillis) {
+        return submit(connection, timeoutMillis, conn -> DBManager.getIndex(conn, dbType, schemaName, table));
+    }
+
+    /**
+     * Runs a call on the executor with a tracked connection. The future completes with the result of the call,
+     * or exceptionally with its SQLException or IllegalArgumentException; cancelling it or its timeout cancels the
+     * running statements of the call.
+     *
+     * @param connection    The connection of the call.
+     * @param timeoutMillis The timeout of the call in milliseconds, 0 for no timeout.
+     * @param call          The blocking call.
+     * @param <T>           the type of the result of the call.
+     * @return the future of the result of the call.
+     */
+    private static <T> CompletableFuture<T> submit(Connection connection, long timeoutMillis, Call<T> call) {
+        if (timeoutMillis < 0) {
+            return CompletableFuture.failedFuture(new IllegalArgumentException(ErrorMessages.INVALID_TIMEOUT_ERROR));
+        }
+
+        // Statement.setQueryTimeout counts whole seconds, rounded up so the database never stops a call early
+        int queryTimeoutSeconds = (int) Math.min(Integer.MAX_VALUE, (timeoutMillis + 999) / 1000);
+        CancellableConnection tracker = connection == null ? null
+                : new CancellableConnection(connection, queryTimeoutSeconds);
+        CompletableFuture<T> future = new CompletableFuture<>();
+        if (tracker != null) {
+            future.whenComplete((result, error) -> {
+                if (error instanceof CancellationException || error instanceof TimeoutException) {
+                    tracker.cancel();
+                }
+            });
+        }
+
+        try {
+            executor.execute(() -> {
+                if (future.isDone()) {
+                    return;
+                }
+                try {
+                    future.complete(call.call(tracker == null ? null : tracker.getConnection()));
+                } catch (SQLException | RuntimeException e) {
+                    future.completeExceptionally(e);
+                } catch (Error e) {
+                    future.completeExceptionally(e);
+                    throw e;
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            future.completeExceptionally(e);
+        }
+
+        if (timeoutMillis > 0) {
+            future.orTimeout(timeoutMillis, TimeUnit.MILLISECONDS);
+        }
+        return future;
+    }
+
+    /**
+     * Creates the default executor: one virtual thread per call on runtimes which provide them, a cached pool of
+     * daemon threads otherwise.
+     *
+     * @return the default executor.
+     */
+    private static Executor createDefaultExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            // Virtual threads are not available before Java 21
+            return Executors.newCachedThreadPool(runnable -> {
+                Thread thread = new Thread(runnable, "dbmasker-async-" + THREAD_COUNTER.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+    }
+}
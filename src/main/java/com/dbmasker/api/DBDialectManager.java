@@ -1,7 +1,7 @@
 package com.dbmasker.api;
 
+import com.dbmasker.database.DatabaseRegistry;
 import com.dbmasker.dialect.Dialect;
-import com.dbmasker.dialect.DialectFactory;
 import com.dbmasker.utils.ErrorMessages;
 
 import java.sql.Connection;
@@ -42,7 +42,7 @@ public class DBDialectManager {
             throw new IllegalArgumentException(ErrorMessages.NULL_TABLE_OR_VIEW_NAME_ERROR);
         }
 
-        Dialect dialect = new DialectFactory().getDialect(dbType);
+        Dialect dialect = DatabaseRegistry.getDialect(dbType);
         return dialect.generateInsertSql(connection, schemaName, tableName, data, dbType);
     }
 
@@ -70,7 +70,7 @@ public class DBDialectManager {
             throw new IllegalArgumentException(ErrorMessages.NULL_TABLE_OR_VIEW_NAME_ERROR);
         }
 
-        Dialect dialect = new DialectFactory().getDialect(dbType);
+        Dialect dialect = DatabaseRegistry.getDialect(dbType);
         return dialect.generateUpdateSql(connection, dbType, schemaName, tableName, setData, condition, filteredByUniqueKey);
     }
 
@@ -96,7 +96,7 @@ public class DBDialectManager {
             throw new IllegalArgumentException(ErrorMessages.NULL_TABLE_OR_VIEW_NAME_ERROR);
         }
 
-        Dialect dialect = new DialectFactory().getDialect(dbType);
+        Dialect dialect = DatabaseRegistry.getDialect(dbType);
         return dialect.generateDeleteSql(connection, dbType, schemaName, tableName, condition, filteredByUniqueKey);
     }
 }
@@ -1,19 +1,32 @@
 package com.dbmasker.api;
 
+import com.dbmasker.data.CatalogRefresh;
+import com.dbmasker.data.CatalogSnapshot;
+import com.dbmasker.data.ColumnBatch;
+import com.dbmasker.data.CompactResult;
 import com.dbmasker.data.DatabaseFunction;
 import com.dbmasker.data.TableAttribute;
 import com.dbmasker.data.TableIndex;
 import com.dbmasker.data.TableMetaData;
+import com.dbmasker.database.ConnectionPools;
+import com.dbmasker.database.ConnectionSupplier;
 import com.dbmasker.database.Database;
-import com.dbmasker.database.DatabaseFactory;
+import com.dbmasker.database.DatabaseRegistry;
+import com.dbmasker.database.MetadataCache;
+import com.dbmasker.database.PooledDataSource;
+import com.dbmasker.database.StatementCache;
+import com.dbmasker.utils.Config;
+import com.dbmasker.utils.CountStrategy;
 import com.dbmasker.utils.ErrorMessages;
 
 import java.sql.Connection;
 import java.sql.DriverManager;
 import java.sql.SQLException;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.function.Consumer;
 
 
 /**
@@ -56,6 +69,8 @@ public class DBManager {
 
     /**
      * Creates a database connection using the provided parameters.
+     * When connection pooling is enabled with Config.setConnectionPooling, the connection is borrowed from the
+     * shared pool of the driver, URL and user, and closing it returns it to the pool.
      *
      * @param driver   The fully-qualified name of the JDBC driver class.
      * @param url      The JDBC URL for the database.
@@ -67,6 +82,11 @@ public class DBManager {
      */
     public static Connection createConnection(String driver, String url, String username, String password)
             throws SQLException, ClassNotFoundException {
+        Config config = Config.getInstance();
+        if (config.getConnectionPooling()) {
+            return ConnectionPools.getDataSource(driver, url, username, password, config.getPoolOptions()).getConnection();
+        }
+
         Connection connection = null;
         try {
             // Load the specified JDBC driver
@@ -84,6 +104,34 @@ public class DBManager {
         return connection;
     }
 
+    /**
+     * Returns the shared connection pool of a database, creating it with Config.getPoolOptions() if it does not
+     * exist yet. The pool is a DataSource and a ConnectionSupplier, so it can be passed to the schema scans of
+     * DBSecManager, and each borrowed connection is returned to it when closed.
+     *
+     * @param driver   The fully-qualified name of the JDBC driver class.
+     * @param url      The JDBC URL for the database.
+     * @param username The username for the database connection.
+     * @param password The password for the database connection.
+     * @return The shared pool of the database.
+     * @throws ClassNotFoundException if the JDBC driver class is not found.
+     */
+    public static PooledDataSource getDataSource(String driver, String url, String username, String password)
+            throws ClassNotFoundException {
+        if (url == null) {
+            throw new IllegalArgumentException(ErrorMessages.NULL_URL_ERROR);
+        }
+        return ConnectionPools.getDataSource(driver, url, username, password, Config.getInstance().getPoolOptions());
+    }
+
+    /**
+     * Closes all shared connection pools, for example when the application shuts down.
+     * Connections in use are closed when they are returned.
+     */
+    public static void closeDataSources() {
+        ConnectionPools.closeAll();
+    }
+
     /**
      * Closes a database connection.
      *
@@ -116,7 +164,7 @@ public class DBManager {
             throw new IllegalArgumentException(ErrorMessages.NULL_CONNECTION_OR_DB_TYPE_ERROR);
         }
 
-        Database database = new DatabaseFactory().getDatabase(dbType);
+        Database database = DatabaseRegistry.getDatabase(dbType);
         return database.getSchemas(connection);
     }
 
@@ -134,7 +182,7 @@ public class DBManager {
             throw new IllegalArgumentException(ErrorMessages.NULL_CONNECTION_OR_DB_TYPE_ERROR);
         }
 
-        Database database = new DatabaseFactory().getDatabase(dbType);
+        Database database = DatabaseRegistry.getDatabase(dbType);
         return database.getTables(connection, schemaName);
     }
 
@@ -152,7 +200,7 @@ public class DBManager {
             throw new IllegalArgumentException(ErrorMessages.NULL_CONNECTION_OR_DB_TYPE_ERROR);
         }
 
-        Database database = new DatabaseFactory().getDatabase(dbType);
+        Database database = DatabaseRegistry.getDatabase(dbType);
         return database.getViews(connection, schemaName);
     }
 
@@ -170,7 +218,7 @@ public class DBManager {
             throw new IllegalArgumentException(ErrorMessages.NULL_CONNECTION_OR_DB_TYPE_ERROR);
         }
 
-        Database database = new DatabaseFactory().getDatabase(dbType);
+        Database database = DatabaseRegistry.getDatabase(dbType);
         return database.getFuncs(connection, schemaName);
     }
 
@@ -188,10 +236,74 @@ public class DBManager {
             throw new IllegalArgumentException(ErrorMessages.NULL_CONNECTION_OR_DB_TYPE_ERROR);
         }
 
-        Database database = new DatabaseFactory().getDatabase(dbType);
+        Database database = DatabaseRegistry.getDatabase(dbType);
         return database.getMetaData(connection, schemaName);
     }
 
+    /**
+     * Loads the catalog of a schema at once: its tables with their columns, primary keys, unique keys and indexes.
+     * Prefer it to per-table calls when the metadata of many tables is needed, as it takes one query per kind of
+     * catalog object instead of a few queries per table.
+     *
+     * @param connection A valid database connection.
+     * @param dbType The database type, such as "sqlite", "mysql", etc.
+     * @param schemaName The name of the schema.
+     * @return the catalog snapshot of the schema.
+     * @throws SQLException if a database access error occurs
+     */
+    public static CatalogSnapshot getCatalogSnapshot(Connection connection, String dbType, String schemaName) throws SQLException {
+        if (connection == null || dbType == null) {
+            throw new IllegalArgumentException(ErrorMessages.NULL_CONNECTION_OR_DB_TYPE_ERROR);
+        }
+
+        Database database = DatabaseRegistry.getDatabase(dbType);
+        return database.getCatalogSnapshot(connection, schemaName);
+    }
+
+    /**
+     * Refreshes a catalog snapshot, reloading only the tables whose definition changed since the snapshot was
+     * taken, as told by the DDL time or the equivalent stamp of each table. Without stamps, the whole catalog is
+     * reloaded and compared with the snapshot.
+     *
+     * @param connection     A valid database connection.
+     * @param dbType         The database type, such as "sqlite", "mysql", etc.
+     * @param snapshot       The catalog snapshot to refresh, which is not modified.
+     * @param previousStamps The definition stamps of the tables read with the snapshot, or null to reload all the tables.
+     * @return the refreshed snapshot, the added, changed and removed tables and the stamps to pass to the next refresh.
+     * @throws SQLException if a database access error occurs
+     */
+    public static CatalogRefresh refreshCatalogSnapshot(Connection connection, String dbType, CatalogSnapshot snapshot,
+                                                        Map<String, String> previousStamps) throws SQLException {
+        if (connection == null || dbType == null) {
+            throw new IllegalArgumentException(ErrorMessages.NULL_CONNECTION_OR_DB_TYPE_ERROR);
+        }
+
+        if (snapshot == null) {
+            throw new IllegalArgumentException(ErrorMessages.NULL_CATALOG_SNAPSHOT_ERROR);
+        }
+
+        Database database = DatabaseRegistry.getDatabase(dbType);
+        return database.refreshCatalogSnapshot(connection, snapshot, previousStamps);
+    }
+
+    /**
+     * Retrieves a stamp of the definition of each table of a schema, such as its last DDL time, with one catalog query.
+     *
+     * @param connection A valid database connection.
+     * @param dbType     The database type, such as "sqlite", "mysql", etc.
+     * @param schemaName The name of the schema.
+     * @return the definition stamp of each table keyed by table name, or null if the database has no such stamp.
+     * @throws SQLException if a database access error occurs
+     */
+    public static Map<String, String> getTableDdlStamps(Connection connection, String dbType, String schemaName) throws SQLException {
+        if (connection == null || dbType == null) {
+            throw new IllegalArgumentException(ErrorMessages.NULL_CONNECTION_OR_DB_TYPE_ERROR);
+        }
+
+        Database database = DatabaseRegistry.getDatabase(dbType);
+        return database.getTableDdlStamps(connection, schemaName);
+    }
+
     /**
      * Retrieves table attributes for a given table in the specified schema.
      *
@@ -212,7 +324,7 @@ public class DBManager {
             throw new IllegalArgumentException(ErrorMessages.NULL_TABLE_OR_VIEW_NAME_ERROR);
         }
 
-        Database database = new DatabaseFactory().getDatabase(dbType);
+        Database database = DatabaseRegistry.getDatabase(dbType);
         return database.getTableAttribute(connection, schemaName, table);
     }
 
@@ -236,7 +348,7 @@ public class DBManager {
             throw new IllegalArgumentException(ErrorMessages.NULL_TABLE_OR_VIEW_NAME_ERROR);
         }
 
-        Database database = new DatabaseFactory().getDatabase(dbType);
+        Database database = DatabaseRegistry.getDatabase(dbType);
         return database.getPrimaryKeys(connection, schemaName, table);
     }
 
@@ -260,10 +372,33 @@ public class DBManager {
             throw new IllegalArgumentException(ErrorMessages.NULL_TABLE_OR_VIEW_NAME_ERROR);
         }
 
-        Database database = new DatabaseFactory().getDatabase(dbType);
+        Database database = DatabaseRegistry.getDatabase(dbType);
         return database.getUniqueKeys(connection, schemaName, table);
     }
 
+    /**
+     * Removes the cached metadata (column types, primary and unique keys) of a table, so that the next SQL
+     * statement generated for the table reads its new structure. Call it after altering a table while
+     * the metadata cache is enabled with Config.setMetadataCacheTtl. The prepared statements cached for the
+     * connection are closed as well, as some databases reject a cached plan whose result columns changed.
+     * @param connection a valid database connection.
+     * @param schemaName the specified schema name.
+     * @param table the specified table name.
+     * @throws SQLException if a database access error occurs
+     */
+    public static void invalidateMetadataCache(Connection connection, String schemaName, String table) throws SQLException {
+        if (connection == null) {
+            throw new IllegalArgumentException(ErrorMessages.NULL_CONNECTION_ERROR);
+        }
+
+        if (table == null) {
+            throw new IllegalArgumentException(ErrorMessages.NULL_TABLE_OR_VIEW_NAME_ERROR);
+        }
+
+        MetadataCache.invalidate(connection, schemaName, table);
+        StatementCache.clear(connection);
+    }
+
     /**
      * Retrieves a list of indices for the specified table in the given schema.
      * @param connection A valid database connection.
@@ -282,7 +417,7 @@ public class DBManager {
             throw new IllegalArgumentException(ErrorMessages.NULL_TABLE_OR_VIEW_NAME_ERROR);
         }
 
-        Database database = new DatabaseFactory().getDatabase(dbType);
+        Database database = DatabaseRegistry.getDatabase(dbType);
         return database.getIndex(connection, schemaName, table);
     }
 
@@ -304,7 +439,7 @@ public class DBManager {
             throw new IllegalArgumentException(ErrorMessages.NULL_SQL_ERROR);
         }
 
-        Database database = new DatabaseFactory().getDatabase(dbType);
+        Database database = DatabaseRegistry.getDatabase(dbType);
         return database.executeUpdateSQL(connection, sql);
     }
 
@@ -326,7 +461,7 @@ public class DBManager {
             throw new IllegalArgumentException(ErrorMessages.NULL_SQL_LIST_ERROR);
         }
 
-        Database database = new DatabaseFactory().getDatabase(dbType);
+        Database database = DatabaseRegistry.getDatabase(dbType);
         return database.executeUpdateSQLBatch(connection, sqlList);
     }
 
@@ -349,10 +484,68 @@ public class DBManager {
             throw new IllegalArgumentException(ErrorMessages.NULL_SQL_ERROR);
         }
 
-        Database database = new DatabaseFactory().getDatabase(dbType);
+        Database database = DatabaseRegistry.getDatabase(dbType);
         return database.executeQuerySQL(connection, sql);
     }
 
+    /**
+     * Executes a SQL query and returns the result in a compact form: one shared column header and each row as an
+     * array of values, which holds large results with far fewer objects than a list of maps.
+     *
+     * @param connection The database connection (java.sql.Connection) used to execute the query
+     * @param dbType The type of the database (e.g., "sqlite", "mysql", etc.).
+     * @param sql The SQL query string (String) to be executed
+     * @return The compact result of the query, which also gives map views of its rows
+     * @throws SQLException if a database access error occurs
+     */
+    public static CompactResult executeQueryCompact(Connection connection, String dbType, String sql) throws SQLException {
+        if (connection == null || dbType == null) {
+            throw new IllegalArgumentException(ErrorMessages.NULL_CONNECTION_OR_DB_TYPE_ERROR);
+        }
+
+        if (sql == null) {
+            throw new IllegalArgumentException(ErrorMessages.NULL_SQL_ERROR);
+        }
+
+        Database database = DatabaseRegistry.getDatabase(dbType);
+        return database.execQueryCompactWithMask(connection, sql, new HashMap<>());
+    }
+
+    /**
+     * Executes a SQL query and hands the result to a callback in columnar batches. Integer, floating point and date
+     * columns are read into primitive vectors and character columns into dictionary-encoded vectors, so that large
+     * results are read without boxing their values.
+     *
+     * @param connection The database connection (java.sql.Connection) used to execute the query
+     * @param dbType The type of the database (e.g., "sqlite", "mysql", etc.).
+     * @param sql The SQL query string (String) to be executed
+     * @param batchSize The maximum number of rows of a batch, at least 1
+     * @param callback The callback receiving each batch, a single empty batch when the query returns no row
+     * @return The number of rows read
+     * @throws SQLException if a database access error occurs
+     */
+    public static long executeQueryColumnar(Connection connection, String dbType, String sql, int batchSize,
+                                            Consumer<ColumnBatch> callback) throws SQLException {
+        if (connection == null || dbType == null) {
+            throw new IllegalArgumentException(ErrorMessages.NULL_CONNECTION_OR_DB_TYPE_ERROR);
+        }
+
+        if (sql == null) {
+            throw new IllegalArgumentException(ErrorMessages.NULL_SQL_ERROR);
+        }
+
+        if (batchSize <= 0) {
+            throw new IllegalArgumentException(ErrorMessages.INVALID_BATCH_SIZE_ERROR);
+        }
+
+        if (callback == null) {
+            throw new IllegalArgumentException(ErrorMessages.NULL_BATCH_CALLBACK_ERROR);
+        }
+
+        Database database = DatabaseRegistry.getDatabase(dbType);
+        return database.execQueryColumnarWithMask(connection, sql, new HashMap<>(), batchSize, callback);
+    }
+
     /**
      * Executes a batch of SQL queries and returns the results as a list of lists of maps.
      *
@@ -372,10 +565,46 @@ public class DBManager {
             throw new IllegalArgumentException(ErrorMessages.NULL_SQL_LIST_ERROR);
         }
 
-        Database database = new DatabaseFactory().getDatabase(dbType);
+        Database database = DatabaseRegistry.getDatabase(dbType);
         return database.executeQuerySQLBatch(connection, sqlList);
     }
 
+    /**
+     * Executes a batch of independent SQL queries several at a time and returns the results in the order of the
+     * queries. Each worker runs its queries on its own connection obtained from the supplier, for example a
+     * PooledDataSource, so that at most {@code parallelism} connections are used at the same time. The first query
+     * which fails stops the batch and cancels the queries still running.
+     *
+     * @param connectionSupplier The supplier of the connections, each connection is closed once the batch is done.
+     * @param dbType The type of the database (e.g., "sqlite", "mysql", etc.).
+     * @param sqlList The list of SQL query strings to be executed, which must all be SELECT queries
+     * @param parallelism The maximum number of queries executed at the same time, at least 1
+     * @return A list of lists of maps where each inner list represents a query result,
+     *         with each map representing a row in the result set, with keys being column names and values being the corresponding data
+     * @throws SQLException if a query fails or a database access error occurs
+     */
+    public static List<List<Map<String, Object>>> executeQuerySQLBatch(ConnectionSupplier connectionSupplier, String dbType,
+                                                                       List<String> sqlList, int parallelism) throws SQLException {
+        if (connectionSupplier == null) {
+            throw new IllegalArgumentException(ErrorMessages.NULL_CONNECTION_SUPPLIER_ERROR);
+        }
+
+        if (dbType == null) {
+            throw new IllegalArgumentException(ErrorMessages.NULL_CONNECTION_OR_DB_TYPE_ERROR);
+        }
+
+        if (sqlList == null) {
+            throw new IllegalArgumentException(ErrorMessages.NULL_SQL_LIST_ERROR);
+        }
+
+        if (parallelism < 1) {
+            throw new IllegalArgumentException(ErrorMessages.INVALID_QUERY_PARALLELISM_ERROR);
+        }
+
+        Database database = DatabaseRegistry.getDatabase(dbType);
+        return database.executeQuerySQLBatch(connectionSupplier, sqlList, new HashMap<>(), parallelism);
+    }
+
     /**
      * Executes a SQL query or update statement, returns the results as a list of maps.
      *
@@ -397,7 +626,7 @@ public class DBManager {
             throw new IllegalArgumentException(ErrorMessages.NULL_SQL_ERROR);
         }
 
-        Database database = new DatabaseFactory().getDatabase(dbType);
+        Database database = DatabaseRegistry.getDatabase(dbType);
         return database.executeSQL(connection, sql);
     }
 
@@ -422,7 +651,7 @@ public class DBManager {
             throw new IllegalArgumentException(ErrorMessages.NULL_SQL_LIST_ERROR);
         }
 
-        Database database = new DatabaseFactory().getDatabase(dbType);
+        Database database = DatabaseRegistry.getDatabase(dbType);
         return database.executeSQLBatch(connection, sqlList);
     }
 
@@ -448,7 +677,7 @@ public class DBManager {
             throw new IllegalArgumentException(ErrorMessages.NULL_SQL_SCRIPT_ERROR);
         }
 
-        Database database = new DatabaseFactory().getDatabase(dbType);
+        Database database = DatabaseRegistry.getDatabase(dbType);
         return database.executeSQLScript(connection, sqlScript);
     }
 
@@ -465,7 +694,7 @@ public class DBManager {
             throw new IllegalArgumentException(ErrorMessages.NULL_CONNECTION_OR_DB_TYPE_ERROR);
         }
 
-        Database database = new DatabaseFactory().getDatabase(dbType);
+        Database database = DatabaseRegistry.getDatabase(dbType);
         return database.commit(connection);
     }
 
@@ -483,7 +712,7 @@ public class DBManager {
             throw new IllegalArgumentException(ErrorMessages.NULL_CONNECTION_OR_DB_TYPE_ERROR);
         }
 
-        Database database = new DatabaseFactory().getDatabase(dbType);
+        Database database = DatabaseRegistry.getDatabase(dbType);
         return database.setAutoCommit(connection, autoCommit);
     }
 
@@ -500,7 +729,7 @@ public class DBManager {
             throw new IllegalArgumentException(ErrorMessages.NULL_CONNECTION_OR_DB_TYPE_ERROR);
         }
 
-        Database database = new DatabaseFactory().getDatabase(dbType);
+        Database database = DatabaseRegistry.getDatabase(dbType);
         return database.rollback(connection);
     }
 
@@ -523,7 +752,7 @@ public class DBManager {
             throw new IllegalArgumentException(ErrorMessages.NULL_TABLE_OR_VIEW_NAME_ERROR);
         }
 
-        Database database = new DatabaseFactory().getDatabase(dbType);
+        Database database = DatabaseRegistry.getDatabase(dbType);
         return database.getTableOrViewData(connection, schemaName, name);
     }
 
@@ -550,10 +779,74 @@ public class DBManager {
             throw new IllegalArgumentException(ErrorMessages.NULL_TABLE_OR_VIEW_NAME_ERROR);
         }
 
-        Database database = new DatabaseFactory().getDatabase(dbType);
+        Database database = DatabaseRegistry.getDatabase(dbType);
         return database.getDataWithPage(connection, schemaName, tableName, columnList, pageOffset, pageSize);
     }
 
+    /**
+     * This function retrieves data from a table or view in the database. It supports both pagination and selection of specific columns.
+     *
+     * @param connection The database connection object.
+     * @param dbType     The type of the database (e.g., "sqlite", "mysql", etc.)
+     * @param schemaName The schema name of the table or view.
+     * @param tableName The name of the table or view.
+     * @param columnList A list of columns to select. If null or empty, all columns will be selected.
+     * @param pageOffset The offset for pagination. If less than or equal to 0, all data will be returned without pagination.
+     * @param pageSize The size of a page for pagination. If less than or equal to 0, all data will be returned without pagination.
+     * @param countStrategy The strategy used to count the rows of the table to compute the total pages.
+     * @return A Map object containing the retrieved data in 'results', the total pages of data in 'totalPages'
+     *         and the strategy which produced the row count in 'countStrategy' (null when the data is not paginated).
+     * @throws SQLException If a database access error occurs.
+     */
+    public static Map<String, Object> getDataWithPage(Connection connection, String dbType, String schemaName, String tableName,
+                                                      List<String> columnList, int pageOffset, int pageSize,
+                                                      CountStrategy countStrategy) throws SQLException {
+        if (connection == null || dbType == null) {
+            throw new IllegalArgumentException(ErrorMessages.NULL_CONNECTION_OR_DB_TYPE_ERROR);
+        }
+
+        if (tableName == null) {
+            throw new IllegalArgumentException(ErrorMessages.NULL_TABLE_OR_VIEW_NAME_ERROR);
+        }
+
+        if (countStrategy == null) {
+            throw new IllegalArgumentException(ErrorMessages.NULL_COUNT_STRATEGY_ERROR);
+        }
+
+        Database database = DatabaseRegistry.getDatabase(dbType);
+        return database.getDataWithPage(connection, schemaName, tableName, columnList, pageOffset, pageSize, new HashMap<>(), countStrategy);
+    }
+
+    /**
+     * Retrieves a page of data from a table using keyset pagination, ordered by the primary key of the table or,
+     * if there is none, by a unique key whose columns are all not null. Unlike offset pagination, fetching a deep
+     * page costs the same as fetching the first one.
+     *
+     * @param connection The database connection object.
+     * @param dbType     The type of the database (e.g., "sqlite", "mysql", etc.)
+     * @param schemaName The schema name of the table.
+     * @param tableName The name of the table.
+     * @param columnList A list of columns to select. If null or empty, all columns will be selected.
+     * @param pageSize The size of a page, must be greater than 0.
+     * @param pageToken The token returned with the previous page, or null to fetch the first page.
+     * @return A Map object containing the retrieved data in 'results' and the token of the next page in 'nextPageToken',
+     *         which is null when the last page has been reached.
+     * @throws SQLException If a database access error occurs or the table has no usable key.
+     */
+    public static Map<String, Object> getDataWithKeyset(Connection connection, String dbType, String schemaName, String tableName,
+                                                        List<String> columnList, int pageSize, String pageToken) throws SQLException {
+        if (connection == null || dbType == null) {
+            throw new IllegalArgumentException(ErrorMessages.NULL_CONNECTION_OR_DB_TYPE_ERROR);
+        }
+
+        if (tableName == null) {
+            throw new IllegalArgumentException(ErrorMessages.NULL_TABLE_OR_VIEW_NAME_ERROR);
+        }
+
+        Database database = DatabaseRegistry.getDatabase(dbType);
+        return database.getDataWithKeyset(connection, schemaName, tableName, columnList, pageSize, pageToken);
+    }
+
     /**
      * Executes the specified database function with the given parameters.
      *
@@ -571,7 +864,7 @@ public class DBManager {
             throw new IllegalArgumentException(ErrorMessages.NULL_CONNECTION_OR_DB_TYPE_ERROR);
         }
 
-        Database database = new DatabaseFactory().getDatabase(dbType);
+        Database database = DatabaseRegistry.getDatabase(dbType);
         return database.executeFunction(connection, schemaName, functionName, params);
     }
 
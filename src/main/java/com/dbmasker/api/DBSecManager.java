@@ -1,15 +1,36 @@
 package com.dbmasker.api;
 
+import com.dbmasker.data.ColumnBatch;
+import com.dbmasker.data.CompactResult;
+import com.dbmasker.data.Detector;
+import com.dbmasker.data.ExportOptions;
+import com.dbmasker.data.ExportResult;
+import com.dbmasker.data.FetchOptions;
 import com.dbmasker.data.ObfuscationRule;
+import com.dbmasker.data.ScanOptions;
+import com.dbmasker.data.ScanResult;
 import com.dbmasker.data.SensitiveColumn;
+import com.dbmasker.data.TableScanResult;
+import com.dbmasker.database.ConnectionSupplier;
 import com.dbmasker.database.Database;
-import com.dbmasker.database.DatabaseFactory;
+import com.dbmasker.database.DatabaseRegistry;
+import com.dbmasker.database.RowCursor;
+import com.dbmasker.export.MaskedExporter;
+import com.dbmasker.utils.Config;
+import com.dbmasker.utils.CountStrategy;
 import com.dbmasker.utils.ErrorMessages;
+import com.dbmasker.utils.ScanMode;
+import com.dbmasker.utils.ScanStateStore;
 
+import java.io.IOException;
+import java.nio.file.Path;
 import java.sql.Connection;
 import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
+import java.util.function.Consumer;
 
 /**
  * DBSecManager is the main class for the DBMasker's security API.
@@ -53,7 +74,7 @@ public class DBSecManager {
             throw new IllegalArgumentException(ErrorMessages.NULL_OBFUSCATION_RULES_ERROR);
         }
 
-        Database database = new DatabaseFactory().getDatabase(dbType);
+        Database database = DatabaseRegistry.getDatabase(dbType);
         return database.getDataWithMask(connection, schemaName, name, obfuscationRules);
     }
 
@@ -86,10 +107,86 @@ public class DBSecManager {
             throw new IllegalArgumentException(ErrorMessages.NULL_TABLE_OR_VIEW_NAME_ERROR);
         }
 
-        Database database = new DatabaseFactory().getDatabase(dbType);
+        Database database = DatabaseRegistry.getDatabase(dbType);
         return database.getDataWithPage(connection, schemaName, tableName, columnList, pageOffset, pageSize, obfuscationRules);
     }
 
+    /**
+     * This function retrieves data from a table or view in the database. It supports both pagination and selection of specific columns.
+     *
+     * @param connection The database connection object.
+     * @param dbType The type of the database (e.g., "sqlite", "mysql", etc.).
+     * @param schemaName The schema name of the table or view.
+     * @param tableName The name of the table or view.
+     * @param columnList A list of columns to select. If null or empty, all columns will be selected.
+     * @param pageOffset The offset for pagination. If less than or equal to 0, all data will be returned without pagination.
+     * @param pageSize The size of a page for pagination. If less than or equal to 0, all data will be returned without pagination.
+     * @param obfuscationRules A map where the key is the column name and the value is the ObfuscationRule object to apply to that column.
+     * @param countStrategy The strategy used to count the rows of the table to compute the total pages.
+     * @return A Map object containing the retrieved data in 'results', the total pages of data in 'totalPages'
+     *         and the strategy which produced the row count in 'countStrategy' (null when the data is not paginated).
+     * @throws SQLException If a database access error occurs.
+     */
+    public static Map<String, Object> getDataWithPageAndMask(Connection connection, String dbType, String schemaName, String tableName,
+                                                             List<String> columnList, int pageOffset, int pageSize,
+                                                             Map<String, ObfuscationRule> obfuscationRules,
+                                                             CountStrategy countStrategy) throws SQLException {
+        if (connection == null || dbType == null) {
+            throw new IllegalArgumentException(ErrorMessages.NULL_CONNECTION_OR_DB_TYPE_ERROR);
+        }
+
+        if (obfuscationRules == null) {
+            throw new IllegalArgumentException(ErrorMessages.NULL_OBFUSCATION_RULES_ERROR);
+        }
+
+        if (tableName == null) {
+            throw new IllegalArgumentException(ErrorMessages.NULL_TABLE_OR_VIEW_NAME_ERROR);
+        }
+
+        if (countStrategy == null) {
+            throw new IllegalArgumentException(ErrorMessages.NULL_COUNT_STRATEGY_ERROR);
+        }
+
+        Database database = DatabaseRegistry.getDatabase(dbType);
+        return database.getDataWithPage(connection, schemaName, tableName, columnList, pageOffset, pageSize, obfuscationRules, countStrategy);
+    }
+
+    /**
+     * Retrieves a page of data from a table using keyset pagination and applies obfuscation rules to the specified columns.
+     * The pages are ordered by the primary key of the table or, if there is none, by a unique key whose columns are all
+     * not null. Unlike offset pagination, fetching a deep page costs the same as fetching the first one.
+     *
+     * @param connection The database connection object.
+     * @param dbType The type of the database (e.g., "sqlite", "mysql", etc.).
+     * @param schemaName The schema name of the table.
+     * @param tableName The name of the table.
+     * @param columnList A list of columns to select. If null or empty, all columns will be selected.
+     * @param pageSize The size of a page, must be greater than 0.
+     * @param pageToken The token returned with the previous page, or null to fetch the first page.
+     * @param obfuscationRules A map where the key is the column name and the value is the ObfuscationRule object to apply to that column.
+     * @return A Map object containing the retrieved data in 'results' and the token of the next page in 'nextPageToken',
+     *         which is null when the last page has been reached.
+     * @throws SQLException If a database access error occurs or the table has no usable key.
+     */
+    public static Map<String, Object> getDataWithKeysetAndMask(Connection connection, String dbType, String schemaName, String tableName,
+                                                               List<String> columnList, int pageSize, String pageToken,
+                                                               Map<String, ObfuscationRule> obfuscationRules) throws SQLException {
+        if (connection == null || dbType == null) {
+            throw new IllegalArgumentException(ErrorMessages.NULL_CONNECTION_OR_DB_TYPE_ERROR);
+        }
+
+        if (obfuscationRules == null) {
+            throw new IllegalArgumentException(ErrorMessages.NULL_OBFUSCATION_RULES_ERROR);
+        }
+
+        if (tableName == null) {
+            throw new IllegalArgumentException(ErrorMessages.NULL_TABLE_OR_VIEW_NAME_ERROR);
+        }
+
+        Database database = DatabaseRegistry.getDatabase(dbType);
+        return database.getDataWithKeyset(connection, schemaName, tableName, columnList, pageSize, pageToken, obfuscationRules);
+    }
+
     /**
      * Executes a SQL query and returns the results as a list of maps, applies obfuscation rules to the specified columns.
      *
@@ -115,10 +212,284 @@ public class DBSecManager {
             throw new IllegalArgumentException(ErrorMessages.NULL_OBFUSCATION_RULES_ERROR);
         }
 
-        Database database = new DatabaseFactory().getDatabase(dbType);
+        Database database = DatabaseRegistry.getDatabase(dbType);
         return database.execQuerySQLWithMask(connection, sql, obfuscationRules);
     }
 
+    /**
+     * Executes a SQL query and returns the result in a compact form, one shared column header and each row as an
+     * array of values, applies obfuscation rules to the specified columns.
+     *
+     * @param connection The database connection (java.sql.Connection) used to execute the query
+     * @param dbType The type of the database (e.g., "sqlite", "mysql", etc.).
+     * @param sql The SQL query string (String) to be executed
+     * @param obfuscationRules A map where the key is the column name and the value is the ObfuscationRule object to apply to that column.
+     * @return The compact result of the query, which also gives map views of its rows
+     * @throws SQLException if a database access error occurs
+     */
+    public static CompactResult execQueryCompactWithMask(Connection connection, String dbType, String sql,
+                                                         Map<String, ObfuscationRule> obfuscationRules) throws SQLException {
+        if (connection == null || dbType == null) {
+            throw new IllegalArgumentException(ErrorMessages.NULL_CONNECTION_OR_DB_TYPE_ERROR);
+        }
+
+        if (sql == null) {
+            throw new IllegalArgumentException(ErrorMessages.NULL_SQL_ERROR);
+        }
+
+        if (obfuscationRules == null) {
+            throw new IllegalArgumentException(ErrorMessages.NULL_OBFUSCATION_RULES_ERROR);
+        }
+
+        Database database = DatabaseRegistry.getDatabase(dbType);
+        return database.execQueryCompactWithMask(connection, sql, obfuscationRules);
+    }
+
+    /**
+     * Executes a SQL query and hands the result to a callback in columnar batches, applies obfuscation rules to the
+     * specified columns of every batch. Integer, floating point and date columns are read into primitive vectors and
+     * character columns into dictionary-encoded vectors, so rows are read without boxing their values, and
+     * ADD_NOISE and GENERALIZE rules run as loops over the primitive arrays.
+     *
+     * @param connection The database connection (java.sql.Connection) used to execute the query
+     * @param dbType The type of the database (e.g., "sqlite", "mysql", etc.).
+     * @param sql The SQL query string (String) to be executed
+     * @param obfuscationRules A map where the key is the column name and the value is the ObfuscationRule object to apply to that column.
+     * @param batchSize The maximum number of rows of a batch, at least 1
+     * @param callback The callback receiving each batch, a single empty batch when the query returns no row
+     * @return The number of rows read
+     * @throws SQLException if a database access error occurs
+     */
+    public static long execQueryColumnarWithMask(Connection connection, String dbType, String sql,
+                                                 Map<String, ObfuscationRule> obfuscationRules, int batchSize,
+                                                 Consumer<ColumnBatch> callback) throws SQLException {
+        if (connection == null || dbType == null) {
+            throw new IllegalArgumentException(ErrorMessages.NULL_CONNECTION_OR_DB_TYPE_ERROR);
+        }
+
+        if (sql == null) {
+            throw new IllegalArgumentException(ErrorMessages.NULL_SQL_ERROR);
+        }
+
+        if (obfuscationRules == null) {
+            throw new IllegalArgumentException(ErrorMessages.NULL_OBFUSCATION_RULES_ERROR);
+        }
+
+        if (batchSize <= 0) {
+            throw new IllegalArgumentException(ErrorMessages.INVALID_BATCH_SIZE_ERROR);
+        }
+
+        if (callback == null) {
+            throw new IllegalArgumentException(ErrorMessages.NULL_BATCH_CALLBACK_ERROR);
+        }
+
+        Database database = DatabaseRegistry.getDatabase(dbType);
+        return database.execQueryColumnarWithMask(connection, sql, obfuscationRules, batchSize, callback);
+    }
+
+    /**
+     * Executes a batch of independent SQL queries several at a time and returns the results in the order of the
+     * queries, applies obfuscation rules to the specified columns of every result. Each worker runs its queries on
+     * its own connection obtained from the supplier, so that at most {@code parallelism} connections are used at the
+     * same time. The first query which fails stops the batch and cancels the queries still running.
+     *
+     * @param connectionSupplier The supplier of the connections, each connection is closed once the batch is done.
+     * @param dbType The type of the database (e.g., "sqlite", "mysql", etc.).
+     * @param sqlList The list of SQL query strings to be executed, which must all be SELECT queries
+     * @param obfuscationRules A map where the key is the column name and the value is the ObfuscationRule object to apply to that column.
+     * @param parallelism The maximum number of queries executed at the same time, at least 1
+     * @return A list of lists of maps where each inner list represents a query result,
+     *         with each map representing a row in the result set, with keys being column names and values being the corresponding data
+     * @throws SQLException if a query fails or a database access error occurs
+     */
+    public static List<List<Map<String, Object>>> execQuerySQLBatchWithMask(ConnectionSupplier connectionSupplier, String dbType,
+                                                                            List<String> sqlList,
+                                                                            Map<String, ObfuscationRule> obfuscationRules,
+                                                                            int parallelism) throws SQLException {
+        if (connectionSupplier == null) {
+            throw new IllegalArgumentException(ErrorMessages.NULL_CONNECTION_SUPPLIER_ERROR);
+        }
+
+        if (dbType == null) {
+            throw new IllegalArgumentException(ErrorMessages.NULL_CONNECTION_OR_DB_TYPE_ERROR);
+        }
+
+        if (sqlList == null) {
+            throw new IllegalArgumentException(ErrorMessages.NULL_SQL_LIST_ERROR);
+        }
+
+        if (obfuscationRules == null) {
+            throw new IllegalArgumentException(ErrorMessages.NULL_OBFUSCATION_RULES_ERROR);
+        }
+
+        if (parallelism < 1) {
+            throw new IllegalArgumentException(ErrorMessages.INVALID_QUERY_PARALLELISM_ERROR);
+        }
+
+        Database database = DatabaseRegistry.getDatabase(dbType);
+        return database.executeQuerySQLBatch(connectionSupplier, sqlList, obfuscationRules, parallelism);
+    }
+
+
+    /**
+     * Executes a SQL query and returns a cursor which fetches the rows on demand and applies obfuscation rules
+     * to the specified columns as each row is consumed, so that memory use does not grow with the size of the result.
+     * The cursor must be closed by the caller, preferably with try-with-resources.
+     *
+     * @param connection The database connection (java.sql.Connection) used to execute the query
+     * @param dbType The type of the database (e.g., "sqlite", "mysql", etc.).
+     * @param sql The SQL query string (String) to be executed
+     * @param obfuscationRules A map where the key is the column name and the value is the ObfuscationRule object to apply to that column.
+     * @return A cursor over the rows of the query result
+     * @throws SQLException if a database access error occurs
+     */
+    public static RowCursor openCursorWithMask(Connection connection, String dbType, String sql,
+                                               Map<String, ObfuscationRule> obfuscationRules) throws SQLException {
+        return openCursorWithMask(connection, dbType, sql, obfuscationRules, null);
+    }
+
+    /**
+     * Executes a SQL query and returns a cursor which fetches the rows on demand and applies obfuscation rules
+     * to the specified columns as each row is consumed, using the given fetch options instead of the default
+     * fetch strategy of the database. The cursor must be closed by the caller, preferably with try-with-resources.
+     *
+     * @param connection The database connection (java.sql.Connection) used to execute the query
+     * @param dbType The type of the database (e.g., "sqlite", "mysql", etc.).
+     * @param sql The SQL query string (String) to be executed
+     * @param obfuscationRules A map where the key is the column name and the value is the ObfuscationRule object to apply to that column.
+     * @param fetchOptions The options overriding the fetch strategy of the database, or null to use the default strategy.
+     * @return A cursor over the rows of the query result
+     * @throws SQLException if a database access error occurs
+     */
+    public static RowCursor openCursorWithMask(Connection connection, String dbType, String sql,
+                                               Map<String, ObfuscationRule> obfuscationRules,
+                                               FetchOptions fetchOptions) throws SQLException {
+        if (connection == null || dbType == null) {
+            throw new IllegalArgumentException(ErrorMessages.NULL_CONNECTION_OR_DB_TYPE_ERROR);
+        }
+
+        if (sql == null) {
+            throw new IllegalArgumentException(ErrorMessages.NULL_SQL_ERROR);
+        }
+
+        if (obfuscationRules == null) {
+            throw new IllegalArgumentException(ErrorMessages.NULL_OBFUSCATION_RULES_ERROR);
+        }
+
+        Database database = DatabaseRegistry.getDatabase(dbType);
+        return database.openCursor(connection, sql, obfuscationRules, fetchOptions);
+    }
+
+    /**
+     * Fetches table or view data through a cursor which fetches the rows on demand and applies obfuscation rules
+     * to the specified columns as each row is consumed, so that memory use does not grow with the size of the table.
+     * The cursor must be closed by the caller, preferably with try-with-resources.
+     *
+     * @param connection The database connection object.
+     * @param dbType The type of the database (e.g., "sqlite", "mysql", etc.).
+     * @param schemaName The name of the schema where the table is located.
+     * @param name The name of the table or view.
+     * @param obfuscationRules A map where the key is the column name and the value is the ObfuscationRule object to apply to that column.
+     * @return A cursor over the rows of the table or view
+     * @throws SQLException if a database access error occurs
+     */
+    public static RowCursor getDataCursorWithMask(Connection connection, String dbType, String schemaName, String name,
+                                                  Map<String, ObfuscationRule> obfuscationRules) throws SQLException {
+        return getDataCursorWithMask(connection, dbType, schemaName, name, obfuscationRules, null);
+    }
+
+    /**
+     * Fetches table or view data through a cursor which fetches the rows on demand and applies obfuscation rules
+     * to the specified columns as each row is consumed, using the given fetch options instead of the default
+     * fetch strategy of the database. The cursor must be closed by the caller, preferably with try-with-resources.
+     *
+     * @param connection The database connection object.
+     * @param dbType The type of the database (e.g., "sqlite", "mysql", etc.).
+     * @param schemaName The name of the schema where the table is located.
+     * @param name The name of the table or view.
+     * @param obfuscationRules A map where the key is the column name and the value is the ObfuscationRule object to apply to that column.
+     * @param fetchOptions The options overriding the fetch strategy of the database, or null to use the default strategy.
+     * @return A cursor over the rows of the table or view
+     * @throws SQLException if a database access error occurs
+     */
+    public static RowCursor getDataCursorWithMask(Connection connection, String dbType, String schemaName, String name,
+                                                  Map<String, ObfuscationRule> obfuscationRules,
+                                                  FetchOptions fetchOptions) throws SQLException {
+        if (connection == null || dbType == null) {
+            throw new IllegalArgumentException(ErrorMessages.NULL_CONNECTION_OR_DB_TYPE_ERROR);
+        }
+
+        if (name == null) {
+            throw new IllegalArgumentException(ErrorMessages.NULL_TABLE_OR_VIEW_NAME_ERROR);
+        }
+
+        if (obfuscationRules == null) {
+            throw new IllegalArgumentException(ErrorMessages.NULL_OBFUSCATION_RULES_ERROR);
+        }
+
+        Database database = DatabaseRegistry.getDatabase(dbType);
+        return database.openTableCursor(connection, schemaName, name, obfuscationRules, fetchOptions);
+    }
+
+    /**
+     * Executes a SQL query and exports its rows to CSV or JSON Lines files, applying obfuscation rules to the
+     * specified columns. The rows are streamed from a cursor and written through an off-heap buffered FileChannel,
+     * optionally gzip compressed, so the result is never held in memory. The files replace the existing files of
+     * the same names once the export is complete, and when the export fails, the files it has written are deleted.
+     *
+     * @param connection The database connection (java.sql.Connection) used to execute the query
+     * @param dbType The type of the database (e.g., "sqlite", "mysql", etc.).
+     * @param sql The SQL query string (String) to be executed
+     * @param obfuscationRules A map where the key is the column name and the value is the ObfuscationRule object to apply to that column.
+     * @param target The path of the file, or the path the names of the rotated files are derived from.
+     * @param exportOptions The format, compression and rotation of the files, or null for a single CSV file.
+     * @return The files written and the throughput of the export
+     * @throws SQLException if a database access error occurs
+     * @throws IOException if a file cannot be written
+     */
+    public static ExportResult exportQueryWithMask(Connection connection, String dbType, String sql,
+                                                   Map<String, ObfuscationRule> obfuscationRules, Path target,
+                                                   ExportOptions exportOptions) throws SQLException, IOException {
+        if (target == null) {
+            throw new IllegalArgumentException(ErrorMessages.NULL_EXPORT_TARGET_ERROR);
+        }
+
+        ExportOptions options = exportOptions != null ? exportOptions : new ExportOptions();
+        MaskedExporter.validate(options);
+        RowCursor cursor = openCursorWithMask(connection, dbType, sql, obfuscationRules, options.getFetchOptions());
+        return MaskedExporter.export(cursor, target, options);
+    }
+
+    /**
+     * Exports the rows of a table or view to CSV or JSON Lines files, applying obfuscation rules to the specified
+     * columns. The rows are streamed from a cursor and written through an off-heap buffered FileChannel, optionally
+     * gzip compressed, so the table is never held in memory. The files replace the existing files of the same names
+     * once the export is complete, and when the export fails, the files it has written are deleted.
+     *
+     * @param connection The database connection object.
+     * @param dbType The type of the database (e.g., "sqlite", "mysql", etc.).
+     * @param schemaName The name of the schema where the table is located.
+     * @param name The name of the table or view.
+     * @param obfuscationRules A map where the key is the column name and the value is the ObfuscationRule object to apply to that column.
+     * @param target The path of the file, or the path the names of the rotated files are derived from.
+     * @param exportOptions The format, compression and rotation of the files, or null for a single CSV file.
+     * @return The files written and the throughput of the export
+     * @throws SQLException if a database access error occurs
+     * @throws IOException if a file cannot be written
+     */
+    public static ExportResult exportDataWithMask(Connection connection, String dbType, String schemaName, String name,
+                                                  Map<String, ObfuscationRule> obfuscationRules, Path target,
+                                                  ExportOptions exportOptions) throws SQLException, IOException {
+        if (target == null) {
+            throw new IllegalArgumentException(ErrorMessages.NULL_EXPORT_TARGET_ERROR);
+        }
+
+        ExportOptions options = exportOptions != null ? exportOptions : new ExportOptions();
+        MaskedExporter.validate(options);
+        RowCursor cursor = getDataCursorWithMask(connection, dbType, schemaName, name, obfuscationRules,
+                options.getFetchOptions());
+        return MaskedExporter.export(cursor, target, options);
+    }
 
     /**
      * Executes a script of SQL query or update statement, and returns the results as a list of lists of maps.
@@ -149,7 +520,7 @@ public class DBSecManager {
             throw new IllegalArgumentException(ErrorMessages.NULL_OBFUSCATION_RULES_ERROR);
         }
 
-        Database database = new DatabaseFactory().getDatabase(dbType);
+        Database database = DatabaseRegistry.getDatabase(dbType);
         return database.executeSQLScript(connection, sqlScript, obfuscationRules);
     }
 
@@ -180,8 +551,271 @@ public class DBSecManager {
             throw new IllegalArgumentException(ErrorMessages.NULL_REGEX_LIST_ERROR);
         }
 
-        Database database = new DatabaseFactory().getDatabase(dbType);
+        Database database = DatabaseRegistry.getDatabase(dbType);
         return database.scanTableData(connection, schemaName, tableName, regexList);
     }
 
+    /**
+     * Scans a database table or view for sensitive data based on a list of regular expressions, reading a sample
+     * of the table within a row and time budget. The scan stops as soon as every column collected enough matches
+     * for every regular expression, and returns the partial results when a budget is exhausted.
+     *
+     * @param connection  The SQL connection to the database.
+     * @param dbType      The type of the database (e.g., SQLite, MySQL, PostgreSQL).
+     * @param schemaName  The name of the schema where the table is located.
+     * @param tableName   The name of the table or view to scan.
+     * @param regexList   A list of regular expressions used for matching sensitive data.
+     * @param scanOptions The sampling and budget options of the scan.
+     * @return A ScanResult containing the columns which matched sensitive data, the number of rows scanned,
+     *         the duration of the scan and the reason why it stopped.
+     * @throws SQLException if a database access error occurs
+     */
+    public static ScanResult scanTableData(Connection connection, String dbType, String schemaName, String tableName,
+                                           List<String> regexList, ScanOptions scanOptions) throws SQLException {
+        if (connection == null || dbType == null) {
+            throw new IllegalArgumentException(ErrorMessages.NULL_CONNECTION_OR_DB_TYPE_ERROR);
+        }
+
+        if (tableName == null) {
+            throw new IllegalArgumentException(ErrorMessages.NULL_TABLE_OR_VIEW_NAME_ERROR);
+        }
+
+        if (regexList == null) {
+            throw new IllegalArgumentException(ErrorMessages.NULL_REGEX_LIST_ERROR);
+        }
+
+        validateScanOptions(scanOptions);
+
+        Database database = DatabaseRegistry.getDatabase(dbType);
+        return database.scanTableData(connection, schemaName, tableName, regexList, scanOptions);
+    }
+
+    /**
+     * Scans a database table or view for sensitive data with a list of detectors, reading a sample of the table
+     * within a row and time budget. Only the columns eligible for at least one detector, according to their type
+     * and length, are read from the database.
+     *
+     * @param connection  The SQL connection to the database.
+     * @param dbType      The type of the database (e.g., SQLite, MySQL, PostgreSQL).
+     * @param schemaName  The name of the schema where the table is located.
+     * @param tableName   The name of the table or view to scan.
+     * @param detectors   The detectors of sensitive data, with the columns each of them applies to.
+     * @param scanOptions The sampling and budget options of the scan.
+     * @return A ScanResult containing the columns which matched sensitive data, the number of rows scanned,
+     *         the duration of the scan and the reason why it stopped.
+     * @throws SQLException if a database access error occurs
+     */
+    public static ScanResult scanTableWithDetectors(Connection connection, String dbType, String schemaName, String tableName,
+                                                    List<Detector> detectors, ScanOptions scanOptions) throws SQLException {
+        if (connection == null || dbType == null) {
+            throw new IllegalArgumentException(ErrorMessages.NULL_CONNECTION_OR_DB_TYPE_ERROR);
+        }
+
+        if (tableName == null) {
+            throw new IllegalArgumentException(ErrorMessages.NULL_TABLE_OR_VIEW_NAME_ERROR);
+        }
+
+        if (detectors == null) {
+            throw new IllegalArgumentException(ErrorMessages.NULL_DETECTOR_LIST_ERROR);
+        }
+
+        validateScanOptions(scanOptions);
+
+        Database database = DatabaseRegistry.getDatabase(dbType);
+        return database.scanTableWithDetectors(connection, schemaName, tableName, detectors, scanOptions);
+    }
+
+    /**
+     * Scans all the tables and views of a schema for sensitive data, several tables at the same time.
+     * At most Config.getScanParallelism(dbType) tables are scanned at the same time, each on its own connection
+     * obtained from the supplier.
+     *
+     * @param connectionSupplier The supplier of the connections, each connection is closed once the scan is done.
+     * @param dbType             The type of the database (e.g., SQLite, MySQL, PostgreSQL).
+     * @param schemaName         The name of the schema to scan.
+     * @param regexList          A list of regular expressions used for matching sensitive data.
+     * @param scanOptions        The sampling and budget options of each table scan.
+     * @param callback           The callback receiving the outcome of each table as soon as it is scanned, or null.
+     *                           It is called from the scanning threads, but never by two of them at the same time.
+     * @return The outcome of each table, with its sensitive columns or its error and its duration.
+     * @throws SQLException if the tables cannot be listed or a database access error occurs
+     */
+    public static List<TableScanResult> scanSchemaData(ConnectionSupplier connectionSupplier, String dbType, String schemaName,
+                                                       List<String> regexList, ScanOptions scanOptions,
+                                                       Consumer<TableScanResult> callback) throws SQLException {
+        if (regexList == null) {
+            throw new IllegalArgumentException(ErrorMessages.NULL_REGEX_LIST_ERROR);
+        }
+
+        return scanSchemaWithDetectors(connectionSupplier, dbType, schemaName, Detector.of(regexList), scanOptions, callback);
+    }
+
+    /**
+     * Scans all the tables and views of a schema for sensitive data with a list of detectors, several tables at the
+     * same time. At most Config.getScanParallelism(dbType) tables are scanned at the same time, each on its own
+     * connection obtained from the supplier, and only the columns eligible for a detector are read.
+     *
+     * @param connectionSupplier The supplier of the connections, each connection is closed once the scan is done.
+     * @param dbType             The type of the database (e.g., SQLite, MySQL, PostgreSQL).
+     * @param schemaName         The name of the schema to scan.
+     * @param detectors          The detectors of sensitive data, with the columns each of them applies to.
+     * @param scanOptions        The sampling and budget options of each table scan.
+     * @param callback           The callback receiving the outcome of each table as soon as it is scanned, or null.
+     *                           It is called from the scanning threads, but never by two of them at the same time.
+     * @return The outcome of each table, with its sensitive columns or its error and its duration.
+     * @throws SQLException if the tables cannot be listed or a database access error occurs
+     */
+    public static List<TableScanResult> scanSchemaWithDetectors(ConnectionSupplier connectionSupplier, String dbType,
+                                                                String schemaName, List<Detector> detectors,
+                                                                ScanOptions scanOptions,
+                                                                Consumer<TableScanResult> callback) throws SQLException {
+        validateSchemaScan(connectionSupplier, dbType, detectors, scanOptions);
+
+        Database database = DatabaseRegistry.getDatabase(dbType);
+        return database.scanSchemaData(connectionSupplier, Collections.singletonList(schemaName), detectors, scanOptions,
+                Config.getInstance().getScanParallelism(dbType), callback);
+    }
+
+    /**
+     * Scans all the tables and views of all the schemas of a database for sensitive data, several tables at the same time.
+     * At most Config.getScanParallelism(dbType) tables are scanned at the same time, each on its own connection
+     * obtained from the supplier. Databases without schemas are scanned in their default schema.
+     *
+     * @param connectionSupplier The supplier of the connections, each connection is closed once the scan is done.
+     * @param dbType             The type of the database (e.g., SQLite, MySQL, PostgreSQL).
+     * @param regexList          A list of regular expressions used for matching sensitive data.
+     * @param scanOptions        The sampling and budget options of each table scan.
+     * @param callback           The callback receiving the outcome of each table as soon as it is scanned, or null.
+     *                           It is called from the scanning threads, but never by two of them at the same time.
+     * @return The outcome of each table, with its sensitive columns or its error and its duration.
+     * @throws SQLException if the schemas or tables cannot be listed or a database access error occurs
+     */
+    public static List<TableScanResult> scanDatabaseData(ConnectionSupplier connectionSupplier, String dbType,
+                                                         List<String> regexList, ScanOptions scanOptions,
+                                                         Consumer<TableScanResult> callback) throws SQLException {
+        if (regexList == null) {
+            throw new IllegalArgumentException(ErrorMessages.NULL_REGEX_LIST_ERROR);
+        }
+
+        return scanDatabaseWithDetectors(connectionSupplier, dbType, Detector.of(regexList), scanOptions, callback);
+    }
+
+    /**
+     * Scans all the tables and views of all the schemas of a database for sensitive data with a list of detectors,
+     * several tables at the same time. At most Config.getScanParallelism(dbType) tables are scanned at the same time,
+     * each on its own connection obtained from the supplier. Databases without schemas are scanned in their default schema.
+     *
+     * @param connectionSupplier The supplier of the connections, each connection is closed once the scan is done.
+     * @param dbType             The type of the database (e.g., SQLite, MySQL, PostgreSQL).
+     * @param detectors          The detectors of sensitive data, with the columns each of them applies to.
+     * @param scanOptions        The sampling and budget options of each table scan.
+     * @param callback           The callback receiving the outcome of each table as soon as it is scanned, or null.
+     *                           It is called from the scanning threads, but never by two of them at the same time.
+     * @return The outcome of each table, with its sensitive columns or its error and its duration.
+     * @throws SQLException if the schemas or tables cannot be listed or a database access error occurs
+     */
+    public static List<TableScanResult> scanDatabaseWithDetectors(ConnectionSupplier connectionSupplier, String dbType,
+                                                                  List<Detector> detectors, ScanOptions scanOptions,
+                                                                  Consumer<TableScanResult> callback) throws SQLException {
+        validateSchemaScan(connectionSupplier, dbType, detectors, scanOptions);
+
+        Database database = DatabaseRegistry.getDatabase(dbType);
+        List<String> schemaNames;
+        try (Connection connection = connectionSupplier.getConnection()) {
+            if (connection == null) {
+                throw new SQLException(ErrorMessages.NULL_SUPPLIED_CONNECTION_ERROR);
+            }
+            schemaNames = database.getSchemas(connection);
+        } catch (SQLFeatureNotSupportedException e) {
+            schemaNames = Collections.singletonList(null);
+        }
+        return database.scanSchemaData(connectionSupplier, schemaNames, detectors, scanOptions,
+                Config.getInstance().getScanParallelism(dbType), callback);
+    }
+
+    /**
+     * Scans all the tables and views of a schema for sensitive data incrementally, several tables at the same time.
+     * Tables whose fingerprint did not change since their last scan recorded in the store are skipped, tables which
+     * only grew are scanned past their watermark and merged with the previous results, and the other tables are
+     * scanned entirely. The new fingerprints are recorded in the store, call {@link ScanStateStore#save()} to
+     * persist them. The store file keeps no matched values, so a table skipped after the store was loaded from its
+     * file reports its sensitive columns without match data. On the databases without a usable modification stamp,
+     * such as DM, every table is scanned entirely, see {@link ScanMode#FULL}.
+     *
+     * @param connectionSupplier The supplier of the connections, each connection is closed once the scan is done.
+     * @param dbType             The type of the database (e.g., SQLite, MySQL, PostgreSQL).
+     * @param schemaName         The name of the schema to scan.
+     * @param detectors          The detectors of sensitive data, with the columns each of them applies to.
+     * @param scanOptions        The sampling and budget options of each table scan.
+     * @param stateStore         The store of the fingerprints of the previous scans, see {@link ScanStateStore#load}.
+     * @param callback           The callback receiving the outcome of each table as soon as it is scanned, or null.
+     *                           It is called from the scanning threads, but never by two of them at the same time.
+     * @return The outcome of each table, with its sensitive columns or its error, its duration and how it was scanned.
+     * @throws SQLException if the tables cannot be listed or a database access error occurs
+     */
+    public static List<TableScanResult> scanSchemaIncremental(ConnectionSupplier connectionSupplier, String dbType,
+                                                              String schemaName, List<Detector> detectors,
+                                                              ScanOptions scanOptions, ScanStateStore stateStore,
+                                                              Consumer<TableScanResult> callback) throws SQLException {
+        validateSchemaScan(connectionSupplier, dbType, detectors, scanOptions);
+
+        if (stateStore == null) {
+            throw new IllegalArgumentException(ErrorMessages.NULL_SCAN_STATE_STORE_ERROR);
+        }
+
+        Database database = DatabaseRegistry.getDatabase(dbType);
+        return database.scanSchemaIncremental(connectionSupplier, Collections.singletonList(schemaName), detectors,
+                scanOptions, Config.getInstance().getScanParallelism(dbType), stateStore, callback);
+    }
+
+    /**
+     * Validates the arguments of a schema or database scan.
+     *
+     * @param connectionSupplier The supplier of the connections.
+     * @param dbType             The type of the database.
+     * @param detectors          The detectors of sensitive data.
+     * @param scanOptions        The sampling and budget options of each table scan.
+     * @throws IllegalArgumentException if an argument is invalid
+     */
+    private static void validateSchemaScan(ConnectionSupplier connectionSupplier, String dbType, List<Detector> detectors,
+                                           ScanOptions scanOptions) {
+        if (connectionSupplier == null) {
+            throw new IllegalArgumentException(ErrorMessages.NULL_CONNECTION_SUPPLIER_ERROR);
+        }
+
+        if (dbType == null) {
+            throw new IllegalArgumentException(ErrorMessages.NULL_CONNECTION_OR_DB_TYPE_ERROR);
+        }
+
+        if (detectors == null) {
+            throw new IllegalArgumentException(ErrorMessages.NULL_DETECTOR_LIST_ERROR);
+        }
+
+        validateScanOptions(scanOptions);
+
+        if (Config.getInstance().getScanParallelism(dbType) < 1) {
+            throw new IllegalArgumentException(ErrorMessages.INVALID_SCAN_PARALLELISM_ERROR);
+        }
+    }
+
+    /**
+     * Validates the sampling and budget options of a scan.
+     *
+     * @param scanOptions The sampling and budget options of the scan.
+     * @throws IllegalArgumentException if the options are null or invalid
+     */
+    private static void validateScanOptions(ScanOptions scanOptions) {
+        if (scanOptions == null) {
+            throw new IllegalArgumentException(ErrorMessages.NULL_SCAN_OPTIONS_ERROR);
+        }
+
+        if (!(scanOptions.getSamplePercent() > 0 && scanOptions.getSamplePercent() <= 100)) {
+            throw new IllegalArgumentException(ErrorMessages.INVALID_SAMPLE_PERCENT_ERROR);
+        }
+
+        if (scanOptions.getMaxRows() < 0 || scanOptions.getMaxMillis() < 0) {
+            throw new IllegalArgumentException(ErrorMessages.INVALID_SCAN_BUDGET_ERROR);
+        }
+    }
+
 }
@@ -0,0 +1,217 @@
+package com.dbmasker.api;
+
+import com.dbmasker.database.Database;
+import com.dbmasker.database.DatabaseRegistry;
+import com.dbmasker.database.MetadataCache;
+import com.dbmasker.database.StatementCache;
+import com.dbmasker.dialect.Dialect;
+import com.dbmasker.utils.ErrorMessages;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * A session binds a connection to the Database and Dialect of its database type, resolved once through the
+ * {@link DatabaseRegistry}, so that repeated operations on the same connection skip the type lookup and the
+ * argument checks of the static managers.
+ * <p>
+ * Table metadata is read through the {@link MetadataCache}, enabled with Config.setMetadataCacheTtl. The session
+ * does not own its connection, which the caller closes.
+ */
+public class DBSession {
+
+    private final Connection connection; // The connection of the session
+    private final String dbType; // The type of the database of the connection
+    private final Database database; // The Database implementation of the type
+    private final Dialect dialect; // The Dialect implementation of the type, null if the type has none
+
+    /**
+     * Constructor for DBSession.
+     *
+     * @param connection The connection of the session.
+     * @param dbType     The type of the database of the connection.
+     * @param database   The Database implementation of the type.
+     * @param dialect    The Dialect implementation of the type, null if the type has none.
+     */
+    private DBSession(Connection connection, String dbType, Database database, Dialect dialect) {
+        this.connection = connection;
+        this.dbType = dbType;
+        this.database = database;
+        this.dialect = dialect;
+    }
+
+    /**
+     * Opens a session on a connection.
+     *
+     * @param connection A valid database connection.
+     * @param dbType     The type of the database (e.g., "sqlite", "mysql", etc.).
+     * @return the session.
+     * @throws IllegalArgumentException      if the connection or the database type is null.
+     * @throws UnsupportedOperationException if the database type is not supported.
+     */
+    public static DBSession open(Connection connection, String dbType) {
+        if (connection == null || dbType == null) {
+            throw new IllegalArgumentException(ErrorMessages.NULL_CONNECTION_OR_DB_TYPE_ERROR);
+        }
+
+        Database database = DatabaseRegistry.getDatabase(dbType);
+        Dialect dialect;
+        try {
+            dialect = DatabaseRegistry.getDialect(dbType);
+        } catch (UnsupportedOperationException e) {
+            // Some databases, such as ElasticSearch, have no dialect
+            dialect = null;
+        }
+        return new DBSession(connection, dbType, database, dialect);
+    }
+
+    /**
+     * Getter for the connection of the session.
+     *
+     * @return the connection.
+     */
+    public Connection getConnection() {
+        return connection;
+    }
+
+    /**
+     * Getter for the type of the database of the session.
+     *
+     * @return the database type.
+     */
+    public String getDbType() {
+        return dbType;
+    }
+
+    /**
+     * Getter for the Database implementation of the session.
+     *
+     * @return the Database instance.
+     */
+    public Database getDatabase() {
+        return database;
+    }
+
+    /**
+     * Getter for the Dialect implementation of the session.
+     *
+     * @return the Dialect instance.
+     * @throws UnsupportedOperationException if the database type has no dialect.
+     */
+    public Dialect getDialect() {
+        if (dialect == null) {
+            throw new UnsupportedOperationException(ErrorMessages.UNSUPPORTED_DATABASE_TYPE_ERROR + dbType);
+        }
+        return dialect;
+    }
+
+    /**
+     * Retrieves the column types of a table, through the metadata cache.
+     *
+     * @param schemaName The name of the schema where the table is located.
+     * @param tableName  The name of the table.
+     * @return a map where the keys are the lowercase column names and the values are the data types.
+     * @throws SQLException if a database access error occurs
+     */
+    public Map<String, String> getColumnTypes(String schemaName, String tableName) throws SQLException {
+        return MetadataCache.getColumnTypes(database, connection, schemaName, tableName);
+    }
+
+    /**
+     * Retrieves the primary keys of a table, through the metadata cache.
+     *
+     * @param schemaName The name of the schema where the table is located.
+     * @param tableName  The name of the table.
+     * @return the primary key column names of the table.
+     * @throws SQLException if a database access error occurs
+     */
+    public Set<String> getPrimaryKeys(String schemaName, String tableName) throws SQLException {
+        return MetadataCache.getPrimaryKeys(database, connection, schemaName, tableName);
+    }
+
+    /**
+     * Retrieves the unique keys of a table, through the metadata cache.
+     *
+     * @param schemaName The name of the schema where the table is located.
+     * @param tableName  The name of the table.
+     * @return a map where the key is the unique key name and the value is the set of its column names.
+     * @throws SQLException if a database access error occurs
+     */
+    public Map<String, Set<String>> getUniqueKeys(String schemaName, String tableName) throws SQLException {
+        return MetadataCache.getUniqueKeys(database, connection, schemaName, tableName);
+    }
+
+    /**
+     * Removes the cached metadata of a table and the cached statements of the connection, so that the new structure
+     * of the table is read after it was altered.
+     *
+     * @param schemaName The name of the schema where the table is located.
+     * @param tableName  The name of the table.
+     * @throws SQLException if a database access error occurs
+     */
+    public void invalidateMetadata(String schemaName, String tableName) throws SQLException {
+        MetadataCache.invalidate(connection, schemaName, tableName);
+        StatementCache.clear(connection);
+    }
+
+    /**
+     * Executes a query or update SQL statement on the connection of the session.
+     *
+     * @param sql The SQL statement to execute.
+     * @return the rows of a query, or a single row with the key "rows" holding the update count.
+     * @throws SQLException if a database access error occurs
+     */
+    public List<Map<String, Object>> executeSQL(String sql) throws SQLException {
+        if (sql == null) {
+            throw new IllegalArgumentException(ErrorMessages.NULL_SQL_ERROR);
+        }
+        return database.executeSQL(connection, sql);
+    }
+
+    /**
+     * Generates a SQL INSERT statement for the given data.
+     *
+     * @param schemaName The name of the schema where the table is located. If null or empty, the schema name is not included in the SQL.
+     * @param tableName  The name of the table where the data should be inserted.
+     * @param data       A map containing the data to be inserted, keyed by column.
+     * @return A string representing the SQL INSERT statement.
+     * @throws SQLException if a database access error occurs
+     */
+    public String generateInsertSql(String schemaName, String tableName, Map<String, Object> data) throws SQLException {
+        return getDialect().generateInsertSql(connection, schemaName, tableName, data, dbType);
+    }
+
+    /**
+     * Generates a SQL UPDATE statement for the given data.
+     *
+     * @param schemaName          The name of the schema where the table is located.
+     * @param tableName           The name of the table to update.
+     * @param setData             A map containing the columns to update and their new values.
+     * @param condition           A map containing the conditions of the update.
+     * @param filteredByUniqueKey Whether to reduce the condition to a unique key of the table.
+     * @return A string representing the SQL UPDATE statement, or null if setData or condition is empty.
+     * @throws SQLException if a database access error occurs
+     */
+    public String generateUpdateSql(String schemaName, String tableName, Map<String, Object> setData,
+                                    Map<String, Object> condition, boolean filteredByUniqueKey) throws SQLException {
+        return getDialect().generateUpdateSql(connection, dbType, schemaName, tableName, setData, condition, filteredByUniqueKey);
+    }
+
+    /**
+     * Generates a SQL DELETE statement for the given condition.
+     *
+     * @param schemaName          The name of the schema where the table is located.
+     * @param tableName           The name of the table to delete from.
+     * @param condition           A map containing the conditions of the delete.
+     * @param filteredByUniqueKey Whether to reduce the condition to a unique key of the table.
+     * @return A string representing the SQL DELETE statement, or null if condition is empty.
+     * @throws SQLException if a database access error occurs
+     */
+    public String generateDeleteSql(String schemaName, String tableName, Map<String, Object> condition,
+                                    boolean filteredByUniqueKey) throws SQLException {
+        return getDialect().generateDeleteSql(connection, dbType, schemaName, tableName, condition, filteredByUniqueKey);
+    }
+}
@@ -0,0 +1,95 @@
+package com.dbmasker.data;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * This class represents the outcome of refreshing a catalog snapshot: the refreshed snapshot, the tables which were
+ * reloaded or removed, and the definition stamps to keep for the next refresh.
+ */
+public class CatalogRefresh {
+
+    private final CatalogSnapshot snapshot; // The refreshed snapshot, the previous one if nothing changed
+    private final List<String> addedTables; // The tables created since the previous snapshot
+    private final List<String> changedTables; // The tables whose definition changed since the previous snapshot
+    private final List<String> removedTables; // The tables dropped since the previous snapshot
+    private final Map<String, String> tableStamps; // The current definition stamps, null if the database has none
+
+    /**
+     * Constructor for the CatalogRefresh class.
+     *
+     * @param snapshot      The refreshed snapshot, the previous one if nothing changed.
+     * @param addedTables   The tables created since the previous snapshot.
+     * @param changedTables The tables whose definition changed since the previous snapshot.
+     * @param removedTables The tables dropped since the previous snapshot.
+     * @param tableStamps   The current definition stamps, null if the database has none.
+     */
+    public CatalogRefresh(CatalogSnapshot snapshot, List<String> addedTables, List<String> changedTables,
+                          List<String> removedTables, Map<String, String> tableStamps) {
+        this.snapshot = snapshot;
+        this.addedTables = addedTables;
+        this.changedTables = changedTables;
+        this.removedTables = removedTables;
+        this.tableStamps = tableStamps;
+    }
+
+    /**
+     Getter for the refreshed snapshot.
+     @return the refreshed snapshot, the previous one if nothing changed.
+     */
+    public CatalogSnapshot getSnapshot() {
+        return snapshot;
+    }
+
+    /**
+     Getter for the tables created since the previous snapshot.
+     @return the added tables.
+     */
+    public List<String> getAddedTables() {
+        return new ArrayList<>(addedTables);
+    }
+
+    /**
+     Getter for the tables whose definition changed since the previous snapshot.
+     @return the changed tables.
+     */
+    public List<String> getChangedTables() {
+        return new ArrayList<>(changedTables);
+    }
+
+    /**
+     Getter for the tables dropped since the previous snapshot.
+     @return the removed tables.
+     */
+    public List<String> getRemovedTables() {
+        return new ArrayList<>(removedTables);
+    }
+
+    /**
+     Getter for the current definition stamps of the tables.
+     @return the stamp of each table keyed by table name, or null if the database has no stamps.
+     */
+    public Map<String, String> getTableStamps() {
+        return tableStamps == null ? null : new LinkedHashMap<>(tableStamps);
+    }
+
+    /**
+     * Returns whether any table was added, changed or removed.
+     *
+     * @return true if the refreshed snapshot differs from the previous one, false otherwise.
+     */
+    public boolean hasChanges() {
+        return !addedTables.isEmpty() || !changedTables.isEmpty() || !removedTables.isEmpty();
+    }
+
+    @Override
+    public String toString() {
+        return "CatalogRefresh{" +
+                "addedTables=" + addedTables +
+                ", changedTables=" + changedTables +
+                ", removedTables=" + removedTables +
+                '}';
+    }
+}
@@ -0,0 +1,249 @@
+package com.dbmasker.data;
+
+import java.util.*;
+
+/**
+ * This class represents the catalog of a schema loaded at once: the tables with their columns, primary keys,
+ * unique keys and indexes, grouped by table in memory.
+ * <p>
+ * A snapshot is loaded with one query per kind of catalog object instead of a few queries per table, and then
+ * answers the per-table metadata lookups without any round trip to the database. A snapshot may also hold the
+ * functions of the schema, when it is kept by a CatalogSnapshotStore.
+ */
+public class CatalogSnapshot {
+
+    private final String schemaName; // The name of the schema of the snapshot
+    private final long loadTime; // The time the snapshot was loaded, in milliseconds since the epoch
+    private final Map<String, List<TableAttribute>> tableAttributes = new LinkedHashMap<>(); // The columns of each table
+    private final Map<String, List<TableMetaData>> tableMetaData = new HashMap<>(); // The column metadata of each table
+    private final Map<String, Map<String, Set<String>>> tableUniqueKeys = new HashMap<>(); // The unique keys of each table
+    private final Map<String, List<TableIndex>> tableIndexes = new HashMap<>(); // The indexes of each table
+    private final List<DatabaseFunction> functions = new ArrayList<>(); // The functions of the schema
+
+    /**
+     * Constructor for the CatalogSnapshot class.
+     *
+     * @param schemaName The name of the schema of the snapshot.
+     * @param loadTime   The time the snapshot was loaded, in milliseconds since the epoch.
+     */
+    public CatalogSnapshot(String schemaName, long loadTime) {
+        this.schemaName = schemaName;
+        this.loadTime = loadTime;
+    }
+
+    /**
+     Getter for the schemaName character.
+     @return the schemaName character.
+     */
+    public String getSchemaName() {
+        return schemaName;
+    }
+
+    /**
+     Getter for the time the snapshot was loaded.
+     @return the load time, in milliseconds since the epoch.
+     */
+    public long getLoadTime() {
+        return loadTime;
+    }
+
+    /**
+     * Adds a table to the snapshot, without columns nor keys. Adding a table again has no effect.
+     *
+     * @param tableName The name of the table.
+     */
+    public void addTable(String tableName) {
+        tableAttributes.computeIfAbsent(tableName, k -> new ArrayList<>());
+        tableMetaData.computeIfAbsent(tableName, k -> new ArrayList<>());
+        tableUniqueKeys.computeIfAbsent(tableName, k -> new HashMap<>());
+        tableIndexes.computeIfAbsent(tableName, k -> new ArrayList<>());
+    }
+
+    /**
+     * Removes a table from the snapshot.
+     *
+     * @param tableName The name of the table.
+     */
+    public void removeTable(String tableName) {
+        tableAttributes.remove(tableName);
+        tableMetaData.remove(tableName);
+        tableUniqueKeys.remove(tableName);
+        tableIndexes.remove(tableName);
+    }
+
+    /**
+     * Adds a column to a table of the snapshot.
+     *
+     * @param tableName The name of the table, added to the snapshot if needed.
+     * @param attribute The attributes of the column.
+     * @param metaData  The metadata of the column.
+     */
+    public void addColumn(String tableName, TableAttribute attribute, TableMetaData metaData) {
+        addTable(tableName);
+        tableAttributes.get(tableName).add(attribute);
+        tableMetaData.get(tableName).add(metaData);
+    }
+
+    /**
+     * Adds a column of a unique key to a table of the snapshot.
+     *
+     * @param tableName  The name of the table, added to the snapshot if needed.
+     * @param keyName    The name of the unique key.
+     * @param columnName The name of the column.
+     */
+    public void addUniqueKeyColumn(String tableName, String keyName, String columnName) {
+        addTable(tableName);
+        tableUniqueKeys.get(tableName).computeIfAbsent(keyName, k -> new HashSet<>()).add(columnName);
+    }
+
+    /**
+     * Adds a column of an index to a table of the snapshot.
+     *
+     * @param tableName The name of the table, added to the snapshot if needed.
+     * @param index     The index and its column.
+     */
+    public void addIndex(String tableName, TableIndex index) {
+        addTable(tableName);
+        tableIndexes.get(tableName).add(index);
+    }
+
+    /**
+     * Adds a table of another snapshot to the snapshot, with its columns, unique keys and indexes, replacing the
+     * table if it was already in the snapshot.
+     *
+     * @param source    The snapshot holding the table.
+     * @param tableName The name of the table.
+     */
+    public void copyTable(CatalogSnapshot source, String tableName) {
+        removeTable(tableName);
+        addTable(tableName);
+        tableAttributes.get(tableName).addAll(source.tableAttributes.getOrDefault(tableName, Collections.emptyList()));
+        tableMetaData.get(tableName).addAll(source.tableMetaData.getOrDefault(tableName, Collections.emptyList()));
+        source.tableUniqueKeys.getOrDefault(tableName, Collections.emptyMap())
+                .forEach((keyName, columns) -> tableUniqueKeys.get(tableName).put(keyName, new HashSet<>(columns)));
+        tableIndexes.get(tableName).addAll(source.tableIndexes.getOrDefault(tableName, Collections.emptyList()));
+    }
+
+    /**
+     * Adds a function of the schema to the snapshot.
+     *
+     * @param function The function.
+     */
+    public void addFunction(DatabaseFunction function) {
+        functions.add(function);
+    }
+
+    /**
+     * Returns the names of the tables of the snapshot.
+     *
+     * @return the table names, in the order they were listed.
+     */
+    public List<String> getTableNames() {
+        return new ArrayList<>(tableAttributes.keySet());
+    }
+
+    /**
+     * Returns whether a table is part of the snapshot.
+     *
+     * @param tableName The name of the table.
+     * @return true if the table is in the snapshot, false otherwise.
+     */
+    public boolean containsTable(String tableName) {
+        return tableAttributes.containsKey(tableName);
+    }
+
+    /**
+     * Returns the attributes of the columns of a table, as returned by Database.getTableAttribute.
+     *
+     * @param tableName The name of the table.
+     * @return the attributes of the columns, or an empty list if the table is not in the snapshot.
+     */
+    public List<TableAttribute> getTableAttributes(String tableName) {
+        return new ArrayList<>(tableAttributes.getOrDefault(tableName, Collections.emptyList()));
+    }
+
+    /**
+     * Returns the types of the columns of a table, as returned by Database.getColumnTypes.
+     *
+     * @param tableName The name of the table.
+     * @return the type of each column, keyed by the lower case column name.
+     */
+    public Map<String, String> getColumnTypes(String tableName) {
+        Map<String, String> columnTypes = new HashMap<>();
+        for (TableAttribute attribute : tableAttributes.getOrDefault(tableName, Collections.emptyList())) {
+            columnTypes.put(attribute.getName().toLowerCase(), attribute.getTypeName());
+        }
+        return columnTypes;
+    }
+
+    /**
+     * Returns the primary key columns of a table.
+     *
+     * @param tableName The name of the table.
+     * @return the primary key columns, empty if the table has no primary key or is not in the snapshot.
+     */
+    public Set<String> getPrimaryKeys(String tableName) {
+        Set<String> primaryKeys = new HashSet<>();
+        for (TableAttribute attribute : tableAttributes.getOrDefault(tableName, Collections.emptyList())) {
+            if (attribute.isPrimaryKey()) {
+                primaryKeys.add(attribute.getName());
+            }
+        }
+        return primaryKeys;
+    }
+
+    /**
+     * Returns the unique keys of a table, as returned by Database.getUniqueKeys.
+     *
+     * @param tableName The name of the table.
+     * @return the columns of each unique key, keyed by the key name.
+     */
+    public Map<String, Set<String>> getUniqueKeys(String tableName) {
+        Map<String, Set<String>> uniqueKeys = new HashMap<>();
+        tableUniqueKeys.getOrDefault(tableName, Collections.emptyMap())
+                .forEach((keyName, columns) -> uniqueKeys.put(keyName, new HashSet<>(columns)));
+        return uniqueKeys;
+    }
+
+    /**
+     * Returns the indexes of a table, as returned by Database.getIndex.
+     *
+     * @param tableName The name of the table.
+     * @return one entry per column of each index.
+     */
+    public List<TableIndex> getIndexes(String tableName) {
+        return new ArrayList<>(tableIndexes.getOrDefault(tableName, Collections.emptyList()));
+    }
+
+    /**
+     * Returns the column metadata of all the tables, as returned by Database.getMetaData.
+     *
+     * @return one entry per column, grouped by table in the order the tables were listed.
+     */
+    public List<TableMetaData> getMetaData() {
+        List<TableMetaData> metaDataList = new ArrayList<>();
+        for (String tableName : tableAttributes.keySet()) {
+            metaDataList.addAll(tableMetaData.get(tableName));
+        }
+        return metaDataList;
+    }
+
+    /**
+     * Returns the column metadata of a table.
+     *
+     * @param tableName The name of the table.
+     * @return one entry per column, in the same order as getTableAttributes.
+     */
+    public List<TableMetaData> getMetaData(String tableName) {
+        return new ArrayList<>(tableMetaData.getOrDefault(tableName, Collections.emptyList()));
+    }
+
+    /**
+     * Returns the functions of the schema, as returned by Database.getFuncs.
+     *
+     * @return the functions, empty if they were not added to the snapshot.
+     */
+    public List<DatabaseFunction> getFunctions() {
+        return new ArrayList<>(functions);
+    }
+}
@@ -0,0 +1,114 @@
+package com.dbmasker.data;
+
+import com.dbmasker.utils.ErrorMessages;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * This class represents a batch of rows of a query result stored column by column: one shared {@link ColumnHeader}
+ * and one {@link ColumnVector} per column. Integer, floating point and date columns are held in primitive arrays
+ * with a null bitmap, and character columns are dictionary-encoded, so reading a batch boxes no values.
+ */
+public class ColumnBatch {
+
+    private final ColumnHeader header; // The columns of the batch
+    private final ColumnVector[] vectors; // The values of each column, in the order of the columns
+    private final int rowCount; // The number of rows of the batch
+
+    /**
+     * Constructor for the ColumnBatch class.
+     *
+     * @param header   The columns of the batch.
+     * @param vectors  The values of each column, in the order of the columns, which must all hold the same
+     *                 number of values. The array is kept, not copied.
+     * @param rowCount The number of rows of the batch.
+     * @throws IllegalArgumentException if there is not one vector of rowCount values per column
+     */
+    public ColumnBatch(ColumnHeader header, ColumnVector[] vectors, int rowCount) {
+        if (vectors.length != header.getColumnCount()) {
+            throw new IllegalArgumentException(ErrorMessages.BATCH_VECTOR_MISMATCH_ERROR);
+        }
+        for (ColumnVector vector : vectors) {
+            if (vector.size() != rowCount) {
+                throw new IllegalArgumentException(ErrorMessages.BATCH_VECTOR_MISMATCH_ERROR);
+            }
+        }
+        this.header = header;
+        this.vectors = vectors;
+        this.rowCount = rowCount;
+    }
+
+    /**
+     Getter for the columns of the batch.
+     @return the column header.
+     */
+    public ColumnHeader getHeader() {
+        return header;
+    }
+
+    /**
+     * Returns the number of rows of the batch.
+     *
+     * @return the number of rows.
+     */
+    public int getRowCount() {
+        return rowCount;
+    }
+
+    /**
+     * Returns the number of columns of the batch.
+     *
+     * @return the number of columns.
+     */
+    public int getColumnCount() {
+        return vectors.length;
+    }
+
+    /**
+     * Returns the values of a column.
+     *
+     * @param column The index of the column, starting at 0.
+     * @return the vector holding the values of the column.
+     */
+    public ColumnVector getVector(int column) {
+        return vectors[column];
+    }
+
+    /**
+     * Returns the values of a column. When several columns have the same label, the last one is returned, as in
+     * the maps of the other query operations.
+     *
+     * @param label The label of the column.
+     * @return the vector holding the values of the column.
+     * @throws IllegalArgumentException if no column has the label
+     */
+    public ColumnVector getVector(String label) {
+        int column = header.indexOf(label);
+        if (column < 0) {
+            throw new IllegalArgumentException(ErrorMessages.COLUMN_NOT_IN_BATCH_ERROR + label);
+        }
+        return vectors[column];
+    }
+
+    /**
+     * Returns the vectors of the batch, in the order of the columns.
+     *
+     * @return an unmodifiable list of the vectors.
+     */
+    public List<ColumnVector> getVectors() {
+        return Collections.unmodifiableList(Arrays.asList(vectors));
+    }
+
+    /**
+     * Returns a value of the batch as an object, boxing primitive values.
+     *
+     * @param row    The index of the row, starting at 0.
+     * @param column The index of the column, starting at 0.
+     * @return the value, or null if the value is null.
+     */
+    public Object getValue(int row, int column) {
+        return vectors[column].getObject(row);
+    }
+}
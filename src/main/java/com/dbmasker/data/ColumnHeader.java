@@ -0,0 +1,132 @@
+package com.dbmasker.data;
+
+import com.dbmasker.utils.ErrorMessages;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * This class represents the columns of a query result: their labels, JDBC types and type names, in the order of
+ * the query. A header is immutable, and shared by all the rows of a {@link CompactResult} instead of repeating the
+ * column labels in every row.
+ */
+public class ColumnHeader {
+
+    private final String[] columnLabels; // The label of each column
+    private final int[] columnTypes; // The java.sql.Types code of each column
+    private final String[] columnTypeNames; // The database type name of each column, null if the driver has none
+    private final Map<String, Integer> columnIndexes; // The index of each label, the last column wins for duplicate labels
+    private final int[] visibleColumns; // The columns not shadowed by a later column with the same label
+
+    /**
+     * Constructor for the ColumnHeader class.
+     *
+     * @param columnLabels    The label of each column, indexed from 0.
+     * @param columnTypes     The java.sql.Types code of each column, indexed from 0.
+     * @param columnTypeNames The database type name of each column, indexed from 0.
+     * @throws IllegalArgumentException if the arrays do not have the same length
+     */
+    public ColumnHeader(String[] columnLabels, int[] columnTypes, String[] columnTypeNames) {
+        if (columnLabels.length != columnTypes.length || columnLabels.length != columnTypeNames.length) {
+            throw new IllegalArgumentException(ErrorMessages.COLUMN_HEADER_LENGTH_ERROR);
+        }
+        this.columnLabels = columnLabels.clone();
+        this.columnTypes = columnTypes.clone();
+        this.columnTypeNames = columnTypeNames.clone();
+
+        columnIndexes = new HashMap<>(columnLabels.length * 2);
+        for (int i = 0; i < columnLabels.length; i++) {
+            columnIndexes.put(columnLabels[i], i);
+        }
+        visibleColumns = new int[columnIndexes.size()];
+        int count = 0;
+        for (int i = 0; i < columnLabels.length; i++) {
+            if (columnIndexes.get(columnLabels[i]) == i) {
+                visibleColumns[count++] = i;
+            }
+        }
+    }
+
+    /**
+     * Returns the number of columns.
+     *
+     * @return the number of columns.
+     */
+    public int getColumnCount() {
+        return columnLabels.length;
+    }
+
+    /**
+     * Returns the label of a column.
+     *
+     * @param index The index of the column, starting at 0.
+     * @return the label of the column.
+     */
+    public String getColumnLabel(int index) {
+        return columnLabels[index];
+    }
+
+    /**
+     * Returns the JDBC type of a column.
+     *
+     * @param index The index of the column, starting at 0.
+     * @return the java.sql.Types code of the column.
+     */
+    public int getColumnType(int index) {
+        return columnTypes[index];
+    }
+
+    /**
+     * Returns the database type name of a column.
+     *
+     * @param index The index of the column, starting at 0.
+     * @return the type name of the column, or null if the driver could not provide it.
+     */
+    public String getColumnTypeName(int index) {
+        return columnTypeNames[index];
+    }
+
+    /**
+     * Returns the labels of the columns, in the order of the query.
+     *
+     * @return an unmodifiable list of the column labels.
+     */
+    public List<String> getColumnLabels() {
+        return Collections.unmodifiableList(Arrays.asList(columnLabels.clone()));
+    }
+
+    /**
+     * Returns the index of a column. When several columns have the same label, the last one is returned, as it is
+     * the one kept by the map representation of a row.
+     *
+     * @param columnLabel The label of the column.
+     * @return the index of the column, starting at 0, or -1 if no column has this label.
+     */
+    public int indexOf(String columnLabel) {
+        Integer index = columnIndexes.get(columnLabel);
+        return index == null ? -1 : index;
+    }
+
+    /**
+     * Returns the number of distinct column labels, which is the size of the map representation of a row.
+     *
+     * @return the number of distinct column labels.
+     */
+    public int getVisibleColumnCount() {
+        return visibleColumns.length;
+    }
+
+    /**
+     * Returns the index of a column of the map representation of a row, skipping the columns shadowed by a later
+     * column with the same label.
+     *
+     * @param position The position of the column among the distinct labels, starting at 0.
+     * @return the index of the column, starting at 0.
+     */
+    public int getVisibleColumn(int position) {
+        return visibleColumns[position];
+    }
+}
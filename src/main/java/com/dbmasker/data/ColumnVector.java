@@ -0,0 +1,94 @@
+package com.dbmasker.data;
+
+import com.dbmasker.utils.VectorKind;
+
+import java.util.BitSet;
+
+/**
+ * This class represents the values of one column of a columnar result batch, stored in arrays which grow as
+ * values are appended. Null values are tracked in a bitmap, so that the primitive vectors hold no boxed values.
+ */
+public abstract class ColumnVector {
+
+    private final BitSet nulls = new BitSet(); // The positions of the null values
+    private int size; // The number of values
+
+    /**
+     * Returns the kind of the vector, which tells how its values are stored.
+     *
+     * @return the vector kind.
+     */
+    public abstract VectorKind getKind();
+
+    /**
+     * Returns a value as an object, boxing primitive values.
+     *
+     * @param index The position of the value, starting at 0.
+     * @return the value, or null if the value is null.
+     */
+    public abstract Object getObject(int index);
+
+    /**
+     * Grows the storage of the vector so that it holds at least the given number of values.
+     *
+     * @param capacity The minimum number of values.
+     */
+    protected abstract void ensureCapacity(int capacity);
+
+    /**
+     * Returns the number of values.
+     *
+     * @return the number of values.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns whether a value is null.
+     *
+     * @param index The position of the value, starting at 0.
+     * @return true if the value is null, false otherwise.
+     */
+    public boolean isNull(int index) {
+        return nulls.get(index);
+    }
+
+    /**
+     * Returns whether the vector holds at least one null value.
+     *
+     * @return true if a value is null, false otherwise.
+     */
+    public boolean hasNulls() {
+        return !nulls.isEmpty();
+    }
+
+    /**
+     * Appends a null value.
+     */
+    public void appendNull() {
+        int index = reserve();
+        nulls.set(index);
+    }
+
+    /**
+     * Reserves the position of the next value, growing the storage if needed.
+     *
+     * @return the position of the next value.
+     */
+    protected int reserve() {
+        ensureCapacity(size + 1);
+        return size++;
+    }
+
+    /**
+     * Returns the capacity to grow an array to, at least doubling it so that appends are amortized.
+     *
+     * @param current  The current capacity.
+     * @param capacity The minimum capacity.
+     * @return the new capacity.
+     */
+    protected static int grownCapacity(int current, int capacity) {
+        return Math.max(capacity, Math.max(16, current * 2));
+    }
+}
@@ -0,0 +1,202 @@
+package com.dbmasker.data;
+
+import com.dbmasker.utils.ErrorMessages;
+
+import java.util.AbstractList;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * This class represents a query result in a compact form: one shared {@link ColumnHeader} and each row as an array
+ * of values in the order of the columns, instead of one map per row repeating the column labels.
+ * <p>
+ * For callers written against the list of maps returned by the other query operations, {@link #getRow(int)} and
+ * {@link #asMaps()} give read-only map views of the rows, backed by the arrays, with the same keys and values as
+ * those maps.
+ */
+public class CompactResult {
+
+    private final ColumnHeader header; // The columns of the result
+    private final List<Object[]> rows; // The values of each row, in the order of the columns
+
+    /**
+     * Constructor for the CompactResult class, without rows.
+     *
+     * @param header The columns of the result.
+     */
+    public CompactResult(ColumnHeader header) {
+        this.header = header;
+        this.rows = new ArrayList<>();
+    }
+
+    /**
+     * Adds a row to the result.
+     *
+     * @param values The values of the row, in the order of the columns. The array is kept, not copied.
+     * @throws IllegalArgumentException if the number of values is not the number of columns
+     */
+    public void addRow(Object[] values) {
+        if (values.length != header.getColumnCount()) {
+            throw new IllegalArgumentException(ErrorMessages.ROW_SIZE_MISMATCH_ERROR + header.getColumnCount());
+        }
+        rows.add(values);
+    }
+
+    /**
+     Getter for the columns of the result.
+     @return the column header.
+     */
+    public ColumnHeader getHeader() {
+        return header;
+    }
+
+    /**
+     * Returns the number of rows.
+     *
+     * @return the number of rows.
+     */
+    public int size() {
+        return rows.size();
+    }
+
+    /**
+     * Returns whether the result has no rows.
+     *
+     * @return true if the result has no rows, false otherwise.
+     */
+    public boolean isEmpty() {
+        return rows.isEmpty();
+    }
+
+    /**
+     * Returns a value of the result.
+     *
+     * @param rowIndex    The index of the row, starting at 0.
+     * @param columnIndex The index of the column, starting at 0.
+     * @return the value, which may be null.
+     */
+    public Object getValue(int rowIndex, int columnIndex) {
+        return rows.get(rowIndex)[columnIndex];
+    }
+
+    /**
+     * Returns a value of the result by column label.
+     *
+     * @param rowIndex    The index of the row, starting at 0.
+     * @param columnLabel The label of the column.
+     * @return the value, or null if the value is null or no column has this label.
+     */
+    public Object getValue(int rowIndex, String columnLabel) {
+        int columnIndex = header.indexOf(columnLabel);
+        return columnIndex < 0 ? null : rows.get(rowIndex)[columnIndex];
+    }
+
+    /**
+     * Returns the values of a row. The array is the one held by the result, not a copy.
+     *
+     * @param rowIndex The index of the row, starting at 0.
+     * @return the values of the row, in the order of the columns.
+     */
+    public Object[] getValues(int rowIndex) {
+        return rows.get(rowIndex);
+    }
+
+    /**
+     * Returns a read-only map view of a row, with the column labels as keys.
+     *
+     * @param rowIndex The index of the row, starting at 0.
+     * @return the map view of the row.
+     */
+    public Map<String, Object> getRow(int rowIndex) {
+        return new RowView(header, rows.get(rowIndex));
+    }
+
+    /**
+     * Returns a read-only list view of the rows as maps, each created when it is read.
+     *
+     * @return the list of map views of the rows.
+     */
+    public List<Map<String, Object>> asMaps() {
+        return new AbstractList<>() {
+            @Override
+            public Map<String, Object> get(int index) {
+                return getRow(index);
+            }
+
+            @Override
+            public int size() {
+                return rows.size();
+            }
+        };
+    }
+
+    /**
+     * A read-only map view of a row, which looks its keys up in the shared header.
+     */
+    private static final class RowView extends AbstractMap<String, Object> {
+
+        private final ColumnHeader header;
+        private final Object[] values;
+
+        private RowView(ColumnHeader header, Object[] values) {
+            this.header = header;
+            this.values = values;
+        }
+
+        @Override
+        public Object get(Object key) {
+            if (!(key instanceof String)) {
+                return null;
+            }
+            int index = header.indexOf((String) key);
+            return index < 0 ? null : values[index];
+        }
+
+        @Override
+        public boolean containsKey(Object key) {
+            return key instanceof String && header.indexOf((String) key) >= 0;
+        }
+
+        @Override
+        public int size() {
+            return header.getVisibleColumnCount();
+        }
+
+        @Override
+        public Set<Entry<String, Object>> entrySet() {
+            return new AbstractSet<>() {
+                @Override
+                public Iterator<Entry<String, Object>> iterator() {
+                    return new Iterator<>() {
+                        private int position;
+
+                        @Override
+                        public boolean hasNext() {
+                            return position < header.getVisibleColumnCount();
+                        }
+
+                        @Override
+                        public Entry<String, Object> next() {
+                            if (!hasNext()) {
+                                throw new NoSuchElementException();
+                            }
+                            int index = header.getVisibleColumn(position++);
+                            return new SimpleImmutableEntry<>(header.getColumnLabel(index), values[index]);
+                        }
+                    };
+                }
+
+                @Override
+                public int size() {
+                    return header.getVisibleColumnCount();
+                }
+            };
+        }
+    }
+}
@@ -0,0 +1,167 @@
+package com.dbmasker.data;
+
+import com.dbmasker.utils.ColumnCategory;
+import com.dbmasker.utils.RegexPrefilter;
+
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * This class represents a sensitive data detector: a regular expression, with the constraints a column must
+ * satisfy for the regular expression to be worth matching against it.
+ * <p>
+ * The scanner only reads the columns which are eligible for at least one detector. A column is eligible when its
+ * type belongs to the categories of the detector and it can hold a match: text columns must be at least as long as
+ * the shortest match, and integer and decimal columns must have at least as many digits as a match needs.
+ */
+public class Detector {
+
+    /**
+     * The column categories a detector matches by default: text, numeric and other types, leaving out
+     * temporal, boolean and binary columns.
+     */
+    public static final Set<ColumnCategory> DEFAULT_COLUMN_CATEGORIES =
+            Collections.unmodifiableSet(EnumSet.of(ColumnCategory.TEXT, ColumnCategory.NUMERIC, ColumnCategory.OTHER));
+
+    private final String regex; // The regular expression used to match sensitive data
+    private final Set<ColumnCategory> columnCategories; // The column categories the regex is matched against
+    private final long minLength; // The minimum length a column must be able to hold
+    private final RegexPrefilter prefilter; // The lengths and digits every match needs
+
+    /**
+     * Constructor for a detector matching the default column categories.
+     *
+     * @param regex The regular expression used to match sensitive data.
+     */
+    public Detector(String regex) {
+        this(regex, DEFAULT_COLUMN_CATEGORIES, 0);
+    }
+
+    /**
+     * Constructor for Detector.
+     *
+     * @param regex            The regular expression used to match sensitive data.
+     * @param columnCategories The column categories the regex is matched against.
+     * @param minLength        The minimum length a text column must be able to hold, 0 to only use the
+     *                         length derived from the regex.
+     */
+    public Detector(String regex, Set<ColumnCategory> columnCategories, long minLength) {
+        this.regex = regex;
+        this.columnCategories = columnCategories.isEmpty() ? Collections.emptySet()
+                : Collections.unmodifiableSet(EnumSet.copyOf(columnCategories));
+        this.minLength = minLength;
+        this.prefilter = RegexPrefilter.of(regex);
+    }
+
+    /**
+     * Creates the detectors of a list of regular expressions, matching the default column categories.
+     *
+     * @param regexList The regular expressions used to match sensitive data.
+     * @return one detector per regular expression, in the same order.
+     */
+    public static List<Detector> of(List<String> regexList) {
+        List<Detector> detectors = new ArrayList<>(regexList.size());
+        for (String regex : regexList) {
+            detectors.add(new Detector(regex));
+        }
+        return detectors;
+    }
+
+    /**
+     Getter for the regular expression.
+     @return the regular expression used to match sensitive data.
+     */
+    public String getRegex() {
+        return regex;
+    }
+
+    /**
+     Getter for the column categories the regex is matched against.
+     @return the column categories of the detector.
+     */
+    public Set<ColumnCategory> getColumnCategories() {
+        return columnCategories;
+    }
+
+    /**
+     Getter for the minimum length a text column must be able to hold.
+     @return the declared minimum length, 0 if only the length derived from the regex is used.
+     */
+    public long getMinLength() {
+        return minLength;
+    }
+
+    /**
+     * Returns whether a column is worth matching against the detector.
+     *
+     * @param column The attributes of the column.
+     * @return true if the column is eligible for the detector, false otherwise.
+     */
+    public boolean isEligible(TableAttribute column) {
+        return isEligible(column.getValueType(), column.getTypeName(), column.getMaxLength());
+    }
+
+    /**
+     * Returns whether a column is worth matching against the detector.
+     *
+     * @param sqlType    The SQL type of the column, from java.sql.Types.
+     * @param typeName   The database-specific type name of the column, or null if unknown.
+     * @param columnSize The size of the column: the maximum length of text columns and the precision of numeric
+     *                   columns, or 0 if unknown.
+     * @return true if the column is eligible for the detector, false otherwise.
+     */
+    public boolean isEligible(int sqlType, String typeName, long columnSize) {
+        ColumnCategory category = ColumnCategory.of(sqlType, typeName);
+        if (!columnCategories.contains(category)) {
+            return false;
+        }
+        if (columnSize <= 0) {
+            return true;
+        }
+        if (category == ColumnCategory.TEXT) {
+            return columnSize >= Math.max(minLength, prefilter.getMinLength());
+        }
+        if (isExactNumeric(sqlType)) {
+            return columnSize >= prefilter.getMinDigits();
+        }
+        return true;
+    }
+
+    /**
+     * Returns whether a SQL type is an integer or decimal type, whose precision bounds the number of digits.
+     *
+     * @param sqlType The SQL type of the column, from java.sql.Types.
+     * @return true if the type is an exact numeric type, false otherwise.
+     */
+    private static boolean isExactNumeric(int sqlType) {
+        return sqlType == Types.TINYINT || sqlType == Types.SMALLINT || sqlType == Types.INTEGER
+                || sqlType == Types.BIGINT || sqlType == Types.DECIMAL || sqlType == Types.NUMERIC;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof Detector that)) return false;
+        return minLength == that.minLength && Objects.equals(regex, that.regex)
+                && Objects.equals(columnCategories, that.columnCategories);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(regex, columnCategories, minLength);
+    }
+
+    @Override
+    public String toString() {
+        return "Detector{" +
+                "regex='" + regex + '\'' +
+                ", columnCategories=" + columnCategories +
+                ", minLength=" + minLength +
+                '}';
+    }
+}
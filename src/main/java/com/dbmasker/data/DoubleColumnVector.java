@@ -0,0 +1,68 @@
+package com.dbmasker.data;
+
+import com.dbmasker.utils.VectorKind;
+
+import java.util.Arrays;
+
+/**
+ * This class represents a column of floating point values stored in a primitive double array.
+ */
+public class DoubleColumnVector extends ColumnVector {
+
+    private double[] values; // The values, 0 at the positions of the null values
+
+    /**
+     * Constructor for DoubleColumnVector.
+     *
+     * @param capacity The number of values the vector holds before growing.
+     */
+    public DoubleColumnVector(int capacity) {
+        values = new double[capacity];
+    }
+
+    @Override
+    public VectorKind getKind() {
+        return VectorKind.DOUBLE;
+    }
+
+    /**
+     * Appends a value.
+     *
+     * @param value The value.
+     */
+    public void append(double value) {
+        values[reserve()] = value;
+    }
+
+    /**
+     * Returns a value, 0 if the value is null.
+     *
+     * @param index The position of the value, starting at 0.
+     * @return the value.
+     */
+    public double getDouble(int index) {
+        return values[index];
+    }
+
+    /**
+     * Returns the array holding the values, for tight loops over the vector. Only its first size() elements are
+     * values, and the elements at the positions of the null values are 0.
+     *
+     * @return the backing array of the vector.
+     */
+    public double[] getValues() {
+        return values;
+    }
+
+    @Override
+    public Object getObject(int index) {
+        return isNull(index) ? null : values[index];
+    }
+
+    @Override
+    protected void ensureCapacity(int capacity) {
+        if (capacity > values.length) {
+            values = Arrays.copyOf(values, grownCapacity(values.length, capacity));
+        }
+    }
+}
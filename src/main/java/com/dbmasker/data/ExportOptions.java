@@ -0,0 +1,151 @@
+package com.dbmasker.data;
+
+import com.dbmasker.utils.ExportFormat;
+
+/**
+ * This class represents the options of a masked export to files: the file format, the compression, when the
+ * export rotates to a new file, and how rows are fetched from the database.
+ */
+public class ExportOptions {
+
+    /**
+     * The default size in bytes of the buffers of the file writer.
+     */
+    public static final int DEFAULT_BUFFER_SIZE = 64 * 1024;
+
+    private ExportFormat format; // the file format
+    private boolean gzip; // whether the files are gzip compressed
+    private boolean header; // whether each CSV file starts with the column labels
+    private long maxRowsPerFile; // 0 means no rotation on the number of rows
+    private long maxBytesPerFile; // 0 means no rotation on the size of the files
+    private int bufferSize; // the size of the off-heap buffers of the file writer
+    private FetchOptions fetchOptions; // null means the default fetch strategy of the database
+
+    /**
+     * Constructor for ExportOptions, exporting to a single uncompressed CSV file with a header line.
+     */
+    public ExportOptions() {
+        format = ExportFormat.CSV;
+        gzip = false;
+        header = true;
+        maxRowsPerFile = 0;
+        maxBytesPerFile = 0;
+        bufferSize = DEFAULT_BUFFER_SIZE;
+        fetchOptions = null;
+    }
+
+    /**
+     * Getter for the file format.
+     * @return the file format.
+     */
+    public ExportFormat getFormat() {
+        return format;
+    }
+
+    /**
+     * Setter for the file format.
+     * @param format the file format.
+     */
+    public void setFormat(ExportFormat format) {
+        this.format = format;
+    }
+
+    /**
+     * Getter for whether the files are gzip compressed.
+     * @return true if the files are gzip compressed, false otherwise.
+     */
+    public boolean isGzip() {
+        return gzip;
+    }
+
+    /**
+     * Setter for whether the files are gzip compressed. The file names are used as given, so they should end
+     * with ".gz" when compression is enabled.
+     * @param gzip true if the files are gzip compressed, false otherwise.
+     */
+    public void setGzip(boolean gzip) {
+        this.gzip = gzip;
+    }
+
+    /**
+     * Getter for whether each CSV file starts with the column labels.
+     * @return true if each CSV file starts with a header line, false otherwise.
+     */
+    public boolean isHeader() {
+        return header;
+    }
+
+    /**
+     * Setter for whether each CSV file starts with the column labels. Ignored by the JSON Lines format.
+     * @param header true if each CSV file starts with a header line, false otherwise.
+     */
+    public void setHeader(boolean header) {
+        this.header = header;
+    }
+
+    /**
+     * Getter for the number of rows after which the export rotates to a new file.
+     * @return the maximum number of rows of a file, or 0 if the export does not rotate on the number of rows.
+     */
+    public long getMaxRowsPerFile() {
+        return maxRowsPerFile;
+    }
+
+    /**
+     * Setter for the number of rows after which the export rotates to a new file.
+     * @param maxRowsPerFile the maximum number of rows of a file, at least 0, 0 meaning no rotation on the number of rows.
+     */
+    public void setMaxRowsPerFile(long maxRowsPerFile) {
+        this.maxRowsPerFile = maxRowsPerFile;
+    }
+
+    /**
+     * Getter for the size after which the export rotates to a new file.
+     * @return the size in bytes, before compression, from which a file is rotated, or 0 if the export does not
+     * rotate on the size of the files.
+     */
+    public long getMaxBytesPerFile() {
+        return maxBytesPerFile;
+    }
+
+    /**
+     * Setter for the size after which the export rotates to a new file. The size is counted before compression,
+     * and a file is rotated after the row which reaches it, so rows are never split across files.
+     * @param maxBytesPerFile the size in bytes, at least 0, 0 meaning no rotation on the size of the files.
+     */
+    public void setMaxBytesPerFile(long maxBytesPerFile) {
+        this.maxBytesPerFile = maxBytesPerFile;
+    }
+
+    /**
+     * Getter for the size of the off-heap buffers of the file writer.
+     * @return the buffer size in bytes.
+     */
+    public int getBufferSize() {
+        return bufferSize;
+    }
+
+    /**
+     * Setter for the size of the off-heap buffers of the file writer.
+     * @param bufferSize the buffer size in bytes, at least 1024.
+     */
+    public void setBufferSize(int bufferSize) {
+        this.bufferSize = bufferSize;
+    }
+
+    /**
+     * Getter for the options overriding the fetch strategy of the database.
+     * @return the fetch options, or null to use the default fetch strategy of the database.
+     */
+    public FetchOptions getFetchOptions() {
+        return fetchOptions;
+    }
+
+    /**
+     * Setter for the options overriding the fetch strategy of the database.
+     * @param fetchOptions the fetch options, or null to use the default fetch strategy of the database.
+     */
+    public void setFetchOptions(FetchOptions fetchOptions) {
+        this.fetchOptions = fetchOptions;
+    }
+}
@@ -0,0 +1,91 @@
+package com.dbmasker.data;
+
+import java.nio.file.Path;
+import java.util.List;
+
+/**
+ * This class represents the outcome of a masked export to files, with its throughput.
+ */
+public class ExportResult {
+
+    private final List<Path> files; // The files written, in order
+    private final long rowCount; // The number of rows exported
+    private final long byteCount; // The number of bytes written to the files, after compression
+    private final long elapsedNanos; // The duration of the export in nanoseconds
+
+    /**
+     * Constructor for the ExportResult class.
+     *
+     * @param files        The files written, in order.
+     * @param rowCount     The number of rows exported.
+     * @param byteCount    The number of bytes written to the files, after compression.
+     * @param elapsedNanos The duration of the export in nanoseconds.
+     */
+    public ExportResult(List<Path> files, long rowCount, long byteCount, long elapsedNanos) {
+        this.files = files;
+        this.rowCount = rowCount;
+        this.byteCount = byteCount;
+        this.elapsedNanos = elapsedNanos;
+    }
+
+    /**
+     Getter for the files written, in order.
+     @return the files written.
+     */
+    public List<Path> getFiles() {
+        return files;
+    }
+
+    /**
+     Getter for the number of rows exported.
+     @return the number of rows exported.
+     */
+    public long getRowCount() {
+        return rowCount;
+    }
+
+    /**
+     Getter for the number of bytes written to the files, after compression.
+     @return the number of bytes written.
+     */
+    public long getByteCount() {
+        return byteCount;
+    }
+
+    /**
+     Getter for the duration of the export in milliseconds.
+     @return the duration of the export in milliseconds.
+     */
+    public long getElapsedMillis() {
+        return elapsedNanos / 1_000_000;
+    }
+
+    /**
+     * Returns the number of rows exported per second.
+     *
+     * @return the rows per second, or 0 if the export took no measurable time.
+     */
+    public double getRowsPerSecond() {
+        return elapsedNanos == 0 ? 0 : rowCount * 1e9 / elapsedNanos;
+    }
+
+    /**
+     * Returns the number of bytes written to the files per second.
+     *
+     * @return the bytes per second, or 0 if the export took no measurable time.
+     */
+    public double getBytesPerSecond() {
+        return elapsedNanos == 0 ? 0 : byteCount * 1e9 / elapsedNanos;
+    }
+
+    @Override
+    public String toString() {
+        return "ExportResult{" +
+                "files=" + files.size() +
+                ", rowCount=" + rowCount +
+                ", byteCount=" + byteCount +
+                ", elapsedMillis=" + getElapsedMillis() +
+                ", rowsPerSecond=" + Math.round(getRowsPerSecond()) +
+                '}';
+    }
+}
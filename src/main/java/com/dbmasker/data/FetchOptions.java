@@ -0,0 +1,61 @@
+package com.dbmasker.data;
+
+/**
+ * This class represents the options controlling how rows are fetched from the database by a streaming cursor.
+ * <p>
+ * By default each database applies its own fetch strategy: MySQL streams rows one by one, PostgreSQL and KingBase
+ * open a server-side cursor inside a read-only transaction, and Oracle and DM prefetch rows in batches.
+ */
+public class FetchOptions {
+
+    /**
+     * The fetch size used by the databases which fetch rows in batches, when no fetch size is given.
+     */
+    public static final int DEFAULT_FETCH_SIZE = 1000;
+
+    private int fetchSize; // 0 means the default fetch size of the database
+    private boolean serverCursor; // whether the database may stream rows through a server-side cursor
+
+    /**
+     * Constructor for FetchOptions, using the default fetch strategy of the database.
+     */
+    public FetchOptions() {
+        fetchSize = 0;
+        serverCursor = true;
+    }
+
+    /**
+     * Getter for the number of rows fetched from the database in each round trip.
+     * @return the fetch size, or 0 to use the default fetch size of the database.
+     */
+    public int getFetchSize() {
+        return fetchSize;
+    }
+
+    /**
+     * Setter for the number of rows fetched from the database in each round trip.
+     * For MySQL, {@link Integer#MIN_VALUE} streams rows one by one, and a positive value requires
+     * useCursorFetch=true in the connection url.
+     * @param fetchSize the fetch size, or 0 to use the default fetch size of the database.
+     */
+    public void setFetchSize(int fetchSize) {
+        this.fetchSize = fetchSize;
+    }
+
+    /**
+     * Getter for whether the database may stream rows through a server-side cursor.
+     * @return true if a server-side cursor may be used, false to keep the driver default behaviour.
+     */
+    public boolean isServerCursor() {
+        return serverCursor;
+    }
+
+    /**
+     * Setter for whether the database may stream rows through a server-side cursor.
+     * When disabled, only an explicit fetch size is applied and the connection is left untouched.
+     * @param serverCursor true if a server-side cursor may be used, false to keep the driver default behaviour.
+     */
+    public void setServerCursor(boolean serverCursor) {
+        this.serverCursor = serverCursor;
+    }
+}
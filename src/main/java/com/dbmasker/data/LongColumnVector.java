@@ -0,0 +1,68 @@
+package com.dbmasker.data;
+
+import com.dbmasker.utils.VectorKind;
+
+import java.util.Arrays;
+
+/**
+ * This class represents a column of integer values stored in a primitive long array.
+ */
+public class LongColumnVector extends ColumnVector {
+
+    private long[] values; // The values, 0 at the positions of the null values
+
+    /**
+     * Constructor for LongColumnVector.
+     *
+     * @param capacity The number of values the vector holds before growing.
+     */
+    public LongColumnVector(int capacity) {
+        values = new long[capacity];
+    }
+
+    @Override
+    public VectorKind getKind() {
+        return VectorKind.LONG;
+    }
+
+    /**
+     * Appends a value.
+     *
+     * @param value The value.
+     */
+    public void append(long value) {
+        values[reserve()] = value;
+    }
+
+    /**
+     * Returns a value, 0 if the value is null.
+     *
+     * @param index The position of the value, starting at 0.
+     * @return the value.
+     */
+    public long getLong(int index) {
+        return values[index];
+    }
+
+    /**
+     * Returns the array holding the values, for tight loops over the vector. Only its first size() elements are
+     * values, and the elements at the positions of the null values are 0.
+     *
+     * @return the backing array of the vector.
+     */
+    public long[] getValues() {
+        return values;
+    }
+
+    @Override
+    public Object getObject(int index) {
+        return isNull(index) ? null : values[index];
+    }
+
+    @Override
+    protected void ensureCapacity(int capacity) {
+        if (capacity > values.length) {
+            values = Arrays.copyOf(values, grownCapacity(values.length, capacity));
+        }
+    }
+}
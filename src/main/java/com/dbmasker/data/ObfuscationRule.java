@@ -1,6 +1,11 @@
 package com.dbmasker.data;
 
+import com.dbmasker.utils.NoiseMode;
 import com.dbmasker.utils.ObfuscationMethod;
+import com.dbmasker.utils.PatternCache;
+
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 
 /**
  This class represents an obfuscation rule, which defines how to obfuscate a portion of data.
@@ -12,9 +17,13 @@ public class ObfuscationRule {
     private int end; // used for masking and truncation
     private char maskChar; //used for masking
     private String regex; // used for replacement
+    private volatile Pattern pattern; // compiled regex, used for replacement
+    private ThreadLocal<Matcher> matcher = new ThreadLocal<>(); // reusable matcher of each thread, used for replacement
     private String replacement; // used for replacement
     private int range; // used for generalization
     private double noiseRange; // used for adding noise
+    private NoiseMode noiseMode; // used for adding noise
+    private long noiseSeed; // used for adding noise in deterministic mode
 
     /**
      * Constructor for ObfuscationRule.
@@ -27,6 +36,8 @@ public class ObfuscationRule {
         regex = "";
         replacement = "";
         noiseRange = 0;
+        noiseMode = NoiseMode.SECURE;
+        noiseSeed = 0;
     }
 
     /**
@@ -91,6 +102,45 @@ public class ObfuscationRule {
      */
     public void setRegex(String regex) {
         this.regex = regex;
+        this.pattern = null;
+        this.matcher = new ThreadLocal<>();
+    }
+
+    /**
+     * Getter for the compiled regular expression, compiled on first use.
+     * @return the compiled regular expression, or null if no regular expression is set.
+     * @throws java.util.regex.PatternSyntaxException if the regular expression is invalid.
+     */
+    public Pattern getPattern() {
+        Pattern compiled = pattern;
+        if (compiled == null && regex != null) {
+            compiled = PatternCache.compile(regex);
+            pattern = compiled;
+        }
+        return compiled;
+    }
+
+    /**
+     * Returns a matcher of the compiled regular expression for the given input.
+     * The matcher is reused by the calling thread, so it must not be shared with other threads, and it keeps the
+     * input reachable until the next call: reset it to an empty input with {@code reset("")} once done with it.
+     * @param input the character sequence to be matched.
+     * @return the matcher reset to the given input, or null if no regular expression is set.
+     * @throws java.util.regex.PatternSyntaxException if the regular expression is invalid.
+     */
+    public Matcher getMatcher(CharSequence input) {
+        Pattern compiled = getPattern();
+        if (compiled == null) {
+            return null;
+        }
+        ThreadLocal<Matcher> threadMatcher = matcher;
+        Matcher m = threadMatcher.get();
+        if (m == null || m.pattern() != compiled) {
+            m = compiled.matcher(input);
+            threadMatcher.set(m);
+            return m;
+        }
+        return m.reset(input);
     }
 
     /**
@@ -141,6 +191,38 @@ public class ObfuscationRule {
         this.noiseRange = noiseRange;
     }
 
+    /**
+     * Getter for the source of the random noise added to the identified data portion.
+     * @return the source of the random noise.
+     */
+    public NoiseMode getNoiseMode() {
+        return noiseMode;
+    }
+
+    /**
+     * Setter for the source of the random noise added to the identified data portion.
+     * @param noiseMode the source of the random noise.
+     */
+    public void setNoiseMode(NoiseMode noiseMode) {
+        this.noiseMode = noiseMode;
+    }
+
+    /**
+     * Getter for the seed used when adding noise in deterministic mode.
+     * @return the seed used when adding noise in deterministic mode.
+     */
+    public long getNoiseSeed() {
+        return noiseSeed;
+    }
+
+    /**
+     * Setter for the seed used when adding noise in deterministic mode.
+     * @param noiseSeed the seed used when adding noise in deterministic mode.
+     */
+    public void setNoiseSeed(long noiseSeed) {
+        this.noiseSeed = noiseSeed;
+    }
+
     /**
      * Getter for the masking character.
      * @return the masking character.
@@ -0,0 +1,53 @@
+package com.dbmasker.data;
+
+import com.dbmasker.utils.VectorKind;
+
+import java.util.Arrays;
+
+/**
+ * This class represents a column of values which have no primitive representation, such as decimals, binary data
+ * or database specific types, stored as objects.
+ */
+public class ObjectColumnVector extends ColumnVector {
+
+    private Object[] values; // The values, null at the positions of the null values
+
+    /**
+     * Constructor for ObjectColumnVector.
+     *
+     * @param capacity The number of values the vector holds before growing.
+     */
+    public ObjectColumnVector(int capacity) {
+        values = new Object[capacity];
+    }
+
+    @Override
+    public VectorKind getKind() {
+        return VectorKind.OBJECT;
+    }
+
+    /**
+     * Appends a value.
+     *
+     * @param value The value, or null.
+     */
+    public void append(Object value) {
+        if (value == null) {
+            appendNull();
+            return;
+        }
+        values[reserve()] = value;
+    }
+
+    @Override
+    public Object getObject(int index) {
+        return values[index];
+    }
+
+    @Override
+    protected void ensureCapacity(int capacity) {
+        if (capacity > values.length) {
+            values = Arrays.copyOf(values, grownCapacity(values.length, capacity));
+        }
+    }
+}
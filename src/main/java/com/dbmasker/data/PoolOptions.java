@@ -0,0 +1,169 @@
+package com.dbmasker.data;
+
+/**
+ * This class represents the options of a pooled data source: how many connections it keeps, how long a caller
+ * waits for one, and how idle, broken and leaked connections are detected.
+ */
+public class PoolOptions {
+
+    /**
+     * The default maximum number of connections of a pool.
+     */
+    public static final int DEFAULT_MAX_SIZE = 8;
+
+    /**
+     * The default time in milliseconds a caller waits for a connection when the pool is exhausted.
+     */
+    public static final long DEFAULT_MAX_WAIT_MILLIS = 30_000;
+
+    /**
+     * The default time in milliseconds after its last use an idle connection is validated again before being reused.
+     */
+    public static final long DEFAULT_VALIDATION_INTERVAL_MILLIS = 5_000;
+
+    /**
+     * The default time in seconds a validation waits for the database.
+     */
+    public static final int DEFAULT_VALIDATION_TIMEOUT_SECONDS = 5;
+
+    /**
+     * The default time in milliseconds an idle connection is kept before being closed.
+     */
+    public static final long DEFAULT_IDLE_TIMEOUT_MILLIS = 600_000;
+
+    private int minSize; // the number of connections kept open even when idle
+    private int maxSize; // the maximum number of connections, idle and in use
+    private long maxWaitMillis; // the time a caller waits for a connection, 0 means no wait
+    private long validationIntervalMillis; // 0 means an idle connection is validated on every borrow
+    private int validationTimeoutSeconds; // the timeout passed to Connection.isValid
+    private long idleTimeoutMillis; // 0 means idle connections are never closed
+    private long leakDetectionMillis; // 0 means leak detection is disabled
+
+    /**
+     * Constructor for PoolOptions, with the default options and leak detection disabled.
+     */
+    public PoolOptions() {
+        minSize = 0;
+        maxSize = DEFAULT_MAX_SIZE;
+        maxWaitMillis = DEFAULT_MAX_WAIT_MILLIS;
+        validationIntervalMillis = DEFAULT_VALIDATION_INTERVAL_MILLIS;
+        validationTimeoutSeconds = DEFAULT_VALIDATION_TIMEOUT_SECONDS;
+        idleTimeoutMillis = DEFAULT_IDLE_TIMEOUT_MILLIS;
+        leakDetectionMillis = 0;
+    }
+
+    /**
+     * Getter for the number of connections kept open even when idle.
+     * @return the minimum size of the pool.
+     */
+    public int getMinSize() {
+        return minSize;
+    }
+
+    /**
+     * Setter for the number of connections kept open even when idle. They are opened with the first borrow.
+     * @param minSize the minimum size of the pool, at least 0 and at most the maximum size.
+     */
+    public void setMinSize(int minSize) {
+        this.minSize = minSize;
+    }
+
+    /**
+     * Getter for the maximum number of connections, idle and in use.
+     * @return the maximum size of the pool.
+     */
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    /**
+     * Setter for the maximum number of connections, idle and in use.
+     * @param maxSize the maximum size of the pool, at least 1.
+     */
+    public void setMaxSize(int maxSize) {
+        this.maxSize = maxSize;
+    }
+
+    /**
+     * Getter for the time a caller waits for a connection when the pool is exhausted.
+     * @return the maximum wait in milliseconds, 0 if the caller does not wait.
+     */
+    public long getMaxWaitMillis() {
+        return maxWaitMillis;
+    }
+
+    /**
+     * Setter for the time a caller waits for a connection when the pool is exhausted. Waiting callers are served
+     * in the order they arrived.
+     * @param maxWaitMillis the maximum wait in milliseconds, 0 if the caller does not wait.
+     */
+    public void setMaxWaitMillis(long maxWaitMillis) {
+        this.maxWaitMillis = maxWaitMillis;
+    }
+
+    /**
+     * Getter for the time after its last use an idle connection is validated again before being reused.
+     * @return the validation interval in milliseconds, 0 if connections are validated on every borrow.
+     */
+    public long getValidationIntervalMillis() {
+        return validationIntervalMillis;
+    }
+
+    /**
+     * Setter for the time after its last use an idle connection is validated again before being reused.
+     * A connection used more recently is assumed valid, which saves a round trip on busy pools.
+     * @param validationIntervalMillis the validation interval in milliseconds, 0 to validate on every borrow.
+     */
+    public void setValidationIntervalMillis(long validationIntervalMillis) {
+        this.validationIntervalMillis = validationIntervalMillis;
+    }
+
+    /**
+     * Getter for the time a validation waits for the database.
+     * @return the validation timeout in seconds.
+     */
+    public int getValidationTimeoutSeconds() {
+        return validationTimeoutSeconds;
+    }
+
+    /**
+     * Setter for the time a validation waits for the database, passed to Connection.isValid.
+     * @param validationTimeoutSeconds the validation timeout in seconds, 0 for no timeout.
+     */
+    public void setValidationTimeoutSeconds(int validationTimeoutSeconds) {
+        this.validationTimeoutSeconds = validationTimeoutSeconds;
+    }
+
+    /**
+     * Getter for the time an idle connection is kept before being closed.
+     * @return the idle timeout in milliseconds, 0 if idle connections are never closed.
+     */
+    public long getIdleTimeoutMillis() {
+        return idleTimeoutMillis;
+    }
+
+    /**
+     * Setter for the time an idle connection is kept before being closed. The minimum size of the pool is kept.
+     * @param idleTimeoutMillis the idle timeout in milliseconds, 0 if idle connections are never closed.
+     */
+    public void setIdleTimeoutMillis(long idleTimeoutMillis) {
+        this.idleTimeoutMillis = idleTimeoutMillis;
+    }
+
+    /**
+     * Getter for the time a connection can be in use before it is reported as a possible leak.
+     * @return the leak detection threshold in milliseconds, 0 if leak detection is disabled.
+     */
+    public long getLeakDetectionMillis() {
+        return leakDetectionMillis;
+    }
+
+    /**
+     * Setter for the time a connection can be in use before it is reported as a possible leak, with the stack
+     * trace of the caller which borrowed it.
+     * @param leakDetectionMillis the leak detection threshold in milliseconds, 0 to disable leak detection.
+     */
+    public void setLeakDetectionMillis(long leakDetectionMillis) {
+        this.leakDetectionMillis = leakDetectionMillis;
+    }
+}
@@ -0,0 +1,102 @@
+package com.dbmasker.data;
+
+import com.dbmasker.utils.ErrorMessages;
+
+/**
+ * This class represents the options controlling how much of a table is read when scanning it for sensitive data.
+ * <p>
+ * By default the whole table is scanned without budget. The scan always stops early once every column has
+ * collected enough matches for every regular expression, whatever the options.
+ */
+public class ScanOptions {
+
+    private double samplePercent; // the percentage of the table to sample, 100 reads the whole table
+    private long maxRows; // 0 means no row budget
+    private long maxMillis; // 0 means no time budget
+    private boolean refreshModificationStamps; // whether an incremental schema scan refreshes the catalog counters first
+
+    /**
+     * Constructor for ScanOptions, scanning the whole table without budget.
+     */
+    public ScanOptions() {
+        samplePercent = 100;
+        maxRows = 0;
+        maxMillis = 0;
+        refreshModificationStamps = false;
+    }
+
+    /**
+     * Getter for the percentage of the table to sample.
+     * @return the sample percentage, 100 if the whole table is read.
+     */
+    public double getSamplePercent() {
+        return samplePercent;
+    }
+
+    /**
+     * Setter for the percentage of the table to sample. The sampling method depends on the database:
+     * TABLESAMPLE in PostgreSQL, KingBase, SQL Server and Hive, SAMPLE in Oracle and DM, and a random predicate
+     * in MySQL, MariaDB and SQLite. Databases without sampling support read the table from the beginning, and so do
+     * the databases using TABLESAMPLE or SAMPLE for views.
+     * @param samplePercent the sample percentage, greater than 0 and at most 100.
+     * @throws IllegalArgumentException if the sample percentage is not greater than 0 and at most 100
+     */
+    public void setSamplePercent(double samplePercent) {
+        if (!(samplePercent > 0 && samplePercent <= 100)) {
+            throw new IllegalArgumentException(ErrorMessages.INVALID_SAMPLE_PERCENT_ERROR);
+        }
+        this.samplePercent = samplePercent;
+    }
+
+    /**
+     * Getter for the maximum number of rows to scan.
+     * @return the row budget, or 0 if the number of rows is not limited.
+     */
+    public long getMaxRows() {
+        return maxRows;
+    }
+
+    /**
+     * Setter for the maximum number of rows to scan.
+     * @param maxRows the row budget, or 0 if the number of rows is not limited.
+     */
+    public void setMaxRows(long maxRows) {
+        this.maxRows = maxRows;
+    }
+
+    /**
+     * Getter for the maximum duration of the scan in milliseconds.
+     * @return the time budget, or 0 if the duration is not limited.
+     */
+    public long getMaxMillis() {
+        return maxMillis;
+    }
+
+    /**
+     * Setter for the maximum duration of the scan in milliseconds.
+     * @param maxMillis the time budget, or 0 if the duration is not limited.
+     */
+    public void setMaxMillis(long maxMillis) {
+        this.maxMillis = maxMillis;
+    }
+
+    /**
+     * Getter for whether an incremental schema scan refreshes the modification counters of the catalog first.
+     * @return true if the counters are refreshed, false if they are read as they are, which is the default.
+     */
+    public boolean isRefreshModificationStamps() {
+        return refreshModificationStamps;
+    }
+
+    /**
+     * Setter for whether an incremental schema scan refreshes the modification counters of the catalog once,
+     * before the tables are fingerprinted. On Oracle, the counters of ALL_TAB_MODIFICATIONS are written
+     * periodically, and the refresh flushes them for the whole database with DBMS_STATS, which writes to the
+     * database and needs the ANALYZE ANY privilege. Without it, a change not flushed yet is seen by a later scan.
+     * A failed refresh is reported by each TableScanResult of the scan. Other databases ignore this option.
+     * @param refreshModificationStamps true to refresh the counters, false to read them as they are.
+     */
+    public void setRefreshModificationStamps(boolean refreshModificationStamps) {
+        this.refreshModificationStamps = refreshModificationStamps;
+    }
+}
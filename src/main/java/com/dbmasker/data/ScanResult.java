@@ -0,0 +1,81 @@
+package com.dbmasker.data;
+
+import com.dbmasker.utils.ScanStatus;
+
+import java.util.List;
+
+/**
+ * This class represents the result of scanning a table or view for sensitive data.
+ */
+public class ScanResult {
+
+    private final List<SensitiveColumn> sensitiveColumns; // The columns which matched sensitive data
+    private final long rowsScanned; // The number of rows read from the table
+    private final long elapsedMillis; // The duration of the scan in milliseconds
+    private final ScanStatus status; // The reason why the scan stopped
+
+    /**
+     * Constructor for the ScanResult class.
+     *
+     * @param sensitiveColumns The columns which matched sensitive data.
+     * @param rowsScanned      The number of rows read from the table.
+     * @param elapsedMillis    The duration of the scan in milliseconds.
+     * @param status           The reason why the scan stopped.
+     */
+    public ScanResult(List<SensitiveColumn> sensitiveColumns, long rowsScanned, long elapsedMillis, ScanStatus status) {
+        this.sensitiveColumns = sensitiveColumns;
+        this.rowsScanned = rowsScanned;
+        this.elapsedMillis = elapsedMillis;
+        this.status = status;
+    }
+
+    /**
+     Getter for the columns which matched sensitive data.
+     @return the columns which matched sensitive data.
+     */
+    public List<SensitiveColumn> getSensitiveColumns() {
+        return sensitiveColumns;
+    }
+
+    /**
+     Getter for the number of rows read from the table.
+     @return the number of rows read from the table.
+     */
+    public long getRowsScanned() {
+        return rowsScanned;
+    }
+
+    /**
+     Getter for the duration of the scan.
+     @return the duration of the scan in milliseconds.
+     */
+    public long getElapsedMillis() {
+        return elapsedMillis;
+    }
+
+    /**
+     Getter for the reason why the scan stopped.
+     @return the status of the scan.
+     */
+    public ScanStatus getStatus() {
+        return status;
+    }
+
+    /**
+     Returns whether the scan stopped on a budget, in which case more sensitive data may exist in the table.
+     @return true if the results may be partial, false otherwise.
+     */
+    public boolean isPartial() {
+        return status.isPartial();
+    }
+
+    @Override
+    public String toString() {
+        return "ScanResult{" +
+                "sensitiveColumns=" + sensitiveColumns +
+                ", rowsScanned=" + rowsScanned +
+                ", elapsedMillis=" + elapsedMillis +
+                ", status=" + status +
+                '}';
+    }
+}
@@ -0,0 +1,102 @@
+package com.dbmasker.data;
+
+import com.dbmasker.utils.VectorKind;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * This class represents a column of character values, dictionary-encoded: each distinct value is stored once in
+ * the dictionary of the vector, and each position holds the code of its value in the dictionary.
+ */
+public class StringColumnVector extends ColumnVector {
+
+    private int[] codes; // The dictionary code of each value, -1 at the positions of the null values
+    private final List<String> dictionary = new ArrayList<>(); // The distinct values, by code
+    private final Map<String, Integer> dictionaryCodes = new HashMap<>(); // The code of each distinct value
+
+    /**
+     * Constructor for StringColumnVector.
+     *
+     * @param capacity The number of values the vector holds before growing.
+     */
+    public StringColumnVector(int capacity) {
+        codes = new int[capacity];
+    }
+
+    @Override
+    public VectorKind getKind() {
+        return VectorKind.STRING;
+    }
+
+    /**
+     * Appends a value, adding it to the dictionary if it is not there yet.
+     *
+     * @param value The value, or null.
+     */
+    public void append(String value) {
+        if (value == null) {
+            appendNull();
+            return;
+        }
+        Integer code = dictionaryCodes.get(value);
+        if (code == null) {
+            code = dictionary.size();
+            dictionary.add(value);
+            dictionaryCodes.put(value, code);
+        }
+        codes[reserve()] = code;
+    }
+
+    @Override
+    public void appendNull() {
+        super.appendNull();
+        codes[size() - 1] = -1;
+    }
+
+    /**
+     * Returns a value.
+     *
+     * @param index The position of the value, starting at 0.
+     * @return the value, or null if the value is null.
+     */
+    public String getString(int index) {
+        int code = codes[index];
+        return code < 0 ? null : dictionary.get(code);
+    }
+
+    /**
+     * Returns the dictionary code of a value.
+     *
+     * @param index The position of the value, starting at 0.
+     * @return the code of the value in the dictionary, or -1 if the value is null.
+     */
+    public int getCode(int index) {
+        return codes[index];
+    }
+
+    /**
+     * Returns the distinct values of the vector, in the order they were first appended.
+     *
+     * @return an unmodifiable view of the dictionary, indexed by code.
+     */
+    public List<String> getDictionary() {
+        return Collections.unmodifiableList(dictionary);
+    }
+
+    @Override
+    public Object getObject(int index) {
+        return getString(index);
+    }
+
+    @Override
+    protected void ensureCapacity(int capacity) {
+        if (capacity > codes.length) {
+            codes = Arrays.copyOf(codes, grownCapacity(codes.length, capacity));
+        }
+    }
+}
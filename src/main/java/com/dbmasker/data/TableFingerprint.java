@@ -0,0 +1,167 @@
+package com.dbmasker.data;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * This class represents the fingerprint of a table taken by an incremental scan, with the sensitive columns
+ * the scan found. The next incremental scan compares it with the current fingerprint of the table to skip
+ * unchanged tables and to scan only the new rows of tables which only grew.
+ */
+public class TableFingerprint {
+
+    private final String schemaName; // The name of the schema where the table is located
+    private final String tableName; // The name of the table or view
+    private final String scanKey; // The detectors and match data size of the scan, a change invalidates the results
+    private final Long rowCount; // The row count estimated from the catalog, null if not available
+    private final String modificationStamp; // The last DDL or modification time from the catalog, null if not available
+    private final String watermarkColumn; // The integer primary key column tracking new rows, null if the table has none
+    private final BigDecimal watermark; // The maximum value of the watermark column, null if not available
+    private final long scanTime; // The time of the scan, in milliseconds since the epoch
+    private final List<SensitiveColumn> sensitiveColumns; // The sensitive columns found in the table
+
+    /**
+     * Constructor for the TableFingerprint class.
+     *
+     * @param schemaName        The name of the schema where the table is located.
+     * @param tableName         The name of the table or view.
+     * @param scanKey           The detectors and match data size of the scan.
+     * @param rowCount          The row count estimated from the catalog, or null if not available.
+     * @param modificationStamp The last DDL or modification time from the catalog, or null if not available.
+     * @param watermarkColumn   The integer primary key column tracking new rows, or null if the table has none.
+     * @param watermark         The maximum value of the watermark column, or null if not available.
+     * @param scanTime          The time of the scan, in milliseconds since the epoch.
+     * @param sensitiveColumns  The sensitive columns found in the table.
+     */
+    public TableFingerprint(String schemaName, String tableName, String scanKey, Long rowCount, String modificationStamp,
+                            String watermarkColumn, BigDecimal watermark, long scanTime, List<SensitiveColumn> sensitiveColumns) {
+        this.schemaName = schemaName;
+        this.tableName = tableName;
+        this.scanKey = scanKey;
+        this.rowCount = rowCount;
+        this.modificationStamp = modificationStamp;
+        this.watermarkColumn = watermarkColumn;
+        this.watermark = watermark;
+        this.scanTime = scanTime;
+        this.sensitiveColumns = sensitiveColumns;
+    }
+
+    /**
+     Getter for the schemaName character.
+     @return the schemaName character.
+     */
+    public String getSchemaName() {
+        return schemaName;
+    }
+
+    /**
+     Getter for the tableName character.
+     @return the tableName character.
+     */
+    public String getTableName() {
+        return tableName;
+    }
+
+    /**
+     Getter for the detectors and match data size of the scan.
+     @return the scan key.
+     */
+    public String getScanKey() {
+        return scanKey;
+    }
+
+    /**
+     Getter for the row count estimated from the catalog.
+     @return the estimated row count, or null if not available.
+     */
+    public Long getRowCount() {
+        return rowCount;
+    }
+
+    /**
+     Getter for the last DDL or modification time from the catalog.
+     @return the modification stamp, or null if not available.
+     */
+    public String getModificationStamp() {
+        return modificationStamp;
+    }
+
+    /**
+     Getter for the integer primary key column tracking new rows.
+     @return the watermark column, or null if the table has none.
+     */
+    public String getWatermarkColumn() {
+        return watermarkColumn;
+    }
+
+    /**
+     Getter for the maximum value of the watermark column.
+     @return the watermark, or null if not available.
+     */
+    public BigDecimal getWatermark() {
+        return watermark;
+    }
+
+    /**
+     Getter for the time of the scan.
+     @return the time of the scan, in milliseconds since the epoch.
+     */
+    public long getScanTime() {
+        return scanTime;
+    }
+
+    /**
+     Getter for the sensitive columns found in the table.
+     @return the sensitive columns.
+     */
+    public List<SensitiveColumn> getSensitiveColumns() {
+        return sensitiveColumns;
+    }
+
+    /**
+     * Returns a copy of this fingerprint holding other sensitive columns.
+     *
+     * @param sensitiveColumns The sensitive columns found in the table.
+     * @return the new fingerprint.
+     */
+    public TableFingerprint withSensitiveColumns(List<SensitiveColumn> sensitiveColumns) {
+        return new TableFingerprint(schemaName, tableName, scanKey, rowCount, modificationStamp, watermarkColumn,
+                watermark, scanTime, sensitiveColumns);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof TableFingerprint that)) return false;
+        return scanTime == that.scanTime
+                && Objects.equals(schemaName, that.schemaName)
+                && Objects.equals(tableName, that.tableName)
+                && Objects.equals(scanKey, that.scanKey)
+                && Objects.equals(rowCount, that.rowCount)
+                && Objects.equals(modificationStamp, that.modificationStamp)
+                && Objects.equals(watermarkColumn, that.watermarkColumn)
+                && Objects.equals(watermark, that.watermark)
+                && Objects.equals(sensitiveColumns, that.sensitiveColumns);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(schemaName, tableName, scanKey, rowCount, modificationStamp, watermarkColumn, watermark,
+                scanTime, sensitiveColumns);
+    }
+
+    @Override
+    public String toString() {
+        return "TableFingerprint{" +
+                "schemaName='" + schemaName + '\'' +
+                ", tableName='" + tableName + '\'' +
+                ", rowCount=" + rowCount +
+                ", modificationStamp='" + modificationStamp + '\'' +
+                ", watermarkColumn='" + watermarkColumn + '\'' +
+                ", watermark=" + watermark +
+                ", scanTime=" + scanTime +
+                ", sensitiveColumns=" + sensitiveColumns +
+                '}';
+    }
+}
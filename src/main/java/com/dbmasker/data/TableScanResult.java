@@ -0,0 +1,160 @@
+package com.dbmasker.data;
+
+import com.dbmasker.utils.ScanMode;
+
+import java.sql.SQLException;
+
+/**
+ * This class represents the outcome of scanning one table or view during a schema scan.
+ * Either the scan result or the error is set.
+ */
+public class TableScanResult {
+
+    private final String schemaName; // The name of the schema where the table is located
+    private final String tableName; // The name of the scanned table or view
+    private final ScanResult scanResult; // The result of the scan, null if it failed
+    private final SQLException error; // The error which stopped the scan, null if it succeeded
+    private final long elapsedMillis; // The duration of the scan in milliseconds, including getting a connection
+    private final ScanMode mode; // How an incremental scan handled the table, FULL for other scans
+    private final TableFingerprint fingerprint; // The fingerprint to persist after an incremental scan, null otherwise
+    private final SQLException stampRefreshError; // The failure of the modification stamp refresh requested before the scan
+
+    /**
+     * Constructor for the TableScanResult class.
+     *
+     * @param schemaName    The name of the schema where the table is located.
+     * @param tableName     The name of the scanned table or view.
+     * @param scanResult    The result of the scan, null if it failed.
+     * @param error         The error which stopped the scan, null if it succeeded.
+     * @param elapsedMillis The duration of the scan in milliseconds, including getting a connection.
+     */
+    public TableScanResult(String schemaName, String tableName, ScanResult scanResult, SQLException error, long elapsedMillis) {
+        this(schemaName, tableName, scanResult, error, elapsedMillis, ScanMode.FULL, null);
+    }
+
+    /**
+     * Constructor for the TableScanResult class of an incremental scan.
+     *
+     * @param schemaName    The name of the schema where the table is located.
+     * @param tableName     The name of the scanned table or view.
+     * @param scanResult    The result of the scan, null if it failed.
+     * @param error         The error which stopped the scan, null if it succeeded.
+     * @param elapsedMillis The duration of the scan in milliseconds, including getting a connection.
+     * @param mode          How the incremental scan handled the table.
+     * @param fingerprint   The fingerprint to persist, null if the scan failed or its results are partial.
+     */
+    public TableScanResult(String schemaName, String tableName, ScanResult scanResult, SQLException error, long elapsedMillis,
+                           ScanMode mode, TableFingerprint fingerprint) {
+        this(schemaName, tableName, scanResult, error, elapsedMillis, mode, fingerprint, null);
+    }
+
+    /**
+     * Constructor for the TableScanResult class of an incremental schema scan.
+     *
+     * @param schemaName        The name of the schema where the table is located.
+     * @param tableName         The name of the scanned table or view.
+     * @param scanResult        The result of the scan, null if it failed.
+     * @param error             The error which stopped the scan, null if it succeeded.
+     * @param elapsedMillis     The duration of the scan in milliseconds, including getting a connection.
+     * @param mode              How the incremental scan handled the table.
+     * @param fingerprint       The fingerprint to persist, null if the scan failed or its results are partial.
+     * @param stampRefreshError The failure of the modification stamp refresh requested before the scan, or null.
+     */
+    public TableScanResult(String schemaName, String tableName, ScanResult scanResult, SQLException error, long elapsedMillis,
+                           ScanMode mode, TableFingerprint fingerprint, SQLException stampRefreshError) {
+        this.schemaName = schemaName;
+        this.tableName = tableName;
+        this.scanResult = scanResult;
+        this.error = error;
+        this.elapsedMillis = elapsedMillis;
+        this.mode = mode;
+        this.fingerprint = fingerprint;
+        this.stampRefreshError = stampRefreshError;
+    }
+
+    /**
+     Getter for the schemaName character.
+     @return the schemaName character.
+     */
+    public String getSchemaName() {
+        return schemaName;
+    }
+
+    /**
+     Getter for the tableName character.
+     @return the tableName character.
+     */
+    public String getTableName() {
+        return tableName;
+    }
+
+    /**
+     Getter for the result of the scan.
+     @return the result of the scan, or null if it failed.
+     */
+    public ScanResult getScanResult() {
+        return scanResult;
+    }
+
+    /**
+     Getter for the error which stopped the scan.
+     @return the error which stopped the scan, or null if it succeeded.
+     */
+    public SQLException getError() {
+        return error;
+    }
+
+    /**
+     Getter for the duration of the scan, including getting a connection.
+     @return the duration of the scan in milliseconds.
+     */
+    public long getElapsedMillis() {
+        return elapsedMillis;
+    }
+
+    /**
+     Getter for how an incremental scan handled the table.
+     @return the scan mode, FULL for scans which are not incremental.
+     */
+    public ScanMode getMode() {
+        return mode;
+    }
+
+    /**
+     Getter for the fingerprint to persist after an incremental scan.
+     @return the fingerprint, or null if the scan was not incremental, failed or has partial results.
+     */
+    public TableFingerprint getFingerprint() {
+        return fingerprint;
+    }
+
+    /**
+     Getter for the failure of the modification stamp refresh requested with ScanOptions.setRefreshModificationStamps.
+     The table was then fingerprinted from the counters as of their last refresh by the database.
+     @return the failure of the refresh, or null if it succeeded or was not requested.
+     */
+    public SQLException getStampRefreshError() {
+        return stampRefreshError;
+    }
+
+    /**
+     Returns whether the table was scanned successfully.
+     @return true if the scan succeeded, false otherwise.
+     */
+    public boolean isSuccess() {
+        return error == null;
+    }
+
+    @Override
+    public String toString() {
+        return "TableScanResult{" +
+                "schemaName='" + schemaName + '\'' +
+                ", tableName='" + tableName + '\'' +
+                ", scanResult=" + scanResult +
+                ", error=" + error +
+                ", elapsedMillis=" + elapsedMillis +
+                ", mode=" + mode +
+                ", stampRefreshError=" + stampRefreshError +
+                '}';
+    }
+}
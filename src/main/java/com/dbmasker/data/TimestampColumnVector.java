@@ -0,0 +1,111 @@
+package com.dbmasker.data;
+
+import com.dbmasker.utils.VectorKind;
+
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.util.Arrays;
+
+/**
+ * This class represents a column of date or timestamp values, stored as milliseconds since the epoch and, for
+ * timestamps, the nanoseconds of each value.
+ */
+public class TimestampColumnVector extends ColumnVector {
+
+    private final boolean dateOnly; // Whether the values are dates, returned as java.sql.Date
+    private long[] millis; // The milliseconds since the epoch of each value, 0 at the positions of the null values
+    private int[] nanos; // The nanoseconds of each timestamp, null for dates
+
+    /**
+     * Constructor for TimestampColumnVector.
+     *
+     * @param capacity The number of values the vector holds before growing.
+     * @param dateOnly Whether the values are dates rather than timestamps.
+     */
+    public TimestampColumnVector(int capacity, boolean dateOnly) {
+        this.dateOnly = dateOnly;
+        millis = new long[capacity];
+        nanos = dateOnly ? null : new int[capacity];
+    }
+
+    @Override
+    public VectorKind getKind() {
+        return VectorKind.TIMESTAMP;
+    }
+
+    /**
+     * Returns whether the values are dates rather than timestamps.
+     *
+     * @return true if the values are dates, false otherwise.
+     */
+    public boolean isDateOnly() {
+        return dateOnly;
+    }
+
+    /**
+     * Appends a value.
+     *
+     * @param value The value, or null.
+     */
+    public void append(Timestamp value) {
+        if (value == null) {
+            appendNull();
+            return;
+        }
+        int index = reserve();
+        millis[index] = value.getTime();
+        if (nanos != null) {
+            nanos[index] = value.getNanos();
+        }
+    }
+
+    /**
+     * Returns a value as milliseconds since the epoch, 0 if the value is null.
+     *
+     * @param index The position of the value, starting at 0.
+     * @return the milliseconds since the epoch.
+     */
+    public long getMillis(int index) {
+        return millis[index];
+    }
+
+    /**
+     * Returns the array holding the values as milliseconds since the epoch, for tight loops over the vector.
+     * Only its first size() elements are values, and the elements at the positions of the null values are 0.
+     *
+     * @return the backing array of the vector.
+     */
+    public long[] getValues() {
+        return millis;
+    }
+
+    /**
+     * Returns a value as a java.sql.Date for dates, or as a java.sql.Timestamp with its nanoseconds otherwise.
+     *
+     * @param index The position of the value, starting at 0.
+     * @return the value, or null if the value is null.
+     */
+    @Override
+    public Object getObject(int index) {
+        if (isNull(index)) {
+            return null;
+        }
+        if (dateOnly) {
+            return new Date(millis[index]);
+        }
+        Timestamp timestamp = new Timestamp(millis[index]);
+        timestamp.setNanos(nanos[index]);
+        return timestamp;
+    }
+
+    @Override
+    protected void ensureCapacity(int capacity) {
+        if (capacity > millis.length) {
+            int newCapacity = grownCapacity(millis.length, capacity);
+            millis = Arrays.copyOf(millis, newCapacity);
+            if (nanos != null) {
+                nanos = Arrays.copyOf(nanos, newCapacity);
+            }
+        }
+    }
+}
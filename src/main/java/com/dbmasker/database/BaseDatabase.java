@@ -2,15 +2,23 @@ package com.dbmasker.database;
 
 import com.dbmasker.data.*;
 import com.dbmasker.utils.Config;
+import com.dbmasker.utils.CountStrategy;
 import com.dbmasker.utils.DbUtils;
 import com.dbmasker.utils.ErrorMessages;
-import com.dbmasker.utils.ObfuscationUtils;
+import com.dbmasker.utils.KeysetToken;
+import com.dbmasker.utils.LruCache;
+import com.dbmasker.utils.MultiRegexMatcher;
+import com.dbmasker.utils.ObfuscationPlan;
+import com.dbmasker.utils.ScanMode;
+import com.dbmasker.utils.ScanStateStore;
+import com.dbmasker.utils.ScanStatus;
+import com.dbmasker.utils.VectorKind;
 import net.sf.jsqlparser.JSQLParserException;
 
+import java.math.BigDecimal;
 import java.sql.*;
 import java.util.*;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
 /**
@@ -22,6 +30,20 @@ import java.util.stream.Collectors;
  */
 public abstract class BaseDatabase implements Database {
 
+    /**
+     * The maximum number of table row counts kept by the CACHED count strategy.
+     */
+    public static final int ROW_COUNT_CACHE_SIZE = 1024;
+
+    /**
+     * The maximum number of tables whose catalog is loaded table by table when only some tables are loaded, such as
+     * by a catalog refresh. Above it, the catalog of the whole schema is read with one query per kind of object.
+     */
+    public static final int PER_TABLE_CATALOG_LIMIT = 32;
+
+    // Row counts of the CACHED count strategy, shared by all databases and expired according to Config
+    private static final LruCache<String, Long> ROW_COUNT_CACHE = new LruCache<>(ROW_COUNT_CACHE_SIZE);
+
     /**
      * Default constructor for BaseDatabase class.
      */
@@ -89,35 +111,45 @@ public abstract class BaseDatabase implements Database {
      * @throws SQLException if a database access error occurs
      */
     public static List<TableMetaData> getMetaData(Connection connection, String catalog, String schemaName) throws SQLException {
-        List<TableMetaData> metaDataList = new ArrayList<>();
-
-        ResultSet tables = null;
-        ResultSet columns = null;
-        try {
-            DatabaseMetaData dbMetaData = connection.getMetaData();
-            tables = dbMetaData.getTables(catalog, schemaName, null, new String[]{"TABLE"});
-
+        // The columns of all the tables are read with a single query, then grouped by table in the listing order
+        Map<String, List<TableMetaData>> tableColumns = new LinkedHashMap<>();
+        DatabaseMetaData dbMetaData = connection.getMetaData();
+        try (ResultSet tables = dbMetaData.getTables(catalog, schemaName, null, new String[]{"TABLE"})) {
             while (tables.next()) {
-                String tableName = tables.getString("TABLE_NAME");
-                columns = dbMetaData.getColumns(catalog, schemaName, tableName, null);
-
-                while (columns.next()) {
-                    String columnName = columns.getString("COLUMN_NAME");
-                    String dataType = columns.getString("TYPE_NAME");
-                    String columnSize = columns.getString("COLUMN_SIZE");
-
-                    TableMetaData metaData = new TableMetaData(tableName, columnName, dataType, columnSize);
-                    metaDataList.add(metaData);
+                tableColumns.put(tables.getString("TABLE_NAME"), new ArrayList<>());
+            }
+        }
+        try (ResultSet columns = dbMetaData.getColumns(catalog, schemaName, "%", "%")) {
+            while (columns.next()) {
+                List<TableMetaData> metaDataList = tableColumns.get(columns.getString("TABLE_NAME"));
+                if (metaDataList != null) {
+                    metaDataList.add(readTableMetaData(columns));
                 }
             }
-        } finally {
-            DbUtils.closeResultSet(tables);
-            DbUtils.closeResultSet(columns);
         }
 
+        List<TableMetaData> metaDataList = new ArrayList<>();
+        for (List<TableMetaData> columns : tableColumns.values()) {
+            metaDataList.addAll(columns);
+        }
         return metaDataList;
     }
 
+    /**
+     * Reads the metadata of a column from a row of DatabaseMetaData.getColumns.
+     *
+     * @param columns The result set of DatabaseMetaData.getColumns, positioned on a column.
+     * @return the metadata of the column.
+     * @throws SQLException if a database access error occurs
+     */
+    private static TableMetaData readTableMetaData(ResultSet columns) throws SQLException {
+        String tableName = columns.getString("TABLE_NAME");
+        String columnName = columns.getString("COLUMN_NAME");
+        String dataType = columns.getString("TYPE_NAME");
+        String columnSize = columns.getString("COLUMN_SIZE");
+        return new TableMetaData(tableName, columnName, dataType, columnSize);
+    }
+
     /**
      * Retrieves table attributes for a given table in the specified schema.
      *
@@ -180,25 +212,18 @@ public abstract class BaseDatabase implements Database {
                 primaryKeys.add(pkResultSet.getString("COLUMN_NAME"));
             }
 
+            // The table name is a pattern for getColumns, where '_' and '%' also match the columns of other tables
+            List<String> tableNames = new ArrayList<>();
             while (resultSet.next()) {
-                String name = resultSet.getString("COLUMN_NAME");
-                int valueType = resultSet.getInt("DATA_TYPE");
-                long maxLength = resultSet.getLong("COLUMN_SIZE");
-                boolean required = resultSet.getInt("NULLABLE") == DatabaseMetaData.columnNoNulls;
-                boolean autoGenerated = false;
-                try {
-                    autoGenerated = resultSet.getString("IS_AUTOINCREMENT").equalsIgnoreCase("YES");
-                } catch (SQLException | NullPointerException e) {
-                    // pass
+                tableNames.add(resultSet.getString("TABLE_NAME"));
+                attributes.add(readTableAttribute(resultSet, primaryKeys));
+            }
+            if (table != null && tableNames.contains(table)) {
+                for (int i = attributes.size() - 1; i >= 0; i--) {
+                    if (!table.equals(tableNames.get(i))) {
+                        attributes.remove(i);
+                    }
                 }
-                int scale = resultSet.getInt("DECIMAL_DIGITS");
-                int precision = resultSet.getInt("NUM_PREC_RADIX");
-                String typeName = resultSet.getString("TYPE_NAME");
-                int ordinalPosition = resultSet.getInt("ORDINAL_POSITION");
-                boolean isPrimaryKey = primaryKeys.contains(name);
-                TableAttribute attribute = new TableAttribute(name, valueType, maxLength, required, autoGenerated,
-                        scale, precision, typeName, ordinalPosition, isPrimaryKey);
-                attributes.add(attribute);
             }
         } finally {
             DbUtils.closeResultSet(resultSet);
@@ -207,6 +232,34 @@ public abstract class BaseDatabase implements Database {
         return attributes;
     }
 
+    /**
+     * Reads the attributes of a column from a row of DatabaseMetaData.getColumns.
+     *
+     * @param resultSet   The result set of DatabaseMetaData.getColumns, positioned on a column.
+     * @param primaryKeys The primary key columns of the table of the column.
+     * @return the attributes of the column.
+     * @throws SQLException if a database access error occurs
+     */
+    private static TableAttribute readTableAttribute(ResultSet resultSet, Set<String> primaryKeys) throws SQLException {
+        String name = resultSet.getString("COLUMN_NAME");
+        int valueType = resultSet.getInt("DATA_TYPE");
+        long maxLength = resultSet.getLong("COLUMN_SIZE");
+        boolean required = resultSet.getInt("NULLABLE") == DatabaseMetaData.columnNoNulls;
+        boolean autoGenerated = false;
+        try {
+            autoGenerated = resultSet.getString("IS_AUTOINCREMENT").equalsIgnoreCase("YES");
+        } catch (SQLException | NullPointerException e) {
+            // pass
+        }
+        int scale = resultSet.getInt("DECIMAL_DIGITS");
+        int precision = resultSet.getInt("NUM_PREC_RADIX");
+        String typeName = resultSet.getString("TYPE_NAME");
+        int ordinalPosition = resultSet.getInt("ORDINAL_POSITION");
+        boolean isPrimaryKey = primaryKeys.contains(name);
+        return new TableAttribute(name, valueType, maxLength, required, autoGenerated,
+                scale, precision, typeName, ordinalPosition, isPrimaryKey);
+    }
+
     /**
      * Retrieves the primary keys of a specified table within the given schema.
      *
@@ -237,12 +290,12 @@ public abstract class BaseDatabase implements Database {
 
         // Get the primary keys for the specified table in the schema
         // If the schema is null, this method retrieves those keys in the default schema
-        ResultSet primaryKeyResultSet = metaData.getPrimaryKeys(catalog, schemaName, table);
-
-        // Iterate through the ResultSet and add each primary key to the list
         Set<String> primaryKeys = new HashSet<>();
-        while (primaryKeyResultSet.next()) {
-            primaryKeys.add(primaryKeyResultSet.getString("COLUMN_NAME"));
+        try (ResultSet primaryKeyResultSet = metaData.getPrimaryKeys(catalog, schemaName, table)) {
+            // Iterate through the ResultSet and add each primary key to the list
+            while (primaryKeyResultSet.next()) {
+                primaryKeys.add(primaryKeyResultSet.getString("COLUMN_NAME"));
+            }
         }
         return primaryKeys;
     }
@@ -349,6 +402,354 @@ public abstract class BaseDatabase implements Database {
         return indices;
     }
 
+    /**
+     * Loads the catalog of a schema at once: its tables with their columns, primary keys, unique keys and indexes.
+     *
+     * @param connection A valid database connection.
+     * @param schemaName The name of the schema.
+     * @return the catalog snapshot of the schema.
+     * @throws SQLException if a database access error occurs
+     */
+    @Override
+    public CatalogSnapshot getCatalogSnapshot(Connection connection, String schemaName) throws SQLException {
+        return loadCatalogTables(connection, schemaName, null);
+    }
+
+    /**
+     * Refreshes a catalog snapshot, reloading only the tables whose definition stamp changed since the snapshot
+     * was taken. When the database or the caller has no stamps, all the tables are reloaded and only those whose
+     * columns, keys or indexes differ from the snapshot are reported as changed.
+     *
+     * @param connection     A valid database connection.
+     * @param snapshot       The catalog snapshot to refresh, which is not modified.
+     * @param previousStamps The definition stamps of the tables read with the snapshot, or null if unknown.
+     * @return the refreshed snapshot, the added, changed and removed tables and the current stamps.
+     * @throws SQLException if a database access error occurs
+     */
+    @Override
+    public CatalogRefresh refreshCatalogSnapshot(Connection connection, CatalogSnapshot snapshot,
+                                                 Map<String, String> previousStamps) throws SQLException {
+        String schemaName = snapshot.getSchemaName();
+        Map<String, String> currentStamps = getTableDdlStamps(connection, schemaName);
+
+        CatalogSnapshot reloaded;
+        List<String> addedTables = new ArrayList<>();
+        List<String> changedTables = new ArrayList<>();
+        List<String> removedTables = new ArrayList<>();
+        if (currentStamps == null || previousStamps == null) {
+            // Without stamps nothing tells which tables changed, so the reloaded tables are compared with the snapshot
+            reloaded = loadCatalogTables(connection, schemaName, null);
+            for (String tableName : snapshot.getTableNames()) {
+                if (!reloaded.containsTable(tableName)) {
+                    removedTables.add(tableName);
+                } else if (!isSameTableDefinition(snapshot, reloaded, tableName)) {
+                    changedTables.add(tableName);
+                }
+            }
+            for (String tableName : reloaded.getTableNames()) {
+                if (!snapshot.containsTable(tableName)) {
+                    addedTables.add(tableName);
+                }
+            }
+            if (addedTables.isEmpty() && changedTables.isEmpty() && removedTables.isEmpty()) {
+                return new CatalogRefresh(snapshot, addedTables, changedTables, removedTables, currentStamps);
+            }
+        } else {
+            for (Map.Entry<String, String> entry : currentStamps.entrySet()) {
+                String tableName = entry.getKey();
+                if (!previousStamps.containsKey(tableName) || !snapshot.containsTable(tableName)) {
+                    addedTables.add(tableName);
+                } else if (!Objects.equals(previousStamps.get(tableName), entry.getValue())) {
+                    changedTables.add(tableName);
+                }
+            }
+            for (String tableName : previousStamps.keySet()) {
+                if (!currentStamps.containsKey(tableName) && snapshot.containsTable(tableName)) {
+                    removedTables.add(tableName);
+                }
+            }
+            if (addedTables.isEmpty() && changedTables.isEmpty() && removedTables.isEmpty()) {
+                return new CatalogRefresh(snapshot, addedTables, changedTables, removedTables, currentStamps);
+            }
+            List<String> reloadedTables = new ArrayList<>(addedTables);
+            reloadedTables.addAll(changedTables);
+            reloaded = reloadedTables.isEmpty() ? new CatalogSnapshot(schemaName, System.currentTimeMillis())
+                    : loadCatalogTables(connection, schemaName, reloadedTables);
+        }
+
+        // Keep the unchanged tables, replace the changed ones in place and append the added ones
+        CatalogSnapshot refreshed = new CatalogSnapshot(schemaName, System.currentTimeMillis());
+        for (String tableName : snapshot.getTableNames()) {
+            if (removedTables.contains(tableName)) {
+                continue;
+            }
+            CatalogSnapshot source = changedTables.contains(tableName) ? reloaded : snapshot;
+            if (source.containsTable(tableName)) {
+                refreshed.copyTable(source, tableName);
+            }
+        }
+        for (String tableName : addedTables) {
+            if (reloaded.containsTable(tableName)) {
+                refreshed.copyTable(reloaded, tableName);
+            }
+        }
+        for (DatabaseFunction function : snapshot.getFunctions()) {
+            refreshed.addFunction(function);
+        }
+        return new CatalogRefresh(refreshed, addedTables, changedTables, removedTables, currentStamps);
+    }
+
+    /**
+     * Returns whether a table has the same columns, keys and indexes in two catalog snapshots.
+     *
+     * @param snapshot  The previous snapshot.
+     * @param reloaded  The reloaded snapshot.
+     * @param tableName The name of the table, present in both snapshots.
+     * @return true if the definition of the table did not change, false otherwise.
+     */
+    private static boolean isSameTableDefinition(CatalogSnapshot snapshot, CatalogSnapshot reloaded, String tableName) {
+        List<Boolean> requiredColumns = new ArrayList<>();
+        for (TableAttribute attribute : snapshot.getTableAttributes(tableName)) {
+            requiredColumns.add(attribute.isRequired());
+        }
+        List<Boolean> reloadedRequiredColumns = new ArrayList<>();
+        for (TableAttribute attribute : reloaded.getTableAttributes(tableName)) {
+            reloadedRequiredColumns.add(attribute.isRequired());
+        }
+        return snapshot.getMetaData(tableName).equals(reloaded.getMetaData(tableName))
+                && requiredColumns.equals(reloadedRequiredColumns)
+                && snapshot.getPrimaryKeys(tableName).equals(reloaded.getPrimaryKeys(tableName))
+                && snapshot.getUniqueKeys(tableName).equals(reloaded.getUniqueKeys(tableName))
+                && new HashSet<>(snapshot.getIndexes(tableName)).equals(new HashSet<>(reloaded.getIndexes(tableName)));
+    }
+
+    /**
+     * Retrieves a stamp of the definition of each table of a schema. The default implementation returns null,
+     * as not every database records when a table definition changes.
+     *
+     * @param connection A valid database connection.
+     * @param schemaName The name of the schema.
+     * @return the definition stamp of each table keyed by table name, or null if the database has no such stamp.
+     * @throws SQLException if a database access error occurs
+     */
+    @Override
+    public Map<String, String> getTableDdlStamps(Connection connection, String schemaName) throws SQLException {
+        return null;
+    }
+
+    /**
+     * Runs a catalog query returning the name and the definition stamp of each table of a schema.
+     *
+     * @param connection The database connection object.
+     * @param sql        The query, selecting the table name then the stamp.
+     * @param params     The string parameters of the query, which may be null.
+     * @return the stamp of each table keyed by table name, in the order of the query.
+     * @throws SQLException If a database access error occurs.
+     */
+    protected Map<String, String> queryTableDdlStamps(Connection connection, String sql, String... params) throws SQLException {
+        return StatementCache.query(connection, sql, Arrays.asList(params), rs -> {
+            Map<String, String> stamps = new LinkedHashMap<>();
+            while (rs.next()) {
+                stamps.put(rs.getString(1), rs.getString(2));
+            }
+            return stamps;
+        });
+    }
+
+    /**
+     * Loads the catalog of some or all the tables of a schema. Databases which pass the schema to DatabaseMetaData
+     * as a catalog, or store it in upper case, override this method to call
+     * {@link #loadCatalogSnapshot(Connection, String, String, String, Collection)} accordingly.
+     *
+     * @param connection A valid database connection.
+     * @param schemaName The name of the schema.
+     * @param tableNames The names of the tables to load, or null to load all the tables.
+     * @return the catalog snapshot of the tables.
+     * @throws SQLException if a database access error occurs
+     */
+    protected CatalogSnapshot loadCatalogTables(Connection connection, String schemaName,
+                                                Collection<String> tableNames) throws SQLException {
+        return loadCatalogSnapshot(connection, null, schemaName, schemaName, tableNames);
+    }
+
+    /**
+     * Loads the catalog of a schema with one query per kind of catalog object, instead of a few queries per table.
+     * <p>
+     * The tables are listed with getTables and the columns of all of them are read with a single
+     * {@code DatabaseMetaData.getColumns(catalog, schema, "%", "%")} call. The keys and indexes of all the tables are
+     * read with the query of {@link #getIndexCatalogQuery()}, or table by table through DatabaseMetaData when the
+     * database has no such query or the query fails. When at most PER_TABLE_CATALOG_LIMIT tables are requested,
+     * their columns, keys and indexes are read table by table instead, and requested tables which no longer exist
+     * are left out.
+     *
+     * @param connection    A valid database connection.
+     * @param catalog       The catalog passed to DatabaseMetaData, null for databases without catalogs.
+     * @param schemaPattern The schema passed to DatabaseMetaData, null for databases without schemas.
+     * @param schemaName    The name of the schema passed to getTables and to the catalog queries.
+     * @param tableNames    The names of the tables to load, or null to load all the tables.
+     * @return the catalog snapshot of the schema.
+     * @throws SQLException if a database access error occurs
+     */
+    protected CatalogSnapshot loadCatalogSnapshot(Connection connection, String catalog, String schemaPattern,
+                                                  String schemaName, Collection<String> tableNames) throws SQLException {
+        CatalogSnapshot snapshot = new CatalogSnapshot(schemaName, System.currentTimeMillis());
+        boolean perTable = tableNames != null && tableNames.size() <= PER_TABLE_CATALOG_LIMIT;
+        if (perTable) {
+            tableNames.forEach(snapshot::addTable);
+        } else {
+            for (String tableName : getTables(connection, schemaName)) {
+                if (tableNames == null || tableNames.contains(tableName)) {
+                    snapshot.addTable(tableName);
+                }
+            }
+        }
+
+        // Keys first, so that the columns are created with their primary key flag
+        List<IndexRow> indexRows = null;
+        String indexQuery = perTable ? null : getIndexCatalogQuery();
+        if (indexQuery != null) {
+            try {
+                indexRows = queryIndexRows(connection, indexQuery, schemaName == null || schemaName.isEmpty() ? null : schemaName);
+            } catch (SQLException e) {
+                // The catalog views are not readable, the keys are read table by table
+                indexRows = null;
+            }
+        }
+        if (indexRows == null) {
+            indexRows = new ArrayList<>();
+            DatabaseMetaData metaData = connection.getMetaData();
+            for (String tableName : snapshot.getTableNames()) {
+                for (String columnName : getPrimaryKeys(connection, catalog, schemaPattern, tableName)) {
+                    indexRows.add(new IndexRow(tableName, null, columnName, true, true));
+                }
+                try (ResultSet rs = metaData.getIndexInfo(catalog, schemaPattern, tableName, false, true)) {
+                    while (rs.next()) {
+                        indexRows.add(new IndexRow(tableName, rs.getString("INDEX_NAME"), rs.getString("COLUMN_NAME"),
+                                !rs.getBoolean("NON_UNIQUE"), false));
+                    }
+                }
+            }
+        }
+
+        Map<String, Set<String>> primaryKeys = new HashMap<>();
+        for (IndexRow row : indexRows) {
+            if (!snapshot.containsTable(row.tableName()) || row.columnName() == null) {
+                continue;
+            }
+            if (row.primary()) {
+                primaryKeys.computeIfAbsent(row.tableName(), k -> new HashSet<>()).add(row.columnName());
+            }
+            if (row.indexName() != null) {
+                snapshot.addIndex(row.tableName(), new TableIndex(row.indexName(), row.columnName(), row.unique()));
+                if (row.unique()) {
+                    snapshot.addUniqueKeyColumn(row.tableName(), row.indexName(), row.columnName());
+                }
+            }
+        }
+
+        if (perTable) {
+            // The table names are patterns for getColumns, so their '_' and '%' are escaped
+            DatabaseMetaData metaData = connection.getMetaData();
+            for (String tableName : snapshot.getTableNames()) {
+                readCatalogColumns(connection, catalog, schemaPattern, escapeSearchPattern(metaData, tableName),
+                        snapshot, primaryKeys);
+                if (snapshot.getTableAttributes(tableName).isEmpty()) {
+                    // The table was dropped since it was requested
+                    snapshot.removeTable(tableName);
+                }
+            }
+        } else {
+            readCatalogColumns(connection, catalog, schemaPattern, "%", snapshot, primaryKeys);
+        }
+        return snapshot;
+    }
+
+    /**
+     * Escapes the '_' and '%' wildcards of a name passed as a DatabaseMetaData pattern, with the search string
+     * escape of the driver, so that the pattern only matches the name itself.
+     *
+     * @param metaData The metadata of the connection.
+     * @param name     The name to escape.
+     * @return the escaped name, or the name itself if the driver has no search string escape.
+     * @throws SQLException if a database access error occurs
+     */
+    private static String escapeSearchPattern(DatabaseMetaData metaData, String name) throws SQLException {
+        String escape = metaData.getSearchStringEscape();
+        if (escape == null || escape.isEmpty()) {
+            return name;
+        }
+        return name.replace(escape, escape + escape).replace("_", escape + "_").replace("%", escape + "%");
+    }
+
+    /**
+     * Reads the columns of the tables matching a pattern and adds those of the tables of a snapshot to it.
+     *
+     * @param connection    A valid database connection.
+     * @param catalog       The catalog passed to DatabaseMetaData.
+     * @param schemaPattern The schema passed to DatabaseMetaData.
+     * @param tablePattern  The table name pattern passed to DatabaseMetaData, "%" for all the tables.
+     * @param snapshot      The snapshot receiving the columns.
+     * @param primaryKeys   The primary key columns of each table.
+     * @throws SQLException if a database access error occurs
+     */
+    private static void readCatalogColumns(Connection connection, String catalog, String schemaPattern, String tablePattern,
+                                           CatalogSnapshot snapshot, Map<String, Set<String>> primaryKeys) throws SQLException {
+        try (ResultSet columns = connection.getMetaData().getColumns(catalog, schemaPattern, tablePattern, "%")) {
+            while (columns.next()) {
+                String tableName = columns.getString("TABLE_NAME");
+                if (snapshot.containsTable(tableName)) {
+                    snapshot.addColumn(tableName,
+                            readTableAttribute(columns, primaryKeys.getOrDefault(tableName, Collections.emptySet())),
+                            readTableMetaData(columns));
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns the catalog query listing the index columns of all the tables of a schema, used to load catalog
+     * snapshots. The query has a single '?' parameter, the schema name or null for the current schema, and returns
+     * the table name, the index name, the column name, 1 if the index is not unique and 1 if the index is the
+     * primary key, in this order. The default implementation returns null, and the keys are then read table by table.
+     *
+     * @return the catalog query of the index columns, or null if the database has none.
+     */
+    protected String getIndexCatalogQuery() {
+        return null;
+    }
+
+    /**
+     * A column of an index read from the catalog.
+     *
+     * @param tableName  The name of the table of the index.
+     * @param indexName  The name of the index, null for a primary key column read without its index.
+     * @param columnName The name of the column.
+     * @param unique     Whether the index is unique.
+     * @param primary    Whether the index is the primary key.
+     */
+    private record IndexRow(String tableName, String indexName, String columnName, boolean unique, boolean primary) {
+    }
+
+    /**
+     * Runs the catalog query of the index columns of a schema.
+     *
+     * @param connection A valid database connection.
+     * @param sql        The catalog query, see {@link #getIndexCatalogQuery()}.
+     * @param schemaName The name of the schema, or null for the current schema.
+     * @return the index columns.
+     * @throws SQLException if a database access error occurs
+     */
+    private static List<IndexRow> queryIndexRows(Connection connection, String sql, String schemaName) throws SQLException {
+        return StatementCache.query(connection, sql, Collections.singletonList(schemaName), rs -> {
+            List<IndexRow> rows = new ArrayList<>();
+            while (rs.next()) {
+                rows.add(new IndexRow(rs.getString(1), rs.getString(2), rs.getString(3),
+                        rs.getInt(4) == 0, rs.getInt(5) == 1));
+            }
+            return rows;
+        });
+    }
+
     /**
      * Executes the given update SQL query using the provided database connection.
      *
@@ -462,6 +863,55 @@ public abstract class BaseDatabase implements Database {
         return result;
     }
 
+    /**
+     * Executes a SQL query and returns the result in a compact form, one shared column header and each row as an
+     * array of values, applies obfuscation rules to the specified columns.
+     *
+     * @param connection The database connection (java.sql.Connection) used to execute the query
+     * @param sql The SQL query string (String) to be executed
+     * @param obfuscationRules A map where the key is the column name and the value is the ObfuscationRule object to apply to that column.
+     * @return The compact result of the query
+     * @throws SQLException if a database access error occurs
+     */
+    @Override
+    public CompactResult execQueryCompactWithMask(Connection connection, String sql,
+                                                  Map<String, ObfuscationRule> obfuscationRules) throws SQLException {
+        Map<String, Set<String>> renameMap = Config.getInstance().getHandleRename()
+                ? DbUtils.getColumnRename(sql) : new HashMap<>();
+        try (Statement stmt = connection.createStatement(); ResultSet rs = stmt.executeQuery(sql)) {
+            return getCompactResult(rs, obfuscationRules, renameMap);
+        }
+    }
+
+    /**
+     * Executes a SQL query and hands the result to a callback in columnar batches, applies obfuscation rules to the
+     * specified columns of every batch. Integer, floating point and date columns are read into primitive vectors,
+     * and character columns into dictionary-encoded vectors, so that rows are read without boxing their values.
+     *
+     * @param connection The database connection (java.sql.Connection) used to execute the query
+     * @param sql The SQL query string (String) to be executed
+     * @param obfuscationRules A map where the key is the column name and the value is the ObfuscationRule object to apply to that column.
+     * @param batchSize The maximum number of rows of a batch, also given to the driver as fetch size
+     * @param callback The callback receiving each batch, a single empty batch when the query returns no row
+     * @return The number of rows read
+     * @throws SQLException if a database access error occurs
+     */
+    @Override
+    public long execQueryColumnarWithMask(Connection connection, String sql, Map<String, ObfuscationRule> obfuscationRules,
+                                          int batchSize, Consumer<ColumnBatch> callback) throws SQLException {
+        if (batchSize <= 0) {
+            throw new IllegalArgumentException(ErrorMessages.INVALID_BATCH_SIZE_ERROR);
+        }
+        Map<String, Set<String>> renameMap = Config.getInstance().getHandleRename()
+                ? DbUtils.getColumnRename(sql) : new HashMap<>();
+        try (Statement stmt = connection.createStatement()) {
+            stmt.setFetchSize(batchSize);
+            try (ResultSet rs = stmt.executeQuery(sql)) {
+                return readColumnBatches(rs, obfuscationRules, renameMap, batchSize, callback);
+            }
+        }
+    }
+
     /**
      * Executes a batch of SQL queries and returns the results as a list of lists of maps.
      *
@@ -492,6 +942,35 @@ public abstract class BaseDatabase implements Database {
         return batchResult;
     }
 
+    /**
+     * Executes a batch of independent SQL queries several at a time, each worker running its queries on its own
+     * connection obtained from the supplier, so that at most {@code parallelism} connections are used at the same
+     * time. The first query which fails stops the batch and cancels the queries still running. Each worker runs its
+     * queries in a read-only transaction which is rolled back once done, so that a query which writes despite
+     * starting with SELECT or WITH has no lasting effect on transactional tables.
+     *
+     * @param connectionSupplier The supplier of the connections, each connection is closed once the batch is done.
+     * @param sqlList            The list of SQL query strings to be executed, which must all be SELECT queries.
+     * @param obfuscationRules   A map where the key is the column name and the value is the ObfuscationRule object to apply to that column.
+     * @param parallelism        The maximum number of queries executed at the same time.
+     * @return A list of lists of maps where each inner list represents a query result, in the order of the queries
+     * @throws SQLException if a query fails or a database access error occurs
+     * @throws IllegalArgumentException if a statement of the batch is not a query
+     */
+    @Override
+    public List<List<Map<String, Object>>> executeQuerySQLBatch(ConnectionSupplier connectionSupplier, List<String> sqlList,
+                                                                Map<String, ObfuscationRule> obfuscationRules,
+                                                                int parallelism) throws SQLException {
+        // Only read queries can run concurrently without depending on each other
+        for (String sql : sqlList) {
+            String statement = sql == null ? "" : sql.trim().toLowerCase(Locale.ENGLISH);
+            if (!statement.startsWith("select") && !statement.startsWith("with")) {
+                throw new IllegalArgumentException(ErrorMessages.NON_QUERY_SQL_ERROR + sql);
+            }
+        }
+        return new QueryBatchRunner(this, connectionSupplier, sqlList, obfuscationRules, parallelism).run();
+    }
+
     /**
      * Executes a SQL query or update statement, returns the results as a list of maps.
      *
@@ -745,258 +1224,1616 @@ public abstract class BaseDatabase implements Database {
     }
 
     /**
-     * This function retrieves data from a table or view in the database. It supports both pagination and selection of specific columns.
+     * Executes a SQL query and returns a cursor which fetches the rows on demand and applies obfuscation rules
+     * to the specified columns as each row is consumed. The cursor must be closed by the caller.
      *
-     * @param connection The database connection object.
-     * @param schemaName The schema name of the table or view.
-     * @param tableName The name of the table or view.
-     * @param columnList A list of columns to select. If null or empty, all columns will be selected.
-     * @param pageOffset The offset for pagination. If less than or equal to 0, all data will be returned without pagination.
-     * @param pageSize The size of a page for pagination. If less than or equal to 0, all data will be returned without pagination.
-     * @return A Map object containing the retrieved data in 'results' and the total pages of data in 'totalPages'.
-     * @throws SQLException If a database access error occurs.
+     * @param connection The database connection (java.sql.Connection) used to execute the query
+     * @param sql The SQL query string (String) to be executed
+     * @param obfuscationRules A map where the key is the column name and the value is the ObfuscationRule object to apply to that column.
+     * @return A cursor over the rows of the query result
+     * @throws SQLException if a database access error occurs
      */
     @Override
-    public Map<String, Object> getDataWithPage(Connection connection, String schemaName, String tableName,
-                                               List<String> columnList, int pageOffset, int pageSize) throws SQLException {
-        return getDataWithPage(connection, schemaName, tableName, columnList, pageOffset, pageSize, new HashMap<>());
+    public RowCursor openCursor(Connection connection, String sql, Map<String, ObfuscationRule> obfuscationRules) throws SQLException {
+        return openCursor(connection, sql, obfuscationRules, null);
     }
 
     /**
-     * This function retrieves data from a table or view in the database. It supports both pagination and selection of specific columns.
+     * Executes a SQL query and returns a cursor which fetches the rows on demand and applies obfuscation rules
+     * to the specified columns as each row is consumed. The cursor must be closed by the caller.
      *
-     * @param connection The database connection object.
-     * @param schemaName The schema name of the table or view.
-     * @param tableName The name of the table or view.
-     * @param columnList A list of columns to select. If null or empty, all columns will be selected.
-     * @param pageOffset The offset for pagination. If less than or equal to 0, all data will be returned without pagination.
-     * @param pageSize The size of a page for pagination. If less than or equal to 0, all data will be returned without pagination.
+     * @param connection The database connection (java.sql.Connection) used to execute the query
+     * @param sql The SQL query string (String) to be executed
      * @param obfuscationRules A map where the key is the column name and the value is the ObfuscationRule object to apply to that column.
-     * @return A Map object containing the retrieved data in 'results' and the total pages of data in 'totalPages'.
-     * @throws SQLException If a database access error occurs.
+     * @param fetchOptions The options overriding the fetch strategy of the database, or null to use the default strategy.
+     * @return A cursor over the rows of the query result
+     * @throws SQLException if a database access error occurs
      */
     @Override
-    public Map<String, Object> getDataWithPage(Connection connection, String schemaName, String tableName,
-                                               List<String> columnList, int pageOffset, int pageSize,
-                                               Map<String, ObfuscationRule> obfuscationRules) throws SQLException {
-        List<Map<String, Object>> resultList;
-        int totalRecord = 0;
-        int totalPages = 1;
-
-        // if columnList is null or empty, get all columns
-        String columns = getColumnString(connection, schemaName, tableName, columnList);
-        String query;
-
-        if (schemaName != null && !schemaName.isEmpty()) {
-            tableName = schemaName + "." + tableName;
+    public RowCursor openCursor(Connection connection, String sql, Map<String, ObfuscationRule> obfuscationRules,
+                                FetchOptions fetchOptions) throws SQLException {
+        if (fetchOptions == null) {
+            fetchOptions = new FetchOptions();
         }
 
-        if (pageOffset <= 0 || pageSize <= 0) {
-            // if pageOffset and pageSize are less than or equal to 0, return all data
-            query = String.format("SELECT %s FROM %s", columns, tableName);
-        } else {
-            // get total record
-            String countQuery = String.format("SELECT COUNT(*) AS total FROM %s", tableName);
-            try (Statement countStatement = connection.createStatement();
-                 ResultSet countResultSet = countStatement.executeQuery(countQuery)) {
-                if (countResultSet.next()) {
-                    totalRecord = countResultSet.getInt("total");
-                }
-            } catch (SQLException e) {
-                throw new SQLException(e);
+        RowCursor.CloseAction closeAction = fetchOptions.isServerCursor() ? beginServerCursor(connection) : null;
+        Statement stmt = null;
+        ResultSet rs = null;
+        try {
+            stmt = createCursorStatement(connection, fetchOptions);
+            rs = stmt.executeQuery(sql);
+            Map<String, Set<String>> renameMap = new HashMap<>();
+            if (Config.getInstance().getHandleRename()) {
+                renameMap = DbUtils.getColumnRename(sql);
             }
-
-            // calculate total pages
-            totalPages = totalRecord / pageSize;
+            ObfuscationPlan plan = ObfuscationPlan.build(rs.getMetaData(), obfuscationRules, renameMap);
+            return new RowCursor(this, stmt, rs, plan, closeAction);
+        } catch (SQLException e) {
+            // The cursor was not created, release everything here
+            DbUtils.closeResultSet(rs);
+            try {
+                DbUtils.closeStatement(stmt);
+            } catch (SQLException closeException) {
+                e.addSuppressed(closeException);
+            }
+            if (closeAction != null) {
+                try {
+                    closeAction.close();
+                } catch (SQLException closeException) {
+                    e.addSuppressed(closeException);
+                }
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Creates the statement of a streaming cursor and applies the fetch size to it.
+     *
+     * @param connection The database connection used to create the statement.
+     * @param fetchOptions The options of the cursor.
+     * @return the statement of the cursor.
+     * @throws SQLException if a database access error occurs
+     */
+    protected Statement createCursorStatement(Connection connection, FetchOptions fetchOptions) throws SQLException {
+        Statement stmt = connection.createStatement();
+        int fetchSize = fetchOptions.getFetchSize();
+        if (fetchSize == 0 && fetchOptions.isServerCursor()) {
+            fetchSize = getDefaultFetchSize();
+        }
+        if (fetchSize != 0) {
+            try {
+                stmt.setFetchSize(fetchSize);
+            } catch (SQLException e) {
+                stmt.close();
+                throw e;
+            }
+        }
+        return stmt;
+    }
+
+    /**
+     * Returns the fetch size applied to streaming cursors when the caller does not give one.
+     * The default implementation returns 0, which keeps the fetch size of the driver.
+     *
+     * @return the default fetch size of the database, or 0 to keep the fetch size of the driver.
+     */
+    protected int getDefaultFetchSize() {
+        return 0;
+    }
+
+    /**
+     * Prepares the connection before a streaming cursor is opened, for the databases which only stream rows
+     * under specific connection settings. The default implementation leaves the connection untouched.
+     *
+     * @param connection The database connection of the cursor.
+     * @return the action restoring the connection once the cursor is closed, or null if there is nothing to restore.
+     * @throws SQLException if a database access error occurs
+     */
+    protected RowCursor.CloseAction beginServerCursor(Connection connection) throws SQLException {
+        return null;
+    }
+
+    /**
+     * Starts a read-only transaction on a connection in auto-commit mode, so that the driver can keep a
+     * server-side cursor open between fetches. If the connection is already inside a transaction, the cursor
+     * simply lives in that transaction and the connection is left untouched. The transaction only reads, so it is
+     * rolled back when the cursor is closed, which also succeeds once a timeout or a cancel has aborted it.
+     *
+     * @param connection The database connection of the cursor.
+     * @return the action ending the transaction and restoring the connection, or null if the connection was not changed.
+     * @throws SQLException if a database access error occurs
+     */
+    protected RowCursor.CloseAction beginReadOnlyTransaction(Connection connection) throws SQLException {
+        if (!connection.getAutoCommit()) {
+            return null;
+        }
+
+        boolean readOnly = connection.isReadOnly();
+        connection.setReadOnly(true);
+        connection.setAutoCommit(false);
+        return () -> {
+            try {
+                connection.rollback();
+            } finally {
+                connection.setAutoCommit(true);
+                connection.setReadOnly(readOnly);
+            }
+        };
+    }
+
+    /**
+     * Fetches table or view data from the database through a cursor which fetches the rows on demand and applies
+     * obfuscation rules to the specified columns as each row is consumed. The cursor must be closed by the caller.
+     *
+     * @param connection The database connection object.
+     * @param schemaName The name of the schema where the table is located.
+     * @param name The name of the table or view.
+     * @param obfuscationRules A map where the key is the column name and the value is the ObfuscationRule object to apply to that column.
+     * @return A cursor over the rows of the table or view
+     * @throws SQLException if a database access error occurs
+     */
+    @Override
+    public RowCursor openTableCursor(Connection connection, String schemaName, String name,
+                                     Map<String, ObfuscationRule> obfuscationRules) throws SQLException {
+        return this.openTableCursor(connection, schemaName, name, obfuscationRules, null);
+    }
+
+    /**
+     * Fetches table or view data from the database through a cursor which fetches the rows on demand and applies
+     * obfuscation rules to the specified columns as each row is consumed. The cursor must be closed by the caller.
+     *
+     * @param connection The database connection object.
+     * @param schemaName The name of the schema where the table is located.
+     * @param name The name of the table or view.
+     * @param obfuscationRules A map where the key is the column name and the value is the ObfuscationRule object to apply to that column.
+     * @param fetchOptions The options overriding the fetch strategy of the database, or null to use the default strategy.
+     * @return A cursor over the rows of the table or view
+     * @throws SQLException if a database access error occurs
+     */
+    @Override
+    public RowCursor openTableCursor(Connection connection, String schemaName, String name,
+                                     Map<String, ObfuscationRule> obfuscationRules, FetchOptions fetchOptions) throws SQLException {
+        String sql = "SELECT * FROM " + name;
+        if (schemaName != null && !schemaName.isEmpty()) {
+            sql = "SELECT * FROM " + schemaName + "." + name;
+        }
+
+        return this.openCursor(connection, sql, obfuscationRules, fetchOptions);
+    }
+
+    /**
+     * This function retrieves data from a table or view in the database. It supports both pagination and selection of specific columns.
+     *
+     * @param connection The database connection object.
+     * @param schemaName The schema name of the table or view.
+     * @param tableName The name of the table or view.
+     * @param columnList A list of columns to select. If null or empty, all columns will be selected.
+     * @param pageOffset The offset for pagination. If less than or equal to 0, all data will be returned without pagination.
+     * @param pageSize The size of a page for pagination. If less than or equal to 0, all data will be returned without pagination.
+     * @return A Map object containing the retrieved data in 'results' and the total pages of data in 'totalPages'.
+     * @throws SQLException If a database access error occurs.
+     */
+    @Override
+    public Map<String, Object> getDataWithPage(Connection connection, String schemaName, String tableName,
+                                               List<String> columnList, int pageOffset, int pageSize) throws SQLException {
+        return getDataWithPage(connection, schemaName, tableName, columnList, pageOffset, pageSize, new HashMap<>());
+    }
+
+    /**
+     * This function retrieves data from a table or view in the database. It supports both pagination and selection of specific columns.
+     *
+     * @param connection The database connection object.
+     * @param schemaName The schema name of the table or view.
+     * @param tableName The name of the table or view.
+     * @param columnList A list of columns to select. If null or empty, all columns will be selected.
+     * @param pageOffset The offset for pagination. If less than or equal to 0, all data will be returned without pagination.
+     * @param pageSize The size of a page for pagination. If less than or equal to 0, all data will be returned without pagination.
+     * @param obfuscationRules A map where the key is the column name and the value is the ObfuscationRule object to apply to that column.
+     * @return A Map object containing the retrieved data in 'results' and the total pages of data in 'totalPages'.
+     * @throws SQLException If a database access error occurs.
+     */
+    @Override
+    public Map<String, Object> getDataWithPage(Connection connection, String schemaName, String tableName,
+                                               List<String> columnList, int pageOffset, int pageSize,
+                                               Map<String, ObfuscationRule> obfuscationRules) throws SQLException {
+        return getDataWithPage(connection, schemaName, tableName, columnList, pageOffset, pageSize, obfuscationRules,
+                Config.getInstance().getCountStrategy());
+    }
+
+    /**
+     * This function retrieves data from a table or view in the database. It supports both pagination and selection of specific columns.
+     *
+     * @param connection The database connection object.
+     * @param schemaName The schema name of the table or view.
+     * @param tableName The name of the table or view.
+     * @param columnList A list of columns to select. If null or empty, all columns will be selected.
+     * @param pageOffset The offset for pagination. If less than or equal to 0, all data will be returned without pagination.
+     * @param pageSize The size of a page for pagination. If less than or equal to 0, all data will be returned without pagination.
+     * @param obfuscationRules A map where the key is the column name and the value is the ObfuscationRule object to apply to that column.
+     * @param countStrategy The strategy used to count the rows of the table to compute the total pages.
+     * @return A Map object containing the retrieved data in 'results', the total pages of data in 'totalPages'
+     *         and the strategy which produced the row count in 'countStrategy' (null when the data is not paginated).
+     * @throws SQLException If a database access error occurs.
+     */
+    @Override
+    public Map<String, Object> getDataWithPage(Connection connection, String schemaName, String tableName,
+                                               List<String> columnList, int pageOffset, int pageSize,
+                                               Map<String, ObfuscationRule> obfuscationRules,
+                                               CountStrategy countStrategy) throws SQLException {
+        List<Map<String, Object>> resultList;
+        long totalRecord = 0;
+        int totalPages = 1;
+        CountStrategy usedStrategy = null;
+
+        // if columnList is null or empty, get all columns
+        String columns = getColumnString(connection, schemaName, tableName, columnList);
+        String query;
+        List<Object> params = new ArrayList<>();
+        String qualifiedName = tableName;
+
+        if (schemaName != null && !schemaName.isEmpty()) {
+            qualifiedName = schemaName + "." + tableName;
+        }
+
+        if (pageOffset <= 0 || pageSize <= 0) {
+            // if pageOffset and pageSize are less than or equal to 0, return all data
+            query = "SELECT " + columns + " FROM " + qualifiedName;
+        } else {
+            // get total record
+            Long count = null;
+            String cacheKey = null;
+            if (countStrategy == CountStrategy.ESTIMATE) {
+                count = getEstimatedRowCount(connection, schemaName, tableName);
+            } else if (countStrategy == CountStrategy.CACHED) {
+                cacheKey = getRowCountCacheKey(connection, qualifiedName);
+                count = ROW_COUNT_CACHE.get(cacheKey, Config.getInstance().getCountCacheTtl());
+            }
+
+            if (count != null) {
+                usedStrategy = countStrategy;
+            } else {
+                // no estimate or cached count available, count the rows
+                count = getExactRowCount(connection, qualifiedName);
+                usedStrategy = CountStrategy.EXACT;
+                if (cacheKey != null) {
+                    ROW_COUNT_CACHE.put(cacheKey, count);
+                }
+            }
+            totalRecord = count;
+
+            // calculate total pages
+            totalPages = (int) (totalRecord / pageSize);
             if (totalRecord % pageSize != 0) {
                 totalPages++;
             }
-
-            query = this.getQueryWithPage(columns, tableName, pageSize, pageOffset);
+
+            query = this.getQueryWithPage(columns, qualifiedName, pageSize, pageOffset, params);
+        }
+
+        resultList = execQuerySQLWithMask(connection, query, params, obfuscationRules);
+
+        Map<String, Object> result = new HashMap<>();
+        result.put("results", resultList);
+        result.put("totalPages", totalPages);
+        result.put("countStrategy", usedStrategy);
+        return result;
+    }
+
+    /**
+     * Counts the rows of a table or view with SELECT COUNT(*).
+     *
+     * @param connection The database connection object.
+     * @param qualifiedName The name of the table or view, qualified with its schema if any.
+     * @return the number of rows.
+     * @throws SQLException If a database access error occurs.
+     */
+    protected long getExactRowCount(Connection connection, String qualifiedName) throws SQLException {
+        String countQuery = "SELECT COUNT(*) AS total FROM " + qualifiedName;
+        try {
+            return StatementCache.query(connection, countQuery, Collections.emptyList(),
+                    countResultSet -> countResultSet.next() ? countResultSet.getLong("total") : 0L);
+        } catch (SQLException e) {
+            throw new SQLException(e);
+        }
+    }
+
+    /**
+     * Returns the row count of a table estimated from the statistics of the database catalog.
+     * The default implementation returns null, as not every database exposes such statistics.
+     *
+     * @param connection The database connection object.
+     * @param schemaName The schema name of the table, or null or empty for the current schema.
+     * @param tableName The name of the table.
+     * @return the estimated number of rows, or null if no estimate is available.
+     * @throws SQLException If a database access error occurs.
+     */
+    protected Long getEstimatedRowCount(Connection connection, String schemaName, String tableName) throws SQLException {
+        return null;
+    }
+
+    /**
+     * Runs a catalog query returning the estimated row count of a table in its first column.
+     *
+     * @param connection The database connection object.
+     * @param sql The catalog query, with a '?' placeholder for each parameter.
+     * @param params The parameters of the query, in binding order.
+     * @return the estimated number of rows, or null if the table is not found or has no statistics.
+     * @throws SQLException If a database access error occurs.
+     */
+    protected Long queryEstimatedRowCount(Connection connection, String sql, String... params) throws SQLException {
+        return StatementCache.query(connection, sql, Arrays.asList(params), rs -> {
+            if (!rs.next()) {
+                return null;
+            }
+            long count = rs.getLong(1);
+            // a negative count (e.g. reltuples = -1) or a NULL means the table has never been analyzed
+            return rs.wasNull() || count < 0 ? null : count;
+        });
+    }
+
+    /**
+     * Builds the key of a table in the row count cache, so that tables of different databases do not collide.
+     *
+     * @param connection The database connection object.
+     * @param qualifiedName The name of the table or view, qualified with its schema if any.
+     * @return the key of the table.
+     * @throws SQLException If a database access error occurs.
+     */
+    private static String getRowCountCacheKey(Connection connection, String qualifiedName) throws SQLException {
+        DatabaseMetaData metaData = connection.getMetaData();
+        return metaData.getURL() + "|" + metaData.getUserName() + "|" + qualifiedName;
+    }
+
+    /**
+     * Executes the specified SQL query and applies obfuscation rules to the specified columns.
+     * @param connection The database connection object.
+     * @param schema The name of the schema where the table is located.
+     * @param tableName The name of the table or view.
+     * @param columnList A list of columns to select. If null or empty, all columns will be selected.
+     * @return columnString The list of columns to select.
+     */
+    protected String getColumnString(Connection connection, String schema, String tableName, List<String> columnList) {
+        return columnList == null || columnList.isEmpty() ? "*" : String.join(",", columnList);
+    }
+
+    /**
+     * This method fetches all the column names for a given table or view in the Oracle database.
+     *
+     * @param connection The connection object representing a connection with a specific database.
+     * @param schema     The name of the schema where the table is located.
+     * @param tableName  The name of the table or view from which to fetch the column names.
+     * @return A comma-separated string of all column names in the given table or view.
+     * @throws SQLException If a database access error occurs or this method is called on a closed connection.
+     */
+    protected String getColumnStrings(Connection connection, String schema, String tableName) throws SQLException {
+        List<String> columns = new ArrayList<>();
+
+        DatabaseMetaData metaData = connection.getMetaData();
+        try (ResultSet resultSet = metaData.getColumns(null, schema, tableName, "%")) {
+            while (resultSet.next()) {
+                columns.add(resultSet.getString("COLUMN_NAME"));
+            }
+        } catch (SQLException e) {
+            throw new SQLException(e);
+        }
+        return String.join(",", columns);
+    }
+
+    /**
+     * Returns the parameters of a catalog query which filters on a schema only if one is given.
+     *
+     * @param schemaName The name of the schema, or null if the query does not filter on a schema.
+     * @return the schema as the single parameter, or no parameter if schemaName is null.
+     */
+    protected static List<String> schemaParams(String schemaName) {
+        return schemaName == null ? Collections.emptyList() : Collections.singletonList(schemaName);
+    }
+
+    /**
+     * Generates the query of an offset page. The page bounds are bound as parameters, so that the database
+     * plans the query once for all the pages of a table.
+     * @param columns The columns to fetch from the table/view.
+     * @param tableName The name of the table/view to fetch the data from.
+     * @param pageSize The number of records to fetch.
+     * @param pageOffset The offset of the first record to fetch.
+     * @param params The list the parameters of the query are appended to, in binding order.
+     * @return The SQL query to execute, with a '?' placeholder for each parameter.
+     */
+    protected String getQueryWithPage(String columns, String tableName, int pageSize, int pageOffset, List<Object> params) {
+        int offset = (pageOffset - 1) * pageSize;
+        params.add(pageSize);
+        params.add(offset);
+        return "SELECT " + columns + " FROM " + tableName + " LIMIT ? OFFSET ?";
+    }
+
+    /**
+     * Executes a parameterised query with a cached prepared statement of the connection and applies obfuscation
+     * rules to the specified columns.
+     *
+     * @param connection The database connection used to execute the query.
+     * @param sql The SQL query, with a '?' placeholder for each parameter.
+     * @param params The parameters of the query, in binding order.
+     * @param obfuscationRules A map where the key is the column name and the value is the ObfuscationRule object to apply to that column.
+     * @return A list of maps where each map represents a row in the query result.
+     * @throws SQLException if a database access error occurs
+     */
+    protected List<Map<String, Object>> execQuerySQLWithMask(Connection connection, String sql, List<Object> params,
+                                                             Map<String, ObfuscationRule> obfuscationRules) throws SQLException {
+        Map<String, Set<String>> renameMap = Config.getInstance().getHandleRename()
+                ? DbUtils.getColumnRename(sql) : new HashMap<>();
+        return StatementCache.query(connection, sql, params, rs -> getResult(rs, obfuscationRules, renameMap));
+    }
+
+    /**
+     * Retrieves a page of data from a table using keyset pagination, ordered by the primary key of the table or,
+     * if there is none, by a unique key whose columns are all not null.
+     *
+     * @param connection The database connection object.
+     * @param schemaName The schema name of the table.
+     * @param tableName The name of the table.
+     * @param columnList A list of columns to select. If null or empty, all columns will be selected.
+     * @param pageSize The size of a page, must be greater than 0.
+     * @param pageToken The token returned with the previous page, or null to fetch the first page.
+     * @return A Map object containing the retrieved data in 'results' and the token of the next page in 'nextPageToken',
+     *         which is null when the last page has been reached.
+     * @throws SQLException If a database access error occurs or the table has no usable key.
+     */
+    @Override
+    public Map<String, Object> getDataWithKeyset(Connection connection, String schemaName, String tableName,
+                                                 List<String> columnList, int pageSize, String pageToken) throws SQLException {
+        return getDataWithKeyset(connection, schemaName, tableName, columnList, pageSize, pageToken, new HashMap<>());
+    }
+
+    /**
+     * Retrieves a page of data from a table using keyset pagination, ordered by the primary key of the table or,
+     * if there is none, by a unique key whose columns are all not null. Unlike offset pagination, fetching a deep
+     * page costs the same as fetching the first one.
+     *
+     * @param connection The database connection object.
+     * @param schemaName The schema name of the table.
+     * @param tableName The name of the table.
+     * @param columnList A list of columns to select. If null or empty, all columns will be selected.
+     * @param pageSize The size of a page, must be greater than 0.
+     * @param pageToken The token returned with the previous page, or null to fetch the first page.
+     * @param obfuscationRules A map where the key is the column name and the value is the ObfuscationRule object to apply to that column.
+     * @return A Map object containing the retrieved data in 'results' and the token of the next page in 'nextPageToken',
+     *         which is null when the last page has been reached.
+     * @throws SQLException If a database access error occurs or the table has no usable key.
+     */
+    @Override
+    public Map<String, Object> getDataWithKeyset(Connection connection, String schemaName, String tableName,
+                                                 List<String> columnList, int pageSize, String pageToken,
+                                                 Map<String, ObfuscationRule> obfuscationRules) throws SQLException {
+        if (pageSize <= 0) {
+            throw new IllegalArgumentException(ErrorMessages.INVALID_PAGE_SIZE_ERROR);
+        }
+
+        List<String> keyColumns = getKeysetColumns(connection, schemaName, tableName);
+        if (keyColumns.isEmpty()) {
+            throw new SQLException(ErrorMessages.NO_UNIQUE_KEY_ERROR + tableName);
+        }
+
+        List<Object> keyValues = null;
+        if (pageToken != null) {
+            KeysetToken token = KeysetToken.decode(pageToken, schemaName, tableName);
+            if (!token.getKeyColumns().equals(keyColumns)) {
+                throw new IllegalArgumentException(ErrorMessages.INVALID_PAGE_TOKEN_ERROR);
+            }
+            keyValues = token.getKeyValues();
+        }
+
+        // The key columns come from the catalog, so they are quoted to keep their case and allow reserved words
+        List<String> quotedKeyColumns = new ArrayList<>(keyColumns.size());
+        for (String keyColumn : keyColumns) {
+            String quoted = quoteIdentifier(connection, keyColumn);
+            quotedKeyColumns.add(quoted == null ? keyColumn : quoted);
+        }
+
+        // Key columns not selected by the caller are still fetched to build the next token, and removed from the rows
+        String columns = "*";
+        List<String> hiddenColumns = new ArrayList<>();
+        if (columnList != null && !columnList.isEmpty()) {
+            List<String> selectedColumns = new ArrayList<>(columnList);
+            for (int i = 0; i < keyColumns.size(); i++) {
+                String keyColumn = keyColumns.get(i);
+                if (selectedColumns.stream().noneMatch(keyColumn::equalsIgnoreCase)) {
+                    selectedColumns.add(quotedKeyColumns.get(i));
+                    hiddenColumns.add(keyColumn);
+                }
+            }
+            columns = String.join(",", selectedColumns);
+        }
+
+        String qualifiedName = tableName;
+        if (schemaName != null && !schemaName.isEmpty()) {
+            qualifiedName = schemaName + "." + tableName;
+        }
+
+        List<Object> params = new ArrayList<>();
+        String condition = keyValues == null ? null : getKeysetCondition(quotedKeyColumns, keyValues, params);
+        // Fetch one extra row to know whether there is a next page
+        String query = getQueryWithKeyset(columns, qualifiedName, quotedKeyColumns, condition, pageSize + 1);
+
+        return StatementCache.query(connection, query, params, rs -> {
+            ObfuscationPlan plan = ObfuscationPlan.build(rs.getMetaData(), obfuscationRules, new HashMap<>());
+            int[] keyIndexes = getColumnIndexes(plan, keyColumns);
+            int[] hiddenIndexes = getColumnIndexes(plan, hiddenColumns);
+
+            List<Map<String, Object>> resultList = new ArrayList<>();
+            String nextPageToken = null;
+            List<Object> lastKeyValues = null;
+            while (rs.next()) {
+                if (resultList.size() == pageSize) {
+                    // There is a next page
+                    nextPageToken = new KeysetToken(schemaName, tableName, keyColumns, lastKeyValues).encode();
+                    break;
+                }
+                // Read the raw key values before the row is masked
+                lastKeyValues = new ArrayList<>(keyIndexes.length);
+                for (int keyIndex : keyIndexes) {
+                    lastKeyValues.add(rs.getObject(keyIndex + 1));
+                }
+                Map<String, Object> row = getRow(rs, plan);
+                for (int hiddenIndex : hiddenIndexes) {
+                    row.remove(plan.getColumnLabel(hiddenIndex));
+                }
+                resultList.add(row);
+            }
+
+            Map<String, Object> result = new HashMap<>();
+            result.put("results", resultList);
+            result.put("nextPageToken", nextPageToken);
+            return result;
+        });
+    }
+
+    /**
+     * Returns the ordered key columns used for keyset pagination: the primary key in key sequence order or,
+     * if the table has none, the first unique index (by name) whose columns are all not null.
+     *
+     * Databases which pass the schema to DatabaseMetaData as a catalog, or store it in upper case, override this
+     * method to call {@link #getKeysetColumns(Connection, String, String, String)} accordingly.
+     *
+     * @param connection The database connection object.
+     * @param schemaName The schema name of the table.
+     * @param tableName The name of the table.
+     * @return the ordered key columns, or an empty list if the table has no usable key.
+     * @throws SQLException If a database access error occurs.
+     */
+    protected List<String> getKeysetColumns(Connection connection, String schemaName, String tableName) throws SQLException {
+        if (schemaName != null && schemaName.isEmpty()) {
+            schemaName = null;
+        }
+        return getKeysetColumns(connection, null, schemaName, tableName);
+    }
+
+    /**
+     * Returns the ordered key columns used for keyset pagination, read from DatabaseMetaData with the given
+     * catalog and schema: the primary key in key sequence order or, if the table has none, the first unique index
+     * (by name) whose columns are all not null.
+     *
+     * @param connection    The database connection object.
+     * @param catalog       The catalog passed to DatabaseMetaData, null for databases without catalogs.
+     * @param schemaPattern The schema passed to DatabaseMetaData, null for databases without schemas.
+     * @param tableName     The name of the table.
+     * @return the ordered key columns, or an empty list if the table has no usable key.
+     * @throws SQLException If a database access error occurs.
+     */
+    protected List<String> getKeysetColumns(Connection connection, String catalog, String schemaPattern,
+                                            String tableName) throws SQLException {
+        DatabaseMetaData metaData = connection.getMetaData();
+
+        TreeMap<Integer, String> primaryKey = new TreeMap<>();
+        try (ResultSet rs = metaData.getPrimaryKeys(catalog, schemaPattern, tableName)) {
+            while (rs.next()) {
+                primaryKey.put(rs.getInt("KEY_SEQ"), rs.getString("COLUMN_NAME"));
+            }
+        }
+        if (!primaryKey.isEmpty()) {
+            return new ArrayList<>(primaryKey.values());
+        }
+
+        // The table name is a pattern for getColumns, so its '_' and '%' are escaped
+        Set<String> nullableColumns = new HashSet<>();
+        try (ResultSet rs = metaData.getColumns(catalog, schemaPattern, escapeSearchPattern(metaData, tableName), "%")) {
+            while (rs.next()) {
+                if (tableName.equalsIgnoreCase(rs.getString("TABLE_NAME"))
+                        && rs.getInt("NULLABLE") != DatabaseMetaData.columnNoNulls) {
+                    nullableColumns.add(rs.getString("COLUMN_NAME"));
+                }
+            }
+        }
+
+        Map<String, TreeMap<Integer, String>> uniqueIndexes = new TreeMap<>();
+        try (ResultSet rs = metaData.getIndexInfo(catalog, schemaPattern, tableName, true, false)) {
+            while (rs.next()) {
+                String indexName = rs.getString("INDEX_NAME");
+                String columnName = rs.getString("COLUMN_NAME");
+                if (indexName == null || columnName == null) {
+                    continue;
+                }
+                uniqueIndexes.computeIfAbsent(indexName, k -> new TreeMap<>()).put(rs.getInt("ORDINAL_POSITION"), columnName);
+            }
+        }
+        for (TreeMap<Integer, String> indexColumns : uniqueIndexes.values()) {
+            if (indexColumns.values().stream().noneMatch(nullableColumns::contains)) {
+                return new ArrayList<>(indexColumns.values());
+            }
+        }
+        return new ArrayList<>();
+    }
+
+    /**
+     * Returns whether the database supports row value comparisons such as {@code (k1, k2) > (?, ?)}.
+     * The default implementation returns false, and the comparison is expanded into OR/AND conditions.
+     *
+     * @return true if row value comparisons are supported, false otherwise.
+     */
+    protected boolean supportsRowValueComparison() {
+        return false;
+    }
+
+    /**
+     * Generates the condition selecting the rows after the given key values, in key order.
+     *
+     * @param keyColumns The ordered key columns, quoted with the identifier quote of the database.
+     * @param keyValues The key values of the last row of the previous page.
+     * @param params The list the parameters of the condition are appended to, in binding order.
+     * @return the condition, with a '?' placeholder for each parameter.
+     */
+    protected String getKeysetCondition(List<String> keyColumns, List<Object> keyValues, List<Object> params) {
+        if (keyColumns.size() == 1) {
+            params.add(keyValues.get(0));
+            return keyColumns.get(0) + " > ?";
+        }
+
+        if (supportsRowValueComparison()) {
+            params.addAll(keyValues);
+            String placeholders = String.join(",", Collections.nCopies(keyColumns.size(), "?"));
+            return String.format("(%s) > (%s)", String.join(",", keyColumns), placeholders);
+        }
+
+        // (k1 > ?) OR (k1 = ? AND k2 > ?) OR ...
+        List<String> disjuncts = new ArrayList<>();
+        for (int i = 0; i < keyColumns.size(); i++) {
+            List<String> conjuncts = new ArrayList<>();
+            for (int j = 0; j < i; j++) {
+                conjuncts.add(keyColumns.get(j) + " = ?");
+                params.add(keyValues.get(j));
+            }
+            conjuncts.add(keyColumns.get(i) + " > ?");
+            params.add(keyValues.get(i));
+            disjuncts.add("(" + String.join(" AND ", conjuncts) + ")");
+        }
+        return "(" + String.join(" OR ", disjuncts) + ")";
+    }
+
+    /**
+     * Generates the query of a keyset page.
+     *
+     * @param columns The columns to fetch from the table.
+     * @param tableName The name of the table to fetch the data from.
+     * @param keyColumns The ordered key columns, quoted with the identifier quote of the database.
+     * @param condition The condition selecting the rows after the previous page, or null for the first page.
+     * @param limit The maximum number of rows to fetch.
+     * @return The SQL query to execute.
+     */
+    protected String getQueryWithKeyset(String columns, String tableName, List<String> keyColumns, String condition, int limit) {
+        String where = condition == null ? "" : " WHERE " + condition;
+        return String.format("SELECT %s FROM %s%s ORDER BY %s LIMIT %d", columns, tableName, where, String.join(",", keyColumns), limit);
+    }
+
+    /**
+     * Returns the indexes, in an obfuscation plan, of the given columns, compared case-insensitively.
+     *
+     * @param plan The obfuscation plan of the result set.
+     * @param columns The columns to look up.
+     * @return the index of each column, starting at 0.
+     * @throws SQLException if a column is not part of the result set.
+     */
+    private int[] getColumnIndexes(ObfuscationPlan plan, List<String> columns) throws SQLException {
+        int[] indexes = new int[columns.size()];
+        for (int i = 0; i < columns.size(); i++) {
+            indexes[i] = -1;
+            for (int j = 0; j < plan.getColumnCount(); j++) {
+                if (plan.getColumnLabel(j).equalsIgnoreCase(columns.get(i))) {
+                    indexes[i] = j;
+                    break;
+                }
+            }
+            if (indexes[i] < 0) {
+                throw new SQLException(ErrorMessages.COLUMN_NOT_FOUND_ERROR + columns.get(i));
+            }
+        }
+        return indexes;
+    }
+
+
+    /**
+     * Executes the specified database function with the given parameters.
+     *
+     * @param connection   The database connection (java.sql.Connection) to execute the function on
+     * @param schemaName The name of the schema where the table is located.
+     * @param functionName The name of the function to execute
+     * @param params       The list of parameters to pass to the function
+     * @return A List of Maps containing the function result, where each Map represents a row with column names as keys
+     * @throws SQLException if a database access error occurs
+     */
+    @Override
+    public List<Map<String, Object>> executeFunction(Connection connection, String schemaName, String functionName,
+                                                     Object... params) throws SQLException {
+        return executeFunction(connection, "SELECT ", schemaName, functionName, params);
+    }
+
+    /**
+     * Executes the specified database function with the given parameters.
+     *
+     * @param connection   The database connection (java.sql.Connection) to execute the function on
+     * @param startSql   The start keywords used to execute function, like: SELECT, EXECUTE FUNCTION.
+     * @param schemaName The name of the schema where the table is located.
+     * @param functionName The name of the function to execute
+     * @param params       The list of parameters to pass to the function
+     * @return A List of Maps containing the function result, where each Map represents a row with column names as keys
+     * @throws SQLException if a database access error occurs
+     */
+    protected List<Map<String, Object>> executeFunction(Connection connection, String startSql, String schemaName,
+                                                        String functionName, Object... params) throws SQLException {
+        List<Map<String, Object>> result = new ArrayList<>();
+
+        if (schemaName != null && !schemaName.isEmpty()) {
+            functionName =  schemaName + "." + functionName;
+        }
+
+        // Create a SQL query to execute the specified function
+        StringBuilder sql = new StringBuilder(startSql);
+        sql.append(functionName).append("(");
+        for (int i = 0; i < params.length; i++) {
+            sql.append("?");
+            if (i < params.length - 1) {
+                sql.append(", ");
+            }
+        }
+        sql.append(")");
+
+        try (PreparedStatement pstmt = connection.prepareStatement(sql.toString(), ResultSet.TYPE_SCROLL_INSENSITIVE, ResultSet.CONCUR_READ_ONLY)) {
+            // Set the function parameters
+            for (int i = 0; i < params.length; i++) {
+                pstmt.setObject(i + 1, params[i]);
+            }
+
+            // Execute the query
+            try (ResultSet rs = pstmt.executeQuery()) {
+                result = getResult(rs, new HashMap<>());
+            }
+        } catch (SQLException e) {
+            throw new SQLException(ErrorMessages.FUNCTION_EXECUTION_ERROR + e.getMessage(), e);
+        }
+
+        return result;
+    }
+
+
+    /**
+     * Scans a database table or view for sensitive data based on a list of regular expressions.
+     *
+     * @param connection The SQL connection to the database.
+     * @param schemaName The name of the schema where the table is located.
+     * @param tableName  The name of the table or view to scan.
+     * @param regexList  A list of regular expressions used for matching sensitive data.
+     * @return A list of {@link SensitiveColumn} instances containing matched sensitive data.
+     *         Only the columns that actually matched sensitive data will be returned.
+     *         For each SensitiveColumn, up to 5 matched data will be stored in the matchData attribute.
+     * @throws SQLException if a database access error occurs.
+     */
+    @Override
+    public List<SensitiveColumn> scanTableData(Connection connection, String schemaName, String tableName, List<String> regexList) throws SQLException {
+        return scanTableData(connection, schemaName, tableName, regexList, new ScanOptions()).getSensitiveColumns();
+    }
+
+    /**
+     * Scans a database table or view for sensitive data based on a list of regular expressions, reading a sample
+     * of the table within a row and time budget. Each regular expression is matched against the text, numeric and
+     * other columns long enough to hold a match, see {@link Detector}.
+     *
+     * @param connection  The SQL connection to the database.
+     * @param schemaName  The name of the schema where the table is located.
+     * @param tableName   The name of the table or view to scan.
+     * @param regexList   A list of regular expressions used for matching sensitive data.
+     * @param scanOptions The sampling and budget options of the scan.
+     * @return A ScanResult containing the columns which matched sensitive data, the number of rows scanned,
+     *         the duration of the scan and the reason why it stopped.
+     * @throws SQLException if a database access error occurs.
+     */
+    @Override
+    public ScanResult scanTableData(Connection connection, String schemaName, String tableName, List<String> regexList,
+                                    ScanOptions scanOptions) throws SQLException {
+        return scanTableWithDetectors(connection, schemaName, tableName, Detector.of(regexList), scanOptions);
+    }
+
+    /**
+     * Scans a database table or view for sensitive data with a list of detectors, reading a sample of the table
+     * within a row and time budget.
+     * <p>
+     * The columns of the table are read from the database metadata, and only the columns eligible for at least one
+     * detector are selected. The scan stops as soon as every (column, detector) pair collected Config.getDataSize()
+     * matches, and returns the partial results when a budget is exhausted.
+     *
+     * @param connection  The SQL connection to the database.
+     * @param schemaName  The name of the schema where the table is located.
+     * @param tableName   The name of the table or view to scan.
+     * @param detectors   The detectors of sensitive data, with the columns each of them applies to.
+     * @param scanOptions The sampling and budget options of the scan.
+     * @return A ScanResult containing the columns which matched sensitive data, the number of rows scanned,
+     *         the duration of the scan and the reason why it stopped.
+     * @throws SQLException if a database access error occurs.
+     */
+    @Override
+    public ScanResult scanTableWithDetectors(Connection connection, String schemaName, String tableName,
+                                             List<Detector> detectors, ScanOptions scanOptions) throws SQLException {
+        return scanTable(connection, schemaName, tableName, detectors, scanOptions, null);
+    }
+
+    /**
+     * Scans the rows of a table or view matching a condition with a list of detectors, see
+     * {@link #scanTableWithDetectors(Connection, String, String, List, ScanOptions)}.
+     *
+     * @param connection  The SQL connection to the database.
+     * @param schemaName  The name of the schema where the table is located.
+     * @param tableName   The name of the table or view to scan.
+     * @param detectors   The detectors of sensitive data, with the columns each of them applies to.
+     * @param scanOptions The sampling and budget options of the scan, the sampling being ignored with a condition.
+     * @param condition   The condition of the rows to scan, or null to scan the table or its sample.
+     * @return A ScanResult containing the columns which matched sensitive data, the number of rows scanned,
+     *         the duration of the scan and the reason why it stopped.
+     * @throws SQLException if a database access error occurs.
+     */
+    private ScanResult scanTable(Connection connection, String schemaName, String tableName, List<Detector> detectors,
+                                 ScanOptions scanOptions, String condition) throws SQLException {
+        long startTime = System.nanoTime();
+        long maxRows = scanOptions.getMaxRows();
+        long deadline = startTime + scanOptions.getMaxMillis() * 1_000_000L;
+        int dataSize = Config.getInstance().getDataSize();
+
+        String qualifiedName = tableName;
+        if (schemaName != null && !schemaName.isEmpty()) {
+            qualifiedName = schemaName + "." + tableName;
+        }
+
+        // Project the eligible columns only, or every column if the metadata of the table is not available
+        Map<String, TableAttribute> attributes = getScanAttributes(connection, schemaName, tableName);
+        String columns = getScanColumns(connection, attributes.values(), detectors);
+        if (columns.isEmpty()) {
+            long elapsedMillis = (System.nanoTime() - startTime) / 1_000_000L;
+            return new ScanResult(new ArrayList<>(), 0, elapsedMillis, ScanStatus.SATURATED);
+        }
+        String sql = "SELECT " + columns + " FROM " + qualifiedName;
+        if (condition != null) {
+            sql += " WHERE " + condition;
+        } else if (scanOptions.getSamplePercent() < 100
+                && (supportsViewSampling() || !isView(connection, schemaName, tableName))) {
+            sql = getSampleQuery(columns, qualifiedName, scanOptions.getSamplePercent());
+        }
+
+        // The SensitiveColumn of each (regex, column) pair, created on its first match
+        SensitiveColumn[] sensitiveColumns = new SensitiveColumn[0];
+        long rowsScanned = 0;
+        ScanStatus status = ScanStatus.COMPLETED;
+        RowCursor.CloseAction closeAction = null;
+        Exception failure = null;
+        try {
+            closeAction = beginServerCursor(connection);
+            try (Statement stmt = createCursorStatement(connection, new FetchOptions())) {
+                applyScanBudget(stmt, scanOptions);
+
+                boolean cancelled = false;
+                try (ResultSet rs = stmt.executeQuery(sql)) {
+                    ResultSetMetaData metaData = rs.getMetaData();
+                    int columnCount = metaData.getColumnCount();
+                    int regexCount = detectors.size();
+                    List<String> regexList = new ArrayList<>(regexCount);
+                    for (Detector detector : detectors) {
+                        regexList.add(detector.getRegex());
+                    }
+                    MultiRegexMatcher matcher = MultiRegexMatcher.compile(regexList);
+                    sensitiveColumns = new SensitiveColumn[regexCount * columnCount];
+
+                    // A regex stays selected for a column until the pair is saturated, and a column stays active
+                    // while it has a selected regex
+                    boolean[][] selected = new boolean[columnCount][regexCount];
+                    int[] remaining = new int[columnCount];
+                    int[] activeColumns = new int[columnCount];
+                    int activeCount = 0;
+                    for (int i = 0; i < columnCount; i++) {
+                        // The pairs of a column which cannot hold a match are ruled out before reading any row
+                        TableAttribute attribute = attributes.get(metaData.getColumnName(i + 1));
+                        for (int r = 0; r < regexCount && dataSize > 0; r++) {
+                            Detector detector = detectors.get(r);
+                            selected[i][r] = attribute != null ? detector.isEligible(attribute)
+                                    : detector.isEligible(metaData.getColumnType(i + 1),
+                                    metaData.getColumnTypeName(i + 1), getColumnSize(metaData, i + 1));
+                            if (selected[i][r]) {
+                                remaining[i]++;
+                            }
+                        }
+                        if (remaining[i] > 0) {
+                            activeColumns[activeCount++] = i;
+                        }
+                    }
+
+                    boolean[] matched = new boolean[regexCount];
+                    boolean exhausted = false;
+                    while (activeCount > 0) {
+                        if (maxRows > 0 && rowsScanned >= maxRows) {
+                            status = ScanStatus.ROW_BUDGET_EXHAUSTED;
+                            break;
+                        }
+                        if (scanOptions.getMaxMillis() > 0 && System.nanoTime() - deadline >= 0) {
+                            status = ScanStatus.TIME_BUDGET_EXHAUSTED;
+                            break;
+                        }
+                        if (!rs.next()) {
+                            exhausted = true;
+                            break;
+                        }
+                        rowsScanned++;
+
+                        // Each cell is read and converted once, then matched against all its selected regexes
+                        for (int k = 0; k < activeCount; ) {
+                            int column = activeColumns[k];
+                            Object value = rs.getObject(column + 1);
+                            if (value != null && matcher.match(value.toString(), selected[column], matched) > 0) {
+                                for (int r = 0; r < regexCount; r++) {
+                                    if (matched[r]) {
+                                        addMatch(sensitiveColumns, r * columnCount + column, value, schemaName, tableName,
+                                                metaData.getColumnName(column + 1), regexList.get(r));
+                                        if (sensitiveColumns[r * columnCount + column].getMatchData().size() >= dataSize) {
+                                            selected[column][r] = false;
+                                            remaining[column]--;
+                                        }
+                                    }
+                                }
+                                if (remaining[column] == 0) {
+                                    activeColumns[k] = activeColumns[--activeCount];
+                                    continue;
+                                }
+                            }
+                            k++;
+                        }
+                    }
+                    if (activeCount == 0 && sensitiveColumns.length > 0) {
+                        status = ScanStatus.SATURATED;
+                    }
+                    if (!exhausted) {
+                        // Closing a result set left early reads the rest of it on streaming drivers such as
+                        // MySQL, so the query is cancelled first
+                        cancelled = true;
+                        cancelQuietly(stmt);
+                    }
+                } catch (SQLException e) {
+                    if (cancelled) {
+                        // Closing the cancelled query may report the cancellation, the scan already has its result
+                    } else if (scanOptions.getMaxMillis() > 0 && System.nanoTime() - deadline >= 0
+                            && isQueryTimeout(e)) {
+                        // The query timeout of the time budget fired, keep what was matched so far
+                        status = ScanStatus.TIME_BUDGET_EXHAUSTED;
+                    } else {
+                        throw e;
+                    }
+                }
+            }
+        } catch (SQLException e) {
+            failure = new SQLException(ErrorMessages.TABLE_SCANNING_ERROR + e.getMessage(), e);
+            throw (SQLException) failure;
+        } catch (RuntimeException e) {
+            failure = e;
+            throw e;
+        } finally {
+            closeScanCursor(closeAction, failure);
+        }
+
+        List<SensitiveColumn> resultSensitiveColumns = new ArrayList<>();
+        for (SensitiveColumn column : sensitiveColumns) {
+            if (column != null) {
+                resultSensitiveColumns.add(column);
+            }
+        }
+        long elapsedMillis = (System.nanoTime() - startTime) / 1_000_000L;
+        return new ScanResult(resultSensitiveColumns, rowsScanned, elapsedMillis, status);
+    }
+
+    /**
+     * Ends the server-side cursor of a scan. When the scan already failed, an error ending the cursor is added to
+     * the suppressed exceptions of the failure instead of hiding it.
+     *
+     * @param closeAction The action ending the server-side cursor, or null if the scan opened none.
+     * @param failure     The exception the scan failed with, or null if it succeeded.
+     * @throws SQLException if the cursor cannot be ended after a successful scan
+     */
+    private static void closeScanCursor(RowCursor.CloseAction closeAction, Exception failure) throws SQLException {
+        if (closeAction == null) {
+            return;
+        }
+        try {
+            closeAction.close();
+        } catch (SQLException e) {
+            if (failure == null) {
+                throw e;
+            }
+            failure.addSuppressed(e);
+        }
+    }
+
+    /**
+     * Cancels a statement, ignoring errors since the statement may have completed meanwhile.
+     *
+     * @param stmt The statement to cancel.
+     */
+    private static void cancelQuietly(Statement stmt) {
+        try {
+            stmt.cancel();
+        } catch (SQLException e) {
+            // Nothing left to cancel
+        }
+    }
+
+    /**
+     * Returns whether an exception reports a query stopped by its query timeout or a cancellation. Besides
+     * SQLTimeoutException, drivers report it with a plain SQLException and a vendor SQLState or error code:
+     * 57014 in PostgreSQL and KingBase, HYT00 and HYT01 in SQL Server, 70100 and errors 1317 and 3024 in MySQL and
+     * MariaDB, ORA-01013 in Oracle and DM.
+     *
+     * @param e The exception of the query.
+     * @return true if the query was stopped by a timeout or a cancellation, false otherwise.
+     */
+    protected boolean isQueryTimeout(SQLException e) {
+        if (e instanceof SQLTimeoutException) {
+            return true;
+        }
+        String sqlState = e.getSQLState();
+        if ("57014".equals(sqlState) || "HYT00".equals(sqlState) || "HYT01".equals(sqlState)
+                || "70100".equals(sqlState)) {
+            return true;
+        }
+        int errorCode = e.getErrorCode();
+        return errorCode == 1317 || errorCode == 3024 || errorCode == 1013;
+    }
+
+    /**
+     * Returns whether the sample query of the database can read a view. TABLESAMPLE and SAMPLE only apply to
+     * tables, so the databases using them read views from the beginning instead, the row budget of the scan still
+     * bounding the number of rows read.
+     *
+     * @return true, as the default sample query reads views like tables.
+     */
+    protected boolean supportsViewSampling() {
+        return true;
+    }
+
+    /**
+     * Returns whether an object is a view, for the databases whose sample query cannot read views.
+     *
+     * @param connection The SQL connection to the database.
+     * @param schemaName The name of the schema where the object is located.
+     * @param name       The name of the table or view.
+     * @return true if the object is a view, false if it is a table or its kind cannot be read.
+     */
+    private boolean isView(Connection connection, String schemaName, String name) {
+        try {
+            String schema = schemaName == null || schemaName.isEmpty() ? null : schemaName;
+            return getViews(connection, schema).contains(name);
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Records a value matched by a (regex, column) pair of a scan, creating the SensitiveColumn of the pair on its first match.
+     *
+     * @param sensitiveColumns The SensitiveColumn of each pair, null until the pair matches.
+     * @param pair             The index of the pair.
+     * @param value            The matched value.
+     * @param schemaName       The name of the schema where the table is located.
+     * @param tableName        The name of the scanned table or view.
+     * @param columnName       The name of the column of the pair.
+     * @param regex            The regular expression of the pair.
+     */
+    private static void addMatch(SensitiveColumn[] sensitiveColumns, int pair, Object value, String schemaName,
+                                 String tableName, String columnName, String regex) {
+        if (sensitiveColumns[pair] == null) {
+            sensitiveColumns[pair] = new SensitiveColumn(schemaName, tableName, columnName, regex);
+        }
+        sensitiveColumns[pair].getMatchData().add(value);
+    }
+
+    /**
+     * Builds the query reading a random sample of a table for a sensitive data scan. The default implementation
+     * has no portable way to sample rows and reads the table from the beginning, the row budget of the scan
+     * still bounding the number of rows read.
+     *
+     * @param columns       The columns to select, separated by commas.
+     * @param tableName     The name of the table or view, qualified with its schema if any.
+     * @param samplePercent The percentage of the table to sample, greater than 0 and lower than 100.
+     * @return the query reading the sample.
+     */
+    protected String getSampleQuery(String columns, String tableName, double samplePercent) {
+        return "SELECT " + columns + " FROM " + tableName;
+    }
+
+    /**
+     * Formats a sample percentage as a plain decimal number for a sample query.
+     *
+     * @param samplePercent The percentage of the table to sample.
+     * @return the percentage without exponent nor trailing zeros.
+     */
+    protected static String formatSamplePercent(double samplePercent) {
+        return BigDecimal.valueOf(samplePercent).stripTrailingZeros().toPlainString();
+    }
+
+    /**
+     * Pushes the budget of a scan down to the statement, so that the database stops producing rows beyond
+     * the row budget and the query itself cannot outlast the time budget.
+     *
+     * @param stmt        The statement of the scan.
+     * @param scanOptions The sampling and budget options of the scan.
+     * @throws SQLException if a database access error occurs
+     */
+    private void applyScanBudget(Statement stmt, ScanOptions scanOptions) throws SQLException {
+        if (scanOptions.getMaxRows() > 0 && scanOptions.getMaxRows() <= Integer.MAX_VALUE) {
+            stmt.setMaxRows((int) scanOptions.getMaxRows());
+        }
+        if (scanOptions.getMaxMillis() > 0) {
+            try {
+                stmt.setQueryTimeout((int) Math.min(Integer.MAX_VALUE, (scanOptions.getMaxMillis() + 999) / 1000));
+            } catch (SQLException e) {
+                // Some drivers have no query timeout, the budget is then only checked between rows
+            }
+        }
+    }
+
+    /**
+     * Reads the attributes of the columns of a table to plan a scan.
+     *
+     * @param connection The SQL connection to the database.
+     * @param schemaName The name of the schema where the table is located.
+     * @param tableName  The name of the table or view to scan.
+     * @return the attributes of the columns by column name, or an empty map if the metadata of the table is not available.
+     */
+    private Map<String, TableAttribute> getScanAttributes(Connection connection, String schemaName, String tableName) {
+        Map<String, TableAttribute> attributes = new LinkedHashMap<>();
+        try {
+            String schema = schemaName == null || schemaName.isEmpty() ? null : schemaName;
+            for (TableAttribute attribute : getTableAttribute(connection, schema, tableName)) {
+                attributes.put(attribute.getName(), attribute);
+            }
+        } catch (SQLException e) {
+            // Without metadata every column is selected, and the eligibility comes from the result set
+            attributes.clear();
+        }
+        return attributes;
+    }
+
+    /**
+     * Builds the column list of a scan query from the columns eligible for at least one detector.
+     *
+     * @param connection The SQL connection to the database.
+     * @param attributes The attributes of the columns of the table, empty if not available.
+     * @param detectors  The detectors of sensitive data.
+     * @return the quoted eligible columns separated by commas, "*" to select every column,
+     *         or an empty string if no column is eligible.
+     * @throws SQLException if a database access error occurs
+     */
+    private String getScanColumns(Connection connection, Collection<TableAttribute> attributes, List<Detector> detectors) throws SQLException {
+        String quote = connection.getMetaData().getIdentifierQuoteString();
+        if (attributes.isEmpty() || quote == null || quote.isBlank()) {
+            return "*";
+        }
+
+        List<String> columns = new ArrayList<>();
+        for (TableAttribute attribute : attributes) {
+            if (detectors.stream().anyMatch(detector -> detector.isEligible(attribute))) {
+                columns.add(quote + attribute.getName().replace(quote, quote + quote) + quote);
+            }
         }
+        return String.join(",", columns);
+    }
 
-        resultList = execQuerySQLWithMask(connection, query, obfuscationRules);
-
-        Map<String, Object> result = new HashMap<>();
-        result.put("results", resultList);
-        result.put("totalPages", totalPages);
-        return result;
+    /**
+     * Returns the size of a result set column: the maximum length of text columns and the precision of numeric columns.
+     *
+     * @param metaData The metadata of the result set.
+     * @param column   The index of the column, starting at 1.
+     * @return the size of the column, or 0 if the driver cannot provide it.
+     */
+    private static long getColumnSize(ResultSetMetaData metaData, int column) {
+        try {
+            return metaData.getPrecision(column);
+        } catch (SQLException e) {
+            return 0;
+        }
     }
 
     /**
-     * Executes the specified SQL query and applies obfuscation rules to the specified columns.
-     * @param connection The database connection object.
-     * @param schema The name of the schema where the table is located.
-     * @param tableName The name of the table or view.
-     * @param columnList A list of columns to select. If null or empty, all columns will be selected.
-     * @return columnString The list of columns to select.
+     * Scans all the tables and views of a list of schemas for sensitive data, several tables at the same time.
+     * The tables are listed on one connection, then each worker scans its tables on its own connection obtained
+     * from the supplier, so that at most {@code parallelism} connections are used at the same time.
+     *
+     * @param connectionSupplier The supplier of the connections, each connection is closed once the scan is done.
+     * @param schemaNames        The names of the schemas to scan, a null name designates the default schema.
+     * @param detectors          The detectors of sensitive data, with the columns each of them applies to.
+     * @param scanOptions        The sampling and budget options of each table scan.
+     * @param parallelism        The maximum number of tables scanned at the same time.
+     * @param callback           The callback receiving the outcome of each table as soon as it is scanned, or null.
+     *                           It is never called by two workers at the same time.
+     * @return The outcome of each table, in the order the tables were listed.
+     * @throws SQLException if the tables cannot be listed or a database access error occurs
      */
-    protected String getColumnString(Connection connection, String schema, String tableName, List<String> columnList) {
-        return columnList == null || columnList.isEmpty() ? "*" : String.join(",", columnList);
+    @Override
+    public List<TableScanResult> scanSchemaData(ConnectionSupplier connectionSupplier, List<String> schemaNames,
+                                                List<Detector> detectors, ScanOptions scanOptions, int parallelism,
+                                                Consumer<TableScanResult> callback) throws SQLException {
+        List<SchemaScanner.TableRef> tables = listScanTables(connectionSupplier, schemaNames);
+        return new SchemaScanner(this, connectionSupplier, tables, detectors, scanOptions, parallelism, null, null,
+                callback).scan();
     }
 
     /**
-     * This method fetches all the column names for a given table or view in the Oracle database.
+     * Scans all the tables and views of a list of schemas for sensitive data incrementally, several tables at the
+     * same time. Each table is scanned with {@link #scanTableIncremental}, starting from its fingerprint in the
+     * store, and the fingerprint of each table with complete results is recorded in the store. The store is not
+     * saved to its file, so that the caller decides when the new state is persisted. If the scan options ask for
+     * it, the catalog counters read by the modification stamps are refreshed once, before any table is
+     * fingerprinted, and a failed refresh is reported by the outcome of each table.
      *
-     * @param connection The connection object representing a connection with a specific database.
-     * @param schema     The name of the schema where the table is located.
-     * @param tableName  The name of the table or view from which to fetch the column names.
-     * @return A comma-separated string of all column names in the given table or view.
-     * @throws SQLException If a database access error occurs or this method is called on a closed connection.
+     * @param connectionSupplier The supplier of the connections, each connection is closed once the scan is done.
+     * @param schemaNames        The names of the schemas to scan, a null name designates the default schema.
+     * @param detectors          The detectors of sensitive data, with the columns each of them applies to.
+     * @param scanOptions        The sampling and budget options of each table scan.
+     * @param parallelism        The maximum number of tables scanned at the same time.
+     * @param stateStore         The store of the fingerprints of the previous scans.
+     * @param callback           The callback receiving the outcome of each table as soon as it is scanned, or null.
+     *                           It is never called by two workers at the same time.
+     * @return The outcome of each table, in the order the tables were listed.
+     * @throws SQLException if the tables cannot be listed or a database access error occurs
      */
-    protected String getColumnStrings(Connection connection, String schema, String tableName) throws SQLException {
-        List<String> columns = new ArrayList<>();
+    @Override
+    public List<TableScanResult> scanSchemaIncremental(ConnectionSupplier connectionSupplier, List<String> schemaNames,
+                                                       List<Detector> detectors, ScanOptions scanOptions, int parallelism,
+                                                       ScanStateStore stateStore, Consumer<TableScanResult> callback) throws SQLException {
+        List<SchemaScanner.TableRef> tables = listScanTables(connectionSupplier, schemaNames);
+        SQLException stampRefreshError = null;
+        if (scanOptions.isRefreshModificationStamps()) {
+            stampRefreshError = tryRefreshModificationStamps(connectionSupplier);
+        }
+        return new SchemaScanner(this, connectionSupplier, tables, detectors, scanOptions, parallelism, stateStore,
+                stampRefreshError, callback).scan();
+    }
 
-        DatabaseMetaData metaData = connection.getMetaData();
-        try (ResultSet resultSet = metaData.getColumns(null, schema, tableName, "%")) {
-            while (resultSet.next()) {
-                columns.add(resultSet.getString("COLUMN_NAME"));
+    /**
+     * Refreshes the catalog counters read by the modification stamps on a connection obtained from the supplier.
+     *
+     * @param connectionSupplier The supplier of the connections.
+     * @return the failure of the refresh, or null if it succeeded.
+     */
+    private SQLException tryRefreshModificationStamps(ConnectionSupplier connectionSupplier) {
+        try (Connection connection = connectionSupplier.getConnection()) {
+            if (connection == null) {
+                throw new SQLException(ErrorMessages.NULL_SUPPLIED_CONNECTION_ERROR);
             }
+            refreshModificationStamps(connection);
+            return null;
         } catch (SQLException e) {
-            throw new SQLException(e);
+            return e;
         }
-        return String.join(",", columns);
     }
 
     /**
-     * Executes the specified SQL query and applies obfuscation rules to the specified columns.
-     * @param columns The columns to fetch from the table/view.
-     * @param tableName The name of the table/view to fetch the data from.
-     * @param pageSize The number of records to fetch.
-     * @param pageOffset The offset of the first record to fetch.
-     * @return The SQL query to execute.
+     * Lists the tables and views of a list of schemas on a connection obtained from the supplier.
+     *
+     * @param connectionSupplier The supplier of the connections.
+     * @param schemaNames        The names of the schemas, a null name designates the default schema.
+     * @return the tables and views of the schemas.
+     * @throws SQLException if the tables cannot be listed
      */
-    protected String getQueryWithPage(String columns, String tableName, int pageSize, int pageOffset) {
-        int offset = (pageOffset - 1) * pageSize;
-        return String.format("SELECT %s FROM %s LIMIT %d OFFSET %d", columns, tableName, pageSize, offset);
+    private List<SchemaScanner.TableRef> listScanTables(ConnectionSupplier connectionSupplier, List<String> schemaNames) throws SQLException {
+        List<SchemaScanner.TableRef> tables = new ArrayList<>();
+        try (Connection connection = connectionSupplier.getConnection()) {
+            if (connection == null) {
+                throw new SQLException(ErrorMessages.NULL_SUPPLIED_CONNECTION_ERROR);
+            }
+            for (String schemaName : schemaNames) {
+                Set<String> names = new LinkedHashSet<>(getTables(connection, schemaName));
+                try {
+                    names.addAll(getViews(connection, schemaName));
+                } catch (SQLFeatureNotSupportedException e) {
+                    // The database has no views, only the tables are scanned
+                }
+                for (String name : names) {
+                    tables.add(new SchemaScanner.TableRef(schemaName, name));
+                }
+            }
+        }
+        return tables;
     }
 
-
     /**
-     * Executes the specified database function with the given parameters.
+     * Scans a table or view for sensitive data incrementally, starting from the fingerprint of its previous scan.
+     * <p>
+     * The current fingerprint of the table is made of its row count estimated from the catalog, its last DDL or
+     * modification time from the catalog, and the maximum of its integer primary key (the watermark). Then:
+     * <ul>
+     *     <li>if the fingerprint did not change, the table is skipped and the previous results are returned;</li>
+     *     <li>if the table only grew (the watermark increased, the row count did not decrease and the catalog
+     *     reports no other change), only the rows between the two watermarks are scanned, and their matches are
+     *     merged with the previous ones, up to Config.getDataSize() values per (column, regex) pair;</li>
+     *     <li>otherwise, or if the detectors, the match data size or the columns of the table changed, the table
+     *     is scanned entirely.</li>
+     * </ul>
+     * On databases whose catalog has no modification time, rows updated in place without changing the row count
+     * nor the watermark are not detected, and a full scan can be forced by removing the table from the store.
+     * The databases which require a modification stamp scan the table entirely when it cannot be read.
      *
-     * @param connection   The database connection (java.sql.Connection) to execute the function on
-     * @param schemaName The name of the schema where the table is located.
-     * @param functionName The name of the function to execute
-     * @param params       The list of parameters to pass to the function
-     * @return A List of Maps containing the function result, where each Map represents a row with column names as keys
-     * @throws SQLException if a database access error occurs
+     * @param connection  The SQL connection to the database.
+     * @param schemaName  The name of the schema where the table is located.
+     * @param tableName   The name of the table or view to scan.
+     * @param detectors   The detectors of sensitive data, with the columns each of them applies to.
+     * @param scanOptions The sampling and budget options of the scan, the sampling being ignored when only new rows are scanned.
+     * @param previous    The fingerprint of the previous scan of the table, or null if it was never scanned.
+     * @return The outcome of the table, with how it was scanned and the fingerprint to persist, which is null if
+     *         the results are partial so that the next scan starts over.
+     * @throws SQLException if a database access error occurs.
      */
     @Override
-    public List<Map<String, Object>> executeFunction(Connection connection, String schemaName, String functionName,
-                                                     Object... params) throws SQLException {
-        return executeFunction(connection, "SELECT ", schemaName, functionName, params);
+    public TableScanResult scanTableIncremental(Connection connection, String schemaName, String tableName,
+                                                List<Detector> detectors, ScanOptions scanOptions,
+                                                TableFingerprint previous) throws SQLException {
+        long startTime = System.nanoTime();
+        String detectorKey = detectors + "|" + Config.getInstance().getDataSize();
+        TableFingerprint current = getTableFingerprint(connection, schemaName, tableName, detectorKey);
+
+        ScanMode mode = ScanMode.FULL;
+        if (previous != null && current.getScanKey().equals(previous.getScanKey())
+                && Objects.equals(previous.getWatermarkColumn(), current.getWatermarkColumn())
+                && (current.getModificationStamp() != null || !isModificationStampRequired())) {
+            boolean tracked = current.getModificationStamp() != null || current.getRowCount() != null
+                    || current.getWatermark() != null;
+            if (tracked && Objects.equals(previous.getModificationStamp(), current.getModificationStamp())
+                    && Objects.equals(previous.getRowCount(), current.getRowCount())
+                    && Objects.equals(previous.getWatermark(), current.getWatermark())) {
+                mode = ScanMode.SKIPPED;
+            } else if (previous.getWatermark() != null && current.getWatermark() != null
+                    && current.getWatermark().compareTo(previous.getWatermark()) > 0
+                    && (previous.getRowCount() == null || current.getRowCount() == null
+                    || current.getRowCount() >= previous.getRowCount())
+                    && isAppendOnlyChange(previous.getModificationStamp(), current.getModificationStamp())) {
+                mode = ScanMode.INCREMENTAL;
+            }
+        }
+
+        if (mode == ScanMode.SKIPPED) {
+            long elapsedMillis = (System.nanoTime() - startTime) / 1_000_000L;
+            ScanResult scanResult = new ScanResult(copySensitiveColumns(previous.getSensitiveColumns()), 0,
+                    elapsedMillis, ScanStatus.COMPLETED);
+            return new TableScanResult(schemaName, tableName, scanResult, null, elapsedMillis, mode, previous);
+        }
+
+        ScanResult scanResult;
+        if (mode == ScanMode.INCREMENTAL) {
+            // The upper bound leaves the rows inserted during the scan to the next scan
+            String column = quoteIdentifier(connection, current.getWatermarkColumn());
+            String condition = column + " > " + previous.getWatermark().toPlainString()
+                    + " AND " + column + " <= " + current.getWatermark().toPlainString();
+            ScanResult newRows = scanTable(connection, schemaName, tableName, detectors, scanOptions, condition);
+            scanResult = new ScanResult(mergeSensitiveColumns(previous.getSensitiveColumns(), newRows.getSensitiveColumns()),
+                    newRows.getRowsScanned(), newRows.getElapsedMillis(), newRows.getStatus());
+        } else {
+            scanResult = scanTable(connection, schemaName, tableName, detectors, scanOptions, null);
+        }
+
+        TableFingerprint fingerprint = scanResult.getStatus().isPartial() ? null
+                : current.withSensitiveColumns(copySensitiveColumns(scanResult.getSensitiveColumns()));
+        long elapsedMillis = (System.nanoTime() - startTime) / 1_000_000L;
+        return new TableScanResult(schemaName, tableName, scanResult, null, elapsedMillis, mode, fingerprint);
     }
 
     /**
-     * Executes the specified database function with the given parameters.
+     * Takes the current fingerprint of a table. The parts the database cannot provide are left null.
      *
-     * @param connection   The database connection (java.sql.Connection) to execute the function on
-     * @param startSql   The start keywords used to execute function, like: SELECT, EXECUTE FUNCTION.
+     * @param connection The SQL connection to the database.
      * @param schemaName The name of the schema where the table is located.
-     * @param functionName The name of the function to execute
-     * @param params       The list of parameters to pass to the function
-     * @return A List of Maps containing the function result, where each Map represents a row with column names as keys
-     * @throws SQLException if a database access error occurs
+     * @param tableName  The name of the table or view.
+     * @param detectorKey The detectors and match data size of the scan.
+     * @return the fingerprint of the table, without sensitive columns.
+     * @throws SQLException if the watermark cannot be read
      */
-    protected List<Map<String, Object>> executeFunction(Connection connection, String startSql, String schemaName,
-                                                        String functionName, Object... params) throws SQLException {
-        List<Map<String, Object>> result = new ArrayList<>();
-
-        if (schemaName != null && !schemaName.isEmpty()) {
-            functionName =  schemaName + "." + functionName;
+    private TableFingerprint getTableFingerprint(Connection connection, String schemaName, String tableName,
+                                                 String detectorKey) throws SQLException {
+        long scanTime = System.currentTimeMillis();
+        Long rowCount;
+        try {
+            rowCount = getEstimatedRowCount(connection, schemaName, tableName);
+        } catch (SQLException e) {
+            rowCount = null;
+        }
+        String modificationStamp;
+        try {
+            modificationStamp = getModificationStamp(connection, schemaName, tableName);
+        } catch (SQLException e) {
+            modificationStamp = null;
         }
 
-        // Create a SQL query to execute the specified function
-        StringBuilder sql = new StringBuilder(startSql);
-        sql.append(functionName).append("(");
-        for (int i = 0; i < params.length; i++) {
-            sql.append("?");
-            if (i < params.length - 1) {
-                sql.append(", ");
+        // The columns are part of the scan key, so that a column added or retyped triggers a full scan,
+        // and only a single integer primary key grows with the inserted rows
+        StringBuilder scanKey = new StringBuilder(detectorKey);
+        String watermarkColumn = null;
+        List<TableAttribute> keyColumns = new ArrayList<>();
+        for (TableAttribute attribute : getScanAttributes(connection, schemaName, tableName).values()) {
+            scanKey.append('|').append(attribute.getName()).append(' ').append(attribute.getTypeName())
+                    .append('(').append(attribute.getMaxLength()).append(')');
+            if (attribute.isPrimaryKey()) {
+                keyColumns.add(attribute);
             }
         }
-        sql.append(")");
+        if (keyColumns.size() == 1 && isIntegerColumn(keyColumns.get(0))
+                && quoteIdentifier(connection, keyColumns.get(0).getName()) != null) {
+            watermarkColumn = keyColumns.get(0).getName();
+        }
 
-        try (PreparedStatement pstmt = connection.prepareStatement(sql.toString(), ResultSet.TYPE_SCROLL_INSENSITIVE, ResultSet.CONCUR_READ_ONLY)) {
-            // Set the function parameters
-            for (int i = 0; i < params.length; i++) {
-                pstmt.setObject(i + 1, params[i]);
+        BigDecimal watermark = null;
+        if (watermarkColumn != null) {
+            String qualifiedName = tableName;
+            if (schemaName != null && !schemaName.isEmpty()) {
+                qualifiedName = schemaName + "." + tableName;
             }
-
-            // Execute the query
-            try (ResultSet rs = pstmt.executeQuery()) {
-                result = getResult(rs, new HashMap<>());
+            String sql = "SELECT MAX(" + quoteIdentifier(connection, watermarkColumn) + ") FROM " + qualifiedName;
+            try (Statement stmt = connection.createStatement();
+                 ResultSet rs = stmt.executeQuery(sql)) {
+                if (rs.next()) {
+                    watermark = rs.getBigDecimal(1);
+                }
             }
-        } catch (SQLException e) {
-            throw new SQLException(ErrorMessages.FUNCTION_EXECUTION_ERROR + e.getMessage(), e);
         }
+        return new TableFingerprint(schemaName, tableName, scanKey.toString(), rowCount, modificationStamp,
+                watermarkColumn, watermark, scanTime, new ArrayList<>());
+    }
 
-        return result;
+    /**
+     * Returns a value from the catalog which changes when the definition or the data of a table changes, such as
+     * the last DDL or modification time of the table. The default implementation returns null, as not every
+     * database exposes it.
+     *
+     * @param connection The database connection object.
+     * @param schemaName The schema name of the table, or null or empty for the current schema.
+     * @param tableName  The name of the table.
+     * @return the modification stamp of the table, or null if not available.
+     * @throws SQLException If a database access error occurs.
+     */
+    protected String getModificationStamp(Connection connection, String schemaName, String tableName) throws SQLException {
+        return null;
+    }
+
+    /**
+     * Brings the catalog counters read by {@link #getModificationStamp} up to date, once per incremental scan of
+     * a list of schemas and before any table is fingerprinted, when ScanOptions.isRefreshModificationStamps()
+     * is set. The default implementation does nothing, as the modification stamps of most databases are always
+     * current.
+     *
+     * @param connection The database connection object.
+     * @throws SQLException If the counters cannot be refreshed.
+     */
+    protected void refreshModificationStamps(Connection connection) throws SQLException {
     }
 
+    /**
+     * Returns whether the incremental scans need the modification stamp of a table to skip it or to scan its new
+     * rows only. Without it, the table is scanned entirely, as its row count and watermark miss the rows updated
+     * in place. The default implementation returns false, the databases without modification stamp relying on
+     * the row count and the watermark.
+     *
+     * @return true if a table without modification stamp is always scanned entirely, false otherwise.
+     */
+    protected boolean isModificationStampRequired() {
+        return false;
+    }
 
     /**
-     * Scans a database table or view for sensitive data based on a list of regular expressions.
+     * Returns whether the change between two modification stamps of a table can only come from inserted rows.
+     * The default implementation only accepts unchanged stamps, the growth of the table being then detected
+     * from its row count and watermark.
      *
-     * @param connection The SQL connection to the database.
-     * @param schemaName The name of the schema where the table is located.
-     * @param tableName  The name of the table or view to scan.
-     * @param regexList  A list of regular expressions used for matching sensitive data.
-     * @return A list of {@link SensitiveColumn} instances containing matched sensitive data.
-     *         Only the columns that actually matched sensitive data will be returned.
-     *         For each SensitiveColumn, up to 5 matched data will be stored in the matchData attribute.
-     * @throws SQLException if a database access error occurs.
+     * @param previousStamp The modification stamp of the previous scan, or null.
+     * @param currentStamp  The current modification stamp, or null.
+     * @return true if the rows of the previous scan are known to be unchanged, false otherwise.
      */
-    @Override
-    public List<SensitiveColumn> scanTableData(Connection connection, String schemaName, String tableName, List<String> regexList) throws SQLException {
-        List<SensitiveColumn> sensitiveColumns = new ArrayList<>();
+    protected boolean isAppendOnlyChange(String previousStamp, String currentStamp) {
+        return Objects.equals(previousStamp, currentStamp);
+    }
 
-        String sql = "SELECT * FROM " + tableName;
-        if (schemaName != null && !schemaName.isEmpty()) {
-            sql = "SELECT * FROM " + schemaName + "." + tableName;
-        }
+    /**
+     * Runs a catalog query returning the modification stamp of a table in its first column.
+     *
+     * @param connection The database connection object.
+     * @param sql The catalog query, with a '?' placeholder for each parameter.
+     * @param params The parameters of the query, in binding order.
+     * @return the modification stamp, or null if the table is not found.
+     * @throws SQLException If a database access error occurs.
+     */
+    protected String queryModificationStamp(Connection connection, String sql, String... params) throws SQLException {
+        return StatementCache.query(connection, sql, Arrays.asList(params), rs -> rs.next() ? rs.getString(1) : null);
+    }
 
-        try (Statement stmt = connection.createStatement();
-             ResultSet rs = stmt.executeQuery(sql)) {
+    /**
+     * Returns whether a column holds integers only, so that its values can be written as SQL literals.
+     *
+     * @param attribute The attributes of the column.
+     * @return true for integer columns and decimal columns without fraction digits, false otherwise.
+     */
+    private static boolean isIntegerColumn(TableAttribute attribute) {
+        int type = attribute.getValueType();
+        return type == Types.TINYINT || type == Types.SMALLINT || type == Types.INTEGER || type == Types.BIGINT
+                || ((type == Types.DECIMAL || type == Types.NUMERIC) && attribute.getScale() == 0);
+    }
 
-            ResultSetMetaData metaData = rs.getMetaData();
-            int columnCount = metaData.getColumnCount();
+    /**
+     * Quotes an identifier with the quote string of the database.
+     *
+     * @param connection The SQL connection to the database.
+     * @param identifier The identifier to quote.
+     * @return the quoted identifier, or null if the database has no identifier quote.
+     * @throws SQLException if a database access error occurs
+     */
+    private static String quoteIdentifier(Connection connection, String identifier) throws SQLException {
+        String quote = connection.getMetaData().getIdentifierQuoteString();
+        if (quote == null || quote.isBlank()) {
+            return null;
+        }
+        return quote + identifier.replace(quote, quote + quote) + quote;
+    }
 
-            // Initialize SensitiveColumn instances
-            for (String regex : regexList) {
-                for (int i = 1; i <= columnCount; i++) {
-                    String columnName = metaData.getColumnName(i);
-                    SensitiveColumn sensitiveColumn = new SensitiveColumn(schemaName, tableName, columnName, regex);
-                    sensitiveColumns.add(sensitiveColumn);
+    /**
+     * Merges the sensitive columns of a scan of new rows into the results of the previous scan. The values of each
+     * (column, regex) pair are appended to the previous ones, without duplicates, up to Config.getDataSize() values.
+     *
+     * @param previousColumns The sensitive columns of the previous scan.
+     * @param newColumns      The sensitive columns found in the new rows.
+     * @return the merged sensitive columns, the previous ones first.
+     */
+    private static List<SensitiveColumn> mergeSensitiveColumns(List<SensitiveColumn> previousColumns,
+                                                               List<SensitiveColumn> newColumns) {
+        int dataSize = Config.getInstance().getDataSize();
+        Map<List<String>, SensitiveColumn> merged = new LinkedHashMap<>();
+        for (SensitiveColumn column : copySensitiveColumns(previousColumns)) {
+            merged.put(Arrays.asList(column.getColumnName(), column.getRegex()), column);
+        }
+        for (SensitiveColumn column : newColumns) {
+            SensitiveColumn target = merged.computeIfAbsent(Arrays.asList(column.getColumnName(), column.getRegex()),
+                    key -> new SensitiveColumn(column.getSchemaName(), column.getTableName(), column.getColumnName(), column.getRegex()));
+            for (Object value : column.getMatchData()) {
+                if (target.getMatchData().size() >= dataSize) {
+                    break;
                 }
-            }
-
-            // Scan data and fill matchData in SensitiveColumn instances
-            while (rs.next()) {
-                for (SensitiveColumn sensitiveColumn : sensitiveColumns) {
-                    String columnName = sensitiveColumn.getColumnName();
-                    String regex = sensitiveColumn.getRegex();
-                    Object columnValue = rs.getObject(columnName);
-
-                    Pattern pattern = Pattern.compile(regex);
-                    Matcher matcher = pattern.matcher(columnValue.toString());
-                    if (sensitiveColumn.getMatchData().size() < Config.getInstance().getDataSize() && matcher.find()) {
-                        sensitiveColumn.getMatchData().add(columnValue);
-                    }
+                if (!target.getMatchData().contains(value)) {
+                    target.getMatchData().add(value);
                 }
             }
-        } catch (SQLException e) {
-            throw new SQLException(ErrorMessages.TABLE_SCANNING_ERROR + e.getMessage(), e);
         }
+        return new ArrayList<>(merged.values());
+    }
 
-        List<SensitiveColumn> resultSensitiveColumns = new ArrayList<>();
-        for (SensitiveColumn column : sensitiveColumns) {
-            if (!column.getMatchData().isEmpty()) {
-                resultSensitiveColumns.add(column);
-            }
+    /**
+     * Copies a list of sensitive columns, so that the results returned to the caller and the persisted ones are
+     * not shared.
+     *
+     * @param columns The sensitive columns.
+     * @return the copies of the sensitive columns.
+     */
+    private static List<SensitiveColumn> copySensitiveColumns(List<SensitiveColumn> columns) {
+        List<SensitiveColumn> copies = new ArrayList<>(columns.size());
+        for (SensitiveColumn column : columns) {
+            copies.add(new SensitiveColumn(column.getSchemaName(), column.getTableName(), column.getColumnName(),
+                    column.getRegex(), new ArrayList<>(column.getMatchData())));
         }
-        return resultSensitiveColumns;
+        return copies;
     }
 
     /**
@@ -1024,33 +2861,216 @@ public abstract class BaseDatabase implements Database {
      */
     protected List<Map<String, Object>> getResult(ResultSet rs, Map<String, ObfuscationRule> obfuscationRules, Map<String, Set<String>> renameMap) throws SQLException {
         List<Map<String, Object>> result = new ArrayList<>();
-        ResultSetMetaData metaData = rs.getMetaData();
-        int columnCount = metaData.getColumnCount();
+        // Resolve labels, types and rule chains once for the whole result set
+        ObfuscationPlan plan = ObfuscationPlan.build(rs.getMetaData(), obfuscationRules, renameMap);
 
         // Iterate through the result set and build the list of maps
         while (rs.next()) {
-            Map<String, Object> row = new HashMap<>();
-            for (int i = 1; i <= columnCount; i++) {
-                String columnName = metaData.getColumnLabel(i);
-                String columnType;
-                try {
-                    columnType = metaData.getColumnTypeName(i);
-                } catch (SQLException e) {
-                    columnType = null;
+            result.add(getRow(rs, plan));
+        }
+        return result;
+    }
+
+    /**
+     * Helper method to read a ResultSet into a compact result and apply obfuscation rules to the specified columns.
+     * The column header is built once, and each row is read into an array of values.
+     *
+     * @param rs The ResultSet to be converted (java.sql.ResultSet)
+     * @param obfuscationRules A map where the key is the column name and the value is the ObfuscationRule object to apply to that column.
+     * @param renameMap A map containing column rename rules, where the key is the original column name and the value is the renamed column set.
+     * @return The compact result holding the rows of the ResultSet
+     * @throws SQLException if a database access error occurs or this method is called on a closed ResultSet
+     */
+    protected CompactResult getCompactResult(ResultSet rs, Map<String, ObfuscationRule> obfuscationRules,
+                                             Map<String, Set<String>> renameMap) throws SQLException {
+        ResultSetMetaData metaData = rs.getMetaData();
+        ObfuscationPlan plan = ObfuscationPlan.build(metaData, obfuscationRules, renameMap);
+        CompactResult result = new CompactResult(getColumnHeader(metaData, plan));
+        while (rs.next()) {
+            result.addRow(getRowValues(rs, plan));
+        }
+        return result;
+    }
+
+    /**
+     * Helper method to read a ResultSet in columnar batches and apply obfuscation rules to the specified columns of
+     * every batch. The column header and the vector kind of each column are resolved once, then each batch is read
+     * into fresh vectors and handed to the callback.
+     *
+     * @param rs The ResultSet to be read (java.sql.ResultSet)
+     * @param obfuscationRules A map where the key is the column name and the value is the ObfuscationRule object to apply to that column.
+     * @param renameMap A map containing column rename rules, where the key is the original column name and the value is the renamed column set.
+     * @param batchSize The maximum number of rows of a batch
+     * @param callback The callback receiving each batch, a single empty batch when the ResultSet has no row
+     * @return The number of rows read
+     * @throws SQLException if a database access error occurs or this method is called on a closed ResultSet
+     */
+    protected long readColumnBatches(ResultSet rs, Map<String, ObfuscationRule> obfuscationRules,
+                                     Map<String, Set<String>> renameMap, int batchSize,
+                                     Consumer<ColumnBatch> callback) throws SQLException {
+        ResultSetMetaData metaData = rs.getMetaData();
+        ObfuscationPlan plan = ObfuscationPlan.build(metaData, obfuscationRules, renameMap);
+        ColumnHeader header = getColumnHeader(metaData, plan);
+        int columnCount = header.getColumnCount();
+        VectorKind[] kinds = new VectorKind[columnCount];
+        for (int i = 0; i < columnCount; i++) {
+            kinds[i] = getVectorKind(header.getColumnType(i), header.getColumnTypeName(i));
+        }
+
+        long total = 0;
+        boolean hasNext = rs.next();
+        do {
+            ColumnVector[] vectors = new ColumnVector[columnCount];
+            for (int i = 0; i < columnCount; i++) {
+                vectors[i] = newColumnVector(kinds[i], header.getColumnType(i), batchSize);
+            }
+            int rowCount = 0;
+            while (hasNext && rowCount < batchSize) {
+                for (int i = 0; i < columnCount; i++) {
+                    readColumnValue(rs, i + 1, header.getColumnTypeName(i), vectors[i]);
                 }
-                Object columnValue = getColumnValue(rs, i, columnType);
+                rowCount++;
+                hasNext = rs.next();
+            }
+            for (int i = 0; i < columnCount; i++) {
+                vectors[i] = plan.apply(i, vectors[i]);
+            }
+            callback.accept(new ColumnBatch(header, vectors, rowCount));
+            total += rowCount;
+        } while (hasNext);
+        return total;
+    }
 
-                for (Map.Entry<String, ObfuscationRule> entry: obfuscationRules.entrySet()) {
-                    if (DbUtils.columnMatch(columnName, entry.getKey(), renameMap)){
-                        ObfuscationRule rule = entry.getValue();
-                        columnValue = ObfuscationUtils.doObfuscation(columnValue, rule);
-                    }
+    /**
+     * Helper method to build the column header of a ResultSet, with the labels and type names resolved by the
+     * obfuscation plan and the JDBC types read from the metadata.
+     *
+     * @param metaData The metadata of the ResultSet
+     * @param plan The obfuscation plan built from the metadata
+     * @return The column header
+     * @throws SQLException if a database access error occurs
+     */
+    protected ColumnHeader getColumnHeader(ResultSetMetaData metaData, ObfuscationPlan plan) throws SQLException {
+        int columnCount = plan.getColumnCount();
+        String[] columnLabels = new String[columnCount];
+        int[] columnTypes = new int[columnCount];
+        String[] columnTypeNames = new String[columnCount];
+        for (int i = 0; i < columnCount; i++) {
+            columnLabels[i] = plan.getColumnLabel(i);
+            columnTypes[i] = metaData.getColumnType(i + 1);
+            columnTypeNames[i] = plan.getColumnType(i);
+        }
+        return new ColumnHeader(columnLabels, columnTypes, columnTypeNames);
+    }
+
+    /**
+     * Helper method to choose how the values of a column are stored in a columnar batch. Integer types are read as
+     * longs, floating point types as doubles, character types as dictionary-encoded strings, and date and timestamp
+     * types as milliseconds; other types, decimals and unsigned BIGINT included, are read as objects with
+     * {@link #getColumnValue(ResultSet, int, String)} so that no value loses precision.
+     *
+     * @param sqlType The JDBC type of the column, from java.sql.Types
+     * @param columnType The database specific type name of the column
+     * @return The vector kind of the column
+     */
+    protected VectorKind getVectorKind(int sqlType, String columnType) {
+        return switch (sqlType) {
+            case Types.TINYINT, Types.SMALLINT, Types.INTEGER -> VectorKind.LONG;
+            case Types.BIGINT -> columnType != null && columnType.toUpperCase().contains("UNSIGNED")
+                    ? VectorKind.OBJECT : VectorKind.LONG;
+            case Types.REAL, Types.FLOAT, Types.DOUBLE -> VectorKind.DOUBLE;
+            case Types.CHAR, Types.VARCHAR, Types.LONGVARCHAR, Types.NCHAR, Types.NVARCHAR, Types.LONGNVARCHAR ->
+                    VectorKind.STRING;
+            case Types.DATE, Types.TIMESTAMP -> VectorKind.TIMESTAMP;
+            default -> VectorKind.OBJECT;
+        };
+    }
+
+    /**
+     * Helper method to create the vector holding the values of a column in a columnar batch.
+     *
+     * @param kind The vector kind of the column
+     * @param sqlType The JDBC type of the column, from java.sql.Types
+     * @param capacity The number of values the vector holds before growing
+     * @return An empty vector of the kind
+     */
+    private static ColumnVector newColumnVector(VectorKind kind, int sqlType, int capacity) {
+        return switch (kind) {
+            case LONG -> new LongColumnVector(capacity);
+            case DOUBLE -> new DoubleColumnVector(capacity);
+            case STRING -> new StringColumnVector(capacity);
+            case TIMESTAMP -> new TimestampColumnVector(capacity, sqlType == Types.DATE);
+            case OBJECT -> new ObjectColumnVector(capacity);
+        };
+    }
+
+    /**
+     * Helper method to read the value of a column of the current row of a ResultSet into a vector, with the getter
+     * matching the kind of the vector so that numbers are not boxed.
+     *
+     * @param rs The ResultSet positioned on the row to be read (java.sql.ResultSet)
+     * @param i The index of the column to get the value from
+     * @param columnType The type of the column to get the value from
+     * @param vector The vector receiving the value
+     * @throws SQLException if a database access error occurs or this method is called on a closed ResultSet
+     */
+    protected void readColumnValue(ResultSet rs, int i, String columnType, ColumnVector vector) throws SQLException {
+        switch (vector.getKind()) {
+            case LONG -> {
+                long value = rs.getLong(i);
+                if (rs.wasNull()) {
+                    vector.appendNull();
+                } else {
+                    ((LongColumnVector) vector).append(value);
+                }
+            }
+            case DOUBLE -> {
+                double value = rs.getDouble(i);
+                if (rs.wasNull()) {
+                    vector.appendNull();
+                } else {
+                    ((DoubleColumnVector) vector).append(value);
                 }
-                row.put(columnName, columnValue);
             }
-            result.add(row);
+            case STRING -> ((StringColumnVector) vector).append(rs.getString(i));
+            case TIMESTAMP -> ((TimestampColumnVector) vector).append(rs.getTimestamp(i));
+            case OBJECT -> ((ObjectColumnVector) vector).append(getColumnValue(rs, i, columnType));
         }
-        return result;
+    }
+
+    /**
+     * Helper method to read the current row of a ResultSet into an array and apply the obfuscation plan to it.
+     *
+     * @param rs The ResultSet positioned on the row to be read (java.sql.ResultSet)
+     * @param plan The obfuscation plan built from the metadata of the ResultSet
+     * @return The (obfuscated) column values, in the order of the columns
+     * @throws SQLException if a database access error occurs or this method is called on a closed ResultSet
+     */
+    protected Object[] getRowValues(ResultSet rs, ObfuscationPlan plan) throws SQLException {
+        int columnCount = plan.getColumnCount();
+        Object[] values = new Object[columnCount];
+        for (int i = 0; i < columnCount; i++) {
+            values[i] = plan.apply(i, getColumnValue(rs, i + 1, plan.getColumnType(i)));
+        }
+        return values;
+    }
+
+    /**
+     * Helper method to read the current row of a ResultSet into a Map and apply the obfuscation plan to it.
+     *
+     * @param rs The ResultSet positioned on the row to be read (java.sql.ResultSet)
+     * @param plan The obfuscation plan built from the metadata of the ResultSet
+     * @return A Map with column labels as keys and the (obfuscated) column values as values
+     * @throws SQLException if a database access error occurs or this method is called on a closed ResultSet
+     */
+    protected Map<String, Object> getRow(ResultSet rs, ObfuscationPlan plan) throws SQLException {
+        int columnCount = plan.getColumnCount();
+        Map<String, Object> row = new HashMap<>();
+        for (int i = 0; i < columnCount; i++) {
+            Object columnValue = getColumnValue(rs, i + 1, plan.getColumnType(i));
+            row.put(plan.getColumnLabel(i), plan.apply(i, columnValue));
+        }
+        return row;
     }
 
     /**
@@ -0,0 +1,149 @@
+package com.dbmasker.database;
+
+import com.dbmasker.utils.ErrorMessages;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Tracks the statements a call creates on a connection, so that the call can be bounded by a query timeout and
+ * cancelled from another thread.
+ * <p>
+ * The call runs on the connection returned by {@link #getConnection()}, which applies the query timeout to every
+ * statement it creates. {@link #cancel()} cancels the statements created so far with Statement.cancel, and any
+ * statement the call creates afterward is refused, so that the call stops at its next database access. The
+ * connection itself is neither closed nor owned by the tracker.
+ * <p>
+ * Only the statements created through the tracking connection are bounded. The queries run by DatabaseMetaData
+ * inside the driver are not, and the StatementCache is bypassed so that no cached statement escapes tracking or
+ * keeps the query timeout of the call. A timeout or cancellation only interrupts the database access: the call
+ * may still be using the connection for a short while, until it notices the failed or refused statement.
+ */
+public final class CancellableConnection {
+
+    private final Connection connection;
+    private final int queryTimeoutSeconds;
+    private final Set<Statement> statements = ConcurrentHashMap.newKeySet();
+    private final Connection proxy;
+    private volatile boolean cancelled;
+
+    /**
+     * Constructor for CancellableConnection.
+     *
+     * @param connection          The connection the call runs on.
+     * @param queryTimeoutSeconds The query timeout applied to every statement of the call, 0 for no timeout.
+     */
+    public CancellableConnection(Connection connection, int queryTimeoutSeconds) {
+        this.connection = connection;
+        this.queryTimeoutSeconds = queryTimeoutSeconds;
+        this.proxy = (Connection) Proxy.newProxyInstance(CancellableConnection.class.getClassLoader(),
+                new Class<?>[]{Connection.class}, new TrackingHandler());
+    }
+
+    /**
+     * Returns the connection the call must use, which tracks the statements it creates.
+     *
+     * @return the tracking connection.
+     */
+    public Connection getConnection() {
+        return proxy;
+    }
+
+    /**
+     * Cancels the statements created so far and refuses the statements created afterward. Cancelling twice has
+     * no further effect.
+     */
+    public void cancel() {
+        cancelled = true;
+        for (Statement stmt : statements) {
+            cancelQuietly(stmt);
+        }
+    }
+
+    /**
+     * Returns whether the call was cancelled.
+     *
+     * @return true if the call was cancelled, false otherwise.
+     */
+    public boolean isCancelled() {
+        return cancelled;
+    }
+
+    /**
+     * Returns whether a connection is the tracking connection of a call.
+     *
+     * @param connection The database connection.
+     * @return true if the connection tracks the statements of a call, false otherwise.
+     */
+    static boolean isTracking(Connection connection) {
+        return Proxy.isProxyClass(connection.getClass())
+                && Proxy.getInvocationHandler(connection) instanceof TrackingHandler;
+    }
+
+    /**
+     * Cancels a statement, ignoring errors since the statement may have completed or been closed meanwhile.
+     *
+     * @param stmt The statement to cancel.
+     */
+    private static void cancelQuietly(Statement stmt) {
+        try {
+            stmt.cancel();
+        } catch (SQLException e) {
+            // Nothing left to cancel
+        }
+    }
+
+    /**
+     * The handler of the tracking connection, which registers the statements and applies the query timeout.
+     */
+    private final class TrackingHandler implements InvocationHandler {
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            String name = method.getName();
+            switch (name) {
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "Cancellable" + connection;
+                default:
+                    break;
+            }
+
+            boolean createsStatement = "createStatement".equals(name) || "prepareStatement".equals(name)
+                    || "prepareCall".equals(name);
+            if (createsStatement && cancelled) {
+                throw new SQLException(ErrorMessages.CALL_CANCELLED_ERROR);
+            }
+
+            Object result;
+            try {
+                result = method.invoke(connection, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+
+            if (createsStatement) {
+                Statement stmt = (Statement) result;
+                if (queryTimeoutSeconds > 0) {
+                    stmt.setQueryTimeout(queryTimeoutSeconds);
+                }
+                statements.add(stmt);
+                // The call may have been cancelled while the statement was created
+                if (cancelled) {
+                    cancelQuietly(stmt);
+                }
+            }
+            return result;
+        }
+    }
+}
@@ -0,0 +1,395 @@
+package com.dbmasker.database;
+
+import com.dbmasker.data.CatalogRefresh;
+import com.dbmasker.data.CatalogSnapshot;
+import com.dbmasker.data.DatabaseFunction;
+import com.dbmasker.data.TableAttribute;
+import com.dbmasker.data.TableIndex;
+import com.dbmasker.data.TableMetaData;
+import com.dbmasker.utils.ErrorMessages;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+
+/**
+ * A local file holding the catalog snapshot of a schema, with its functions and the definition stamp of each
+ * table, so that a restarted process can serve metadata without crawling the catalog again.
+ * <p>
+ * The file is only read the first time the snapshot is requested. {@link #validate(Connection)} compares the stamps
+ * saved with the snapshot to the current ones from {@link Database#getTableDdlStamps(Connection, String)}, a single
+ * catalog query, and reloads only the tables whose definition changed, or all of them if the database has no
+ * stamps. {@link #validateAsync(ConnectionSupplier, Executor)} runs the validation in the background while the
+ * saved snapshot keeps being served. Functions are only reloaded by {@link #reload(Connection)}.
+ * <p>
+ * The file is a versioned binary file. A file written by another version, for another database type or another
+ * schema is ignored, so that the next validation replaces it. The store is thread-safe, and {@link #save()}
+ * replaces the file atomically where the file system supports it.
+ */
+public class CatalogSnapshotStore {
+
+    // "DBMC", the first bytes of every catalog snapshot file
+    private static final int MAGIC = 0x44424D43;
+    private static final int VERSION = 1;
+
+    private final Path file;
+    private final String dbType;
+    private final String schemaName;
+    private boolean loaded;
+    private CatalogSnapshot snapshot;
+    private Map<String, String> tableStamps;
+
+    /**
+     * Constructor for CatalogSnapshotStore.
+     *
+     * @param file       The file of the store.
+     * @param dbType     The type of the database (e.g., "sqlite", "mysql", etc.).
+     * @param schemaName The name of the schema of the snapshot.
+     */
+    private CatalogSnapshotStore(Path file, String dbType, String schemaName) {
+        this.file = file;
+        this.dbType = dbType;
+        this.schemaName = schemaName;
+    }
+
+    /**
+     * Opens the store of a schema. The file is not read until the snapshot is requested.
+     *
+     * @param file       The file of the store, which does not need to exist yet.
+     * @param dbType     The type of the database (e.g., "sqlite", "mysql", etc.).
+     * @param schemaName The name of the schema of the snapshot.
+     * @return the store.
+     */
+    public static CatalogSnapshotStore open(Path file, String dbType, String schemaName) {
+        return new CatalogSnapshotStore(file, dbType, schemaName);
+    }
+
+    /**
+     * Returns the snapshot of the store, reading the file the first time.
+     *
+     * @return the catalog snapshot, or null if no valid snapshot was saved or loaded yet.
+     * @throws IOException if the file cannot be read or is not a catalog snapshot file.
+     */
+    public synchronized CatalogSnapshot getSnapshot() throws IOException {
+        if (!loaded) {
+            read();
+            loaded = true;
+        }
+        return snapshot;
+    }
+
+    /**
+     * Returns the definition stamps of the tables of the snapshot, as read when the snapshot was loaded.
+     *
+     * @return the stamp of each table keyed by table name, or null if there is no snapshot or the database
+     * has no stamps.
+     * @throws IOException if the file cannot be read or is not a catalog snapshot file.
+     */
+    public synchronized Map<String, String> getTableStamps() throws IOException {
+        getSnapshot();
+        return tableStamps == null ? null : new LinkedHashMap<>(tableStamps);
+    }
+
+    /**
+     * Validates the snapshot against the catalog, reloading only the tables whose definition changed, and saves it
+     * if anything changed. The first validation of a store without a snapshot loads the whole catalog with its
+     * functions.
+     *
+     * @param connection A valid database connection.
+     * @return true if the snapshot was reloaded, false if it was still valid.
+     * @throws SQLException if a database access error occurs
+     * @throws IOException  if the file cannot be read or written.
+     */
+    public boolean validate(Connection connection) throws SQLException, IOException {
+        Database database = DatabaseRegistry.getDatabase(dbType);
+        CatalogSnapshot current;
+        Map<String, String> currentStamps;
+        synchronized (this) {
+            current = getSnapshot();
+            currentStamps = tableStamps;
+        }
+        if (current == null) {
+            reload(connection);
+            return true;
+        }
+
+        CatalogRefresh refresh = database.refreshCatalogSnapshot(connection, current, currentStamps);
+        synchronized (this) {
+            tableStamps = refresh.getTableStamps();
+            if (refresh.hasChanges()) {
+                snapshot = refresh.getSnapshot();
+                save();
+            }
+        }
+        return refresh.hasChanges();
+    }
+
+    /**
+     * Reloads the whole catalog with its functions and saves it, whatever the definition stamps of the tables.
+     * The stamps are read before the catalog, so that a change made during the reload is seen by the next
+     * validation.
+     *
+     * @param connection A valid database connection.
+     * @throws SQLException if a database access error occurs
+     * @throws IOException  if the file cannot be written.
+     */
+    public void reload(Connection connection) throws SQLException, IOException {
+        Database database = DatabaseRegistry.getDatabase(dbType);
+        Map<String, String> currentStamps = database.getTableDdlStamps(connection, schemaName);
+        CatalogSnapshot reloaded = database.getCatalogSnapshot(connection, schemaName);
+        try {
+            for (DatabaseFunction function : database.getFuncs(connection, schemaName)) {
+                reloaded.addFunction(function);
+            }
+        } catch (SQLFeatureNotSupportedException e) {
+            // the database has no functions
+        }
+        synchronized (this) {
+            snapshot = reloaded;
+            tableStamps = currentStamps;
+            loaded = true;
+            save();
+        }
+    }
+
+    /**
+     * Validates the snapshot in the background, with a connection obtained from the supplier and closed once done.
+     * The snapshot saved in the file keeps being returned until the validation completes.
+     *
+     * @param connectionSupplier Supplies the connection of the validation.
+     * @param executor           The executor running the validation.
+     * @return a future completed with true if the snapshot was reloaded, or completed exceptionally with the
+     * SQLException or IOException of the validation.
+     */
+    public CompletableFuture<Boolean> validateAsync(ConnectionSupplier connectionSupplier, Executor executor) {
+        return CompletableFuture.supplyAsync(() -> {
+            try (Connection connection = connectionSupplier.getConnection()) {
+                return validate(connection);
+            } catch (SQLException | IOException e) {
+                throw new CompletionException(e);
+            }
+        }, executor);
+    }
+
+    /**
+     * Writes the snapshot of the store to its file, replacing the previous content. Nothing is written if the
+     * store has no snapshot.
+     *
+     * @throws IOException if the file cannot be written.
+     */
+    public synchronized void save() throws IOException {
+        if (snapshot == null) {
+            return;
+        }
+        Path directory = file.toAbsolutePath().getParent();
+        if (directory != null) {
+            Files.createDirectories(directory);
+        }
+        Path tempFile = Files.createTempFile(directory, file.getFileName().toString(), ".tmp");
+        try {
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tempFile)))) {
+                write(out);
+            }
+            try {
+                Files.move(tempFile, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(tempFile, file, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            Files.deleteIfExists(tempFile);
+        }
+    }
+
+    /**
+     * Getter for the file of the store.
+     *
+     * @return the file of the store.
+     */
+    public Path getFile() {
+        return file;
+    }
+
+    /**
+     * Reads the snapshot from the file, if the file exists and was written for the same database type and schema
+     * by the same version.
+     *
+     * @throws IOException if the file cannot be read or is not a catalog snapshot file.
+     */
+    private void read() throws IOException {
+        if (!Files.exists(file)) {
+            return;
+        }
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+            if (in.readInt() != MAGIC) {
+                throw new IOException(ErrorMessages.INVALID_CATALOG_SNAPSHOT_FILE_ERROR + file);
+            }
+            if (in.readInt() != VERSION || !dbType.equalsIgnoreCase(readString(in))
+                    || !Objects.equals(schemaName, readString(in))) {
+                return;
+            }
+            long loadTime = in.readLong();
+            Map<String, String> stamps = null;
+            if (in.readBoolean()) {
+                stamps = new LinkedHashMap<>();
+                for (int i = in.readInt(); i > 0; i--) {
+                    stamps.put(readString(in), readString(in));
+                }
+            }
+
+            CatalogSnapshot read = new CatalogSnapshot(schemaName, loadTime);
+            for (int i = in.readInt(); i > 0; i--) {
+                String tableName = readString(in);
+                read.addTable(tableName);
+                for (int j = in.readInt(); j > 0; j--) {
+                    TableAttribute attribute = new TableAttribute(readString(in), in.readInt(), in.readLong(),
+                            in.readBoolean(), in.readBoolean(), in.readInt(), in.readInt(), readString(in),
+                            in.readInt(), in.readBoolean());
+                    TableMetaData metaData = new TableMetaData(tableName, readString(in), readString(in), readString(in));
+                    read.addColumn(tableName, attribute, metaData);
+                }
+                for (int j = in.readInt(); j > 0; j--) {
+                    String keyName = readString(in);
+                    for (int k = in.readInt(); k > 0; k--) {
+                        read.addUniqueKeyColumn(tableName, keyName, readString(in));
+                    }
+                }
+                for (int j = in.readInt(); j > 0; j--) {
+                    read.addIndex(tableName, new TableIndex(readString(in), readString(in), in.readBoolean()));
+                }
+            }
+            for (int i = in.readInt(); i > 0; i--) {
+                read.addFunction(new DatabaseFunction(readString(in), readString(in)));
+            }
+            snapshot = read;
+            tableStamps = stamps;
+        } catch (IOException | RuntimeException e) {
+            throw new IOException(ErrorMessages.INVALID_CATALOG_SNAPSHOT_FILE_ERROR + file, e);
+        }
+    }
+
+    /**
+     * Writes the snapshot and the table stamps to a stream.
+     *
+     * @param out The stream of the file.
+     * @throws IOException if the stream cannot be written.
+     */
+    private void write(DataOutputStream out) throws IOException {
+        out.writeInt(MAGIC);
+        out.writeInt(VERSION);
+        writeString(out, dbType);
+        writeString(out, schemaName);
+        out.writeLong(snapshot.getLoadTime());
+        out.writeBoolean(tableStamps != null);
+        if (tableStamps != null) {
+            out.writeInt(tableStamps.size());
+            for (Map.Entry<String, String> entry : tableStamps.entrySet()) {
+                writeString(out, entry.getKey());
+                writeString(out, entry.getValue());
+            }
+        }
+
+        List<String> tableNames = snapshot.getTableNames();
+        out.writeInt(tableNames.size());
+        for (String tableName : tableNames) {
+            writeString(out, tableName);
+            List<TableAttribute> attributes = snapshot.getTableAttributes(tableName);
+            List<TableMetaData> metaDataList = snapshot.getMetaData(tableName);
+            out.writeInt(attributes.size());
+            for (int i = 0; i < attributes.size(); i++) {
+                TableAttribute attribute = attributes.get(i);
+                writeString(out, attribute.getName());
+                out.writeInt(attribute.getValueType());
+                out.writeLong(attribute.getMaxLength());
+                out.writeBoolean(attribute.isRequired());
+                out.writeBoolean(attribute.isAutoGenerated());
+                out.writeInt(attribute.getScale());
+                out.writeInt(attribute.getPrecision());
+                writeString(out, attribute.getTypeName());
+                out.writeInt(attribute.getOrdinalPosition());
+                out.writeBoolean(attribute.isPrimaryKey());
+                TableMetaData metaData = metaDataList.get(i);
+                writeString(out, metaData.getColumnName());
+                writeString(out, metaData.getDataType());
+                writeString(out, metaData.getColumnSize());
+            }
+
+            Map<String, Set<String>> uniqueKeys = snapshot.getUniqueKeys(tableName);
+            out.writeInt(uniqueKeys.size());
+            for (Map.Entry<String, Set<String>> entry : uniqueKeys.entrySet()) {
+                writeString(out, entry.getKey());
+                out.writeInt(entry.getValue().size());
+                for (String columnName : entry.getValue()) {
+                    writeString(out, columnName);
+                }
+            }
+
+            List<TableIndex> indexes = snapshot.getIndexes(tableName);
+            out.writeInt(indexes.size());
+            for (TableIndex index : indexes) {
+                writeString(out, index.getIndexName());
+                writeString(out, index.getColumnName());
+                out.writeBoolean(index.isUnique());
+            }
+        }
+
+        List<DatabaseFunction> functions = snapshot.getFunctions();
+        out.writeInt(functions.size());
+        for (DatabaseFunction function : functions) {
+            writeString(out, function.getSchemaName());
+            writeString(out, function.getName());
+        }
+    }
+
+    /**
+     * Writes a string which may be null.
+     *
+     * @param out   The stream of the file.
+     * @param value The string, or null.
+     * @throws IOException if the stream cannot be written.
+     */
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        if (value == null) {
+            out.writeInt(-1);
+            return;
+        }
+        // Not writeUTF, which is limited to 64 KB
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    /**
+     * Reads a string written by {@link #writeString(DataOutputStream, String)}.
+     *
+     * @param in The stream of the file.
+     * @return the string, or null.
+     * @throws IOException if the stream cannot be read.
+     */
+    private static String readString(DataInputStream in) throws IOException {
+        int length = in.readInt();
+        if (length < 0) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,96 @@
+package com.dbmasker.database;
+
+import com.dbmasker.data.PoolOptions;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The pooled data sources shared by the whole process, one per driver, URL, user and password, so that every
+ * caller connecting to the same database borrows from the same pool.
+ */
+public final class ConnectionPools {
+
+    private static final Map<PoolKey, PooledDataSource> POOLS = new ConcurrentHashMap<>();
+
+    /**
+     * The identity of a shared pool. The password is part of it so that a caller never borrows a connection opened
+     * with credentials it did not supply.
+     *
+     * @param driver   The fully-qualified name of the JDBC driver class.
+     * @param url      The JDBC URL for the database.
+     * @param username The username for the database connection.
+     * @param password The password for the database connection.
+     */
+    private record PoolKey(String driver, String url, String username, String password) {
+        // Leaves the password out of logs and error messages
+        @Override
+        public String toString() {
+            return driver + "|" + url + "|" + username;
+        }
+    }
+
+    /**
+     * Default constructor for ConnectionPools class.
+     */
+    private ConnectionPools() {
+        throw new UnsupportedOperationException();
+    }
+
+    /**
+     * Returns the shared pool of a database, creating it with the given options if it does not exist yet.
+     *
+     * @param driver   The fully-qualified name of the JDBC driver class.
+     * @param url      The JDBC URL for the database.
+     * @param username The username for the database connection.
+     * @param password The password for the database connection.
+     * @param options  The options of the pool if it is created, or null for the default options.
+     * @return the shared pool.
+     * @throws ClassNotFoundException if the JDBC driver class is not found.
+     */
+    public static PooledDataSource getDataSource(String driver, String url, String username, String password,
+                                                 PoolOptions options) throws ClassNotFoundException {
+        PoolKey key = new PoolKey(driver, url, username, password);
+        PooledDataSource dataSource = POOLS.get(key);
+        if (dataSource != null && !dataSource.isClosed()) {
+            return dataSource;
+        }
+
+        PooledDataSource created = new PooledDataSource(driver, url, username, password, options);
+        synchronized (POOLS) {
+            dataSource = POOLS.get(key);
+            if (dataSource != null && !dataSource.isClosed()) {
+                created.close();
+                return dataSource;
+            }
+            POOLS.put(key, created);
+            return created;
+        }
+    }
+
+    /**
+     * Closes all shared pools and forgets them, for example when the application shuts down. Connections in use
+     * are closed when they are returned.
+     */
+    public static void closeAll() {
+        List<PooledDataSource> dataSources;
+        synchronized (POOLS) {
+            dataSources = new ArrayList<>(POOLS.values());
+            POOLS.clear();
+        }
+        for (PooledDataSource dataSource : dataSources) {
+            dataSource.close();
+        }
+    }
+
+    /**
+     * Returns the number of shared pools.
+     *
+     * @return the number of pools.
+     */
+    public static int size() {
+        return POOLS.size();
+    }
+}
@@ -0,0 +1,21 @@
+package com.dbmasker.database;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+
+/**
+ * Supplies the database connections used by the operations which work on several connections at the same time,
+ * such as schema scans. Every connection obtained from the supplier is closed by the operation once it is done,
+ * so a pooled DataSource can be passed directly as {@code dataSource::getConnection}.
+ */
+@FunctionalInterface
+public interface ConnectionSupplier {
+
+    /**
+     * Opens or borrows a database connection.
+     *
+     * @return a database connection, owned by the caller.
+     * @throws SQLException if the connection cannot be obtained
+     */
+    Connection getConnection() throws SQLException;
+}
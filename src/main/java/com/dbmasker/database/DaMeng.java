@@ -1,11 +1,15 @@
 package com.dbmasker.database;
 
+import com.dbmasker.data.CatalogSnapshot;
 import com.dbmasker.data.DatabaseFunction;
+import com.dbmasker.data.FetchOptions;
 import com.dbmasker.utils.ErrorMessages;
 
 import java.sql.*;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 
 /**
  * DaMeng Database class implements the Database interface for DaMeng databases.
@@ -57,27 +61,23 @@ public class DaMeng extends BaseDatabase {
      */
     @Override
     public List<String> getTables(Connection connection, String schemaName) throws SQLException {
-        List<String> tableList = new ArrayList<>();
         String sql;
         if (schemaName == null) {
             sql = "SELECT TABLE_NAME FROM DBA_TABLES";
         } else {
             sql = "SELECT TABLE_NAME FROM DBA_TABLES WHERE OWNER = ?";
         }
-        try (PreparedStatement pstmt = connection.prepareStatement(sql)) {
-            if (schemaName != null) {
-                pstmt.setString(1, schemaName.toUpperCase());
-            }
-            try (ResultSet rs = pstmt.executeQuery()) {
+        try {
+            return StatementCache.query(connection, sql, schemaParams(schemaName == null ? null : schemaName.toUpperCase()), rs -> {
+                List<String> tableList = new ArrayList<>();
                 while (rs.next()) {
                     tableList.add(rs.getString("TABLE_NAME"));
                 }
-            }
+                return tableList;
+            });
         } catch (SQLException e) {
             throw new SQLException(ErrorMessages.TABLE_NAMES_RETRIEVAL_ERROR, e);
         }
-
-        return tableList;
     }
 
     /**
@@ -90,29 +90,152 @@ public class DaMeng extends BaseDatabase {
      */
     @Override
     public List<DatabaseFunction> getFuncs(Connection connection, String schemaName) throws SQLException {
-        List<DatabaseFunction> functions = new ArrayList<>();
         String sql;
         if (schemaName == null) {
             sql = "SELECT OBJECT_NAME FROM DBA_OBJECTS WHERE OBJECT_TYPE='FUNCTION'";
         } else {
             sql = "SELECT OBJECT_NAME FROM DBA_OBJECTS WHERE OBJECT_TYPE='FUNCTION' AND OWNER=?";
         }
-        try (PreparedStatement pstmt = connection.prepareStatement(sql)) {
-            if (schemaName != null) {
-                pstmt.setString(1, schemaName.toUpperCase());
-            }
-
-            try (ResultSet rs = pstmt.executeQuery()) {
+        try {
+            return StatementCache.query(connection, sql, schemaParams(schemaName == null ? null : schemaName.toUpperCase()), rs -> {
+                List<DatabaseFunction> functions = new ArrayList<>();
                 while (rs.next()) {
                     String functionName = rs.getString("OBJECT_NAME");
                     DatabaseFunction function = new DatabaseFunction(schemaName, functionName);
                     functions.add(function);
                 }
-            }
+                return functions;
+            });
         } catch (SQLException e) {
             throw new SQLException(ErrorMessages.FUNCTION_NAMES_RETRIEVAL_ERROR, e);
         }
+    }
+
+    /**
+     * Returns the fetch size applied to streaming cursors when the caller does not give one.
+     * The DM driver prefetches the rows in batches of this size.
+     *
+     * @return the default fetch size of the database.
+     */
+    @Override
+    protected int getDefaultFetchSize() {
+        return FetchOptions.DEFAULT_FETCH_SIZE;
+    }
+
+    /**
+     * Returns the row count of a table estimated from ALL_TABLES.NUM_ROWS, which is maintained when the optimizer statistics are gathered.
+     *
+     * @param connection The database connection object.
+     * @param schemaName The schema name of the table, or null or empty for the current schema.
+     * @param tableName The name of the table.
+     * @return the estimated number of rows, or null if the table is not found or has no statistics.
+     * @throws SQLException If a database access error occurs.
+     */
+    @Override
+    protected Long getEstimatedRowCount(Connection connection, String schemaName, String tableName) throws SQLException {
+        String sql = "SELECT NUM_ROWS FROM ALL_TABLES " +
+                "WHERE OWNER = COALESCE(?, SYS_CONTEXT('USERENV', 'CURRENT_SCHEMA')) AND TABLE_NAME = ?";
+        String owner = schemaName == null || schemaName.isEmpty() ? null : schemaName.toUpperCase();
+        return queryEstimatedRowCount(connection, sql, owner, tableName.toUpperCase());
+    }
+
+    /**
+     * Returns whether the incremental scans need the modification stamp of a table. The catalog of DaMeng only
+     * exposes the last DDL time of a table, which misses the rows updated in place, so no stamp is returned and
+     * the tables are always scanned entirely.
+     *
+     * @return true, a table without modification stamp being always scanned entirely.
+     */
+    @Override
+    protected boolean isModificationStampRequired() {
+        return true;
+    }
+
+    /**
+     * Returns the ordered key columns used for keyset pagination, looking up the upper case names of the
+     * schema and the table as they are stored in the DaMeng data dictionary.
+     *
+     * @param connection The database connection object.
+     * @param schemaName The schema name of the table.
+     * @param tableName The name of the table.
+     * @return the ordered key columns, or an empty list if the table has no usable key.
+     * @throws SQLException If a database access error occurs.
+     */
+    @Override
+    protected List<String> getKeysetColumns(Connection connection, String schemaName, String tableName) throws SQLException {
+        return super.getKeysetColumns(connection, schemaName == null ? null : schemaName.toUpperCase(), tableName.toUpperCase());
+    }
 
-        return functions;
+    /**
+     * Returns whether the sample query of the database can read a view.
+     *
+     * @return false, as SAMPLE only samples tables.
+     */
+    @Override
+    protected boolean supportsViewSampling() {
+        return false;
+    }
+
+    /**
+     * Builds the sample query of a sensitive data scan with the SAMPLE clause, which picks random rows
+     * of the table.
+     *
+     * @param columns       The columns to select, separated by commas.
+     * @param tableName     The name of the table or view, qualified with its schema if any.
+     * @param samplePercent The percentage of the table to sample, greater than 0 and lower than 100.
+     * @return the query reading the sample.
+     */
+    @Override
+    protected String getSampleQuery(String columns, String tableName, double samplePercent) {
+        return "SELECT " + columns + " FROM " + tableName + " SAMPLE (" + formatSamplePercent(samplePercent) + ")";
+    }
+
+    /**
+     * Loads the catalog of some or all the tables of a schema. The schema name is converted to upper case,
+     * as stored in the dictionary.
+     *
+     * @param connection A valid database connection.
+     * @param schemaName The name of the schema.
+     * @param tableNames The names of the tables to load, or null to load all the tables.
+     * @return the catalog snapshot of the tables.
+     * @throws SQLException if a database access error occurs
+     */
+    @Override
+    protected CatalogSnapshot loadCatalogTables(Connection connection, String schemaName,
+                                                Collection<String> tableNames) throws SQLException {
+        String owner = schemaName == null || schemaName.isEmpty() ? null : schemaName.toUpperCase();
+        return loadCatalogSnapshot(connection, null, owner, owner, tableNames);
+    }
+
+    /**
+     * Returns the query listing the index columns of all the tables of a schema from ALL_INDEXES and ALL_IND_COLUMNS.
+     *
+     * @return the catalog query of the index columns.
+     */
+    @Override
+    protected String getIndexCatalogQuery() {
+        return "SELECT i.TABLE_NAME, i.INDEX_NAME, c.COLUMN_NAME, " +
+                "CASE WHEN i.UNIQUENESS = 'UNIQUE' THEN 0 ELSE 1 END, CASE WHEN p.CONSTRAINT_NAME IS NULL THEN 0 ELSE 1 END " +
+                "FROM ALL_INDEXES i JOIN ALL_IND_COLUMNS c ON c.INDEX_OWNER = i.OWNER AND c.INDEX_NAME = i.INDEX_NAME " +
+                "LEFT JOIN ALL_CONSTRAINTS p ON p.OWNER = i.TABLE_OWNER AND p.INDEX_NAME = i.INDEX_NAME AND p.CONSTRAINT_TYPE = 'P' " +
+                "WHERE i.TABLE_OWNER = COALESCE(?, SYS_CONTEXT('USERENV', 'CURRENT_SCHEMA')) " +
+                "ORDER BY i.TABLE_NAME, i.UNIQUENESS DESC, i.INDEX_NAME, c.COLUMN_POSITION";
+    }
+
+    /**
+     * Retrieves the last DDL time of each table of a schema from ALL_OBJECTS, which also changes when an index of
+     * the table is created or dropped. The schema name is converted to upper case, as stored in the dictionary.
+     *
+     * @param connection A valid database connection.
+     * @param schemaName The name of the schema, or null or empty for the current schema.
+     * @return the last DDL time of each table keyed by table name.
+     * @throws SQLException if a database access error occurs
+     */
+    @Override
+    public Map<String, String> getTableDdlStamps(Connection connection, String schemaName) throws SQLException {
+        String sql = "SELECT OBJECT_NAME, TO_CHAR(LAST_DDL_TIME, 'YYYY-MM-DD HH24:MI:SS') FROM ALL_OBJECTS " +
+                "WHERE OWNER = COALESCE(?, SYS_CONTEXT('USERENV', 'CURRENT_SCHEMA')) AND OBJECT_TYPE = 'TABLE'";
+        String owner = schemaName == null || schemaName.isEmpty() ? null : schemaName.toUpperCase();
+        return queryTableDdlStamps(connection, sql, owner);
     }
 }
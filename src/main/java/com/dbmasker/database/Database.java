@@ -1,12 +1,15 @@
 package com.dbmasker.database;
 
 import com.dbmasker.data.*;
+import com.dbmasker.utils.CountStrategy;
+import com.dbmasker.utils.ScanStateStore;
 
 import java.sql.Connection;
 import java.sql.SQLException;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.function.Consumer;
 
 /**
  * Database interface for different database implementations.
@@ -63,6 +66,42 @@ public interface Database {
      */
     List<TableMetaData> getMetaData(Connection connection, String schemaName) throws SQLException;
 
+    /**
+     * Loads the catalog of a schema at once: its tables with their columns, primary keys, unique keys and indexes,
+     * with one query per kind of catalog object instead of a few queries per table.
+     *
+     * @param connection A valid database connection.
+     * @param schemaName The name of the schema.
+     * @return the catalog snapshot of the schema.
+     * @throws SQLException if a database access error occurs
+     */
+    CatalogSnapshot getCatalogSnapshot(Connection connection, String schemaName) throws SQLException;
+
+    /**
+     * Retrieves a stamp of the definition of each table of a schema, such as its last DDL time, which changes
+     * whenever the columns, keys or indexes of the table change. The stamps of all the tables are read with a
+     * single catalog query, so that a cached catalog can be validated cheaply.
+     *
+     * @param connection A valid database connection.
+     * @param schemaName The name of the schema.
+     * @return the definition stamp of each table keyed by table name, or null if the database has no such stamp.
+     * @throws SQLException if a database access error occurs
+     */
+    Map<String, String> getTableDdlStamps(Connection connection, String schemaName) throws SQLException;
+
+    /**
+     * Refreshes a catalog snapshot, reloading only the tables whose definition stamp changed since the snapshot
+     * was taken, so that the catalog of a large schema can be kept up to date without crawling it again.
+     *
+     * @param connection     A valid database connection.
+     * @param snapshot       The catalog snapshot to refresh, which is not modified.
+     * @param previousStamps The definition stamps of the tables read with the snapshot, or null if unknown.
+     * @return the refreshed snapshot, the added, changed and removed tables and the current stamps.
+     * @throws SQLException if a database access error occurs
+     */
+    CatalogRefresh refreshCatalogSnapshot(Connection connection, CatalogSnapshot snapshot,
+                                          Map<String, String> previousStamps) throws SQLException;
+
     /**
      * Retrieves table attributes for a given table in the specified schema.
      *
@@ -161,6 +200,34 @@ public interface Database {
      */
     List<Map<String, Object>> execQuerySQLWithMask(Connection connection, String sql, Map<String, ObfuscationRule> obfuscationRules) throws SQLException;
 
+    /**
+     * Executes a SQL query and returns the result in a compact form, one shared column header and each row as an
+     * array of values, applies obfuscation rules to the specified columns.
+     *
+     * @param connection The database connection (java.sql.Connection) used to execute the query
+     * @param sql The SQL query string (String) to be executed
+     * @param obfuscationRules A map where the key is the column name and the value is the ObfuscationRule object to apply to that column.
+     * @return The compact result of the query
+     * @throws SQLException if a database access error occurs
+     */
+    CompactResult execQueryCompactWithMask(Connection connection, String sql, Map<String, ObfuscationRule> obfuscationRules) throws SQLException;
+
+    /**
+     * Executes a SQL query and hands the result to a callback in columnar batches, applies obfuscation rules to the
+     * specified columns of every batch. Integer, floating point and date columns are read into primitive vectors,
+     * and character columns into dictionary-encoded vectors, so that rows are read without boxing their values.
+     *
+     * @param connection The database connection (java.sql.Connection) used to execute the query
+     * @param sql The SQL query string (String) to be executed
+     * @param obfuscationRules A map where the key is the column name and the value is the ObfuscationRule object to apply to that column.
+     * @param batchSize The maximum number of rows of a batch, also given to the driver as fetch size
+     * @param callback The callback receiving each batch, a single empty batch when the query returns no row
+     * @return The number of rows read
+     * @throws SQLException if a database access error occurs
+     */
+    long execQueryColumnarWithMask(Connection connection, String sql, Map<String, ObfuscationRule> obfuscationRules,
+                                   int batchSize, Consumer<ColumnBatch> callback) throws SQLException;
+
     /**
      * Executes a batch of SQL queries and returns the results as a list of lists of maps.
      *
@@ -172,6 +239,23 @@ public interface Database {
      */
      List<List<Map<String, Object>>> executeQuerySQLBatch(Connection connection, List<String> sqlList) throws SQLException;
 
+    /**
+     * Executes a batch of independent SQL queries several at a time, each on a connection obtained from the supplier,
+     * and returns the results in the order of the queries. The first query which fails stops the batch and cancels
+     * the queries still running.
+     *
+     * @param connectionSupplier The supplier of the connections, each connection is closed once the batch is done.
+     * @param sqlList            The list of SQL query strings to be executed, which must all be SELECT queries.
+     * @param obfuscationRules   A map where the key is the column name and the value is the ObfuscationRule object to apply to that column.
+     * @param parallelism        The maximum number of queries executed at the same time.
+     * @return A list of lists of maps where each inner list represents a query result,
+     *         with each map representing a row in the result set, with keys being column names and values being the corresponding data
+     * @throws SQLException if a query fails or a database access error occurs
+     */
+    List<List<Map<String, Object>>> executeQuerySQLBatch(ConnectionSupplier connectionSupplier, List<String> sqlList,
+                                                         Map<String, ObfuscationRule> obfuscationRules,
+                                                         int parallelism) throws SQLException;
+
     /**
      * Executes a SQL query or update statement, returns the results as a list of maps.
      *
@@ -309,6 +393,60 @@ public interface Database {
      */
      List<Map<String, Object>> getDataWithMask(Connection connection, String schemaName, String name, Map<String, ObfuscationRule> obfuscationRules) throws SQLException;
 
+    /**
+     * Executes a SQL query and returns a cursor which fetches the rows on demand and applies obfuscation rules
+     * to the specified columns as each row is consumed. The cursor must be closed by the caller.
+     *
+     * @param connection The database connection (java.sql.Connection) used to execute the query
+     * @param sql The SQL query string (String) to be executed
+     * @param obfuscationRules A map where the key is the column name and the value is the ObfuscationRule object to apply to that column.
+     * @return A cursor over the rows of the query result
+     * @throws SQLException if a database access error occurs
+     */
+    RowCursor openCursor(Connection connection, String sql, Map<String, ObfuscationRule> obfuscationRules) throws SQLException;
+
+    /**
+     * Executes a SQL query and returns a cursor which fetches the rows on demand and applies obfuscation rules
+     * to the specified columns as each row is consumed. The cursor must be closed by the caller.
+     *
+     * @param connection The database connection (java.sql.Connection) used to execute the query
+     * @param sql The SQL query string (String) to be executed
+     * @param obfuscationRules A map where the key is the column name and the value is the ObfuscationRule object to apply to that column.
+     * @param fetchOptions The options overriding the fetch strategy of the database, or null to use the default strategy.
+     * @return A cursor over the rows of the query result
+     * @throws SQLException if a database access error occurs
+     */
+    RowCursor openCursor(Connection connection, String sql, Map<String, ObfuscationRule> obfuscationRules,
+                         FetchOptions fetchOptions) throws SQLException;
+
+    /**
+     * Fetches table or view data from the database through a cursor which fetches the rows on demand and applies
+     * obfuscation rules to the specified columns as each row is consumed. The cursor must be closed by the caller.
+     *
+     * @param connection The database connection object.
+     * @param schemaName The name of the schema where the table is located.
+     * @param name The name of the table or view.
+     * @param obfuscationRules A map where the key is the column name and the value is the ObfuscationRule object to apply to that column.
+     * @return A cursor over the rows of the table or view
+     * @throws SQLException if a database access error occurs
+     */
+    RowCursor openTableCursor(Connection connection, String schemaName, String name, Map<String, ObfuscationRule> obfuscationRules) throws SQLException;
+
+    /**
+     * Fetches table or view data from the database through a cursor which fetches the rows on demand and applies
+     * obfuscation rules to the specified columns as each row is consumed. The cursor must be closed by the caller.
+     *
+     * @param connection The database connection object.
+     * @param schemaName The name of the schema where the table is located.
+     * @param name The name of the table or view.
+     * @param obfuscationRules A map where the key is the column name and the value is the ObfuscationRule object to apply to that column.
+     * @param fetchOptions The options overriding the fetch strategy of the database, or null to use the default strategy.
+     * @return A cursor over the rows of the table or view
+     * @throws SQLException if a database access error occurs
+     */
+    RowCursor openTableCursor(Connection connection, String schemaName, String name, Map<String, ObfuscationRule> obfuscationRules,
+                              FetchOptions fetchOptions) throws SQLException;
+
     /**
      * This function retrieves data from a table or view in the database. It supports both pagination and selection of specific columns.
      *
@@ -341,6 +479,62 @@ public interface Database {
                                                List<String> columnList, int pageOffset, int pageSize,
                                                Map<String, ObfuscationRule> obfuscationRules) throws SQLException;
 
+    /**
+     * This function retrieves data from a table or view in the database. It supports both pagination and selection of specific columns.
+     *
+     * @param connection The database connection object.
+     * @param schemaName The schema name of the table or view.
+     * @param tableName The name of the table or view.
+     * @param columnList A list of columns to select. If null or empty, all columns will be selected.
+     * @param pageOffset The offset for pagination. If less than or equal to 0, all data will be returned without pagination.
+     * @param pageSize The size of a page for pagination. If less than or equal to 0, all data will be returned without pagination.
+     * @param obfuscationRules A map where the key is the column name and the value is the ObfuscationRule object to apply to that column.
+     * @param countStrategy The strategy used to count the rows of the table to compute the total pages.
+     * @return A Map object containing the retrieved data in 'results', the total pages of data in 'totalPages'
+     *         and the strategy which produced the row count in 'countStrategy' (null when the data is not paginated).
+     * @throws SQLException If a database access error occurs.
+     */
+    Map<String, Object> getDataWithPage(Connection connection, String schemaName, String tableName,
+                                        List<String> columnList, int pageOffset, int pageSize,
+                                        Map<String, ObfuscationRule> obfuscationRules,
+                                        CountStrategy countStrategy) throws SQLException;
+
+    /**
+     * Retrieves a page of data from a table using keyset pagination, ordered by the primary key of the table or,
+     * if there is none, by a unique key whose columns are all not null.
+     *
+     * @param connection The database connection object.
+     * @param schemaName The schema name of the table.
+     * @param tableName The name of the table.
+     * @param columnList A list of columns to select. If null or empty, all columns will be selected.
+     * @param pageSize The size of a page, must be greater than 0.
+     * @param pageToken The token returned with the previous page, or null to fetch the first page.
+     * @return A Map object containing the retrieved data in 'results' and the token of the next page in 'nextPageToken',
+     *         which is null when the last page has been reached.
+     * @throws SQLException If a database access error occurs or the table has no usable key.
+     */
+    Map<String, Object> getDataWithKeyset(Connection connection, String schemaName, String tableName,
+                                          List<String> columnList, int pageSize, String pageToken) throws SQLException;
+
+    /**
+     * Retrieves a page of data from a table using keyset pagination, ordered by the primary key of the table or,
+     * if there is none, by a unique key whose columns are all not null. Applies obfuscation rules to the specified columns.
+     *
+     * @param connection The database connection object.
+     * @param schemaName The schema name of the table.
+     * @param tableName The name of the table.
+     * @param columnList A list of columns to select. If null or empty, all columns will be selected.
+     * @param pageSize The size of a page, must be greater than 0.
+     * @param pageToken The token returned with the previous page, or null to fetch the first page.
+     * @param obfuscationRules A map where the key is the column name and the value is the ObfuscationRule object to apply to that column.
+     * @return A Map object containing the retrieved data in 'results' and the token of the next page in 'nextPageToken',
+     *         which is null when the last page has been reached.
+     * @throws SQLException If a database access error occurs or the table has no usable key.
+     */
+    Map<String, Object> getDataWithKeyset(Connection connection, String schemaName, String tableName,
+                                          List<String> columnList, int pageSize, String pageToken,
+                                          Map<String, ObfuscationRule> obfuscationRules) throws SQLException;
+
     /**
      * Executes the specified database function with the given parameters.
      *
@@ -366,4 +560,88 @@ public interface Database {
      * @throws SQLException if a database access error occurs
      */
     List<SensitiveColumn> scanTableData(Connection connection, String schemaName, String tableName, List<String> regexList) throws SQLException;
+
+    /**
+     * Scans a database table or view for sensitive data based on a list of regular expressions, reading a sample
+     * of the table within a row and time budget.
+     *
+     * @param connection  The SQL connection to the database.
+     * @param schemaName  The name of the schema where the table is located.
+     * @param tableName   The name of the table or view to scan.
+     * @param regexList   A list of regular expressions used for matching sensitive data.
+     * @param scanOptions The sampling and budget options of the scan.
+     * @return A ScanResult containing the columns which matched sensitive data, the number of rows scanned,
+     *         the duration of the scan and the reason why it stopped.
+     * @throws SQLException if a database access error occurs
+     */
+    ScanResult scanTableData(Connection connection, String schemaName, String tableName, List<String> regexList,
+                             ScanOptions scanOptions) throws SQLException;
+
+    /**
+     * Scans a database table or view for sensitive data with a list of detectors, reading a sample of the table
+     * within a row and time budget. Only the columns eligible for at least one detector are read.
+     *
+     * @param connection  The SQL connection to the database.
+     * @param schemaName  The name of the schema where the table is located.
+     * @param tableName   The name of the table or view to scan.
+     * @param detectors   The detectors of sensitive data, with the columns each of them applies to.
+     * @param scanOptions The sampling and budget options of the scan.
+     * @return A ScanResult containing the columns which matched sensitive data, the number of rows scanned,
+     *         the duration of the scan and the reason why it stopped.
+     * @throws SQLException if a database access error occurs
+     */
+    ScanResult scanTableWithDetectors(Connection connection, String schemaName, String tableName,
+                                      List<Detector> detectors, ScanOptions scanOptions) throws SQLException;
+
+    /**
+     * Scans all the tables and views of a list of schemas for sensitive data, several tables at the same time.
+     *
+     * @param connectionSupplier The supplier of the connections, each connection is closed once the scan is done.
+     * @param schemaNames        The names of the schemas to scan, a null name designates the default schema.
+     * @param detectors          The detectors of sensitive data, with the columns each of them applies to.
+     * @param scanOptions        The sampling and budget options of each table scan.
+     * @param parallelism        The maximum number of tables scanned at the same time.
+     * @param callback           The callback receiving the outcome of each table as soon as it is scanned, or null.
+     * @return The outcome of each table, in the order the tables were listed.
+     * @throws SQLException if the tables cannot be listed or a database access error occurs
+     */
+    List<TableScanResult> scanSchemaData(ConnectionSupplier connectionSupplier, List<String> schemaNames,
+                                         List<Detector> detectors, ScanOptions scanOptions, int parallelism,
+                                         Consumer<TableScanResult> callback) throws SQLException;
+
+    /**
+     * Scans a table or view for sensitive data incrementally, starting from the fingerprint of its previous scan:
+     * unchanged tables are skipped, tables which only grew are scanned past their watermark, other tables are
+     * scanned entirely.
+     *
+     * @param connection  The SQL connection to the database.
+     * @param schemaName  The name of the schema where the table is located.
+     * @param tableName   The name of the table or view to scan.
+     * @param detectors   The detectors of sensitive data, with the columns each of them applies to.
+     * @param scanOptions The sampling and budget options of the scan.
+     * @param previous    The fingerprint of the previous scan of the table, or null if it was never scanned.
+     * @return The outcome of the table, with how it was scanned and the fingerprint to persist.
+     * @throws SQLException if a database access error occurs
+     */
+    TableScanResult scanTableIncremental(Connection connection, String schemaName, String tableName,
+                                         List<Detector> detectors, ScanOptions scanOptions,
+                                         TableFingerprint previous) throws SQLException;
+
+    /**
+     * Scans all the tables and views of a list of schemas for sensitive data incrementally, several tables at the
+     * same time, recording the fingerprint of each table in the store.
+     *
+     * @param connectionSupplier The supplier of the connections, each connection is closed once the scan is done.
+     * @param schemaNames        The names of the schemas to scan, a null name designates the default schema.
+     * @param detectors          The detectors of sensitive data, with the columns each of them applies to.
+     * @param scanOptions        The sampling and budget options of each table scan.
+     * @param parallelism        The maximum number of tables scanned at the same time.
+     * @param stateStore         The store of the fingerprints of the previous scans.
+     * @param callback           The callback receiving the outcome of each table as soon as it is scanned, or null.
+     * @return The outcome of each table, in the order the tables were listed.
+     * @throws SQLException if the tables cannot be listed or a database access error occurs
+     */
+    List<TableScanResult> scanSchemaIncremental(ConnectionSupplier connectionSupplier, List<String> schemaNames,
+                                                List<Detector> detectors, ScanOptions scanOptions, int parallelism,
+                                                ScanStateStore stateStore, Consumer<TableScanResult> callback) throws SQLException;
 }
@@ -0,0 +1,36 @@
+package com.dbmasker.database;
+
+import com.dbmasker.dialect.Dialect;
+
+/**
+ * A service provider plugging a database type into the {@link DatabaseRegistry}, to support a new database or to
+ * replace the implementation of a built-in one without changing the factories.
+ * <p>
+ * Providers are discovered with {@link java.util.ServiceLoader}, by listing their class names in a
+ * {@code META-INF/services/com.dbmasker.database.DatabaseProvider} file, or registered explicitly with
+ * {@link DatabaseRegistry#register(DatabaseProvider)}. The Database and Dialect instances a provider creates are
+ * cached and shared by all threads, so they must be stateless.
+ */
+public interface DatabaseProvider {
+
+    /**
+     * Returns the type of the database supported by the provider, matched case-insensitively.
+     *
+     * @return the database type (e.g., "sqlite", "mysql").
+     */
+    String getDbType();
+
+    /**
+     * Creates the Database implementation of the database type.
+     *
+     * @return a stateless Database instance.
+     */
+    Database createDatabase();
+
+    /**
+     * Creates the Dialect implementation of the database type.
+     *
+     * @return a stateless Dialect instance, or null if the database type has no dialect.
+     */
+    Dialect createDialect();
+}
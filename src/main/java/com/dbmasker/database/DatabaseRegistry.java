@@ -0,0 +1,166 @@
+package com.dbmasker.database;
+
+import com.dbmasker.dialect.Dialect;
+import com.dbmasker.dialect.DialectFactory;
+import com.dbmasker.utils.ErrorMessages;
+
+import java.util.Locale;
+import java.util.Map;
+import java.util.ServiceLoader;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * A registry resolving database types to shared Database and Dialect instances.
+ * <p>
+ * Database and Dialect implementations are stateless, so one instance of each is created per database type and
+ * reused by every call, instead of parsing the type and creating new instances for each operation. The built-in
+ * types of {@link DbType} are created by {@link DatabaseFactory} and {@link DialectFactory}. Additional types, or
+ * replacements of built-in ones, are supplied by {@link DatabaseProvider} implementations found with
+ * {@link ServiceLoader} the first time the registry is used, or registered with {@link #register(DatabaseProvider)}.
+ */
+public final class DatabaseRegistry {
+
+    private static final Map<String, DatabaseProvider> PROVIDERS = new ConcurrentHashMap<>();
+    private static final Map<String, Database> DATABASES = new ConcurrentHashMap<>();
+    private static final Map<String, Dialect> DIALECTS = new ConcurrentHashMap<>();
+    private static boolean servicesLoaded;
+
+    /**
+     * Default constructor for DatabaseRegistry class.
+     */
+    private DatabaseRegistry() {
+        throw new UnsupportedOperationException();
+    }
+
+    /**
+     * Returns the shared Database instance of a database type.
+     *
+     * @param dbType A string representing the database type (e.g., "sqlite", "mysql").
+     * @return the Database instance of the type, or null if dbType is null.
+     * @throws UnsupportedOperationException If the provided database type is not supported.
+     */
+    public static Database getDatabase(String dbType) {
+        if (dbType == null) {
+            return null;
+        }
+        String key = getKey(dbType);
+        Database database = DATABASES.get(key);
+        if (database != null) {
+            return database;
+        }
+        DatabaseProvider provider = getProvider(key);
+        return DATABASES.computeIfAbsent(key,
+                k -> provider != null ? provider.createDatabase() : new DatabaseFactory().getDatabase(dbType));
+    }
+
+    /**
+     * Returns the shared Dialect instance of a database type.
+     *
+     * @param dbType A string representing the database type (e.g., "sqlite", "mysql").
+     * @return the Dialect instance of the type, or null if dbType is null.
+     * @throws UnsupportedOperationException If the provided database type is not supported or has no dialect.
+     */
+    public static Dialect getDialect(String dbType) {
+        if (dbType == null) {
+            return null;
+        }
+        String key = getKey(dbType);
+        Dialect dialect = DIALECTS.get(key);
+        if (dialect != null) {
+            return dialect;
+        }
+        DatabaseProvider provider = getProvider(key);
+        return DIALECTS.computeIfAbsent(key, k -> {
+            if (provider == null) {
+                return new DialectFactory().getDialect(dbType);
+            }
+            Dialect created = provider.createDialect();
+            if (created == null) {
+                throw new UnsupportedOperationException(ErrorMessages.UNSUPPORTED_DATABASE_TYPE_ERROR + dbType);
+            }
+            return created;
+        });
+    }
+
+    /**
+     * Registers a provider, replacing the provider or the built-in implementation of its database type.
+     * The instances already created for the type are discarded.
+     *
+     * @param provider The provider to register.
+     */
+    public static void register(DatabaseProvider provider) {
+        loadServices();
+        String key = getKey(provider.getDbType());
+        PROVIDERS.put(key, provider);
+        DATABASES.remove(key);
+        DIALECTS.remove(key);
+    }
+
+    /**
+     * Removes the provider of a database type, so that the built-in implementation of the type, if any, is used again.
+     *
+     * @param dbType A string representing the database type (e.g., "sqlite", "mysql").
+     */
+    public static void unregister(String dbType) {
+        loadServices();
+        String key = getKey(dbType);
+        PROVIDERS.remove(key);
+        DATABASES.remove(key);
+        DIALECTS.remove(key);
+    }
+
+    /**
+     * Returns whether a database type is supported, either built-in or by a provider.
+     *
+     * @param dbType A string representing the database type (e.g., "sqlite", "mysql").
+     * @return true if the type is supported, false otherwise.
+     */
+    public static boolean isSupported(String dbType) {
+        if (dbType == null) {
+            return false;
+        }
+        if (getProvider(getKey(dbType)) != null) {
+            return true;
+        }
+        for (DbType type : DbType.values()) {
+            if (type.getDbName().equalsIgnoreCase(dbType)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Returns the provider of a database type, loading the service providers on first use.
+     *
+     * @param key The lower case database type.
+     * @return the provider of the type, or null if the type has no provider.
+     */
+    private static DatabaseProvider getProvider(String key) {
+        loadServices();
+        return PROVIDERS.get(key);
+    }
+
+    /**
+     * Registers the providers found by ServiceLoader, once. Providers registered explicitly take precedence.
+     */
+    private static synchronized void loadServices() {
+        if (servicesLoaded) {
+            return;
+        }
+        servicesLoaded = true;
+        for (DatabaseProvider provider : ServiceLoader.load(DatabaseProvider.class)) {
+            PROVIDERS.putIfAbsent(getKey(provider.getDbType()), provider);
+        }
+    }
+
+    /**
+     * Builds the key of a database type in the registry.
+     *
+     * @param dbType A string representing the database type.
+     * @return the lower case database type.
+     */
+    private static String getKey(String dbType) {
+        return dbType.toLowerCase(Locale.ENGLISH);
+    }
+}
@@ -126,4 +126,28 @@ public class Hive extends BaseDatabase {
 
         return functions;
     }
+
+    /**
+     * Returns whether the sample query of the database can read a view.
+     *
+     * @return false, as TABLESAMPLE only samples tables.
+     */
+    @Override
+    protected boolean supportsViewSampling() {
+        return false;
+    }
+
+    /**
+     * Builds the sample query of a sensitive data scan with TABLESAMPLE, which reads a percentage
+     * of the HDFS blocks of the table.
+     *
+     * @param columns       The columns to select, separated by commas.
+     * @param tableName     The name of the table or view, qualified with its schema if any.
+     * @param samplePercent The percentage of the table to sample, greater than 0 and lower than 100.
+     * @return the query reading the sample.
+     */
+    @Override
+    protected String getSampleQuery(String columns, String tableName, double samplePercent) {
+        return "SELECT " + columns + " FROM " + tableName + " TABLESAMPLE (" + formatSamplePercent(samplePercent) + " PERCENT)";
+    }
 }
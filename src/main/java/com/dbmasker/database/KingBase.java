@@ -1,12 +1,14 @@
 package com.dbmasker.database;
 
 import com.dbmasker.data.DatabaseFunction;
+import com.dbmasker.data.FetchOptions;
 import com.dbmasker.utils.DbUtils;
 import com.dbmasker.utils.ErrorMessages;
 
 import java.sql.*;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 
 /**
  * KingBase Database class implements the Database interface for KingBase databases.
@@ -46,8 +48,6 @@ public class KingBase extends BaseDatabase {
      */
     @Override
     public List<String> getTables(Connection connection, String schemaName) throws SQLException {
-        List<String> tables = new ArrayList<>();
-        ResultSet rs = null;
         String sql;
 
         if (schemaName == null) {
@@ -55,23 +55,18 @@ public class KingBase extends BaseDatabase {
         } else {
             sql = "SELECT tablename FROM pg_tables WHERE schemaname = ?";
         }
-        try (PreparedStatement pstmt = connection.prepareStatement(sql)) {
-            if (schemaName != null) {
-                pstmt.setString(1, schemaName);
-            }
-            rs = pstmt.executeQuery();
-
-            while (rs.next()) {
-                String tableName = rs.getString("tablename");
-                tables.add(tableName);
-            }
+        try {
+            return StatementCache.query(connection, sql, schemaParams(schemaName), rs -> {
+                List<String> tables = new ArrayList<>();
+                while (rs.next()) {
+                    String tableName = rs.getString("tablename");
+                    tables.add(tableName);
+                }
+                return tables;
+            });
         } catch (SQLException e) {
             throw new SQLException(ErrorMessages.TABLE_NAMES_RETRIEVAL_ERROR, e);
-        } finally {
-            DbUtils.closeResultSet(rs);
         }
-
-        return tables;
     }
 
     /**
@@ -84,8 +79,6 @@ public class KingBase extends BaseDatabase {
      */
     @Override
     public List<DatabaseFunction> getFuncs(Connection connection, String schemaName) throws SQLException {
-        List<DatabaseFunction> functions = new ArrayList<>();
-        ResultSet rs = null;
         String sql;
         if (schemaName == null) {
             sql = "SELECT nspname, proname, typname " +
@@ -99,22 +92,182 @@ public class KingBase extends BaseDatabase {
                     "JOIN pg_type ON pg_proc.prorettype = pg_type.oid " +
                     "WHERE nspname = ?;";
         }
-        try (PreparedStatement pstmt = connection.prepareStatement(sql)) {
-            if (schemaName != null) {
-                pstmt.setString(1, schemaName);
-            }
-            rs = pstmt.executeQuery();
-
-            while (rs.next()) {
-                String functionName = rs.getString("proname");
-                functions.add(new DatabaseFunction(schemaName, functionName));
-            }
+        try {
+            return StatementCache.query(connection, sql, schemaParams(schemaName), rs -> {
+                List<DatabaseFunction> functions = new ArrayList<>();
+                while (rs.next()) {
+                    String functionName = rs.getString("proname");
+                    functions.add(new DatabaseFunction(schemaName, functionName));
+                }
+                return functions;
+            });
         } catch (SQLException e) {
             throw new SQLException(ErrorMessages.FUNCTION_NAMES_RETRIEVAL_ERROR, e);
-        } finally {
-            DbUtils.closeResultSet(rs);
         }
+    }
+
+    /**
+     * Returns the fetch size applied to streaming cursors when the caller does not give one.
+     * The KingBase driver fetches the rows in batches through a server-side cursor.
+     *
+     * @return the default fetch size of the database.
+     */
+    @Override
+    protected int getDefaultFetchSize() {
+        return FetchOptions.DEFAULT_FETCH_SIZE;
+    }
+
+    /**
+     * Opens streaming cursors inside a read-only transaction, as the KingBase driver only honours the fetch size
+     * when auto-commit is disabled.
+     *
+     * @param connection The database connection of the cursor.
+     * @return the action ending the transaction once the cursor is closed, or null if the connection was not changed.
+     * @throws SQLException if a database access error occurs
+     */
+    @Override
+    protected RowCursor.CloseAction beginServerCursor(Connection connection) throws SQLException {
+        return beginReadOnlyTransaction(connection);
+    }
+
+    /**
+     * Returns whether the database supports row value comparisons such as {@code (k1, k2) > (?, ?)}.
+     *
+     * @return true, as KingBase supports row value comparisons.
+     */
+    @Override
+    protected boolean supportsRowValueComparison() {
+        return true;
+    }
+
+    /**
+     * Returns the row count of a table estimated from pg_class.reltuples, which is maintained by VACUUM and ANALYZE.
+     *
+     * @param connection The database connection object.
+     * @param schemaName The schema name of the table, or null or empty for the current schema.
+     * @param tableName The name of the table.
+     * @return the estimated number of rows, or null if the table is not found or has no statistics.
+     * @throws SQLException If a database access error occurs.
+     */
+    @Override
+    protected Long getEstimatedRowCount(Connection connection, String schemaName, String tableName) throws SQLException {
+        String sql = "SELECT c.reltuples::bigint FROM pg_class c JOIN pg_namespace n ON n.oid = c.relnamespace " +
+                "WHERE n.nspname = COALESCE(?, current_schema()) AND c.relname = ? AND c.relkind IN ('r', 'p')";
+        if (schemaName != null && schemaName.isEmpty()) {
+            schemaName = null;
+        }
+        return queryEstimatedRowCount(connection, sql, schemaName, tableName);
+    }
+
+    /**
+     * Returns whether the sample query of the database can read a view.
+     *
+     * @return false, as TABLESAMPLE only samples tables.
+     */
+    @Override
+    protected boolean supportsViewSampling() {
+        return false;
+    }
+
+    /**
+     * Builds the sample query of a sensitive data scan with TABLESAMPLE SYSTEM, which reads random pages
+     * of the table instead of scanning it.
+     *
+     * @param columns       The columns to select, separated by commas.
+     * @param tableName     The name of the table or view, qualified with its schema if any.
+     * @param samplePercent The percentage of the table to sample, greater than 0 and lower than 100.
+     * @return the query reading the sample.
+     */
+    @Override
+    protected String getSampleQuery(String columns, String tableName, double samplePercent) {
+        return "SELECT " + columns + " FROM " + tableName + " TABLESAMPLE SYSTEM (" + formatSamplePercent(samplePercent) + ")";
+    }
+
+    /**
+     * Returns the modification counters of a table from pg_stat_all_tables: the numbers of inserted, updated
+     * and deleted rows since the statistics were reset.
+     *
+     * @param connection The database connection object.
+     * @param schemaName The schema name of the table, or null or empty for the current schema.
+     * @param tableName  The name of the table.
+     * @return the counters separated by commas, or null if the table is not found.
+     * @throws SQLException If a database access error occurs.
+     */
+    @Override
+    protected String getModificationStamp(Connection connection, String schemaName, String tableName) throws SQLException {
+        String sql = "SELECT n_tup_ins || ',' || n_tup_upd || ',' || n_tup_del FROM pg_stat_all_tables " +
+                "WHERE schemaname = COALESCE(?, current_schema()) AND relname = ?";
+        if (schemaName != null && schemaName.isEmpty()) {
+            schemaName = null;
+        }
+        return queryModificationStamp(connection, sql, schemaName, tableName);
+    }
+
+    /**
+     * Returns whether the modification counters of a table only show inserted rows since the previous scan.
+     *
+     * @param previousStamp The modification counters of the previous scan, or null.
+     * @param currentStamp  The current modification counters, or null.
+     * @return true if no row was updated nor deleted, false otherwise or if the statistics were reset.
+     */
+    @Override
+    protected boolean isAppendOnlyChange(String previousStamp, String currentStamp) {
+        if (previousStamp == null || currentStamp == null) {
+            return previousStamp == null && currentStamp == null;
+        }
+        String[] previous = previousStamp.split(",");
+        String[] current = currentStamp.split(",");
+        try {
+            return previous.length == 3 && current.length == 3
+                    && Long.parseLong(current[0]) >= Long.parseLong(previous[0])
+                    && previous[1].equals(current[1]) && previous[2].equals(current[2]);
+        } catch (NumberFormatException e) {
+            return false;
+        }
+    }
 
-        return functions;
+    /**
+     * Returns the query listing the index columns of all the tables of a schema from pg_index.
+     *
+     * @return the catalog query of the index columns.
+     */
+    @Override
+    protected String getIndexCatalogQuery() {
+        return "SELECT t.relname, i.relname, a.attname, CASE WHEN x.indisunique THEN 0 ELSE 1 END, " +
+                "CASE WHEN x.indisprimary THEN 1 ELSE 0 END FROM pg_index x " +
+                "JOIN pg_class t ON t.oid = x.indrelid JOIN pg_class i ON i.oid = x.indexrelid " +
+                "JOIN pg_namespace n ON n.oid = t.relnamespace " +
+                "CROSS JOIN LATERAL unnest(x.indkey) WITH ORDINALITY AS k(attnum, ord) " +
+                "JOIN pg_attribute a ON a.attrelid = t.oid AND a.attnum = k.attnum " +
+                "WHERE n.nspname = COALESCE(?, current_schema()) AND t.relkind IN ('r', 'p') " +
+                "ORDER BY t.relname, x.indisunique DESC, i.relname, k.ord";
+    }
+
+    /**
+     * Retrieves a stamp of the definition of each table of a schema, made of the xmin of its pg_class row, which
+     * changes whenever ALTER TABLE rewrites that row, of a checksum of its pg_attribute rows, which catches the
+     * changes that only rewrite those, such as RENAME COLUMN and SET or DROP NOT NULL, and of the list of its
+     * indexes, as PostgreSQL does not record DDL times.
+     *
+     * @param connection A valid database connection.
+     * @param schemaName The name of the schema, or null or empty for the current schema.
+     * @return the definition stamp of each table keyed by table name.
+     * @throws SQLException if a database access error occurs
+     */
+    @Override
+    public Map<String, String> getTableDdlStamps(Connection connection, String schemaName) throws SQLException {
+        String sql = "SELECT c.relname, c.xmin::text || ',' || COALESCE(a.columns, '') || ',' || " +
+                "COALESCE(md5(i.indexes), '') FROM pg_class c " +
+                "JOIN pg_namespace n ON n.oid = c.relnamespace " +
+                "LEFT JOIN LATERAL (SELECT md5(string_agg(attname::text || ':' || atttypid::text || ':' || " +
+                "atttypmod::text || ':' || attnotnull::text, ',' ORDER BY attnum)) AS columns FROM pg_attribute " +
+                "WHERE attrelid = c.oid AND attnum > 0) a ON true " +
+                "LEFT JOIN (SELECT indrelid, string_agg(indexrelid::text, ',' ORDER BY indexrelid) AS indexes " +
+                "FROM pg_index GROUP BY indrelid) i ON i.indrelid = c.oid " +
+                "WHERE n.nspname = COALESCE(?, current_schema()) AND c.relkind IN ('r', 'p')";
+        if (schemaName != null && schemaName.isEmpty()) {
+            schemaName = null;
+        }
+        return queryTableDdlStamps(connection, sql, schemaName);
     }
 }
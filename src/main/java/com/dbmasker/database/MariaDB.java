@@ -1,15 +1,19 @@
 package com.dbmasker.database;
 
+import com.dbmasker.data.CatalogSnapshot;
 import com.dbmasker.data.DatabaseFunction;
+import com.dbmasker.data.FetchOptions;
 import com.dbmasker.data.TableAttribute;
 import com.dbmasker.data.TableIndex;
 import com.dbmasker.data.TableMetaData;
 import com.dbmasker.utils.DbUtils;
 import com.dbmasker.utils.ErrorMessages;
+import com.dbmasker.utils.VectorKind;
 
 import java.sql.*;
 import java.time.LocalDate;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -145,35 +149,27 @@ public class MariaDB extends BaseDatabase {
      */
     @Override
     public List<DatabaseFunction> getFuncs(Connection connection, String schemaName) throws SQLException {
-        List<DatabaseFunction> functions = new ArrayList<>();
-        ResultSet resultSet = null;
         String sql;
         if (schemaName == null) {
             sql = "SELECT ROUTINE_NAME FROM INFORMATION_SCHEMA.ROUTINES WHERE ROUTINE_TYPE = 'FUNCTION'";
         } else {
             sql = "SELECT ROUTINE_NAME FROM INFORMATION_SCHEMA.ROUTINES WHERE ROUTINE_TYPE = 'FUNCTION' AND ROUTINE_SCHEMA = ?";
         }
-        // Prepare the SQL query
-        try (PreparedStatement preparedStatement = connection.prepareStatement(sql)){
-            if (schemaName != null) {
-                preparedStatement.setString(1, schemaName);
-            }
-            // Execute the query
-            resultSet = preparedStatement.executeQuery();
-
-            // Fetch the results and create DatabaseFunction objects
-            while (resultSet.next()) {
-                String functionName = resultSet.getString("ROUTINE_NAME");
-                DatabaseFunction function = new DatabaseFunction(schemaName, functionName);
-                functions.add(function);
-            }
+        // Execute the query with the cached statement of the connection
+        try {
+            return StatementCache.query(connection, sql, schemaParams(schemaName), resultSet -> {
+                List<DatabaseFunction> functions = new ArrayList<>();
+                // Fetch the results and create DatabaseFunction objects
+                while (resultSet.next()) {
+                    String functionName = resultSet.getString("ROUTINE_NAME");
+                    DatabaseFunction function = new DatabaseFunction(schemaName, functionName);
+                    functions.add(function);
+                }
+                return functions;
+            });
         } catch (SQLException e) {
             throw new SQLException(ErrorMessages.FUNCTION_NAMES_RETRIEVAL_ERROR, e);
-        } finally {
-            DbUtils.closeResultSet(resultSet);
         }
-
-        return functions;
     }
 
     /**
@@ -197,4 +193,212 @@ public class MariaDB extends BaseDatabase {
         }
         return rs.getObject(i);
     }
+
+    /**
+     * Helper method to choose how the values of a column are stored in a columnar batch.
+     * YEAR columns are read as objects, so that they hold the year as getColumnValue returns it.
+     *
+     * @param sqlType The JDBC type of the column, from java.sql.Types
+     * @param columnType The database specific type name of the column
+     * @return The vector kind of the column
+     */
+    @Override
+    protected VectorKind getVectorKind(int sqlType, String columnType) {
+        if ("YEAR".equals(columnType)) {
+            return VectorKind.OBJECT;
+        }
+        return super.getVectorKind(sqlType, columnType);
+    }
+
+    /**
+     * Returns the fetch size applied to streaming cursors when the caller does not give one.
+     * The MariaDB driver streams the result set when a positive fetch size is set, instead of buffering it client-side.
+     *
+     * @return the default fetch size of the database.
+     */
+    @Override
+    protected int getDefaultFetchSize() {
+        return FetchOptions.DEFAULT_FETCH_SIZE;
+    }
+
+    /**
+     * Returns whether the database supports row value comparisons such as {@code (k1, k2) > (?, ?)}.
+     *
+     * @return true, as MariaDB supports row value comparisons.
+     */
+    @Override
+    protected boolean supportsRowValueComparison() {
+        return true;
+    }
+
+    /**
+     * Returns the ordered key columns used for keyset pagination. The database is the catalog of the JDBC
+     * metadata, the current database when the schema is null or empty.
+     *
+     * @param connection The database connection object.
+     * @param schemaName The name of the database of the table.
+     * @param tableName The name of the table.
+     * @return the ordered key columns, or an empty list if the table has no usable key.
+     * @throws SQLException If a database access error occurs.
+     */
+    @Override
+    protected List<String> getKeysetColumns(Connection connection, String schemaName, String tableName) throws SQLException {
+        String catalog = schemaName == null || schemaName.isEmpty() ? connection.getCatalog() : schemaName;
+        return getKeysetColumns(connection, catalog, null, tableName);
+    }
+
+    /**
+     * Returns the row count of a table estimated from information_schema.TABLES.TABLE_ROWS, which is exact for MyISAM and sampled for InnoDB.
+     *
+     * @param connection The database connection object.
+     * @param schemaName The schema name of the table, or null or empty for the current schema.
+     * @param tableName The name of the table.
+     * @return the estimated number of rows, or null if the table is not found or has no statistics.
+     * @throws SQLException If a database access error occurs.
+     */
+    @Override
+    protected Long getEstimatedRowCount(Connection connection, String schemaName, String tableName) throws SQLException {
+        String sql = "SELECT TABLE_ROWS FROM information_schema.TABLES " +
+                "WHERE TABLE_SCHEMA = COALESCE(?, DATABASE()) AND TABLE_NAME = ? AND TABLE_TYPE = 'BASE TABLE'";
+        if (schemaName != null && schemaName.isEmpty()) {
+            schemaName = null;
+        }
+        return queryEstimatedRowCount(connection, sql, schemaName, tableName);
+    }
+
+    /**
+     * Builds the sample query of a sensitive data scan with a random predicate. MySQL and MariaDB have no
+     * sampling clause, the rows are still read in order but the row budget of the scan then spreads further in the table.
+     *
+     * @param columns       The columns to select, separated by commas.
+     * @param tableName     The name of the table or view, qualified with its schema if any.
+     * @param samplePercent The percentage of the table to sample, greater than 0 and lower than 100.
+     * @return the query reading the sample.
+     */
+    @Override
+    protected String getSampleQuery(String columns, String tableName, double samplePercent) {
+        return "SELECT " + columns + " FROM " + tableName + " WHERE RAND() < " + formatSamplePercent(samplePercent / 100);
+    }
+
+    /**
+     * Returns the creation and last update times of a table from information_schema.TABLES, followed by its
+     * numbers of inserted, updated and deleted rows from performance_schema.table_io_waits_summary_by_table
+     * when the performance schema can be read. The update time does not tell inserted rows from updated ones,
+     * so a table whose counters are not available is scanned entirely when its update time changes.
+     *
+     * @param connection The database connection object.
+     * @param schemaName The schema name of the table, or null or empty for the current schema.
+     * @param tableName  The name of the table.
+     * @return the times and counters separated by commas, or null if the table is not found.
+     * @throws SQLException If a database access error occurs.
+     */
+    @Override
+    protected String getModificationStamp(Connection connection, String schemaName, String tableName) throws SQLException {
+        String sql = "SELECT CONCAT_WS(',', IFNULL(CREATE_TIME, ''), IFNULL(UPDATE_TIME, '')) " +
+                "FROM information_schema.TABLES WHERE TABLE_SCHEMA = COALESCE(?, DATABASE()) AND TABLE_NAME = ?";
+        if (schemaName != null && schemaName.isEmpty()) {
+            schemaName = null;
+        }
+        String stamp = queryModificationStamp(connection, sql, schemaName, tableName);
+        if (stamp == null) {
+            return null;
+        }
+
+        String countersSql = "SELECT CONCAT_WS(',', COUNT_INSERT, COUNT_UPDATE, COUNT_DELETE) " +
+                "FROM performance_schema.table_io_waits_summary_by_table " +
+                "WHERE OBJECT_TYPE = 'TABLE' AND OBJECT_SCHEMA = COALESCE(?, DATABASE()) AND OBJECT_NAME = ?";
+        try {
+            String counters = queryModificationStamp(connection, countersSql, schemaName, tableName);
+            return counters == null ? stamp : stamp + "," + counters;
+        } catch (SQLException e) {
+            // The performance schema is disabled or not readable, a new update time triggers a full scan
+            return stamp;
+        }
+    }
+
+    /**
+     * Returns whether the modification stamps of a table only show inserted rows since the previous scan: the
+     * creation time did not change, and either the stamps are equal, or the counters of both stamps show more
+     * inserted rows and the same numbers of updated and deleted rows.
+     *
+     * @param previousStamp The modification stamp of the previous scan, or null.
+     * @param currentStamp  The current modification stamp, or null.
+     * @return true if no row was updated nor deleted, false otherwise or if the counters are not available
+     *         or were reset.
+     */
+    @Override
+    protected boolean isAppendOnlyChange(String previousStamp, String currentStamp) {
+        if (previousStamp == null || currentStamp == null) {
+            return previousStamp == null && currentStamp == null;
+        }
+        if (previousStamp.equals(currentStamp)) {
+            return true;
+        }
+        String[] previous = previousStamp.split(",", -1);
+        String[] current = currentStamp.split(",", -1);
+        try {
+            return previous.length == 5 && current.length == 5 && previous[0].equals(current[0])
+                    && Long.parseLong(current[2]) > Long.parseLong(previous[2])
+                    && previous[3].equals(current[3]) && previous[4].equals(current[4]);
+        } catch (NumberFormatException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Loads the catalog of some or all the tables of a database. The database is the catalog of the JDBC metadata.
+     *
+     * @param connection A valid database connection.
+     * @param schemaName The name of the database.
+     * @param tableNames The names of the tables to load, or null to load all the tables.
+     * @return the catalog snapshot of the tables.
+     * @throws SQLException if a database access error occurs
+     */
+    @Override
+    protected CatalogSnapshot loadCatalogTables(Connection connection, String schemaName,
+                                                Collection<String> tableNames) throws SQLException {
+        return loadCatalogSnapshot(connection, schemaName, null, schemaName, tableNames);
+    }
+
+    /**
+     * Returns the query listing the index columns of all the tables of a database from information_schema.STATISTICS.
+     *
+     * @return the catalog query of the index columns.
+     */
+    @Override
+    protected String getIndexCatalogQuery() {
+        return "SELECT TABLE_NAME, INDEX_NAME, COLUMN_NAME, NON_UNIQUE, " +
+                "CASE WHEN INDEX_NAME = 'PRIMARY' THEN 1 ELSE 0 END FROM information_schema.STATISTICS " +
+                "WHERE TABLE_SCHEMA = COALESCE(?, DATABASE()) ORDER BY TABLE_NAME, NON_UNIQUE, INDEX_NAME, SEQ_IN_INDEX";
+    }
+
+    /**
+     * Retrieves a stamp of the definition of each table of a database, made of its CREATE_TIME, which changes
+     * when the table is rebuilt, and of checksums of its column definitions and positions and of its index
+     * columns, which also catch the instant ALTER TABLE statements that keep the CREATE_TIME, such as reordering
+     * a column or adding an index on a column already indexed.
+     *
+     * @param connection A valid database connection.
+     * @param schemaName The name of the database, or null or empty for the current database.
+     * @return the definition stamp of each table keyed by table name.
+     * @throws SQLException if a database access error occurs
+     */
+    @Override
+    public Map<String, String> getTableDdlStamps(Connection connection, String schemaName) throws SQLException {
+        String sql = "SELECT t.TABLE_NAME, CONCAT_WS(',', t.CREATE_TIME, c.COLUMN_COUNT, c.COLUMN_CHECKSUM, " +
+                "s.INDEX_COUNT, s.INDEX_CHECKSUM) " +
+                "FROM information_schema.TABLES t LEFT JOIN (SELECT TABLE_NAME, COUNT(*) AS COLUMN_COUNT, " +
+                "SUM(CRC32(CONCAT_WS(':', ORDINAL_POSITION, COLUMN_NAME, COLUMN_TYPE, IS_NULLABLE, COLUMN_KEY))) " +
+                "AS COLUMN_CHECKSUM FROM information_schema.COLUMNS WHERE TABLE_SCHEMA = COALESCE(?, DATABASE()) " +
+                "GROUP BY TABLE_NAME) c ON c.TABLE_NAME = t.TABLE_NAME " +
+                "LEFT JOIN (SELECT TABLE_NAME, COUNT(*) AS INDEX_COUNT, " +
+                "SUM(CRC32(CONCAT_WS(':', INDEX_NAME, SEQ_IN_INDEX, COLUMN_NAME, NON_UNIQUE))) AS INDEX_CHECKSUM " +
+                "FROM information_schema.STATISTICS WHERE TABLE_SCHEMA = COALESCE(?, DATABASE()) " +
+                "GROUP BY TABLE_NAME) s ON s.TABLE_NAME = t.TABLE_NAME " +
+                "WHERE t.TABLE_SCHEMA = COALESCE(?, DATABASE()) AND t.TABLE_TYPE = 'BASE TABLE'";
+        if (schemaName != null && schemaName.isEmpty()) {
+            schemaName = null;
+        }
+        return queryTableDdlStamps(connection, sql, schemaName, schemaName, schemaName);
+    }
 }
@@ -0,0 +1,240 @@
+package com.dbmasker.database;
+
+import com.dbmasker.utils.Config;
+import com.dbmasker.utils.LruCache;
+
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.SQLException;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.WeakHashMap;
+
+/**
+ * A cache of table metadata shared by all connections, so that generating many SQL statements against the same
+ * table does not run the same catalog queries for every statement.
+ * <p>
+ * Entries are keyed by the URL and user of the connection, the schema and the table, so that tables of different
+ * databases do not collide. They expire after the time configured with {@link Config#setMetadataCacheTtl(long)},
+ * the cache is disabled while that time is 0, and the least recently used entries are evicted once MAX_SIZE is
+ * reached. A table whose structure changed can be invalidated explicitly with
+ * {@link #invalidate(Connection, String, String)}.
+ * <p>
+ * The cached maps and sets are unmodifiable.
+ */
+public final class MetadataCache {
+
+    /**
+     * The maximum number of metadata entries kept in the cache.
+     */
+    public static final int MAX_SIZE = 4096;
+
+    // The kinds of metadata cached for a table
+    private static final String COLUMN_TYPES = "columnTypes";
+    private static final String PRIMARY_KEYS = "primaryKeys";
+    private static final String UNIQUE_KEYS = "uniqueKeys";
+    private static final String COLUMN_STRINGS = "columnStrings";
+    private static final String[] KINDS = {COLUMN_TYPES, PRIMARY_KEYS, UNIQUE_KEYS, COLUMN_STRINGS};
+
+    private static final LruCache<String, Object> CACHE = new LruCache<>(MAX_SIZE);
+
+    // The URL and user of each connection, read once as getUserName() may query the database
+    private static final Map<Connection, String> CONNECTION_KEYS = Collections.synchronizedMap(new WeakHashMap<>());
+
+    /**
+     * Loads a piece of metadata from the database.
+     *
+     * @param <T> the type of the metadata.
+     */
+    @FunctionalInterface
+    private interface Loader<T> {
+        T load() throws SQLException;
+    }
+
+    /**
+     * Default constructor for MetadataCache class.
+     */
+    private MetadataCache() {
+        throw new UnsupportedOperationException();
+    }
+
+    /**
+     * Returns the column types of a table, querying the database only if they are not cached.
+     *
+     * @param database   The database of the connection.
+     * @param connection The connection to the database.
+     * @param schemaName The name of the schema where the table is located.
+     * @param table      The name of the table.
+     * @return a map where the keys are the lowercase column names and the values are the data types.
+     * @throws SQLException If a database access error occurs.
+     */
+    public static Map<String, String> getColumnTypes(Database database, Connection connection,
+                                                     String schemaName, String table) throws SQLException {
+        return get(connection, COLUMN_TYPES, schemaName, table,
+                () -> Collections.unmodifiableMap(new HashMap<>(database.getColumnTypes(connection, schemaName, table))));
+    }
+
+    /**
+     * Returns the primary keys of a table, querying the database only if they are not cached.
+     *
+     * @param database   The database of the connection.
+     * @param connection The connection to the database.
+     * @param schemaName The name of the schema where the table is located.
+     * @param table      The name of the table.
+     * @return the primary key column names of the table.
+     * @throws SQLException If a database access error occurs.
+     */
+    public static Set<String> getPrimaryKeys(Database database, Connection connection,
+                                             String schemaName, String table) throws SQLException {
+        return get(connection, PRIMARY_KEYS, schemaName, table,
+                () -> Collections.unmodifiableSet(new HashSet<>(database.getPrimaryKeys(connection, schemaName, table))));
+    }
+
+    /**
+     * Returns the unique keys of a table, querying the database only if they are not cached.
+     *
+     * @param database   The database of the connection.
+     * @param connection The connection to the database.
+     * @param schemaName The name of the schema where the table is located.
+     * @param table      The name of the table.
+     * @return a map where the key is the unique key name and the value is the set of its column names.
+     * @throws SQLException If a database access error occurs.
+     */
+    public static Map<String, Set<String>> getUniqueKeys(Database database, Connection connection,
+                                                         String schemaName, String table) throws SQLException {
+        return get(connection, UNIQUE_KEYS, schemaName, table, () -> {
+            Map<String, Set<String>> uniqueKeys = new HashMap<>();
+            for (Map.Entry<String, Set<String>> entry : database.getUniqueKeys(connection, schemaName, table).entrySet()) {
+                uniqueKeys.put(entry.getKey(), Collections.unmodifiableSet(new HashSet<>(entry.getValue())));
+            }
+            return Collections.unmodifiableMap(uniqueKeys);
+        });
+    }
+
+    /**
+     * Returns the comma-separated column names of a table, querying the database only if they are not cached.
+     *
+     * @param database   The database of the connection.
+     * @param connection The connection to the database.
+     * @param schemaName The name of the schema where the table is located.
+     * @param table      The name of the table.
+     * @return a comma-separated string of all column names of the table.
+     * @throws SQLException If a database access error occurs.
+     */
+    static String getColumnStrings(BaseDatabase database, Connection connection,
+                                   String schemaName, String table) throws SQLException {
+        return get(connection, COLUMN_STRINGS, schemaName, table,
+                () -> database.getColumnStrings(connection, schemaName, table));
+    }
+
+    /**
+     * Removes the cached metadata of a table, for example after the table was altered.
+     *
+     * @param connection A connection to the database of the table.
+     * @param schemaName The name of the schema where the table is located.
+     * @param table      The name of the table.
+     * @throws SQLException If a database access error occurs.
+     */
+    public static void invalidate(Connection connection, String schemaName, String table) throws SQLException {
+        String tableKey = getTableKey(connection, schemaName, table);
+        for (String kind : KINDS) {
+            CACHE.invalidate(kind + "|" + tableKey);
+        }
+    }
+
+    /**
+     * Removes all metadata from the cache. The hit and miss counters are kept.
+     */
+    public static void clear() {
+        CACHE.clear();
+    }
+
+    /**
+     * Returns the number of lookups which found cached metadata.
+     *
+     * @return the hit count.
+     */
+    public static long getHitCount() {
+        return CACHE.getHitCount();
+    }
+
+    /**
+     * Returns the number of lookups which had to query the database.
+     *
+     * @return the miss count.
+     */
+    public static long getMissCount() {
+        return CACHE.getMissCount();
+    }
+
+    /**
+     * Returns the share of lookups which found cached metadata.
+     *
+     * @return the hit rate between 0 and 1, or 0 if the cache was never used.
+     */
+    public static double getHitRate() {
+        long hitCount = CACHE.getHitCount();
+        long total = hitCount + CACHE.getMissCount();
+        return total == 0 ? 0 : (double) hitCount / total;
+    }
+
+    /**
+     * Returns the number of metadata entries in the cache.
+     *
+     * @return the number of entries.
+     */
+    public static int size() {
+        return CACHE.size();
+    }
+
+    /**
+     * Returns a piece of metadata of a table from the cache, loading and caching it if it is missing or expired.
+     *
+     * @param connection The connection to the database.
+     * @param kind       The kind of metadata.
+     * @param schemaName The name of the schema where the table is located.
+     * @param table      The name of the table.
+     * @param loader     Loads the metadata from the database.
+     * @param <T>        the type of the metadata.
+     * @return the metadata of the table.
+     * @throws SQLException If a database access error occurs.
+     */
+    @SuppressWarnings("unchecked")
+    private static <T> T get(Connection connection, String kind, String schemaName, String table,
+                             Loader<T> loader) throws SQLException {
+        long ttl = Config.getInstance().getMetadataCacheTtl();
+        if (ttl <= 0) {
+            return loader.load();
+        }
+
+        String key = kind + "|" + getTableKey(connection, schemaName, table);
+        Object value = CACHE.get(key, ttl);
+        if (value == null) {
+            value = loader.load();
+            CACHE.put(key, value);
+        }
+        return (T) value;
+    }
+
+    /**
+     * Builds the key of a table, so that tables of different databases do not collide.
+     *
+     * @param connection The connection to the database.
+     * @param schemaName The name of the schema where the table is located.
+     * @param table      The name of the table.
+     * @return the key of the table.
+     * @throws SQLException If a database access error occurs.
+     */
+    private static String getTableKey(Connection connection, String schemaName, String table) throws SQLException {
+        String connectionKey = CONNECTION_KEYS.get(connection);
+        if (connectionKey == null) {
+            DatabaseMetaData metaData = connection.getMetaData();
+            connectionKey = metaData.getURL() + "|" + metaData.getUserName();
+            CONNECTION_KEYS.put(connection, connectionKey);
+        }
+        return connectionKey + "|" + (schemaName == null ? "" : schemaName) + "|" + table;
+    }
+}
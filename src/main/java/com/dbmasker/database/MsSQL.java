@@ -6,6 +6,7 @@ import com.dbmasker.utils.ErrorMessages;
 import java.sql.*;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 
 /**
  * MsSQL Database class implements the Database interface for Microsoft SQL Server databases.
@@ -54,27 +55,23 @@ public class MsSQL extends BaseDatabase {
      */
     @Override
     public List<String> getTables(Connection connection, String schemaName) throws SQLException {
-        List<String> tableList = new ArrayList<>();
         String sql;
         if (schemaName == null) {
             sql = "SELECT table_name FROM information_schema.tables;";
         } else {
             sql = "SELECT table_name FROM information_schema.tables WHERE table_schema = ?;";
         }
-        try (PreparedStatement pstmt = connection.prepareStatement(sql)) {
-            if (schemaName != null) {
-                pstmt.setString(1, schemaName);
-            }
-            try (ResultSet resultSet = pstmt.executeQuery()) {
+        try {
+            return StatementCache.query(connection, sql, schemaParams(schemaName), resultSet -> {
+                List<String> tableList = new ArrayList<>();
                 while (resultSet.next()) {
                     tableList.add(resultSet.getString("table_name"));
                 }
-            }
+                return tableList;
+            });
         } catch (SQLException e) {
             throw new SQLException(ErrorMessages.TABLE_NAMES_RETRIEVAL_ERROR, e);
         }
-
-        return tableList;
     }
 
     /**
@@ -87,7 +84,6 @@ public class MsSQL extends BaseDatabase {
      */
     @Override
     public List<DatabaseFunction> getFuncs(Connection connection, String schemaName) throws SQLException {
-        List<DatabaseFunction> functionList = new ArrayList<>();
         String sql;
         if (schemaName == null) {
             sql = "SELECT SPECIFIC_SCHEMA, SPECIFIC_NAME FROM information_schema.routines " +
@@ -96,36 +92,169 @@ public class MsSQL extends BaseDatabase {
             sql = "SELECT SPECIFIC_SCHEMA, SPECIFIC_NAME FROM information_schema.routines " +
                     "WHERE ROUTINE_TYPE = 'FUNCTION' AND SPECIFIC_SCHEMA = ?";
         }
-        try (PreparedStatement pstmt = connection.prepareStatement(sql)) {
-            if (schemaName != null) {
-                pstmt.setString(1, schemaName);
-            }
-
-            try (ResultSet resultSet = pstmt.executeQuery()) {
+        try {
+            return StatementCache.query(connection, sql, schemaParams(schemaName), resultSet -> {
+                List<DatabaseFunction> functionList = new ArrayList<>();
                 while (resultSet.next()) {
                     String specificSchema = resultSet.getString("SPECIFIC_SCHEMA");
                     String functionName = resultSet.getString("SPECIFIC_NAME");
                     functionList.add(new DatabaseFunction(specificSchema, functionName));
                 }
-            }
+                return functionList;
+            });
         } catch (SQLException e) {
             throw new SQLException(ErrorMessages.FUNCTION_NAMES_RETRIEVAL_ERROR, e);
         }
-
-        return functionList;
     }
 
     /**
-     * Executes the specified SQL query and applies obfuscation rules to the specified columns.
+     * Generates the query of an offset page with OFFSET and FETCH NEXT, whose bounds are bound as parameters.
      * @param columns The columns to fetch from the table/view.
      * @param tableName The name of the table/view to fetch the data from.
      * @param pageSize The number of records to fetch.
      * @param pageOffset The offset of the first record to fetch.
-     * @return The SQL query to execute.
+     * @param params The list the parameters of the query are appended to, in binding order.
+     * @return The SQL query to execute, with a '?' placeholder for each parameter.
      */
     @Override
-    protected String getQueryWithPage(String columns, String tableName, int pageSize, int pageOffset) {
+    protected String getQueryWithPage(String columns, String tableName, int pageSize, int pageOffset, List<Object> params) {
         int offset = (pageOffset - 1) * pageSize;
-        return String.format("SELECT %s FROM %s ORDER BY (SELECT NULL) OFFSET %d ROWS FETCH NEXT %d ROWS ONLY", columns, tableName, offset, pageSize);
+        params.add(offset);
+        params.add(pageSize);
+        return "SELECT " + columns + " FROM " + tableName + " ORDER BY (SELECT NULL) OFFSET ? ROWS FETCH NEXT ? ROWS ONLY";
+    }
+
+    /**
+     * Generates the query of a keyset page.
+     *
+     * @param columns The columns to fetch from the table.
+     * @param tableName The name of the table to fetch the data from.
+     * @param keyColumns The ordered key columns, quoted with the identifier quote of the database.
+     * @param condition The condition selecting the rows after the previous page, or null for the first page.
+     * @param limit The maximum number of rows to fetch.
+     * @return The SQL query to execute.
+     */
+    @Override
+    protected String getQueryWithKeyset(String columns, String tableName, List<String> keyColumns, String condition, int limit) {
+        String where = condition == null ? "" : " WHERE " + condition;
+        return String.format("SELECT TOP %d %s FROM %s%s ORDER BY %s", limit, columns, tableName, where, String.join(",", keyColumns));
+    }
+
+    /**
+     * Returns the row count of a table estimated from the row counts of its heap or clustered index in sys.partitions.
+     *
+     * @param connection The database connection object.
+     * @param schemaName The schema name of the table, or null or empty for the current schema.
+     * @param tableName The name of the table.
+     * @return the estimated number of rows, or null if the table is not found or has no statistics.
+     * @throws SQLException If a database access error occurs.
+     */
+    @Override
+    protected Long getEstimatedRowCount(Connection connection, String schemaName, String tableName) throws SQLException {
+        String sql = "SELECT SUM(p.rows) FROM sys.partitions p " +
+                "JOIN sys.objects o ON o.object_id = p.object_id JOIN sys.schemas s ON s.schema_id = o.schema_id " +
+                "WHERE s.name = COALESCE(?, SCHEMA_NAME()) AND o.name = ? AND o.type = 'U' AND p.index_id IN (0, 1)";
+        if (schemaName != null && schemaName.isEmpty()) {
+            schemaName = null;
+        }
+        return queryEstimatedRowCount(connection, sql, schemaName, tableName);
+    }
+
+    /**
+     * Returns whether the sample query of the database can read a view.
+     *
+     * @return false, as TABLESAMPLE only samples tables.
+     */
+    @Override
+    protected boolean supportsViewSampling() {
+        return false;
+    }
+
+    /**
+     * Builds the sample query of a sensitive data scan with TABLESAMPLE, which reads random pages
+     * of the table instead of scanning it.
+     *
+     * @param columns       The columns to select, separated by commas.
+     * @param tableName     The name of the table or view, qualified with its schema if any.
+     * @param samplePercent The percentage of the table to sample, greater than 0 and lower than 100.
+     * @return the query reading the sample.
+     */
+    @Override
+    protected String getSampleQuery(String columns, String tableName, double samplePercent) {
+        return "SELECT " + columns + " FROM " + tableName + " TABLESAMPLE (" + formatSamplePercent(samplePercent) + " PERCENT)";
+    }
+
+    /**
+     * Returns the last DDL time of a table from sys.objects, the start time of the server and the last time a
+     * row of the table was inserted, updated or deleted from sys.dm_db_index_usage_stats. The usage statistics
+     * are cleared when the server restarts, hence its start time in the stamp. Reading them needs the VIEW
+     * SERVER STATE permission, without which the stamp is not available and the table is scanned entirely.
+     *
+     * @param connection The database connection object.
+     * @param schemaName The schema name of the table, or null or empty for the current schema.
+     * @param tableName  The name of the table.
+     * @return the times separated by commas, or null if the table is not found.
+     * @throws SQLException If a database access error occurs.
+     */
+    @Override
+    protected String getModificationStamp(Connection connection, String schemaName, String tableName) throws SQLException {
+        String sql = "SELECT CONVERT(VARCHAR(30), o.modify_date, 126) + ',' + " +
+                "CONVERT(VARCHAR(30), i.sqlserver_start_time, 126) + ',' + " +
+                "COALESCE(CONVERT(VARCHAR(30), u.last_user_update, 126), '') FROM sys.objects o " +
+                "JOIN sys.schemas s ON s.schema_id = o.schema_id CROSS JOIN sys.dm_os_sys_info i " +
+                "OUTER APPLY (SELECT MAX(last_user_update) AS last_user_update FROM sys.dm_db_index_usage_stats " +
+                "WHERE database_id = DB_ID() AND object_id = o.object_id) u " +
+                "WHERE s.name = COALESCE(?, SCHEMA_NAME()) AND o.name = ? AND o.type = 'U'";
+        if (schemaName != null && schemaName.isEmpty()) {
+            schemaName = null;
+        }
+        return queryModificationStamp(connection, sql, schemaName, tableName);
+    }
+
+    /**
+     * Returns whether the incremental scans need the modification stamp of a table, as the last DDL time alone
+     * misses the rows updated in place.
+     *
+     * @return true, a table without modification stamp being always scanned entirely.
+     */
+    @Override
+    protected boolean isModificationStampRequired() {
+        return true;
+    }
+
+    /**
+     * Returns the query listing the index columns of all the tables of a schema from sys.indexes and sys.index_columns.
+     *
+     * @return the catalog query of the index columns.
+     */
+    @Override
+    protected String getIndexCatalogQuery() {
+        return "SELECT t.name, i.name, c.name, CASE WHEN i.is_unique = 1 THEN 0 ELSE 1 END, " +
+                "CASE WHEN i.is_primary_key = 1 THEN 1 ELSE 0 END FROM sys.indexes i " +
+                "JOIN sys.tables t ON t.object_id = i.object_id JOIN sys.schemas s ON s.schema_id = t.schema_id " +
+                "JOIN sys.index_columns ic ON ic.object_id = i.object_id AND ic.index_id = i.index_id " +
+                "JOIN sys.columns c ON c.object_id = ic.object_id AND c.column_id = ic.column_id " +
+                "WHERE s.name = COALESCE(?, SCHEMA_NAME()) AND i.name IS NOT NULL AND ic.is_included_column = 0 " +
+                "ORDER BY t.name, i.is_unique DESC, i.name, ic.key_ordinal";
+    }
+
+    /**
+     * Retrieves the modify_date of each table of a schema from sys.objects, which changes on every ALTER TABLE
+     * and when an index of the table changes.
+     *
+     * @param connection A valid database connection.
+     * @param schemaName The name of the schema, or null or empty for the default schema.
+     * @return the modify_date of each table keyed by table name.
+     * @throws SQLException if a database access error occurs
+     */
+    @Override
+    public Map<String, String> getTableDdlStamps(Connection connection, String schemaName) throws SQLException {
+        String sql = "SELECT o.name, CONVERT(VARCHAR(30), o.modify_date, 126) FROM sys.objects o " +
+                "JOIN sys.schemas s ON s.schema_id = o.schema_id " +
+                "WHERE s.name = COALESCE(?, SCHEMA_NAME()) AND o.type = 'U'";
+        if (schemaName != null && schemaName.isEmpty()) {
+            schemaName = null;
+        }
+        return queryTableDdlStamps(connection, sql, schemaName);
     }
 }
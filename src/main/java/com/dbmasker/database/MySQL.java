@@ -13,4 +13,15 @@ public class MySQL extends MariaDB {
         super();
     }
 
+    /**
+     * Returns the fetch size applied to streaming cursors when the caller does not give one.
+     * The MySQL driver only streams the result set row by row with a fetch size of Integer.MIN_VALUE,
+     * otherwise the whole result set is buffered client-side.
+     *
+     * @return the default fetch size of the database.
+     */
+    @Override
+    protected int getDefaultFetchSize() {
+        return Integer.MIN_VALUE;
+    }
 }
@@ -13,4 +13,16 @@ public class OceanBase extends MariaDB {
     public OceanBase() {
         super();
     }
+
+    /**
+     * Returns the fetch size applied to streaming cursors when the caller does not give one.
+     * OceanBase is reached through the MySQL driver or its fork, which only stream the result set row by row
+     * with a fetch size of Integer.MIN_VALUE, otherwise the whole result set is buffered client-side.
+     *
+     * @return the default fetch size of the database.
+     */
+    @Override
+    protected int getDefaultFetchSize() {
+        return Integer.MIN_VALUE;
+    }
 }
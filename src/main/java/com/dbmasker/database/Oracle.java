@@ -1,11 +1,15 @@
 package com.dbmasker.database;
 
+import com.dbmasker.data.CatalogSnapshot;
 import com.dbmasker.data.DatabaseFunction;
+import com.dbmasker.data.FetchOptions;
 import com.dbmasker.utils.DbUtils;
 import com.dbmasker.utils.ErrorMessages;
 
 import java.sql.*;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -96,7 +100,6 @@ public class Oracle extends BaseDatabase {
      */
     @Override
     public List<DatabaseFunction> getFuncs(Connection connection, String schemaName) throws SQLException {
-        List<DatabaseFunction> funcs = new ArrayList<>();
         String sql;
         if (schemaName == null) {
             sql = "SELECT OWNER, OBJECT_NAME FROM ALL_OBJECTS " +
@@ -106,22 +109,19 @@ public class Oracle extends BaseDatabase {
                     "WHERE OBJECT_TYPE = 'FUNCTION' " +
                     "AND OWNER = ?";
         }
-        try (PreparedStatement pstmt = connection.prepareStatement(sql)) {
-            if (schemaName != null) {
-                pstmt.setString(1, schemaName.toUpperCase());
-            }
-            try (ResultSet resultSet = pstmt.executeQuery()) {
+        try {
+            return StatementCache.query(connection, sql, schemaParams(schemaName == null ? null : schemaName.toUpperCase()), resultSet -> {
+                List<DatabaseFunction> funcs = new ArrayList<>();
                 while (resultSet.next()) {
                     String owner = resultSet.getString("OWNER");
                     String functionName = resultSet.getString("OBJECT_NAME");
                     funcs.add(new DatabaseFunction(owner, functionName));
                 }
-            }
+                return funcs;
+            });
         } catch (SQLException e) {
             throw new SQLException(ErrorMessages.FUNCTION_NAMES_RETRIEVAL_ERROR, e);
         }
-
-        return funcs;
     }
 
     /**
@@ -171,21 +171,25 @@ public class Oracle extends BaseDatabase {
     }
 
     /**
-     * Executes the specified SQL query and applies obfuscation rules to the specified columns.
+     * Generates the query of an offset page with ROWNUM, whose bounds are bound as parameters so that the
+     * statement is hard parsed once for all the pages of a table.
      * @param columns The columns to fetch from the table/view.
      * @param tableName The name of the table/view to fetch the data from.
      * @param pageSize The number of records to fetch.
      * @param pageOffset The offset of the first record to fetch.
-     * @return The SQL query to execute.
+     * @param params The list the parameters of the query are appended to, in binding order.
+     * @return The SQL query to execute, with a '?' placeholder for each parameter.
      */
     @Override
-    protected String getQueryWithPage(String columns, String tableName, int pageSize, int pageOffset) {
+    protected String getQueryWithPage(String columns, String tableName, int pageSize, int pageOffset, List<Object> params) {
         int rowNumStart = (pageOffset - 1) * pageSize + 1;
         int rowNumEnd = rowNumStart + pageSize - 1;
+        params.add(rowNumEnd);
+        params.add(rowNumStart);
         if (columns.equals("*")) {
-            return String.format("SELECT a.* FROM (SELECT t.*, ROWNUM r FROM %s t WHERE ROWNUM <= %d) a WHERE r >= %d", tableName, rowNumEnd, rowNumStart);
+            return "SELECT a.* FROM (SELECT t.*, ROWNUM r FROM " + tableName + " t WHERE ROWNUM <= ?) a WHERE r >= ?";
         } else {
-            return String.format("SELECT %s FROM (SELECT t.*, ROWNUM r FROM %s t WHERE ROWNUM <= %d) WHERE r >= %d", columns, tableName, rowNumEnd, rowNumStart);
+            return "SELECT " + columns + " FROM (SELECT t.*, ROWNUM r FROM " + tableName + " t WHERE ROWNUM <= ?) WHERE r >= ?";
         }
     }
 
@@ -201,7 +205,7 @@ public class Oracle extends BaseDatabase {
     protected String getColumnString(Connection connection, String schema, String tableName, List<String> columnList) {
         if (columnList == null || columnList.isEmpty()) {
             try {
-                return getColumnStrings(connection, schema.toUpperCase(), tableName.toUpperCase());
+                return MetadataCache.getColumnStrings(this, connection, schema.toUpperCase(), tableName.toUpperCase());
             } catch (SQLException e) {
                 return "*";
             }
@@ -209,4 +213,237 @@ public class Oracle extends BaseDatabase {
             return String.join(",", columnList);
         }
     }
+
+    /**
+     * Returns the fetch size applied to streaming cursors when the caller does not give one.
+     * The Oracle driver prefetches only 10 rows per round trip by default.
+     *
+     * @return the default fetch size of the database.
+     */
+    @Override
+    protected int getDefaultFetchSize() {
+        return FetchOptions.DEFAULT_FETCH_SIZE;
+    }
+
+    /**
+     * Returns the ordered key columns used for keyset pagination, looking up the upper case names of the
+     * schema and the table as they are stored in the Oracle data dictionary. A null or empty schema designates
+     * the current schema.
+     *
+     * @param connection The database connection object.
+     * @param schemaName The schema name of the table.
+     * @param tableName The name of the table.
+     * @return the ordered key columns, or an empty list if the table has no usable key.
+     * @throws SQLException If a database access error occurs.
+     */
+    @Override
+    protected List<String> getKeysetColumns(Connection connection, String schemaName, String tableName) throws SQLException {
+        return getKeysetColumns(connection, null, resolveOwner(connection, schemaName), tableName.toUpperCase());
+    }
+
+    /**
+     * Returns the owner of the tables of a schema as stored in the dictionary: the upper case schema name, or the
+     * current schema of the session if the name is null or empty, so that the JDBC metadata, whose null schema
+     * pattern matches every owner, and the catalog queries read the same schema.
+     *
+     * @param connection The database connection object.
+     * @param schemaName The schema name, or null or empty for the current schema.
+     * @return the owner of the tables.
+     * @throws SQLException If a database access error occurs.
+     */
+    protected String resolveOwner(Connection connection, String schemaName) throws SQLException {
+        if (schemaName != null && !schemaName.isEmpty()) {
+            return schemaName.toUpperCase();
+        }
+        return StatementCache.query(connection, "SELECT SYS_CONTEXT('USERENV', 'CURRENT_SCHEMA') FROM DUAL",
+                Collections.emptyList(), rs -> rs.next() ? rs.getString(1) : null);
+    }
+
+    /**
+     * Generates the query of a keyset page, limiting the ordered rows with ROWNUM.
+     *
+     * @param columns The columns to fetch from the table.
+     * @param tableName The name of the table to fetch the data from.
+     * @param keyColumns The ordered key columns, quoted with the identifier quote of the database.
+     * @param condition The condition selecting the rows after the previous page, or null for the first page.
+     * @param limit The maximum number of rows to fetch.
+     * @return The SQL query to execute.
+     */
+    @Override
+    protected String getQueryWithKeyset(String columns, String tableName, List<String> keyColumns, String condition, int limit) {
+        String where = condition == null ? "" : " WHERE " + condition;
+        return String.format("SELECT * FROM (SELECT %s FROM %s%s ORDER BY %s) WHERE ROWNUM <= %d",
+                columns, tableName, where, String.join(",", keyColumns), limit);
+    }
+
+    /**
+     * Returns the row count of a table estimated from ALL_TABLES.NUM_ROWS, which is maintained when the optimizer statistics are gathered.
+     *
+     * @param connection The database connection object.
+     * @param schemaName The schema name of the table, or null or empty for the current schema.
+     * @param tableName The name of the table.
+     * @return the estimated number of rows, or null if the table is not found or has no statistics.
+     * @throws SQLException If a database access error occurs.
+     */
+    @Override
+    protected Long getEstimatedRowCount(Connection connection, String schemaName, String tableName) throws SQLException {
+        String sql = "SELECT NUM_ROWS FROM ALL_TABLES " +
+                "WHERE OWNER = COALESCE(?, SYS_CONTEXT('USERENV', 'CURRENT_SCHEMA')) AND TABLE_NAME = ?";
+        String owner = schemaName == null || schemaName.isEmpty() ? null : schemaName.toUpperCase();
+        return queryEstimatedRowCount(connection, sql, owner, tableName.toUpperCase());
+    }
+
+    /**
+     * Returns whether the sample query of the database can read a view.
+     *
+     * @return false, as SAMPLE only samples tables.
+     */
+    @Override
+    protected boolean supportsViewSampling() {
+        return false;
+    }
+
+    /**
+     * Builds the sample query of a sensitive data scan with the SAMPLE clause, which picks random rows
+     * of the table.
+     *
+     * @param columns       The columns to select, separated by commas.
+     * @param tableName     The name of the table or view, qualified with its schema if any.
+     * @param samplePercent The percentage of the table to sample, greater than 0 and lower than 100.
+     * @return the query reading the sample.
+     */
+    @Override
+    protected String getSampleQuery(String columns, String tableName, double samplePercent) {
+        return "SELECT " + columns + " FROM " + tableName + " SAMPLE (" + formatSamplePercent(samplePercent) + ")";
+    }
+
+    /**
+     * Flushes the DML monitoring counters of the whole database to ALL_TAB_MODIFICATIONS, which Oracle otherwise
+     * writes periodically. The flush writes to the database and needs the ANALYZE ANY privilege, so it only runs
+     * when the scan options ask for it.
+     *
+     * @param connection The database connection object.
+     * @throws SQLException If the counters cannot be flushed.
+     */
+    @Override
+    protected void refreshModificationStamps(Connection connection) throws SQLException {
+        try (Statement stmt = connection.createStatement()) {
+            stmt.execute("BEGIN DBMS_STATS.FLUSH_DATABASE_MONITORING_INFO; END;");
+        }
+    }
+
+    /**
+     * Returns the last DDL time of a table from ALL_OBJECTS, followed by its numbers of inserted, updated and
+     * deleted rows and its truncated flag from ALL_TAB_MODIFICATIONS, which only reads the dictionary. The
+     * counters are as of their last flush, periodic or requested with ScanOptions.setRefreshModificationStamps,
+     * so a change not flushed yet is seen by a later scan. Gathering the statistics of the table resets the
+     * counters, which triggers a full scan.
+     *
+     * @param connection The database connection object.
+     * @param schemaName The schema name of the table, or null or empty for the current schema.
+     * @param tableName  The name of the table.
+     * @return the last DDL time and counters separated by commas, or null if the table is not found.
+     * @throws SQLException If a database access error occurs.
+     */
+    @Override
+    protected String getModificationStamp(Connection connection, String schemaName, String tableName) throws SQLException {
+        String sql = "SELECT TO_CHAR(o.LAST_DDL_TIME, 'YYYY-MM-DD HH24:MI:SS') || ',' || NVL(m.INSERTS, 0) || ',' || " +
+                "NVL(m.UPDATES, 0) || ',' || NVL(m.DELETES, 0) || ',' || NVL(m.TRUNCATED, 'NO') FROM ALL_OBJECTS o " +
+                "LEFT JOIN ALL_TAB_MODIFICATIONS m ON m.TABLE_OWNER = o.OWNER AND m.TABLE_NAME = o.OBJECT_NAME " +
+                "AND m.PARTITION_NAME IS NULL " +
+                "WHERE o.OWNER = COALESCE(?, SYS_CONTEXT('USERENV', 'CURRENT_SCHEMA')) AND o.OBJECT_NAME = ? " +
+                "AND o.OBJECT_TYPE = 'TABLE'";
+        String owner = schemaName == null || schemaName.isEmpty() ? null : schemaName.toUpperCase();
+        return queryModificationStamp(connection, sql, owner, tableName.toUpperCase());
+    }
+
+    /**
+     * Returns whether the modification stamps of a table only show inserted rows since the previous scan: the
+     * last DDL time did not change, and either the stamps are equal, or the counters show more inserted rows,
+     * the same numbers of updated and deleted rows and the same truncated flag.
+     *
+     * @param previousStamp The modification stamp of the previous scan, or null.
+     * @param currentStamp  The current modification stamp, or null.
+     * @return true if no row was updated nor deleted, false otherwise or if the counters were reset.
+     */
+    @Override
+    protected boolean isAppendOnlyChange(String previousStamp, String currentStamp) {
+        if (previousStamp == null || currentStamp == null) {
+            return previousStamp == null && currentStamp == null;
+        }
+        if (previousStamp.equals(currentStamp)) {
+            return true;
+        }
+        String[] previous = previousStamp.split(",", -1);
+        String[] current = currentStamp.split(",", -1);
+        try {
+            return previous.length == 5 && current.length == 5 && previous[0].equals(current[0])
+                    && Long.parseLong(current[1]) > Long.parseLong(previous[1])
+                    && previous[2].equals(current[2]) && previous[3].equals(current[3])
+                    && previous[4].equals(current[4]);
+        } catch (NumberFormatException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Returns whether the incremental scans need the modification stamp of a table, as the row count and the
+     * watermark alone miss the rows updated in place.
+     *
+     * @return true, a table without modification stamp being always scanned entirely.
+     */
+    @Override
+    protected boolean isModificationStampRequired() {
+        return true;
+    }
+
+    /**
+     * Loads the catalog of some or all the tables of a schema. The schema name is converted to upper case,
+     * as stored in the dictionary, and a null or empty schema is resolved once to the current schema, so that the
+     * tables, their columns, keys and indexes all come from the same owner.
+     *
+     * @param connection A valid database connection.
+     * @param schemaName The name of the schema, or null or empty for the current schema.
+     * @param tableNames The names of the tables to load, or null to load all the tables.
+     * @return the catalog snapshot of the tables.
+     * @throws SQLException if a database access error occurs
+     */
+    @Override
+    protected CatalogSnapshot loadCatalogTables(Connection connection, String schemaName,
+                                                Collection<String> tableNames) throws SQLException {
+        String owner = resolveOwner(connection, schemaName);
+        return loadCatalogSnapshot(connection, null, owner, owner, tableNames);
+    }
+
+    /**
+     * Returns the query listing the index columns of all the tables of a schema from ALL_INDEXES and ALL_IND_COLUMNS.
+     *
+     * @return the catalog query of the index columns.
+     */
+    @Override
+    protected String getIndexCatalogQuery() {
+        return "SELECT i.TABLE_NAME, i.INDEX_NAME, c.COLUMN_NAME, " +
+                "CASE WHEN i.UNIQUENESS = 'UNIQUE' THEN 0 ELSE 1 END, CASE WHEN p.CONSTRAINT_NAME IS NULL THEN 0 ELSE 1 END " +
+                "FROM ALL_INDEXES i JOIN ALL_IND_COLUMNS c ON c.INDEX_OWNER = i.OWNER AND c.INDEX_NAME = i.INDEX_NAME " +
+                "LEFT JOIN ALL_CONSTRAINTS p ON p.OWNER = i.TABLE_OWNER AND p.INDEX_NAME = i.INDEX_NAME AND p.CONSTRAINT_TYPE = 'P' " +
+                "WHERE i.TABLE_OWNER = COALESCE(?, SYS_CONTEXT('USERENV', 'CURRENT_SCHEMA')) " +
+                "ORDER BY i.TABLE_NAME, i.UNIQUENESS DESC, i.INDEX_NAME, c.COLUMN_POSITION";
+    }
+
+    /**
+     * Retrieves the last DDL time of each table of a schema from ALL_OBJECTS, which also changes when an index of
+     * the table is created or dropped. The schema name is converted to upper case, as stored in the dictionary.
+     *
+     * @param connection A valid database connection.
+     * @param schemaName The name of the schema, or null or empty for the current schema.
+     * @return the last DDL time of each table keyed by table name.
+     * @throws SQLException if a database access error occurs
+     */
+    @Override
+    public Map<String, String> getTableDdlStamps(Connection connection, String schemaName) throws SQLException {
+        String sql = "SELECT OBJECT_NAME, TO_CHAR(LAST_DDL_TIME, 'YYYY-MM-DD HH24:MI:SS') FROM ALL_OBJECTS " +
+                "WHERE OWNER = COALESCE(?, SYS_CONTEXT('USERENV', 'CURRENT_SCHEMA')) AND OBJECT_TYPE = 'TABLE'";
+        String owner = schemaName == null || schemaName.isEmpty() ? null : schemaName.toUpperCase();
+        return queryTableDdlStamps(connection, sql, owner);
+    }
 }
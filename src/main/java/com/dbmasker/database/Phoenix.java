@@ -1,11 +1,11 @@
 package com.dbmasker.database;
 
 import com.dbmasker.data.DatabaseFunction;
-import com.dbmasker.utils.DbUtils;
 import com.dbmasker.utils.ErrorMessages;
 
 import java.sql.*;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
@@ -59,8 +59,6 @@ public class Phoenix extends BaseDatabase {
      */
     @Override
     public List<String> getTables(Connection connection, String schemaName) throws SQLException {
-        List<String> tableList = new ArrayList<>();
-        ResultSet resultSet = null;
         String sql;
         if (schemaName == null) {
             sql = "SELECT DISTINCT TABLE_NAME FROM SYSTEM.CATALOG";
@@ -68,24 +66,18 @@ public class Phoenix extends BaseDatabase {
             sql = "SELECT DISTINCT TABLE_NAME FROM SYSTEM.CATALOG WHERE TABLE_SCHEM = ?";
         }
 
-        try (PreparedStatement preparedStatement = connection.prepareStatement(sql)) {
-            if (schemaName != null) {
-                preparedStatement.setString(1, schemaName);
-            }
-
-            resultSet = preparedStatement.executeQuery();
-
-            while (resultSet.next()) {
-                String tableName = resultSet.getString("TABLE_NAME");
-                tableList.add(tableName);
-            }
+        try {
+            return StatementCache.query(connection, sql, schemaParams(schemaName), resultSet -> {
+                List<String> tableList = new ArrayList<>();
+                while (resultSet.next()) {
+                    String tableName = resultSet.getString("TABLE_NAME");
+                    tableList.add(tableName);
+                }
+                return tableList;
+            });
         } catch (SQLException e) {
             throw new SQLException(ErrorMessages.TABLE_NAMES_RETRIEVAL_ERROR, e);
-        } finally {
-            DbUtils.closeResultSet(resultSet);
         }
-
-        return tableList;
     }
 
 
@@ -114,8 +106,6 @@ public class Phoenix extends BaseDatabase {
      */
     @Override
     public Set<String> getPrimaryKeys(Connection connection, String schemaName, String table) throws SQLException {
-        Set<String> primaryKeys = new HashSet<>();
-
         // Use a query to get the primary key column from the SYSTEM.CATALOG table for the given table and schema
         String sql = "SELECT COLUMN_NAME " +
                 "FROM SYSTEM.CATALOG " +
@@ -125,21 +115,14 @@ public class Phoenix extends BaseDatabase {
                 "AND KEY_SEQ IS NOT NULL " +    // Indicates the column is part of the primary key
                 "ORDER BY KEY_SEQ";             // Order by the key sequence to get the first part of compound primary key if any
 
-        // try-with-resources block ensures that both the PreparedStatement and ResultSet are closed automatically
-        try (PreparedStatement preparedStatement = connection.prepareStatement(sql)) {
-
-            // Set parameters for the PreparedStatement to prevent SQL injection
-            preparedStatement.setString(1, schemaName);
-            preparedStatement.setString(2, table);
-
-            try (ResultSet resultSet = preparedStatement.executeQuery()) {
-
-                // Loop over the resultSet to get all primary key columns
-                while (resultSet.next()) {
-                    primaryKeys.add(resultSet.getString("COLUMN_NAME"));
-                }
+        // The statement is cached per connection, the parameters prevent SQL injection
+        return StatementCache.query(connection, sql, Arrays.asList(schemaName, table), resultSet -> {
+            Set<String> primaryKeys = new HashSet<>();
+            // Loop over the resultSet to get all primary key columns
+            while (resultSet.next()) {
+                primaryKeys.add(resultSet.getString("COLUMN_NAME"));
             }
-        }
-        return primaryKeys;
+            return primaryKeys;
+        });
     }
 }
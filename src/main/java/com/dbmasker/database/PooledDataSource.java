@@ -0,0 +1,766 @@
+package com.dbmasker.database;
+
+import com.dbmasker.data.PoolOptions;
+import com.dbmasker.utils.ErrorMessages;
+
+import javax.sql.DataSource;
+import java.io.PrintWriter;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.sql.SQLTimeoutException;
+import java.sql.Statement;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * A lightweight pool of JDBC connections to one database, as one driver, URL and user.
+ * <p>
+ * Borrowed connections are returned to the pool when they are closed, so the pool can be used wherever a connection
+ * is closed after use, including as the ConnectionSupplier of the schema scans. At most PoolOptions.getMaxSize()
+ * connections are open at the same time, and callers waiting for one are served in the order they arrived.
+ * An idle connection is validated with Connection.isValid before being reused, unless it was used less than
+ * PoolOptions.getValidationIntervalMillis() ago, and it is closed once it has been idle for longer than
+ * PoolOptions.getIdleTimeoutMillis(). Idle eviction and leak detection run whenever a connection is borrowed or
+ * returned, or with {@link #evictIdleConnections()}, so the pool starts no thread of its own.
+ * <p>
+ * A connection returned with auto-commit disabled is rolled back and switched back to auto-commit. The read-only
+ * flag, catalog, schema, transaction isolation and network timeout changed through the Connection setters are
+ * restored to their values when the connection was opened, and a connection whose state cannot be restored is
+ * closed instead of being reused.
+ * <p>
+ * The statements, result sets and metadata of a borrowed connection return the borrowed connection from
+ * getConnection and unwrap only to their own interfaces, so the physical connection never escapes the borrower.
+ * The statements the borrower left open are closed when the connection is returned.
+ */
+public class PooledDataSource implements DataSource, ConnectionSupplier, AutoCloseable {
+
+    private static final Logger LOGGER = Logger.getLogger(PooledDataSource.class.getName());
+
+    // The bits of the connection state restored when a connection is returned
+    private static final int READ_ONLY = 1;
+    private static final int CATALOG = 1 << 1;
+    private static final int SCHEMA = 1 << 2;
+    private static final int TRANSACTION_ISOLATION = 1 << 3;
+    private static final int NETWORK_TIMEOUT = 1 << 4;
+
+    private final String url;
+    private final String username;
+    private final String password;
+    private final PoolOptions options;
+
+    private final Semaphore permits; // one permit per connection in use, fair so waiters are served in order
+    private final Deque<PooledEntry> idle = new ConcurrentLinkedDeque<>(); // most recently used first
+    private final Set<PooledEntry> active = ConcurrentHashMap.newKeySet();
+    private final AtomicInteger totalCount = new AtomicInteger();
+    private final AtomicLong leakCount = new AtomicLong();
+    private volatile boolean closed;
+    private PrintWriter logWriter;
+    private int loginTimeout;
+
+    /**
+     * A physical connection of the pool, its usage times and its state when it was opened.
+     */
+    private static final class PooledEntry {
+        private final Connection connection;
+        private volatile long lastUsed; // from System.nanoTime()
+        private volatile long borrowTime; // from System.nanoTime()
+        private volatile Throwable borrowTrace; // the caller which borrowed the connection, if leak detection is enabled
+        private volatile boolean leakReported;
+
+        private int known; // the state bits read when the connection was opened
+        private volatile int dirty; // the state bits changed by the borrower
+        private boolean initialReadOnly;
+        private String initialCatalog;
+        private String initialSchema;
+        private int initialTransactionIsolation;
+        private int initialNetworkTimeout;
+
+        private PooledEntry(Connection connection) {
+            this.connection = connection;
+            this.lastUsed = System.nanoTime();
+            try {
+                initialReadOnly = connection.isReadOnly();
+                known |= READ_ONLY;
+            } catch (SQLException e) {
+                // The connection is closed if its read-only flag is changed
+            }
+            try {
+                initialCatalog = connection.getCatalog();
+                known |= CATALOG;
+            } catch (SQLException e) {
+                // The connection is closed if its catalog is changed
+            }
+            try {
+                initialSchema = connection.getSchema();
+                known |= SCHEMA;
+            } catch (SQLException | AbstractMethodError e) {
+                // The driver predates JDBC 4.1, the connection is closed if its schema is changed
+            }
+            try {
+                initialTransactionIsolation = connection.getTransactionIsolation();
+                known |= TRANSACTION_ISOLATION;
+            } catch (SQLException e) {
+                // The connection is closed if its transaction isolation is changed
+            }
+            try {
+                initialNetworkTimeout = connection.getNetworkTimeout();
+                known |= NETWORK_TIMEOUT;
+            } catch (SQLException | AbstractMethodError e) {
+                // The driver predates JDBC 4.1, the connection is closed if its network timeout is changed
+            }
+        }
+    }
+
+    /**
+     * Constructor for PooledDataSource. No connection is opened until the first borrow.
+     *
+     * @param driver   The fully-qualified name of the JDBC driver class.
+     * @param url      The JDBC URL for the database.
+     * @param username The username for the database connection.
+     * @param password The password for the database connection.
+     * @param options  The options of the pool, or null for the default options. They are read once, at construction.
+     * @throws ClassNotFoundException   if the JDBC driver class is not found.
+     * @throws IllegalArgumentException if the url is null or the pool sizes are invalid.
+     */
+    public PooledDataSource(String driver, String url, String username, String password, PoolOptions options)
+            throws ClassNotFoundException {
+        if (url == null) {
+            throw new IllegalArgumentException(ErrorMessages.NULL_URL_ERROR);
+        }
+        PoolOptions poolOptions = options == null ? new PoolOptions() : copyOptions(options);
+        if (poolOptions.getMaxSize() < 1 || poolOptions.getMinSize() < 0
+                || poolOptions.getMinSize() > poolOptions.getMaxSize()) {
+            throw new IllegalArgumentException(ErrorMessages.INVALID_POOL_SIZE_ERROR);
+        }
+
+        if (driver != null) {
+            try {
+                Class.forName(driver);
+            } catch (ClassNotFoundException e) {
+                throw new ClassNotFoundException(ErrorMessages.JDBC_DRIVER_NOT_FOUND_ERROR + e.getMessage());
+            }
+        }
+        this.url = url;
+        this.username = username;
+        this.password = password;
+        this.options = poolOptions;
+        this.permits = new Semaphore(poolOptions.getMaxSize(), true);
+    }
+
+    /**
+     * Borrows a connection from the pool, opening a new one if no idle connection is available and the pool is not
+     * full, or waiting for one to be returned otherwise. Closing the connection returns it to the pool.
+     *
+     * @return a connection of the pool.
+     * @throws SQLTimeoutException if no connection became available within PoolOptions.getMaxWaitMillis().
+     * @throws SQLException        if the pool is closed or a connection cannot be opened.
+     */
+    @Override
+    public Connection getConnection() throws SQLException {
+        if (closed) {
+            throw new SQLException(ErrorMessages.POOL_CLOSED_ERROR);
+        }
+        evictIdleConnections();
+        fillMinimum();
+
+        try {
+            if (!permits.tryAcquire(options.getMaxWaitMillis(), TimeUnit.MILLISECONDS)) {
+                throw new SQLTimeoutException(ErrorMessages.POOL_EXHAUSTED_ERROR + options.getMaxWaitMillis() + " ms");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException(ErrorMessages.POOL_EXHAUSTED_ERROR + "interrupted", e);
+        }
+
+        try {
+            PooledEntry entry = takeIdle();
+            if (entry == null) {
+                entry = openEntry();
+            }
+            entry.borrowTime = System.nanoTime();
+            entry.borrowTrace = options.getLeakDetectionMillis() > 0 ? new Throwable("Connection borrowed here") : null;
+            entry.leakReported = false;
+            active.add(entry);
+            return (Connection) Proxy.newProxyInstance(PooledDataSource.class.getClassLoader(),
+                    new Class<?>[]{Connection.class}, new PooledConnectionHandler(entry));
+        } catch (SQLException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    /**
+     * Not supported, the pool always connects as the user it was created with.
+     *
+     * @param username The username for the database connection.
+     * @param password The password for the database connection.
+     * @return never returns.
+     * @throws SQLFeatureNotSupportedException always.
+     */
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        throw new SQLFeatureNotSupportedException();
+    }
+
+    /**
+     * Closes the idle connections which exceeded the idle timeout, keeping the minimum size of the pool, and reports
+     * the connections in use for longer than the leak detection threshold.
+     */
+    public void evictIdleConnections() {
+        long now = System.nanoTime();
+        long idleTimeout = TimeUnit.MILLISECONDS.toNanos(options.getIdleTimeoutMillis());
+        if (idleTimeout > 0) {
+            // The least recently used connections are at the end of the deque
+            Iterator<PooledEntry> iterator = idle.descendingIterator();
+            while (iterator.hasNext() && totalCount.get() > options.getMinSize()) {
+                PooledEntry entry = iterator.next();
+                if (now - entry.lastUsed > idleTimeout && idle.removeFirstOccurrence(entry)) {
+                    closeEntry(entry);
+                }
+            }
+        }
+
+        long leakThreshold = TimeUnit.MILLISECONDS.toNanos(options.getLeakDetectionMillis());
+        if (leakThreshold > 0) {
+            for (PooledEntry entry : active) {
+                if (!entry.leakReported && now - entry.borrowTime > leakThreshold) {
+                    entry.leakReported = true;
+                    leakCount.incrementAndGet();
+                    LOGGER.log(Level.WARNING, ErrorMessages.CONNECTION_LEAK_WARNING + url, entry.borrowTrace);
+                }
+            }
+        }
+    }
+
+    /**
+     * Closes the pool and its idle connections. Connections in use are closed when they are returned.
+     */
+    @Override
+    public void close() {
+        closed = true;
+        PooledEntry entry;
+        while ((entry = idle.pollFirst()) != null) {
+            closeEntry(entry);
+        }
+    }
+
+    /**
+     * Returns whether the pool is closed.
+     *
+     * @return true if the pool is closed, false otherwise.
+     */
+    public boolean isClosed() {
+        return closed;
+    }
+
+    /**
+     * Returns the number of connections in use.
+     *
+     * @return the active count.
+     */
+    public int getActiveCount() {
+        return active.size();
+    }
+
+    /**
+     * Returns the number of idle connections.
+     *
+     * @return the idle count.
+     */
+    public int getIdleCount() {
+        return idle.size();
+    }
+
+    /**
+     * Returns the number of open connections, idle and in use.
+     *
+     * @return the total count.
+     */
+    public int getTotalCount() {
+        return totalCount.get();
+    }
+
+    /**
+     * Returns the number of callers waiting for a connection.
+     *
+     * @return an estimate of the number of waiting callers.
+     */
+    public int getWaitingCount() {
+        return permits.getQueueLength();
+    }
+
+    /**
+     * Returns the number of connections reported as possible leaks since the pool was created.
+     *
+     * @return the leak count.
+     */
+    public long getLeakCount() {
+        return leakCount.get();
+    }
+
+    /**
+     * Getter for the JDBC URL of the pool.
+     *
+     * @return the JDBC URL.
+     */
+    public String getUrl() {
+        return url;
+    }
+
+    /**
+     * Getter for the username of the pool.
+     *
+     * @return the username.
+     */
+    public String getUsername() {
+        return username;
+    }
+
+    @Override
+    public PrintWriter getLogWriter() {
+        return logWriter;
+    }
+
+    @Override
+    public void setLogWriter(PrintWriter out) {
+        this.logWriter = out;
+    }
+
+    @Override
+    public void setLoginTimeout(int seconds) {
+        this.loginTimeout = seconds;
+    }
+
+    @Override
+    public int getLoginTimeout() {
+        return loginTimeout;
+    }
+
+    @Override
+    public Logger getParentLogger() {
+        return LOGGER;
+    }
+
+    @Override
+    public <T> T unwrap(Class<T> iface) throws SQLException {
+        if (iface.isInstance(this)) {
+            return iface.cast(this);
+        }
+        throw new SQLException(ErrorMessages.UNSUPPORTED_UNWRAP_ERROR + iface.getName());
+    }
+
+    @Override
+    public boolean isWrapperFor(Class<?> iface) {
+        return iface.isInstance(this);
+    }
+
+    /**
+     * Takes the most recently used idle connection which is still valid, closing the invalid ones.
+     *
+     * @return an idle connection, or null if there is none.
+     */
+    private PooledEntry takeIdle() {
+        long validationInterval = TimeUnit.MILLISECONDS.toNanos(options.getValidationIntervalMillis());
+        PooledEntry entry;
+        while ((entry = idle.pollFirst()) != null) {
+            if (validationInterval > 0 && System.nanoTime() - entry.lastUsed <= validationInterval) {
+                return entry;
+            }
+            if (isValid(entry)) {
+                return entry;
+            }
+            closeEntry(entry);
+        }
+        return null;
+    }
+
+    /**
+     * Opens connections until the pool holds its minimum size. Failures are ignored, the borrow which follows
+     * reports them.
+     */
+    private void fillMinimum() {
+        while (!closed) {
+            int total = totalCount.get();
+            if (total >= options.getMinSize()) {
+                return;
+            }
+            if (totalCount.compareAndSet(total, total + 1)) {
+                try {
+                    idle.offerLast(new PooledEntry(connect()));
+                } catch (SQLException e) {
+                    totalCount.decrementAndGet();
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     * Opens a new physical connection and counts it.
+     *
+     * @return the entry of the new connection.
+     * @throws SQLException if the connection cannot be opened.
+     */
+    private PooledEntry openEntry() throws SQLException {
+        totalCount.incrementAndGet();
+        try {
+            return new PooledEntry(connect());
+        } catch (SQLException | RuntimeException e) {
+            totalCount.decrementAndGet();
+            throw e;
+        }
+    }
+
+    /**
+     * Opens a new physical connection.
+     *
+     * @return the connection.
+     * @throws SQLException if the connection cannot be opened.
+     */
+    private Connection connect() throws SQLException {
+        try {
+            return DriverManager.getConnection(url, username, password);
+        } catch (SQLException e) {
+            throw new SQLException(ErrorMessages.CONNECTION_ESTABLISHMENT_FAILURE_ERROR + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Returns whether a connection can still be used.
+     *
+     * @param entry The connection to validate.
+     * @return true if the connection is valid, false otherwise.
+     */
+    private boolean isValid(PooledEntry entry) {
+        try {
+            return entry.connection.isValid(options.getValidationTimeoutSeconds());
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Returns a borrowed connection to the pool, or closes it if it is broken or the pool is closed.
+     *
+     * @param entry The connection to return.
+     */
+    private void release(PooledEntry entry) {
+        active.remove(entry);
+        entry.borrowTrace = null;
+        try {
+            if (!closed && reset(entry)) {
+                entry.lastUsed = System.nanoTime();
+                idle.offerFirst(entry);
+                // The pool may have been closed while the connection was returned
+                if (closed && idle.remove(entry)) {
+                    closeEntry(entry);
+                }
+            } else {
+                closeEntry(entry);
+            }
+        } finally {
+            permits.release();
+        }
+        evictIdleConnections();
+    }
+
+    /**
+     * Restores the default state of a returned connection, rolling back its pending transaction and restoring the
+     * state the borrower changed to its value when the connection was opened.
+     *
+     * @param entry The returned connection.
+     * @return true if the connection can be reused, false if it is closed or broken, or if its state cannot be
+     *         restored.
+     */
+    private boolean reset(PooledEntry entry) {
+        Connection connection = entry.connection;
+        try {
+            if (connection.isClosed()) {
+                return false;
+            }
+            if (!connection.getAutoCommit()) {
+                connection.rollback();
+                connection.setAutoCommit(true);
+            }
+
+            int dirty = entry.dirty;
+            if (dirty == 0) {
+                return true;
+            }
+            if ((dirty & ~entry.known) != 0) {
+                return false;
+            }
+            if ((dirty & READ_ONLY) != 0) {
+                connection.setReadOnly(entry.initialReadOnly);
+            }
+            if ((dirty & CATALOG) != 0) {
+                connection.setCatalog(entry.initialCatalog);
+            }
+            if ((dirty & SCHEMA) != 0) {
+                connection.setSchema(entry.initialSchema);
+            }
+            if ((dirty & TRANSACTION_ISOLATION) != 0) {
+                connection.setTransactionIsolation(entry.initialTransactionIsolation);
+            }
+            if ((dirty & NETWORK_TIMEOUT) != 0) {
+                connection.setNetworkTimeout(Runnable::run, entry.initialNetworkTimeout);
+            }
+            entry.dirty = 0;
+            return true;
+        } catch (SQLException | RuntimeException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Returns the state bit a Connection method changes.
+     *
+     * @param methodName The name of the method.
+     * @return the state bit, or 0 if the method does not change the state restored on return.
+     */
+    private static int stateBit(String methodName) {
+        switch (methodName) {
+            case "setReadOnly":
+                return READ_ONLY;
+            case "setCatalog":
+                return CATALOG;
+            case "setSchema":
+                return SCHEMA;
+            case "setTransactionIsolation":
+                return TRANSACTION_ISOLATION;
+            case "setNetworkTimeout":
+                return NETWORK_TIMEOUT;
+            default:
+                return 0;
+        }
+    }
+
+    /**
+     * Closes a physical connection and its cached statements, ignoring errors, and uncounts it.
+     *
+     * @param entry The connection to close.
+     */
+    private void closeEntry(PooledEntry entry) {
+        totalCount.decrementAndGet();
+        StatementCache.clear(entry.connection);
+        try {
+            entry.connection.close();
+        } catch (SQLException e) {
+            // The connection is discarded anyway
+        }
+    }
+
+    /**
+     * Returns the physical connection behind a connection borrowed from a pool.
+     *
+     * @param connection The database connection.
+     * @return the physical connection, or null if the connection was not borrowed from a PooledDataSource.
+     */
+    static Connection getPhysicalConnection(Connection connection) {
+        if (Proxy.isProxyClass(connection.getClass())
+                && Proxy.getInvocationHandler(connection) instanceof PooledConnectionHandler handler) {
+            return handler.entry.connection;
+        }
+        return null;
+    }
+
+    /**
+     * Unwraps an object handed out to the borrower of a connection, which only unwraps to its own interfaces.
+     *
+     * @param proxy The object handed out to the borrower.
+     * @param iface The requested interface.
+     * @return the object itself.
+     * @throws SQLException if the object does not implement the interface
+     */
+    private static Object unwrapBorrowed(Object proxy, Class<?> iface) throws SQLException {
+        if (iface.isInstance(proxy)) {
+            return proxy;
+        }
+        throw new SQLException(ErrorMessages.UNSUPPORTED_UNWRAP_ERROR + iface.getName());
+    }
+
+    /**
+     * Wraps a statement, result set or metadata of a borrowed connection.
+     *
+     * @param type    The interface of the object.
+     * @param handler The handler of the object.
+     * @return the wrapped object.
+     */
+    private static Object wrapBorrowed(Class<?> type, InvocationHandler handler) {
+        return Proxy.newProxyInstance(PooledDataSource.class.getClassLoader(), new Class<?>[]{type}, handler);
+    }
+
+    /**
+     * Copies pool options, so that later changes to them do not affect the pool.
+     *
+     * @param options The options to copy.
+     * @return the copy.
+     */
+    private static PoolOptions copyOptions(PoolOptions options) {
+        PoolOptions copy = new PoolOptions();
+        copy.setMinSize(options.getMinSize());
+        copy.setMaxSize(options.getMaxSize());
+        copy.setMaxWaitMillis(options.getMaxWaitMillis());
+        copy.setValidationIntervalMillis(options.getValidationIntervalMillis());
+        copy.setValidationTimeoutSeconds(options.getValidationTimeoutSeconds());
+        copy.setIdleTimeoutMillis(options.getIdleTimeoutMillis());
+        copy.setLeakDetectionMillis(options.getLeakDetectionMillis());
+        return copy;
+    }
+
+    /**
+     * The handler of a borrowed connection, which returns the physical connection to the pool on close and rejects
+     * any use afterward.
+     */
+    private final class PooledConnectionHandler implements InvocationHandler {
+
+        private final PooledEntry entry;
+        private final AtomicBoolean returned = new AtomicBoolean();
+        private final Set<Statement> statements = ConcurrentHashMap.newKeySet(); // left open by the borrower
+
+        private PooledConnectionHandler(PooledEntry entry) {
+            this.entry = entry;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close":
+                    if (returned.compareAndSet(false, true)) {
+                        closeStatements();
+                        release(entry);
+                    }
+                    return null;
+                case "isClosed":
+                    return returned.get() || entry.connection.isClosed();
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "Pooled" + entry.connection;
+                case "unwrap":
+                    return unwrapBorrowed(proxy, (Class<?>) args[0]);
+                case "isWrapperFor":
+                    return ((Class<?>) args[0]).isInstance(proxy);
+                default:
+                    break;
+            }
+            if (returned.get()) {
+                throw new SQLException(ErrorMessages.CONNECTION_CLOSED_ERROR);
+            }
+            int stateBit = stateBit(method.getName());
+            if (stateBit != 0) {
+                entry.dirty |= stateBit;
+            }
+            Object result;
+            try {
+                result = method.invoke(entry.connection, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+            // Drivers may implement several interfaces in one class, so the declared type tells what to wrap
+            Class<?> type = method.getReturnType();
+            if (result == null) {
+                return null;
+            } else if (Statement.class.isAssignableFrom(type)) {
+                statements.add((Statement) result);
+                return wrapBorrowed(type, new BorrowedObjectHandler(this, proxy, result, null));
+            } else if (type == DatabaseMetaData.class) {
+                return wrapBorrowed(type, new BorrowedObjectHandler(this, proxy, result, null));
+            }
+            return result;
+        }
+
+        /**
+         * Closes the statements the borrower left open, ignoring errors since the connection is returned anyway.
+         */
+        private void closeStatements() {
+            for (Statement statement : statements) {
+                try {
+                    statement.close();
+                } catch (SQLException e) {
+                    // A broken connection is discarded when it is returned
+                }
+            }
+            statements.clear();
+        }
+    }
+
+    /**
+     * The handler of a statement, result set or metadata of a borrowed connection, which hands out the borrowed
+     * connection instead of the physical one.
+     */
+    private static final class BorrowedObjectHandler implements InvocationHandler {
+
+        private final PooledConnectionHandler connectionHandler;
+        private final Object connection; // the borrowed connection
+        private final Object target;
+        private final Object statement; // the statement of a result set, null otherwise
+
+        private BorrowedObjectHandler(PooledConnectionHandler connectionHandler, Object connection, Object target,
+                                      Object statement) {
+            this.connectionHandler = connectionHandler;
+            this.connection = connection;
+            this.target = target;
+            this.statement = statement;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "Pooled" + target;
+                case "getConnection":
+                    return connection;
+                case "getStatement":
+                    return statement;
+                case "unwrap":
+                    return unwrapBorrowed(proxy, (Class<?>) args[0]);
+                case "isWrapperFor":
+                    return ((Class<?>) args[0]).isInstance(proxy);
+                case "close":
+                    if (target instanceof Statement) {
+                        connectionHandler.statements.remove(target);
+                    }
+                    break;
+                default:
+                    break;
+            }
+            Object result;
+            try {
+                result = method.invoke(target, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+            if (result != null && method.getReturnType() == ResultSet.class) {
+                // The result sets of the metadata have no statement of the borrower
+                return wrapBorrowed(ResultSet.class, new BorrowedObjectHandler(connectionHandler, connection, result,
+                        target instanceof Statement ? proxy : null));
+            }
+            return result;
+        }
+    }
+}
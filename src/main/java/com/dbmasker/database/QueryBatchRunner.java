@@ -0,0 +1,304 @@
+package com.dbmasker.database;
+
+import com.dbmasker.data.ObfuscationRule;
+import com.dbmasker.utils.Config;
+import com.dbmasker.utils.DbUtils;
+import com.dbmasker.utils.ErrorMessages;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Runs a batch of independent read queries with a bounded number of worker threads.
+ * <p>
+ * Each worker takes the next query from the list and runs it on its own connection, which it keeps for all its
+ * queries, so that no more than {@code parallelism} connections are open on the database at the same time.
+ * The first query which fails stops the batch: no further query is started and the queries still running are
+ * cancelled with Statement.cancel.
+ * <p>
+ * A query starting with SELECT or WITH may still write, such as a data-modifying WITH of PostgreSQL or a
+ * SELECT ... INTO of SQL Server, so each worker runs its queries in a transaction which it rolls back once done,
+ * with the connection switched to read-only when the driver allows it. The auto-commit and read-only flags of the
+ * connection are restored before it is closed.
+ */
+final class QueryBatchRunner {
+
+    // Numbers the worker threads of all batches
+    private static final AtomicInteger THREAD_COUNTER = new AtomicInteger();
+
+    private final BaseDatabase database;
+    private final ConnectionSupplier connectionSupplier;
+    private final List<String> sqlList;
+    private final Map<String, ObfuscationRule> obfuscationRules;
+    private final int parallelism;
+
+    private final AtomicInteger nextQuery = new AtomicInteger();
+    private final AtomicBoolean stopped = new AtomicBoolean();
+    private final AtomicReference<Exception> failure = new AtomicReference<>();
+    private final Map<Integer, Statement> running = new ConcurrentHashMap<>(); // the statements running, by query index
+
+    /**
+     * Constructor for QueryBatchRunner.
+     *
+     * @param database           The database reading the results.
+     * @param connectionSupplier The supplier of the connections of the workers.
+     * @param sqlList            The queries to run.
+     * @param obfuscationRules   The obfuscation rules applied to the columns of every result.
+     * @param parallelism        The maximum number of queries run at the same time.
+     */
+    QueryBatchRunner(BaseDatabase database, ConnectionSupplier connectionSupplier, List<String> sqlList,
+                     Map<String, ObfuscationRule> obfuscationRules, int parallelism) {
+        this.database = database;
+        this.connectionSupplier = connectionSupplier;
+        this.sqlList = sqlList;
+        this.obfuscationRules = obfuscationRules;
+        this.parallelism = parallelism;
+    }
+
+    /**
+     * Runs all the queries and waits for the workers to finish.
+     *
+     * @return the result of each query, in the order of the queries.
+     * @throws SQLException if a query fails, the batch is interrupted or a connection cannot be closed
+     */
+    List<List<Map<String, Object>>> run() throws SQLException {
+        List<Map<String, Object>>[] results = newResultArray(sqlList.size());
+        if (sqlList.isEmpty()) {
+            return new ArrayList<>();
+        }
+
+        int workerCount = Math.min(parallelism, sqlList.size());
+        ExecutorService executor = Executors.newFixedThreadPool(workerCount, runnable -> {
+            Thread thread = new Thread(runnable, "dbmasker-query-" + THREAD_COUNTER.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        try {
+            List<Future<Void>> futures = new ArrayList<>(workerCount);
+            for (int i = 0; i < workerCount; i++) {
+                futures.add(executor.submit(() -> {
+                    runQueries(results);
+                    return null;
+                }));
+            }
+            for (Future<Void> future : futures) {
+                future.get();
+            }
+        } catch (ExecutionException e) {
+            stop(null);
+            Throwable cause = e.getCause();
+            if (cause instanceof SQLException sqlException) {
+                throw sqlException;
+            }
+            if (cause instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            if (cause instanceof Error error) {
+                throw error;
+            }
+            throw new IllegalStateException(cause);
+        } catch (InterruptedException e) {
+            stop(null);
+            Thread.currentThread().interrupt();
+            throw new SQLException(ErrorMessages.QUERY_BATCH_INTERRUPTED_ERROR, e);
+        } finally {
+            executor.shutdownNow();
+        }
+
+        // The first failure is reported, not the cancellations it caused
+        Exception error = failure.get();
+        if (error instanceof SQLException sqlException) {
+            throw sqlException;
+        }
+        if (error instanceof RuntimeException runtimeException) {
+            throw runtimeException;
+        }
+        return new ArrayList<>(Arrays.asList(results));
+    }
+
+    /**
+     * The loop of a worker: runs the next query until all the queries are taken or the batch is stopped.
+     *
+     * @param results The result of each query, filled by the workers.
+     * @throws SQLException if the connection of the worker cannot be closed
+     */
+    private void runQueries(List<Map<String, Object>>[] results) throws SQLException {
+        Connection connection = null;
+        boolean[] changes = null; // what the read-only transaction changed on the connection, once started
+        try {
+            int index;
+            while (!stopped.get() && (index = nextQuery.getAndIncrement()) < sqlList.size()) {
+                try {
+                    if (connection == null) {
+                        connection = connectionSupplier.getConnection();
+                        if (connection == null) {
+                            throw new SQLException(ErrorMessages.NULL_SUPPLIED_CONNECTION_ERROR);
+                        }
+                        changes = beginReadOnly(connection);
+                    }
+                    results[index] = runQuery(connection, index);
+                } catch (SQLException | RuntimeException e) {
+                    stop(e);
+                }
+            }
+        } finally {
+            if (connection != null) {
+                try {
+                    if (changes != null) {
+                        endReadOnly(connection, changes);
+                    }
+                } catch (SQLException e) {
+                    // Reported unless a query already failed, which may have broken the connection
+                    stop(e);
+                } finally {
+                    connection.close();
+                }
+            }
+        }
+    }
+
+    /**
+     * Starts the read-only transaction of a worker: disables auto-commit and switches the connection to read-only,
+     * unless the driver does not allow it, in which case the rollback of the transaction still undoes any write.
+     * No transaction is started on a database without transactions, where only the read-only flag is tried.
+     *
+     * @param connection The connection of the worker.
+     * @return whether a transaction was started, auto-commit was disabled and the read-only flag was set.
+     * @throws SQLException if auto-commit cannot be disabled
+     */
+    private static boolean[] beginReadOnly(Connection connection) throws SQLException {
+        boolean[] changes = new boolean[3];
+        try {
+            changes[0] = connection.getMetaData().supportsTransactions();
+        } catch (SQLFeatureNotSupportedException e) {
+            // The driver cannot tell, the transaction is tried below
+            changes[0] = true;
+        }
+        if (changes[0]) {
+            try {
+                if (connection.getAutoCommit()) {
+                    connection.setAutoCommit(false);
+                    changes[1] = true;
+                }
+            } catch (SQLFeatureNotSupportedException e) {
+                changes[0] = false;
+            }
+        }
+        try {
+            if (!connection.isReadOnly()) {
+                connection.setReadOnly(true);
+                changes[2] = true;
+            }
+        } catch (SQLException e) {
+            // The driver only sets the read-only flag when connecting
+        }
+        return changes;
+    }
+
+    /**
+     * Rolls back the read-only transaction of a worker and restores the flags of its connection,
+     * even if the rollback fails.
+     *
+     * @param connection The connection of the worker.
+     * @param changes    What {@link #beginReadOnly(Connection)} changed on the connection.
+     * @throws SQLException if the transaction cannot be rolled back or the flags cannot be restored
+     */
+    private static void endReadOnly(Connection connection, boolean[] changes) throws SQLException {
+        try {
+            if (changes[0]) {
+                connection.rollback();
+            }
+        } catch (SQLFeatureNotSupportedException e) {
+            // Nothing was written, the driver has no transaction to roll back
+        } finally {
+            try {
+                if (changes[2]) {
+                    connection.setReadOnly(false);
+                }
+            } finally {
+                if (changes[1]) {
+                    connection.setAutoCommit(true);
+                }
+            }
+        }
+    }
+
+    /**
+     * Runs a query on the connection of a worker, exposing its statement so that another worker can cancel it.
+     *
+     * @param connection The connection of the worker.
+     * @param index      The index of the query.
+     * @return the rows of the query, or null if the batch was stopped before the query started.
+     * @throws SQLException if a database access error occurs
+     */
+    private List<Map<String, Object>> runQuery(Connection connection, int index) throws SQLException {
+        String sql = sqlList.get(index);
+        Map<String, Set<String>> renameMap = Config.getInstance().getHandleRename()
+                ? DbUtils.getColumnRename(sql) : new HashMap<>();
+        try (Statement stmt = connection.createStatement()) {
+            running.put(index, stmt);
+            try {
+                // A failure may have cancelled the running statements before this one was exposed
+                if (stopped.get()) {
+                    return null;
+                }
+                try (ResultSet rs = stmt.executeQuery(sql)) {
+                    return database.getResult(rs, obfuscationRules, renameMap);
+                }
+            } finally {
+                running.remove(index);
+            }
+        }
+    }
+
+    /**
+     * Stops the batch and cancels the statements still running. Only the first failure is recorded, the failures
+     * of the cancelled statements are ignored.
+     *
+     * @param error The failure stopping the batch, or null if the batch is stopped for another reason.
+     */
+    private void stop(Exception error) {
+        if (error != null && !stopped.get()) {
+            failure.compareAndSet(null, error);
+        }
+        if (!stopped.compareAndSet(false, true)) {
+            return;
+        }
+        for (Statement stmt : running.values()) {
+            try {
+                stmt.cancel();
+            } catch (SQLException e) {
+                // The statement may have completed or been closed meanwhile
+            }
+        }
+    }
+
+    /**
+     * Creates the array holding the result of each query.
+     *
+     * @param size The number of queries.
+     * @return an empty array of results.
+     */
+    @SuppressWarnings("unchecked")
+    private static List<Map<String, Object>>[] newResultArray(int size) {
+        return (List<Map<String, Object>>[]) new List<?>[size];
+    }
+}
@@ -0,0 +1,219 @@
+package com.dbmasker.database;
+
+import com.dbmasker.exception.RowFetchFailedException;
+import com.dbmasker.utils.DbUtils;
+import com.dbmasker.utils.ErrorMessages;
+import com.dbmasker.utils.ObfuscationPlan;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.*;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * A forward-only cursor over the rows of a query, which fetches and masks each row only when it is consumed.
+ * <p>
+ * The cursor owns the statement and the result set of the query, and releases them when it is closed or
+ * when the last row has been consumed. It must be closed by the caller, preferably with try-with-resources.
+ * A cursor is not thread-safe.
+ */
+public class RowCursor implements Iterator<Map<String, Object>>, AutoCloseable {
+
+    /**
+     * An action run when the cursor is closed, after the result set and the statement have been released.
+     */
+    @FunctionalInterface
+    public interface CloseAction {
+
+        /**
+         * Runs the action.
+         *
+         * @throws SQLException if a database access error occurs.
+         */
+        void close() throws SQLException;
+    }
+
+    private final BaseDatabase database;
+    private final Statement statement;
+    private final ResultSet resultSet;
+    private final ObfuscationPlan plan;
+    private final CloseAction closeAction;
+    private boolean fetched;
+    private boolean hasRow;
+    private boolean closed;
+    private long rowCount;
+
+    /**
+     * Constructor for RowCursor.
+     *
+     * @param database  The database reading the column values of each row.
+     * @param statement The statement that produced the result set, closed with the cursor.
+     * @param resultSet The result set to iterate over, closed with the cursor.
+     * @param plan      The obfuscation plan applied to each row.
+     */
+    RowCursor(BaseDatabase database, Statement statement, ResultSet resultSet, ObfuscationPlan plan) {
+        this(database, statement, resultSet, plan, null);
+    }
+
+    /**
+     * Constructor for RowCursor.
+     *
+     * @param database    The database reading the column values of each row.
+     * @param statement   The statement that produced the result set, closed with the cursor.
+     * @param resultSet   The result set to iterate over, closed with the cursor.
+     * @param plan        The obfuscation plan applied to each row.
+     * @param closeAction The action run once the statement is closed, or null if there is none.
+     */
+    RowCursor(BaseDatabase database, Statement statement, ResultSet resultSet, ObfuscationPlan plan, CloseAction closeAction) {
+        this.database = database;
+        this.statement = statement;
+        this.resultSet = resultSet;
+        this.plan = plan;
+        this.closeAction = closeAction;
+    }
+
+    /**
+     * Returns the number of columns of each row.
+     *
+     * @return the number of columns.
+     */
+    public int getColumnCount() {
+        return plan.getColumnCount();
+    }
+
+    /**
+     * Returns the labels of the columns, in the order of the query.
+     *
+     * @return the column labels.
+     */
+    public List<String> getColumnLabels() {
+        List<String> labels = new ArrayList<>(plan.getColumnCount());
+        for (int i = 0; i < plan.getColumnCount(); i++) {
+            labels.add(plan.getColumnLabel(i));
+        }
+        return labels;
+    }
+
+    /**
+     * Returns the obfuscation plan applied to each row.
+     *
+     * @return the obfuscation plan.
+     */
+    public ObfuscationPlan getPlan() {
+        return plan;
+    }
+
+    /**
+     * Returns the number of rows consumed so far.
+     *
+     * @return the number of rows consumed.
+     */
+    public long getRowCount() {
+        return rowCount;
+    }
+
+    /**
+     * Returns whether the cursor has been closed.
+     *
+     * @return true if the cursor is closed, false otherwise.
+     */
+    public boolean isClosed() {
+        return closed;
+    }
+
+    /**
+     * Returns whether another row is available, fetching it from the result set if needed.
+     * The cursor is closed as soon as the result set is exhausted.
+     *
+     * @return true if another row is available, false otherwise.
+     * @throws RowFetchFailedException if a database access error occurs.
+     */
+    @Override
+    public boolean hasNext() {
+        if (closed) {
+            return false;
+        }
+        if (!fetched) {
+            try {
+                hasRow = resultSet.next();
+            } catch (SQLException e) {
+                closeQuietly();
+                throw new RowFetchFailedException(ErrorMessages.ROW_FETCH_ERROR + e.getMessage(), e);
+            }
+            fetched = true;
+            if (!hasRow) {
+                closeQuietly();
+            }
+        }
+        return hasRow;
+    }
+
+    /**
+     * Returns the next row, with the obfuscation rules applied.
+     *
+     * @return a map with the column labels as keys and the (masked) column values as values.
+     * @throws NoSuchElementException if no more rows are available.
+     * @throws RowFetchFailedException if a database access error occurs.
+     */
+    @Override
+    public Map<String, Object> next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        fetched = false;
+        try {
+            Map<String, Object> row = database.getRow(resultSet, plan);
+            rowCount++;
+            return row;
+        } catch (SQLException e) {
+            closeQuietly();
+            throw new RowFetchFailedException(ErrorMessages.ROW_FETCH_ERROR + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Returns a sequential stream over the remaining rows. Closing the stream closes the cursor.
+     *
+     * @return a stream of the remaining rows.
+     */
+    public Stream<Map<String, Object>> stream() {
+        Spliterator<Map<String, Object>> spliterator =
+                Spliterators.spliteratorUnknownSize(this, Spliterator.ORDERED | Spliterator.NONNULL);
+        return StreamSupport.stream(spliterator, false).onClose(this::closeQuietly);
+    }
+
+    /**
+     * Closes the result set and the statement of the cursor, then runs the close action of the cursor if any.
+     * Closing a closed cursor has no effect.
+     *
+     * @throws SQLException if the statement cannot be closed or the close action fails.
+     */
+    @Override
+    public void close() throws SQLException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        DbUtils.closeResultSet(resultSet);
+        try {
+            DbUtils.closeStatement(statement);
+        } finally {
+            if (closeAction != null) {
+                closeAction.close();
+            }
+        }
+    }
+
+    /**
+     * Closes the cursor, ignoring any error.
+     */
+    private void closeQuietly() {
+        try {
+            close();
+        } catch (SQLException e) {
+            // pass
+        }
+    }
+}
@@ -0,0 +1,220 @@
+package com.dbmasker.database;
+
+import com.dbmasker.utils.ErrorMessages;
+
+import java.sql.SQLException;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Flow;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * A publisher of the masked rows of a query, which fetches rows from the database only as its subscriber requests
+ * them.
+ * <p>
+ * The query runs through a {@link RowCursor}, opened when the subscriber first requests rows, so rows are masked
+ * with the same obfuscation plan as the other read operations, and the driver fetches them in batches of the fetch
+ * size of the cursor. Rows are read and delivered on the executor of the publisher, one task at a time, and the
+ * cursor is closed once the rows are exhausted, a fetch fails or the subscription is cancelled. A subscriber which
+ * throws from onNext breaks the Reactive Streams contract, so its subscription is cancelled without any further
+ * signal and the exception is logged. The rows can only be read once, so the publisher accepts a single subscriber;
+ * the connection is not owned by the publisher.
+ */
+public final class RowPublisher implements Flow.Publisher<Map<String, Object>> {
+
+    private static final Logger LOGGER = Logger.getLogger(RowPublisher.class.getName());
+
+    /**
+     * Opens the cursor of the published query.
+     */
+    @FunctionalInterface
+    public interface CursorOpener {
+
+        /**
+         * Runs the query and opens its cursor.
+         *
+         * @return the cursor over the rows of the query.
+         * @throws SQLException if a database access error occurs.
+         */
+        RowCursor open() throws SQLException;
+    }
+
+    private final CursorOpener cursorOpener;
+    private final Executor executor;
+    private final AtomicBoolean subscribed = new AtomicBoolean();
+
+    /**
+     * Constructor for RowPublisher.
+     *
+     * @param cursorOpener Opens the cursor of the query, once the subscriber requests the first rows.
+     * @param executor     The executor reading and delivering the rows.
+     */
+    public RowPublisher(CursorOpener cursorOpener, Executor executor) {
+        this.cursorOpener = cursorOpener;
+        this.executor = executor;
+    }
+
+    /**
+     * Subscribes to the rows of the query. A second subscriber receives an IllegalStateException through onError.
+     *
+     * @param subscriber The subscriber receiving the rows.
+     * @throws NullPointerException if the subscriber is null
+     */
+    @Override
+    public void subscribe(Flow.Subscriber<? super Map<String, Object>> subscriber) {
+        Objects.requireNonNull(subscriber);
+        if (!subscribed.compareAndSet(false, true)) {
+            subscriber.onSubscribe(new Flow.Subscription() {
+                @Override
+                public void request(long n) {
+                    // The subscription is already terminated
+                }
+
+                @Override
+                public void cancel() {
+                    // The subscription is already terminated
+                }
+            });
+            subscriber.onError(new IllegalStateException(ErrorMessages.PUBLISHER_ALREADY_SUBSCRIBED_ERROR));
+            return;
+        }
+        RowSubscription subscription = new RowSubscription(subscriber);
+        subscriber.onSubscribe(subscription);
+    }
+
+    /**
+     * The subscription of the subscriber, which reads as many rows as requested on the executor.
+     * <p>
+     * The requests and the cancellation only update the demand and schedule a drain; the drains never run
+     * concurrently, so the cursor is only used by one thread at a time.
+     */
+    private final class RowSubscription implements Flow.Subscription, Runnable {
+
+        private final Flow.Subscriber<? super Map<String, Object>> subscriber;
+        private final AtomicLong demand = new AtomicLong();
+        private final AtomicInteger pendingDrains = new AtomicInteger();
+        private volatile boolean cancelled;
+        private volatile Long invalidRequest; // a non-positive request, null if there was none
+        private boolean done; // only used by the drains
+        private RowCursor cursor; // only used by the drains
+
+        private RowSubscription(Flow.Subscriber<? super Map<String, Object>> subscriber) {
+            this.subscriber = subscriber;
+        }
+
+        @Override
+        public void request(long n) {
+            if (n <= 0) {
+                invalidRequest = n;
+            } else {
+                // Demand is capped at Long.MAX_VALUE, which means unbounded
+                demand.getAndUpdate(current -> current + n < 0 ? Long.MAX_VALUE : current + n);
+            }
+            schedule();
+        }
+
+        @Override
+        public void cancel() {
+            cancelled = true;
+            schedule();
+        }
+
+        /**
+         * Schedules a drain on the executor, unless one is running, which then drains again.
+         */
+        private void schedule() {
+            if (pendingDrains.getAndIncrement() == 0) {
+                try {
+                    executor.execute(this);
+                } catch (RejectedExecutionException e) {
+                    // No drain runs nor will run anymore, so the cursor is closed here
+                    cancelled = true;
+                    if (!done) {
+                        terminate();
+                        subscriber.onError(e);
+                    }
+                }
+            }
+        }
+
+        @Override
+        public void run() {
+            int missed = 1;
+            do {
+                drain();
+                missed = pendingDrains.addAndGet(-missed);
+            } while (missed != 0);
+        }
+
+        /**
+         * Delivers as many rows as requested, then completes the subscriber once the rows are exhausted.
+         */
+        private void drain() {
+            if (done) {
+                return;
+            }
+            if (cancelled) {
+                terminate();
+                return;
+            }
+            if (invalidRequest != null) {
+                terminate();
+                subscriber.onError(new IllegalArgumentException(ErrorMessages.INVALID_DEMAND_ERROR + invalidRequest));
+                return;
+            }
+
+            try {
+                if (cursor == null) {
+                    cursor = cursorOpener.open();
+                }
+                while (demand.get() > 0 && !cancelled) {
+                    if (!cursor.hasNext()) {
+                        terminate();
+                        subscriber.onComplete();
+                        return;
+                    }
+                    Map<String, Object> row = cursor.next();
+                    if (demand.get() != Long.MAX_VALUE) {
+                        demand.decrementAndGet();
+                    }
+                    try {
+                        subscriber.onNext(row);
+                    } catch (RuntimeException e) {
+                        // The subscriber is not signalled again, as onError would be a second contract breach
+                        cancelled = true;
+                        terminate();
+                        LOGGER.log(Level.WARNING, ErrorMessages.SUBSCRIBER_FAILURE_WARNING, e);
+                        return;
+                    }
+                }
+            } catch (SQLException | RuntimeException e) {
+                terminate();
+                subscriber.onError(e);
+                return;
+            }
+            if (cancelled) {
+                terminate();
+            }
+        }
+
+        /**
+         * Ends the subscription and closes the cursor, ignoring errors since no further signal can report them.
+         */
+        private void terminate() {
+            done = true;
+            if (cursor != null) {
+                try {
+                    cursor.close();
+                } catch (SQLException e) {
+                    // The rows were delivered already
+                }
+            }
+        }
+    }
+}
@@ -2,10 +2,13 @@ package com.dbmasker.database;
 
 import com.dbmasker.data.DatabaseFunction;
 import com.dbmasker.utils.ErrorMessages;
+import com.dbmasker.utils.VectorKind;
 
 import java.sql.*;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.LinkedHashMap;
+import java.util.Map;
 
 /**
  * SQLiteDatabase class implements the Database interface for SQLite databases.
@@ -75,4 +78,64 @@ public class SQLite extends BaseDatabase {
         throw new SQLFeatureNotSupportedException("SQLite does not support functions");
     }
 
+    /**
+     * Helper method to choose how the values of a column are stored in a columnar batch.
+     * SQLite has no date storage class and keeps dates as text or numbers in any format, so date and timestamp
+     * columns are read as objects instead of being parsed as timestamps.
+     *
+     * @param sqlType The JDBC type of the column, from java.sql.Types
+     * @param columnType The database specific type name of the column
+     * @return The vector kind of the column
+     */
+    @Override
+    protected VectorKind getVectorKind(int sqlType, String columnType) {
+        VectorKind kind = super.getVectorKind(sqlType, columnType);
+        return kind == VectorKind.TIMESTAMP ? VectorKind.OBJECT : kind;
+    }
+
+    /**
+     * Returns whether the database supports row value comparisons such as {@code (k1, k2) > (?, ?)}.
+     *
+     * @return true, as SQLite supports row value comparisons.
+     */
+    @Override
+    protected boolean supportsRowValueComparison() {
+        return true;
+    }
+
+    /**
+     * Builds the sample query of a sensitive data scan with a random predicate, SQLite having no sampling clause.
+     *
+     * @param columns       The columns to select, separated by commas.
+     * @param tableName     The name of the table or view, qualified with its schema if any.
+     * @param samplePercent The percentage of the table to sample, greater than 0 and lower than 100.
+     * @return the query reading the sample.
+     */
+    @Override
+    protected String getSampleQuery(String columns, String tableName, double samplePercent) {
+        return "SELECT " + columns + " FROM " + tableName + " WHERE abs(random() % 1000000) < " + Math.round(samplePercent * 10000);
+    }
+
+    /**
+     * Retrieves a stamp of the definition of each table, made of the SQL text of the table and of its indexes and
+     * triggers as stored in sqlite_master, which SQLite rewrites on every ALTER TABLE.
+     *
+     * @param connection A valid database connection.
+     * @param schemaName The name of the schema, ignored as SQLite has no schemas.
+     * @return the definition stamp of each table keyed by table name.
+     * @throws SQLException if a database access error occurs
+     */
+    @Override
+    public Map<String, String> getTableDdlStamps(Connection connection, String schemaName) throws SQLException {
+        String query = "SELECT tbl_name, sql FROM sqlite_master WHERE type <> 'view' AND sql IS NOT NULL " +
+                "AND tbl_name NOT LIKE 'sqlite_%' ORDER BY tbl_name, type, name";
+        Map<String, String> stamps = new LinkedHashMap<>();
+        try (Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery(query)) {
+            while (resultSet.next()) {
+                stamps.merge(resultSet.getString(1), resultSet.getString(2), (previous, sql) -> previous + ";" + sql);
+            }
+        }
+        return stamps;
+    }
 }
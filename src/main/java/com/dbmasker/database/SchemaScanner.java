@@ -0,0 +1,230 @@
+package com.dbmasker.database;
+
+import com.dbmasker.data.Detector;
+import com.dbmasker.data.ScanOptions;
+import com.dbmasker.data.ScanResult;
+import com.dbmasker.data.TableFingerprint;
+import com.dbmasker.data.TableScanResult;
+import com.dbmasker.utils.ErrorMessages;
+import com.dbmasker.utils.ScanMode;
+import com.dbmasker.utils.ScanStateStore;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * Scans a list of tables for sensitive data with a bounded number of worker threads.
+ * <p>
+ * Each worker takes the next table from the list and scans it on its own connection, which it keeps for all
+ * its tables, so that no more than {@code parallelism} connections are open on the database at the same time.
+ * The outcome of each table is passed to the callback as soon as the table is done. With a state store, each table
+ * is scanned incrementally from its previous fingerprint, and its new fingerprint is recorded in the store.
+ */
+final class SchemaScanner {
+
+    // Numbers the worker threads of all scans
+    private static final AtomicInteger THREAD_COUNTER = new AtomicInteger();
+
+    private final BaseDatabase database;
+    private final ConnectionSupplier connectionSupplier;
+    private final List<TableRef> tables;
+    private final List<Detector> detectors;
+    private final ScanOptions scanOptions;
+    private final int parallelism;
+    private final ScanStateStore stateStore;
+    private final SQLException stampRefreshError;
+    private final Consumer<TableScanResult> callback;
+    private final Object callbackLock = new Object();
+
+    /**
+     * A table to scan, with the schema where it is located.
+     *
+     * @param schemaName The name of the schema where the table is located.
+     * @param tableName  The name of the table or view.
+     */
+    record TableRef(String schemaName, String tableName) {
+    }
+
+    /**
+     * Constructor for SchemaScanner.
+     *
+     * @param database           The database scanning each table.
+     * @param connectionSupplier The supplier of the connections of the workers.
+     * @param tables             The tables to scan.
+     * @param detectors          The detectors of sensitive data.
+     * @param scanOptions        The sampling and budget options of each table scan.
+     * @param parallelism        The maximum number of tables scanned at the same time.
+     * @param stateStore         The store of the fingerprints of an incremental scan, or null for a full scan.
+     * @param stampRefreshError  The failure of the modification stamp refresh before an incremental scan, or null.
+     * @param callback           The callback receiving the outcome of each table, or null.
+     */
+    SchemaScanner(BaseDatabase database, ConnectionSupplier connectionSupplier, List<TableRef> tables,
+                  List<Detector> detectors, ScanOptions scanOptions, int parallelism, ScanStateStore stateStore,
+                  SQLException stampRefreshError, Consumer<TableScanResult> callback) {
+        this.database = database;
+        this.connectionSupplier = connectionSupplier;
+        this.tables = tables;
+        this.detectors = detectors;
+        this.scanOptions = scanOptions;
+        this.parallelism = parallelism;
+        this.stateStore = stateStore;
+        this.stampRefreshError = stampRefreshError;
+        this.callback = callback;
+    }
+
+    /**
+     * Scans all the tables and waits for the workers to finish.
+     *
+     * @return the outcome of each table, in the order of the tables.
+     * @throws SQLException if the scan is interrupted or a connection cannot be closed
+     */
+    List<TableScanResult> scan() throws SQLException {
+        TableScanResult[] results = new TableScanResult[tables.size()];
+        if (tables.isEmpty()) {
+            return new ArrayList<>();
+        }
+
+        AtomicInteger nextTable = new AtomicInteger();
+        AtomicBoolean stopped = new AtomicBoolean();
+        int workerCount = Math.min(parallelism, tables.size());
+        ExecutorService executor = Executors.newFixedThreadPool(workerCount, runnable -> {
+            Thread thread = new Thread(runnable, "dbmasker-scan-" + THREAD_COUNTER.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        try {
+            List<Future<Void>> futures = new ArrayList<>(workerCount);
+            for (int i = 0; i < workerCount; i++) {
+                futures.add(executor.submit(() -> {
+                    scanTables(results, nextTable, stopped);
+                    return null;
+                }));
+            }
+            for (Future<Void> future : futures) {
+                future.get();
+            }
+        } catch (ExecutionException e) {
+            stopped.set(true);
+            Throwable cause = e.getCause();
+            if (cause instanceof SQLException sqlException) {
+                throw sqlException;
+            }
+            if (cause instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            if (cause instanceof Error error) {
+                throw error;
+            }
+            throw new IllegalStateException(cause);
+        } catch (InterruptedException e) {
+            stopped.set(true);
+            Thread.currentThread().interrupt();
+            throw new SQLException(ErrorMessages.SCHEMA_SCANNING_INTERRUPTED_ERROR, e);
+        } finally {
+            executor.shutdownNow();
+        }
+        return new ArrayList<>(Arrays.asList(results));
+    }
+
+    /**
+     * The loop of a worker: scans the next table until all the tables are taken.
+     *
+     * @param results   The outcome of each table, filled by the workers.
+     * @param nextTable The index of the next table to scan.
+     * @param stopped   Whether the scan was stopped by a failure of another worker.
+     * @throws SQLException if the connection of the worker cannot be closed
+     */
+    private void scanTables(TableScanResult[] results, AtomicInteger nextTable, AtomicBoolean stopped) throws SQLException {
+        Connection connection = null;
+        try {
+            int index;
+            while (!stopped.get() && (index = nextTable.getAndIncrement()) < tables.size()) {
+                TableRef table = tables.get(index);
+                long startTime = System.nanoTime();
+                ScanResult scanResult = null;
+                SQLException error = null;
+                ScanMode mode = ScanMode.FULL;
+                TableFingerprint fingerprint = null;
+                try {
+                    if (connection == null) {
+                        connection = connectionSupplier.getConnection();
+                        if (connection == null) {
+                            throw new SQLException(ErrorMessages.NULL_SUPPLIED_CONNECTION_ERROR);
+                        }
+                    }
+                    if (stateStore == null) {
+                        scanResult = database.scanTableWithDetectors(connection, table.schemaName(), table.tableName(), detectors, scanOptions);
+                    } else {
+                        TableScanResult tableResult = database.scanTableIncremental(connection, table.schemaName(),
+                                table.tableName(), detectors, scanOptions, stateStore.get(table.schemaName(), table.tableName()));
+                        scanResult = tableResult.getScanResult();
+                        mode = tableResult.getMode();
+                        fingerprint = tableResult.getFingerprint();
+                        if (fingerprint != null) {
+                            stateStore.put(fingerprint);
+                        }
+                    }
+                } catch (SQLException e) {
+                    error = e;
+                    // A connection broken by the failure is replaced for the next table
+                    if (connection != null && !isUsable(connection)) {
+                        closeQuietly(connection);
+                        connection = null;
+                    }
+                }
+
+                long elapsedMillis = (System.nanoTime() - startTime) / 1_000_000L;
+                TableScanResult result = new TableScanResult(table.schemaName(), table.tableName(), scanResult, error,
+                        elapsedMillis, mode, fingerprint, stampRefreshError);
+                results[index] = result;
+                if (callback != null) {
+                    synchronized (callbackLock) {
+                        callback.accept(result);
+                    }
+                }
+            }
+        } finally {
+            if (connection != null) {
+                connection.close();
+            }
+        }
+    }
+
+    /**
+     * Returns whether a connection can still be used after a failed scan.
+     *
+     * @param connection The connection of a worker.
+     * @return true if the connection is still valid, false otherwise.
+     */
+    private static boolean isUsable(Connection connection) {
+        try {
+            return !connection.isClosed() && connection.isValid(5);
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Closes a broken connection, ignoring the errors since it is discarded anyway.
+     *
+     * @param connection The connection to close.
+     */
+    private static void closeQuietly(Connection connection) {
+        try {
+            connection.close();
+        } catch (SQLException e) {
+            // The connection is already unusable
+        }
+    }
+}
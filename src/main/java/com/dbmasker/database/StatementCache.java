@@ -0,0 +1,315 @@
+package com.dbmasker.database;
+
+import com.dbmasker.utils.Config;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A bounded cache of prepared statements per connection, so that the catalog, count and paging queries run again
+ * and again on the same connection are parsed and planned once by the database instead of on every call.
+ * <p>
+ * Statements are cached per physical connection, found with Connection.unwrap unless the connection was borrowed
+ * from a {@link PooledDataSource}, so that the connections borrowed from a pool share the statements of the
+ * physical connection. The statements are prepared on the physical connection, as the cache outlives each borrow.
+ * Each connection keeps at most Config.getStatementCacheSize() statements, the least recently used one being closed
+ * once the limit is reached, and the cache is disabled while that size is 0, which is the default. Each cached
+ * statement keeps a cursor or prepared statement open on the database session, which counts against limits such as
+ * the OPEN_CURSORS of Oracle, so the size should stay well below them. A cached statement which fails is closed. If
+ * it was closed or invalidated by a change to the table it reads, and the connection is in auto-commit mode, the
+ * query is prepared again once; inside a transaction the failure may have aborted it, so it is thrown as is. The
+ * statements of a connection are closed with {@link #clear(Connection)} when the connection is closed through
+ * DBManager or DBSession, or evicted or closed by its pool, and explicitly, for example after altering a table.
+ * Connections closed otherwise are forgotten when another connection is cleared or first cached. The tracking
+ * connections of the asynchronous calls bypass the cache.
+ */
+public final class StatementCache {
+
+    // The statements of each physical connection, by SQL, in access order
+    private static final Map<Connection, Map<String, PreparedStatement>> STATEMENTS = new IdentityHashMap<>();
+    private static final AtomicLong HIT_COUNT = new AtomicLong();
+    private static final AtomicLong MISS_COUNT = new AtomicLong();
+    // The SQL states of a statement invalidated on the server: a PostgreSQL plan whose result type changed,
+    // and a prepared statement which no longer exists
+    private static final Set<String> STALE_STATEMENT_STATES = Set.of("0A000", "26000");
+
+    /**
+     * Reads the result set of a query.
+     *
+     * @param <T> the type of the value read.
+     */
+    @FunctionalInterface
+    public interface ResultSetReader<T> {
+
+        /**
+         * Reads the result set of a query, which is closed once this method returns.
+         *
+         * @param resultSet The result set of the query.
+         * @return the value read from the result set.
+         * @throws SQLException if a database access error occurs
+         */
+        T read(ResultSet resultSet) throws SQLException;
+    }
+
+    /**
+     * Default constructor for StatementCache class.
+     */
+    private StatementCache() {
+        throw new UnsupportedOperationException();
+    }
+
+    /**
+     * Runs a query with a cached prepared statement of the connection, preparing and caching it first if needed.
+     * The statement must not be used outside the reader.
+     *
+     * @param connection The database connection.
+     * @param sql        The query, with a '?' placeholder for each parameter.
+     * @param params     The parameters of the query, in binding order.
+     * @param reader     Reads the result set of the query.
+     * @param <T>        the type of the value read.
+     * @return the value returned by the reader.
+     * @throws SQLException if a database access error occurs
+     */
+    public static <T> T query(Connection connection, String sql, List<?> params, ResultSetReader<T> reader)
+            throws SQLException {
+        int maxSize = Config.getInstance().getStatementCacheSize();
+        // The statements of a tracked call must be tracked and bounded by its timeout, so they are not shared
+        if (maxSize <= 0 || CancellableConnection.isTracking(connection)) {
+            try (PreparedStatement pstmt = connection.prepareStatement(sql)) {
+                return execute(pstmt, params, reader);
+            }
+        }
+
+        Connection physical = getPhysicalConnection(connection);
+        PreparedStatement pstmt = take(physical, sql);
+        boolean cached = pstmt != null;
+        if (cached) {
+            HIT_COUNT.incrementAndGet();
+        } else {
+            MISS_COUNT.incrementAndGet();
+            pstmt = physical.prepareStatement(sql);
+        }
+
+        T result;
+        try {
+            pstmt.clearParameters();
+            result = execute(pstmt, params, reader);
+        } catch (SQLException e) {
+            boolean retry = cached && isStale(connection, pstmt, e);
+            closeQuietly(pstmt);
+            if (!retry) {
+                throw e;
+            }
+            // A cached statement may be broken by a change to the table it reads, so the query is prepared again once
+            pstmt = physical.prepareStatement(sql);
+            try {
+                result = execute(pstmt, params, reader);
+            } catch (SQLException | RuntimeException retryError) {
+                closeQuietly(pstmt);
+                retryError.addSuppressed(e);
+                throw retryError;
+            }
+        } catch (RuntimeException e) {
+            closeQuietly(pstmt);
+            throw e;
+        }
+        put(physical, sql, pstmt, maxSize);
+        return result;
+    }
+
+    /**
+     * Closes and removes the cached statements of a connection, and forgets the connections which were closed
+     * without being cleared.
+     *
+     * @param connection The database connection.
+     */
+    public static void clear(Connection connection) {
+        Map<String, PreparedStatement> statements;
+        synchronized (STATEMENTS) {
+            statements = STATEMENTS.remove(getPhysicalConnection(connection));
+            purgeClosedConnections();
+        }
+        if (statements != null) {
+            statements.values().forEach(StatementCache::closeQuietly);
+        }
+    }
+
+    /**
+     * Returns the number of statements cached for a connection.
+     *
+     * @param connection The database connection.
+     * @return the number of cached statements.
+     */
+    public static int size(Connection connection) {
+        synchronized (STATEMENTS) {
+            Map<String, PreparedStatement> statements = STATEMENTS.get(getPhysicalConnection(connection));
+            return statements == null ? 0 : statements.size();
+        }
+    }
+
+    /**
+     * Returns the number of queries which reused a cached statement.
+     *
+     * @return the hit count.
+     */
+    public static long getHitCount() {
+        return HIT_COUNT.get();
+    }
+
+    /**
+     * Returns the number of queries which had to prepare their statement.
+     *
+     * @return the miss count.
+     */
+    public static long getMissCount() {
+        return MISS_COUNT.get();
+    }
+
+    /**
+     * Binds the parameters of a statement, runs it and reads its result set.
+     *
+     * @param pstmt  The statement to run.
+     * @param params The parameters of the statement, in binding order.
+     * @param reader Reads the result set of the statement.
+     * @param <T>    the type of the value read.
+     * @return the value returned by the reader.
+     * @throws SQLException if a database access error occurs
+     */
+    private static <T> T execute(PreparedStatement pstmt, List<?> params, ResultSetReader<T> reader) throws SQLException {
+        for (int i = 0; i < params.size(); i++) {
+            Object param = params.get(i);
+            if (param == null || param instanceof String) {
+                pstmt.setString(i + 1, (String) param);
+            } else {
+                pstmt.setObject(i + 1, param);
+            }
+        }
+        try (ResultSet rs = pstmt.executeQuery()) {
+            return reader.read(rs);
+        }
+    }
+
+    /**
+     * Returns whether a cached statement failed because it was closed or invalidated on the server, and can be
+     * prepared again. Inside a transaction, where the failure may have aborted the transaction, it never can.
+     *
+     * @param connection The database connection.
+     * @param pstmt      The cached statement which failed.
+     * @param e          The failure of the statement.
+     * @return true if the query can be run again with a new statement, false otherwise.
+     */
+    private static boolean isStale(Connection connection, PreparedStatement pstmt, SQLException e) {
+        try {
+            return connection.getAutoCommit()
+                    && (pstmt.isClosed() || STALE_STATEMENT_STATES.contains(e.getSQLState()));
+        } catch (SQLException stateError) {
+            return false;
+        }
+    }
+
+    /**
+     * Removes a statement from the cache of a connection, so that no other caller uses it at the same time.
+     *
+     * @param physical The physical connection.
+     * @param sql      The query of the statement.
+     * @return the cached statement, or null if it is not cached or was closed.
+     * @throws SQLException if a database access error occurs
+     */
+    private static PreparedStatement take(Connection physical, String sql) throws SQLException {
+        PreparedStatement pstmt;
+        synchronized (STATEMENTS) {
+            Map<String, PreparedStatement> statements = STATEMENTS.get(physical);
+            pstmt = statements == null ? null : statements.remove(sql);
+        }
+        if (pstmt != null && pstmt.isClosed()) {
+            return null;
+        }
+        return pstmt;
+    }
+
+    /**
+     * Puts a statement back in the cache of a connection, closing the least recently used statement if the cache
+     * is full, or the statement itself if another caller cached the same query meanwhile.
+     *
+     * @param physical The physical connection.
+     * @param sql      The query of the statement.
+     * @param pstmt    The statement.
+     * @param maxSize  The maximum number of statements of the connection.
+     */
+    private static void put(Connection physical, String sql, PreparedStatement pstmt, int maxSize) {
+        List<PreparedStatement> evicted = new ArrayList<>();
+        synchronized (STATEMENTS) {
+            Map<String, PreparedStatement> statements = STATEMENTS.get(physical);
+            if (statements == null) {
+                // A new connection, forget the ones which were closed since
+                purgeClosedConnections();
+                statements = new LinkedHashMap<>(16, 0.75f, true);
+                STATEMENTS.put(physical, statements);
+            }
+            if (statements.putIfAbsent(sql, pstmt) != null) {
+                evicted.add(pstmt);
+            }
+            Iterator<PreparedStatement> iterator = statements.values().iterator();
+            while (statements.size() > maxSize && iterator.hasNext()) {
+                evicted.add(iterator.next());
+                iterator.remove();
+            }
+        }
+        evicted.forEach(StatementCache::closeQuietly);
+    }
+
+    /**
+     * Removes the connections which were closed, with their statements, which the driver closed.
+     */
+    private static void purgeClosedConnections() {
+        STATEMENTS.keySet().removeIf(physical -> {
+            try {
+                return physical.isClosed();
+            } catch (SQLException e) {
+                return true;
+            }
+        });
+    }
+
+    /**
+     * Returns the physical connection behind a connection, such as the one behind a pooled connection.
+     *
+     * @param connection The database connection.
+     * @return the physical connection, or the connection itself if it wraps none.
+     */
+    private static Connection getPhysicalConnection(Connection connection) {
+        Connection pooled = PooledDataSource.getPhysicalConnection(connection);
+        if (pooled != null) {
+            return pooled;
+        }
+        try {
+            Connection physical = connection.unwrap(Connection.class);
+            return physical == null ? connection : physical;
+        } catch (SQLException | RuntimeException e) {
+            return connection;
+        }
+    }
+
+    /**
+     * Closes a statement, ignoring errors.
+     *
+     * @param pstmt The statement to close.
+     */
+    private static void closeQuietly(PreparedStatement pstmt) {
+        try {
+            pstmt.close();
+        } catch (SQLException e) {
+            // The statement is discarded anyway
+        }
+    }
+}
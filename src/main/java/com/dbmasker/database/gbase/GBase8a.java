@@ -2,10 +2,12 @@ package com.dbmasker.database.gbase;
 
 import com.dbmasker.data.*;
 import com.dbmasker.database.BaseDatabase;
+import com.dbmasker.database.StatementCache;
 import com.dbmasker.utils.ErrorMessages;
 
 import java.sql.*;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -58,7 +60,6 @@ public class GBase8a extends BaseDatabase {
      */
     @Override
     public List<String> getTables(Connection connection, String schemaName) throws SQLException {
-        List<String> tableList = new ArrayList<>();
         String sql;
         if (schemaName == null) {
             sql = "SELECT TABLE_NAME FROM INFORMATION_SCHEMA.TABLES";
@@ -66,9 +67,7 @@ public class GBase8a extends BaseDatabase {
             sql = "SELECT TABLE_NAME FROM INFORMATION_SCHEMA.TABLES WHERE TABLE_SCHEMA = ?";
         }
 
-        getResultList(connection, schemaName, tableList, sql);
-
-        return tableList;
+        return getResultList(connection, schemaName, sql);
     }
 
     /**
@@ -81,7 +80,6 @@ public class GBase8a extends BaseDatabase {
      */
     @Override
     public List<String> getViews(Connection connection, String schemaName) throws SQLException {
-        List<String> viewList = new ArrayList<>();
         String sql;
         if (schemaName == null) {
             sql = "SELECT TABLE_NAME FROM INFORMATION_SCHEMA.VIEWS";
@@ -89,8 +87,7 @@ public class GBase8a extends BaseDatabase {
             sql = "SELECT TABLE_NAME FROM INFORMATION_SCHEMA.VIEWS WHERE TABLE_SCHEMA = ?";
         }
 
-        getResultList(connection, schemaName, viewList, sql);
-        return viewList;
+        return getResultList(connection, schemaName, sql);
     }
 
     /**
@@ -190,7 +187,6 @@ public class GBase8a extends BaseDatabase {
      */
     @Override
     public List<DatabaseFunction> getFuncs(Connection connection, String schemaName) throws SQLException {
-        List<DatabaseFunction> funcs = new ArrayList<>();
         String sql;
         if (schemaName == null) {
             sql = "SELECT ROUTINE_SCHEMA, ROUTINE_NAME " +
@@ -202,22 +198,19 @@ public class GBase8a extends BaseDatabase {
                   "WHERE ROUTINE_TYPE = 'FUNCTION' AND ROUTINE_SCHEMA = ?";
         }
 
-        try (PreparedStatement preparedStatement = connection.prepareStatement(sql)) {
-            if (schemaName != null) {
-                preparedStatement.setString(1, schemaName);
-            }
-            try (ResultSet resultSet = preparedStatement.executeQuery()) {
+        try {
+            return StatementCache.query(connection, sql, schemaParams(schemaName), resultSet -> {
+                List<DatabaseFunction> funcs = new ArrayList<>();
                 while (resultSet.next()) {
                     DatabaseFunction function = new DatabaseFunction(resultSet.getString("ROUTINE_SCHEMA").trim(),
                                                                      resultSet.getString("ROUTINE_NAME").trim());
                     funcs.add(function);
                 }
-            }
+                return funcs;
+            });
         } catch (SQLException e) {
             throw new SQLException("Unable to retrieve functions", e);
         }
-
-        return funcs;
     }
 
     /**
@@ -225,25 +218,86 @@ public class GBase8a extends BaseDatabase {
      *
      * @param connection The Connection object used to connect to the database.
      * @param schemaName The name of the schema in the database.
-     * @param tableList   The list of results (e.g. view or table names) to be populated.
      * @param sql      The SQL query to be executed to retrieve the results.
+     * @return The list of results (e.g. view or table names).
      * @throws SQLException Thrown if there is an error executing the query.
      */
-    private void getResultList(Connection connection, String schemaName, List<String> tableList, String sql) throws SQLException {
-        try (PreparedStatement preparedStatement = connection.prepareStatement(sql)) {
-            if (schemaName != null) {
-                preparedStatement.setString(1, schemaName);
-            }
-
-            try (ResultSet resultSet = preparedStatement.executeQuery()) {
+    private List<String> getResultList(Connection connection, String schemaName, String sql) throws SQLException {
+        try {
+            return StatementCache.query(connection, sql, schemaParams(schemaName), resultSet -> {
+                List<String> tableList = new ArrayList<>();
                 while (resultSet.next()) {
                     String tableName = resultSet.getString("TABLE_NAME");
                     tableList.add(tableName);
                 }
-            }
+                return tableList;
+            });
         } catch (SQLException e) {
             throw new SQLException(e);
         }
     }
 
+    /**
+     * Returns the row count of a table estimated from information_schema.TABLES.TABLE_ROWS.
+     *
+     * @param connection The database connection object.
+     * @param schemaName The schema name of the table, or null or empty for the current schema.
+     * @param tableName The name of the table.
+     * @return the estimated number of rows, or null if the table is not found or has no statistics.
+     * @throws SQLException If a database access error occurs.
+     */
+    @Override
+    protected Long getEstimatedRowCount(Connection connection, String schemaName, String tableName) throws SQLException {
+        String sql = "SELECT TABLE_ROWS FROM information_schema.TABLES " +
+                "WHERE TABLE_SCHEMA = COALESCE(?, DATABASE()) AND TABLE_NAME = ? AND TABLE_TYPE = 'BASE TABLE'";
+        if (schemaName != null && schemaName.isEmpty()) {
+            schemaName = null;
+        }
+        return queryEstimatedRowCount(connection, sql, schemaName, tableName);
+    }
+
+    /**
+     * Returns the ordered key columns used for keyset pagination.
+     * The usage of catalog and schemaName is reversed compared to other databases, and a null or empty schema
+     * designates the current database.
+     *
+     * @param connection The database connection object.
+     * @param schemaName The name of the database of the table.
+     * @param tableName The name of the table.
+     * @return the ordered key columns, or an empty list if the table has no usable key.
+     * @throws SQLException If a database access error occurs.
+     */
+    @Override
+    protected List<String> getKeysetColumns(Connection connection, String schemaName, String tableName) throws SQLException {
+        String catalog = schemaName == null || schemaName.isEmpty() ? connection.getCatalog() : schemaName;
+        return getKeysetColumns(connection, catalog, "", tableName);
+    }
+
+    /**
+     * Loads the catalog of some or all the tables of a database.
+     * The usage of catalog and schemaName is reversed compared to other databases.
+     *
+     * @param connection A valid database connection.
+     * @param schemaName The name of the database.
+     * @param tableNames The names of the tables to load, or null to load all the tables.
+     * @return the catalog snapshot of the tables.
+     * @throws SQLException if a database access error occurs
+     */
+    @Override
+    protected CatalogSnapshot loadCatalogTables(Connection connection, String schemaName,
+                                                Collection<String> tableNames) throws SQLException {
+        return loadCatalogSnapshot(connection, schemaName, "", schemaName, tableNames);
+    }
+
+    /**
+     * Returns the query listing the index columns of all the tables of a database from information_schema.STATISTICS.
+     *
+     * @return the catalog query of the index columns.
+     */
+    @Override
+    protected String getIndexCatalogQuery() {
+        return "SELECT TABLE_NAME, INDEX_NAME, COLUMN_NAME, NON_UNIQUE, " +
+                "CASE WHEN INDEX_NAME = 'PRIMARY' THEN 1 ELSE 0 END FROM information_schema.STATISTICS " +
+                "WHERE TABLE_SCHEMA = COALESCE(?, DATABASE()) ORDER BY TABLE_NAME, NON_UNIQUE, INDEX_NAME, SEQ_IN_INDEX";
+    }
 }
@@ -3,10 +3,12 @@ package com.dbmasker.database.gbase;
 import com.dbmasker.data.DatabaseFunction;
 import com.dbmasker.data.ObfuscationRule;
 import com.dbmasker.database.BaseDatabase;
+import com.dbmasker.database.StatementCache;
 import com.dbmasker.utils.ErrorMessages;
 
 import java.sql.*;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 
@@ -16,6 +18,9 @@ import java.util.Map;
  */
 public class Gbase8s extends BaseDatabase {
 
+    // The maximum number of columns of an index, stored in the part1 to part16 columns of sysindexes
+    private static final int INDEX_PARTS = 16;
+
     /**
      * Default constructor for GBase8s class.
      */
@@ -47,22 +52,46 @@ public class Gbase8s extends BaseDatabase {
      */
     @Override
     public List<String> getTables(Connection connection, String schemaName) throws SQLException {
-        List<String> tables = new ArrayList<>();
         String query = "SELECT tabname FROM systables WHERE tabid>99";
 
-        try (PreparedStatement preparedStatement = connection.prepareStatement(query)) {
-
-            try (ResultSet resultSet = preparedStatement.executeQuery()) {
+        try {
+            return StatementCache.query(connection, query, Collections.emptyList(), resultSet -> {
+                List<String> tables = new ArrayList<>();
                 while (resultSet.next()) {
                     String tableName = resultSet.getString("tabname");
                     tables.add(tableName);
                 }
-            }
+                return tables;
+            });
         } catch (SQLException e) {
             throw new SQLException(ErrorMessages.TABLE_NAMES_RETRIEVAL_ERROR, e);
         }
+    }
 
-        return tables;
+    /**
+     * Returns the query listing the index columns of all the tables of a database from systables, sysindexes and
+     * syscolumns, an index storing its column numbers in part1 to part16, negated for descending columns. The
+     * primary key is the index named by the 'P' constraint of the table in sysconstraints. The schema is the
+     * owner of the tables, as in the JDBC metadata of Gbase-8s, and a null schema matches all the owners. The
+     * sixth column, the position of the column in the index, only orders the rows.
+     *
+     * @return the catalog query of the index columns.
+     */
+    @Override
+    protected String getIndexCatalogQuery() {
+        StringBuilder columns = new StringBuilder();
+        StringBuilder positions = new StringBuilder();
+        for (int part = 1; part <= INDEX_PARTS; part++) {
+            columns.append(part == 1 ? "" : ", ").append("ABS(i.part").append(part).append(')');
+            positions.append(" WHEN ABS(i.part").append(part).append(") THEN ").append(part);
+        }
+        return "SELECT t.tabname, i.idxname, c.colname, CASE WHEN i.idxtype = 'U' THEN 0 ELSE 1 END, " +
+                "CASE WHEN k.constrid IS NULL THEN 0 ELSE 1 END, CASE c.colno" + positions + " END FROM systables t " +
+                "JOIN sysindexes i ON i.tabid = t.tabid " +
+                "JOIN syscolumns c ON c.tabid = t.tabid AND c.colno IN (" + columns + ") " +
+                "LEFT JOIN sysconstraints k ON k.tabid = t.tabid AND k.idxname = i.idxname AND k.constrtype = 'P' " +
+                "WHERE t.tabid > 99 AND t.tabtype = 'T' AND t.owner = NVL(CAST(? AS VARCHAR(32)), t.owner) " +
+                "ORDER BY 1, 2, 6";
     }
 
     /**
@@ -127,21 +156,20 @@ public class Gbase8s extends BaseDatabase {
      */
     @Override
     public List<DatabaseFunction> getFuncs(Connection connection, String schemaName) throws SQLException {
-        List<DatabaseFunction> functions = new ArrayList<>();
-
         String query = "SELECT procname, mode FROM sysprocedures WHERE isproc = 'f' AND mode='O'";
 
-        try (PreparedStatement preparedStatement = connection.prepareStatement(query)) {
-            try (ResultSet resultSet = preparedStatement.executeQuery()) {
+        try {
+            return StatementCache.query(connection, query, Collections.emptyList(), resultSet -> {
+                List<DatabaseFunction> functions = new ArrayList<>();
                 while (resultSet.next()) {
                     DatabaseFunction function = new DatabaseFunction(schemaName,  resultSet.getString("procname"));
                     functions.add(function);
                 }
-            }
+                return functions;
+            });
         } catch (SQLException e) {
             throw new SQLException(ErrorMessages.FUNCTION_NAMES_RETRIEVAL_ERROR, e);
         }
-        return functions;
     }
 
     /**
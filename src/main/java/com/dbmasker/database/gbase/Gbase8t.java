@@ -1,5 +1,7 @@
 package com.dbmasker.database.gbase;
 
+import java.util.List;
+
 /**
  * Gbase8t Database class implements the Database interface for Gbase8t databases.
  * Provides an implementation to retrieve a list of schemas (databases) from a GBase8s database.
@@ -14,16 +16,33 @@ public class Gbase8t extends Gbase8s {
     }
 
     /**
-     * Executes the specified SQL query and applies obfuscation rules to the specified columns.
+     * Generates the query of an offset page. SKIP and FIRST take literals, so no parameter is added.
      * @param columns The columns to fetch from the table/view.
      * @param tableName The name of the table/view to fetch the data from.
      * @param pageSize The number of records to fetch.
      * @param pageOffset The offset of the first record to fetch.
+     * @param params The list the parameters of the query are appended to, in binding order.
      * @return The SQL query to execute.
      */
     @Override
-    protected String getQueryWithPage(String columns, String tableName, int pageSize, int pageOffset) {
+    protected String getQueryWithPage(String columns, String tableName, int pageSize, int pageOffset, List<Object> params) {
         int offset = (pageOffset - 1) * pageSize;
         return String.format("SELECT SKIP %d FIRST %d %s FROM %s", offset, pageSize, columns, tableName);
     }
+
+    /**
+     * Generates the query of a keyset page.
+     *
+     * @param columns The columns to fetch from the table.
+     * @param tableName The name of the table to fetch the data from.
+     * @param keyColumns The ordered key columns, quoted with the identifier quote of the database.
+     * @param condition The condition selecting the rows after the previous page, or null for the first page.
+     * @param limit The maximum number of rows to fetch.
+     * @return The SQL query to execute.
+     */
+    @Override
+    protected String getQueryWithKeyset(String columns, String tableName, List<String> keyColumns, String condition, int limit) {
+        String where = condition == null ? "" : " WHERE " + condition;
+        return String.format("SELECT FIRST %d %s FROM %s%s ORDER BY %s", limit, columns, tableName, where, String.join(",", keyColumns));
+    }
 }
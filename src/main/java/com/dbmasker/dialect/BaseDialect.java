@@ -2,7 +2,8 @@ package com.dbmasker.dialect;
 
 
 import com.dbmasker.database.Database;
-import com.dbmasker.database.DatabaseFactory;
+import com.dbmasker.database.DatabaseRegistry;
+import com.dbmasker.database.MetadataCache;
 
 import java.sql.Connection;
 import java.sql.SQLException;
@@ -36,8 +37,8 @@ public abstract class BaseDialect implements Dialect {
      */
     @Override
     public String generateInsertSql(Connection connection, String schemaName, String tableName, Map<String, Object> data, String dbType) throws SQLException {
-        Database database = new DatabaseFactory().getDatabase(dbType);
-        Map<String, String> columnTypes = database.getColumnTypes(connection, schemaName, tableName);
+        Database database = DatabaseRegistry.getDatabase(dbType);
+        Map<String, String> columnTypes = MetadataCache.getColumnTypes(database, connection, schemaName, tableName);
         return generateInsertSql(schemaName, tableName, data, columnTypes);
     }
 
@@ -123,8 +124,8 @@ public abstract class BaseDialect implements Dialect {
                                Map<String, Object> setData,
                                Map<String, Object> condition,
                                boolean filteredByUniqueKey) throws SQLException {
-        Database database = new DatabaseFactory().getDatabase(dbType);
-        Map<String, String> columnTypes = database.getColumnTypes(connection, schemaName, tableName);
+        Database database = DatabaseRegistry.getDatabase(dbType);
+        Map<String, String> columnTypes = MetadataCache.getColumnTypes(database, connection, schemaName, tableName);
         // Return null if either setData or condition is empty
         if (setData == null || setData.isEmpty() || condition == null || condition.isEmpty()) {
             return null;
@@ -202,8 +203,8 @@ public abstract class BaseDialect implements Dialect {
      */
     public String generateDeleteSql(Connection connection, String dbType, String schemaName, String tableName,
                                     Map<String, Object> condition, boolean filteredByUniqueKey) throws SQLException {
-        Database database = new DatabaseFactory().getDatabase(dbType);
-        Map<String, String> columnTypes = database.getColumnTypes(connection, schemaName, tableName);
+        Database database = DatabaseRegistry.getDatabase(dbType);
+        Map<String, String> columnTypes = MetadataCache.getColumnTypes(database, connection, schemaName, tableName);
         // Return null if either setData or condition is empty
         if (condition == null || condition.isEmpty()) {
             return null;
@@ -273,7 +274,7 @@ public abstract class BaseDialect implements Dialect {
         Set<Set<String>> uniqueKeys = new HashSet<>();
 
         // Add primary keys to uniqueKeys set
-        Set<String> primaryKeys = database.getPrimaryKeys(connection, schemaName, tableName);
+        Set<String> primaryKeys = MetadataCache.getPrimaryKeys(database, connection, schemaName, tableName);
         if (primaryKeys != null && !primaryKeys.isEmpty()) {
             uniqueKeys.add(primaryKeys);
         }
@@ -282,7 +283,7 @@ public abstract class BaseDialect implements Dialect {
 
         // If condition size remains unchanged after filtering with primary keys, then filter with other unique keys.
         if (newCondition.size() == originalCondition.size()) {
-            Map<String, Set<String>> uniqueKeyMap = database.getUniqueKeys(connection, schemaName, tableName);
+            Map<String, Set<String>> uniqueKeyMap = MetadataCache.getUniqueKeys(database, connection, schemaName, tableName);
             uniqueKeys.addAll(uniqueKeyMap.values());
             newCondition = conditionFilter(originalCondition, uniqueKeys);
         }
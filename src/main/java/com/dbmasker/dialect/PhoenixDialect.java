@@ -1,7 +1,8 @@
 package com.dbmasker.dialect;
 
 import com.dbmasker.database.Database;
-import com.dbmasker.database.DatabaseFactory;
+import com.dbmasker.database.DatabaseRegistry;
+import com.dbmasker.database.MetadataCache;
 
 import java.sql.Connection;
 import java.sql.SQLException;
@@ -113,8 +114,8 @@ public class PhoenixDialect extends BaseDialect {
         if (setData == null || setData.isEmpty() || condition == null || condition.isEmpty()) {
             return null;
         }
-        Database database = new DatabaseFactory().getDatabase(dbType);
-        Map<String, String> columnTypes = database.getColumnTypes(connection, schemaName, tableName);
+        Database database = DatabaseRegistry.getDatabase(dbType);
+        Map<String, String> columnTypes = MetadataCache.getColumnTypes(database, connection, schemaName, tableName);
 
         condition = getFilteredCondition(connection, database, schemaName, tableName, condition);
 
@@ -0,0 +1,21 @@
+package com.dbmasker.exception;
+
+/**
+ * This class represents an exception that is thrown when a row cannot be fetched from a streaming cursor.
+ * It extends RuntimeException, and hence is an unchecked exception, so that it can be thrown from iterators and streams.
+ */
+public class RowFetchFailedException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * Constructs a new RowFetchFailedException with a specified detail message and cause.
+     *
+     * @param message The detail message, which is saved for later retrieval by the Throwable.getMessage() method.
+     * @param cause The cause, which is saved for later retrieval by the Throwable.getCause() method.
+     *              A null value is permitted, and indicates that the cause is nonexistent or unknown.
+     */
+    public RowFetchFailedException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,189 @@
+package com.dbmasker.export;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+
+/**
+ * A channel writer encodes text as UTF-8 into an off-heap buffer and writes it to a file through a FileChannel,
+ * optionally compressed in the gzip format with a Deflater reading and writing off-heap buffers as well, so that
+ * the exported text is never copied into heap byte arrays.
+ */
+final class ChannelWriter implements Closeable {
+
+    private static final byte[] GZIP_HEADER = {0x1f, (byte) 0x8b, Deflater.DEFLATED, 0, 0, 0, 0, 0, 0, (byte) 0xff};
+
+    private final FileChannel channel; // The file channel
+    private final CharsetEncoder encoder; // The UTF-8 encoder, replacing malformed characters
+    private final ByteBuffer buffer; // The encoded text not written yet
+    private final ByteBuffer deflated; // The compressed output, null without compression
+    private final Deflater deflater; // The raw deflate compressor, null without compression
+    private final CRC32 crc; // The checksum of the uncompressed text, null without compression
+    private long drainedBytes; // The number of bytes of encoded text already drained from the buffer
+    private long fileBytes; // The number of bytes written to the file
+
+    /**
+     * Constructor for ChannelWriter, creating the file, which must not exist.
+     *
+     * @param path       The path of the file.
+     * @param bufferSize The size of the off-heap buffers.
+     * @param gzip       Whether the file is gzip compressed.
+     * @throws IOException if the file exists, or cannot be opened or written
+     */
+    ChannelWriter(Path path, int bufferSize, boolean gzip) throws IOException {
+        this.channel = FileChannel.open(path, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE);
+        this.encoder = StandardCharsets.UTF_8.newEncoder()
+                .onMalformedInput(CodingErrorAction.REPLACE)
+                .onUnmappableCharacter(CodingErrorAction.REPLACE);
+        this.buffer = ByteBuffer.allocateDirect(bufferSize);
+        if (gzip) {
+            this.deflated = ByteBuffer.allocateDirect(bufferSize);
+            this.deflater = new Deflater(Deflater.DEFAULT_COMPRESSION, true);
+            this.crc = new CRC32();
+            try {
+                writeFully(ByteBuffer.wrap(GZIP_HEADER));
+            } catch (IOException e) {
+                deflater.end();
+                channel.close();
+                throw e;
+            }
+        } else {
+            this.deflated = null;
+            this.deflater = null;
+            this.crc = null;
+        }
+    }
+
+    /**
+     * Encodes a text and writes it to the file, through the buffer.
+     *
+     * @param text The text.
+     * @throws IOException if the file cannot be written
+     */
+    void write(CharSequence text) throws IOException {
+        CharBuffer in = CharBuffer.wrap(text);
+        encoder.reset();
+        CoderResult result;
+        while ((result = encoder.encode(in, buffer, true)).isOverflow()) {
+            drain();
+        }
+        if (result.isError()) {
+            result.throwException();
+        }
+        while (encoder.flush(buffer).isOverflow()) {
+            drain();
+        }
+    }
+
+    /**
+     * Returns the number of bytes of encoded text written so far, before compression and including the text
+     * still buffered.
+     *
+     * @return the number of bytes of text.
+     */
+    long getTextBytes() {
+        return drainedBytes + buffer.position();
+    }
+
+    /**
+     * Returns the number of bytes written to the file so far, which excludes the text still buffered.
+     *
+     * @return the number of bytes written to the file.
+     */
+    long getFileBytes() {
+        return fileBytes;
+    }
+
+    /**
+     * Writes the buffered text and, with compression, the end of the compressed stream, then closes the file.
+     *
+     * @throws IOException if the file cannot be written or closed
+     */
+    @Override
+    public void close() throws IOException {
+        Exception failure = null;
+        try {
+            drain();
+            if (deflater != null) {
+                deflater.finish();
+                while (!deflater.finished()) {
+                    writeDeflated();
+                }
+                ByteBuffer trailer = ByteBuffer.allocate(8).order(ByteOrder.LITTLE_ENDIAN);
+                trailer.putInt((int) crc.getValue()).putInt((int) drainedBytes).flip();
+                writeFully(trailer);
+            }
+        } catch (IOException | RuntimeException e) {
+            failure = e;
+            throw e;
+        } finally {
+            if (deflater != null) {
+                deflater.end();
+            }
+            try {
+                channel.close();
+            } catch (IOException e) {
+                if (failure == null) {
+                    throw e;
+                }
+                failure.addSuppressed(e);
+            }
+        }
+    }
+
+    /**
+     * Writes the buffered text to the file, compressing it first with compression, and empties the buffer.
+     *
+     * @throws IOException if the file cannot be written
+     */
+    private void drain() throws IOException {
+        buffer.flip();
+        drainedBytes += buffer.remaining();
+        if (deflater != null) {
+            crc.update(buffer.duplicate());
+            // The deflater keeps its input buffer, so it gets a slice which clearing the buffer does not refill
+            deflater.setInput(buffer.slice());
+            while (!deflater.needsInput()) {
+                writeDeflated();
+            }
+        } else {
+            writeFully(buffer);
+        }
+        buffer.clear();
+    }
+
+    /**
+     * Runs the compressor once and writes its output to the file.
+     *
+     * @throws IOException if the file cannot be written
+     */
+    private void writeDeflated() throws IOException {
+        deflated.clear();
+        deflater.deflate(deflated);
+        deflated.flip();
+        writeFully(deflated);
+    }
+
+    /**
+     * Writes all the remaining bytes of a buffer to the file.
+     *
+     * @param bytes The bytes to write.
+     * @throws IOException if the file cannot be written
+     */
+    private void writeFully(ByteBuffer bytes) throws IOException {
+        while (bytes.hasRemaining()) {
+            fileBytes += channel.write(bytes);
+        }
+    }
+}
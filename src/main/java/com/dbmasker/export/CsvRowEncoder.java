@@ -0,0 +1,82 @@
+package com.dbmasker.export;
+
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * This class encodes rows as CSV as described by RFC 4180: fields are separated by commas, records end with CRLF,
+ * and a field containing a comma, a double quote or a line break is enclosed in double quotes, its double quotes
+ * being doubled. Null values are written as empty fields and binary values in Base64.
+ */
+final class CsvRowEncoder implements RowEncoder {
+
+    private final List<String> columnLabels; // The labels of the exported columns, in order
+    private final boolean header; // Whether each file starts with the column labels
+
+    /**
+     * Constructor for CsvRowEncoder.
+     *
+     * @param columnLabels The labels of the exported columns, in order.
+     * @param header       Whether each file starts with the column labels.
+     */
+    CsvRowEncoder(List<String> columnLabels, boolean header) {
+        this.columnLabels = columnLabels;
+        this.header = header;
+    }
+
+    @Override
+    public void appendHeader(StringBuilder out) {
+        if (!header) {
+            return;
+        }
+        for (int i = 0; i < columnLabels.size(); i++) {
+            if (i > 0) {
+                out.append(',');
+            }
+            appendField(columnLabels.get(i), out);
+        }
+        out.append("\r\n");
+    }
+
+    @Override
+    public void appendRow(Map<String, Object> row, StringBuilder out) {
+        for (int i = 0; i < columnLabels.size(); i++) {
+            if (i > 0) {
+                out.append(',');
+            }
+            Object value = row.get(columnLabels.get(i));
+            if (value != null) {
+                appendField(value instanceof byte[] bytes ? Base64.getEncoder().encodeToString(bytes) : value.toString(), out);
+            }
+        }
+        out.append("\r\n");
+    }
+
+    /**
+     * Appends a field, enclosed in double quotes only when it contains a comma, a double quote or a line break.
+     *
+     * @param field The text of the field.
+     * @param out   The builder receiving the text.
+     */
+    private static void appendField(String field, StringBuilder out) {
+        boolean quoted = false;
+        for (int i = 0; i < field.length() && !quoted; i++) {
+            char c = field.charAt(i);
+            quoted = c == ',' || c == '"' || c == '\r' || c == '\n';
+        }
+        if (!quoted) {
+            out.append(field);
+            return;
+        }
+        out.append('"');
+        for (int i = 0; i < field.length(); i++) {
+            char c = field.charAt(i);
+            if (c == '"') {
+                out.append('"');
+            }
+            out.append(c);
+        }
+        out.append('"');
+    }
+}
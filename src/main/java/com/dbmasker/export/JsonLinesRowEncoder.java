@@ -0,0 +1,111 @@
+package com.dbmasker.export;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * This class encodes rows as JSON Lines: each row is a JSON object keyed by column label, on its own line.
+ * Integers, decimals, finite floating point values and booleans are written as JSON numbers and literals, binary
+ * values as Base64 strings, and any other value as the JSON string of its text.
+ */
+final class JsonLinesRowEncoder implements RowEncoder {
+
+    private static final char[] HEX_DIGITS = "0123456789abcdef".toCharArray();
+
+    private final String[] keys; // The column labels, already encoded as JSON strings followed by a colon
+    private final List<String> columnLabels; // The labels of the exported columns, in order
+
+    /**
+     * Constructor for JsonLinesRowEncoder.
+     *
+     * @param columnLabels The labels of the exported columns, in order.
+     */
+    JsonLinesRowEncoder(List<String> columnLabels) {
+        this.columnLabels = columnLabels;
+        this.keys = new String[columnLabels.size()];
+        for (int i = 0; i < keys.length; i++) {
+            StringBuilder key = new StringBuilder();
+            appendString(columnLabels.get(i), key);
+            keys[i] = key.append(':').toString();
+        }
+    }
+
+    @Override
+    public void appendHeader(StringBuilder out) {
+        // JSON Lines files have no header
+    }
+
+    @Override
+    public void appendRow(Map<String, Object> row, StringBuilder out) {
+        out.append('{');
+        for (int i = 0; i < keys.length; i++) {
+            if (i > 0) {
+                out.append(',');
+            }
+            out.append(keys[i]);
+            appendValue(row.get(columnLabels.get(i)), out);
+        }
+        out.append("}\n");
+    }
+
+    /**
+     * Appends a value as a JSON number, literal or string.
+     *
+     * @param value The value, or null.
+     * @param out   The builder receiving the text.
+     */
+    private static void appendValue(Object value, StringBuilder out) {
+        if (value == null) {
+            out.append("null");
+        } else if (value instanceof Boolean || value instanceof Integer || value instanceof Long
+                || value instanceof Short || value instanceof Byte || value instanceof BigInteger) {
+            out.append(value);
+        } else if (value instanceof BigDecimal decimal) {
+            out.append(decimal.toPlainString());
+        } else if (value instanceof Double || value instanceof Float) {
+            double number = ((Number) value).doubleValue();
+            if (Double.isFinite(number)) {
+                out.append(value);
+            } else {
+                appendString(value.toString(), out);
+            }
+        } else if (value instanceof byte[] bytes) {
+            appendString(Base64.getEncoder().encodeToString(bytes), out);
+        } else {
+            appendString(value.toString(), out);
+        }
+    }
+
+    /**
+     * Appends a text as a JSON string, escaping double quotes, backslashes and control characters.
+     *
+     * @param text The text.
+     * @param out  The builder receiving the text.
+     */
+    private static void appendString(String text, StringBuilder out) {
+        out.append('"');
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            switch (c) {
+                case '"' -> out.append("\\\"");
+                case '\\' -> out.append("\\\\");
+                case '\n' -> out.append("\\n");
+                case '\r' -> out.append("\\r");
+                case '\t' -> out.append("\\t");
+                case '\b' -> out.append("\\b");
+                case '\f' -> out.append("\\f");
+                default -> {
+                    if (c < 0x20) {
+                        out.append("\\u00").append(HEX_DIGITS[c >> 4]).append(HEX_DIGITS[c & 0xf]);
+                    } else {
+                        out.append(c);
+                    }
+                }
+            }
+        }
+        out.append('"');
+    }
+}
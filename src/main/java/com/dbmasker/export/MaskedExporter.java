@@ -0,0 +1,266 @@
+package com.dbmasker.export;
+
+import com.dbmasker.data.ExportOptions;
+import com.dbmasker.data.ExportResult;
+import com.dbmasker.database.RowCursor;
+import com.dbmasker.exception.RowFetchFailedException;
+import com.dbmasker.utils.ErrorMessages;
+import com.dbmasker.utils.ExportFormat;
+
+import java.io.IOException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * The masked exporter streams the rows of a cursor, already masked as they are read, to CSV or JSON Lines files.
+ * <p>
+ * Rows are encoded one at a time into a reused builder and written through a {@link ChannelWriter}, so the export
+ * holds a single row in memory whatever the size of the table. When a maximum number of rows or bytes per file is
+ * set, the export rotates to a new file once the current one reaches it; the files are then named after the target
+ * with a sequence number before the extension, "employees.csv.gz" giving "employees-00001.csv.gz",
+ * "employees-00002.csv.gz" and so on.
+ * <p>
+ * Each file is written to a hidden temporary file next to it, and the temporary files are moved into place once
+ * the export is complete, so a failed export leaves the existing files of the same names untouched. A rotated
+ * export then deletes the files of a previous, longer export of the same target which follow its last file.
+ */
+public final class MaskedExporter {
+
+    /**
+     * The smallest size of the buffers of the file writer.
+     */
+    public static final int MIN_BUFFER_SIZE = 1024;
+
+    /**
+     * Private constructor to prevent instantiation.
+     * An exception is thrown if an attempt is made.
+     */
+    private MaskedExporter() {
+        throw new UnsupportedOperationException();
+    }
+
+    /**
+     * Validates the options of an export.
+     *
+     * @param options The options of the export.
+     * @throws IllegalArgumentException if the format is null, a rotation limit is negative, or the buffer size is
+     *                                  below {@link #MIN_BUFFER_SIZE}
+     */
+    public static void validate(ExportOptions options) {
+        if (options.getFormat() == null || options.getMaxRowsPerFile() < 0 || options.getMaxBytesPerFile() < 0
+                || options.getBufferSize() < MIN_BUFFER_SIZE) {
+            throw new IllegalArgumentException(ErrorMessages.INVALID_EXPORT_OPTIONS_ERROR);
+        }
+    }
+
+    /**
+     * Exports the rows of a cursor to files. The cursor is closed once the export is done. The files are written to
+     * temporary files which replace the existing files of the same names only once every row is written. When the
+     * export fails, the temporary files are deleted, so that no partial export is left behind and the existing files
+     * are kept. The files are moved into place one after the other: when a move fails, the files moved before it are
+     * already replaced, and the following ones keep their previous content.
+     *
+     * @param cursor  The cursor over the masked rows.
+     * @param target  The path of the file, or the path the names of the rotated files are derived from.
+     * @param options The options of the export.
+     * @return The files written and the throughput of the export.
+     * @throws IllegalArgumentException if the options are invalid
+     * @throws SQLException if a row cannot be fetched from the database
+     * @throws IOException if a file cannot be written
+     */
+    public static ExportResult export(RowCursor cursor, Path target, ExportOptions options) throws SQLException, IOException {
+        long start = System.nanoTime();
+        List<Path> files = new ArrayList<>();
+        List<Path> tempFiles = new ArrayList<>();
+        try (cursor) {
+            validate(options);
+            List<String> columnLabels = new ArrayList<>(new LinkedHashSet<>(cursor.getColumnLabels()));
+            RowEncoder encoder = options.getFormat() == ExportFormat.CSV
+                    ? new CsvRowEncoder(columnLabels, options.isHeader())
+                    : new JsonLinesRowEncoder(columnLabels);
+            boolean rotating = options.getMaxRowsPerFile() > 0 || options.getMaxBytesPerFile() > 0;
+            StringBuilder text = new StringBuilder();
+            ChannelWriter writer = null;
+            long rowCount = 0;
+            long byteCount = 0;
+            long fileRows = 0;
+            try {
+                while (cursor.hasNext()) {
+                    Map<String, Object> row = cursor.next();
+                    if (writer == null) {
+                        writer = openFile(target, rotating, files, tempFiles, options, encoder, text);
+                        fileRows = 0;
+                    }
+                    text.setLength(0);
+                    encoder.appendRow(row, text);
+                    writer.write(text);
+                    rowCount++;
+                    fileRows++;
+                    if ((options.getMaxRowsPerFile() > 0 && fileRows >= options.getMaxRowsPerFile())
+                            || (options.getMaxBytesPerFile() > 0 && writer.getTextBytes() >= options.getMaxBytesPerFile())) {
+                        writer.close();
+                        byteCount += writer.getFileBytes();
+                        writer = null;
+                    }
+                }
+                if (files.isEmpty()) {
+                    // An export without rows still delivers a file, with the header of the format
+                    writer = openFile(target, rotating, files, tempFiles, options, encoder, text);
+                }
+                if (writer != null) {
+                    writer.close();
+                    byteCount += writer.getFileBytes();
+                    writer = null;
+                }
+            } finally {
+                if (writer != null) {
+                    closeQuietly(writer);
+                }
+            }
+            moveIntoPlace(tempFiles, files);
+            if (rotating) {
+                deleteStaleFiles(target, files.size() + 1);
+            }
+            return new ExportResult(files, rowCount, byteCount, System.nanoTime() - start);
+        } catch (RowFetchFailedException e) {
+            deleteQuietly(tempFiles);
+            if (e.getCause() instanceof SQLException sqlException) {
+                throw sqlException;
+            }
+            throw e;
+        } catch (SQLException | IOException | RuntimeException e) {
+            deleteQuietly(tempFiles);
+            throw e;
+        }
+    }
+
+    /**
+     * Returns the path of a file of an export.
+     *
+     * @param target   The path given to the export.
+     * @param rotating Whether the export rotates files.
+     * @param sequence The sequence number of the file, starting at 1.
+     * @return the target itself without rotation, otherwise the target with the sequence number before its extension.
+     */
+    static Path getFilePath(Path target, boolean rotating, int sequence) {
+        if (!rotating) {
+            return target;
+        }
+        String name = target.getFileName().toString();
+        int dot = name.indexOf('.', 1);
+        String suffix = String.format("-%05d", sequence);
+        return target.resolveSibling(dot < 0 ? name + suffix : name.substring(0, dot) + suffix + name.substring(dot));
+    }
+
+    /**
+     * Returns the path of the temporary file a file of an export is written to: a hidden file in the same
+     * directory, so that it can be renamed to the file, with a random suffix.
+     *
+     * @param path The path of the file.
+     * @return the path of the temporary file.
+     */
+    private static Path getTempFilePath(Path path) {
+        String suffix = Long.toHexString(ThreadLocalRandom.current().nextLong());
+        return path.resolveSibling("." + path.getFileName() + "." + suffix + ".tmp");
+    }
+
+    /**
+     * Opens the next file of an export, as a temporary file, and writes the header of the format to it.
+     *
+     * @param target    The path given to the export.
+     * @param rotating  Whether the export rotates files.
+     * @param files     The files of the export, to which the new file is added.
+     * @param tempFiles The temporary files of the export, to which the temporary file of the new file is added.
+     * @param options   The options of the export.
+     * @param encoder   The encoder of the format.
+     * @param text      The builder reused for the encoded text.
+     * @return the writer of the new file.
+     * @throws IOException if the file cannot be opened or written
+     */
+    private static ChannelWriter openFile(Path target, boolean rotating, List<Path> files, List<Path> tempFiles,
+                                          ExportOptions options, RowEncoder encoder, StringBuilder text)
+            throws IOException {
+        Path path = getFilePath(target, rotating, files.size() + 1);
+        Path tempFile = getTempFilePath(path);
+        ChannelWriter writer = new ChannelWriter(tempFile, options.getBufferSize(), options.isGzip());
+        files.add(path);
+        tempFiles.add(tempFile);
+        text.setLength(0);
+        encoder.appendHeader(text);
+        try {
+            writer.write(text);
+        } catch (IOException e) {
+            closeQuietly(writer);
+            throw e;
+        }
+        return writer;
+    }
+
+    /**
+     * Closes a writer, ignoring the error, when the export already failed.
+     *
+     * @param writer The writer to close.
+     */
+    private static void closeQuietly(ChannelWriter writer) {
+        try {
+            writer.close();
+        } catch (IOException e) {
+            // pass
+        }
+    }
+
+    /**
+     * Moves the temporary files of a complete export to the files, replacing the existing files. The files are
+     * renamed atomically when the file system supports it.
+     *
+     * @param tempFiles The temporary files of the export.
+     * @param files     The files of the export, in the order of the temporary files.
+     * @throws IOException if a temporary file cannot be moved
+     */
+    private static void moveIntoPlace(List<Path> tempFiles, List<Path> files) throws IOException {
+        for (int i = 0; i < tempFiles.size(); i++) {
+            try {
+                Files.move(tempFiles.get(i), files.get(i), StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(tempFiles.get(i), files.get(i), StandardCopyOption.REPLACE_EXISTING);
+            }
+        }
+    }
+
+    /**
+     * Deletes the rotated files left by a previous export of the same target, from the given sequence number until
+     * the first number without a file, so that the set of files on disk is the one of the last export.
+     *
+     * @param target   The path given to the export.
+     * @param sequence The sequence number following the last file of the export.
+     * @throws IOException if a file cannot be deleted
+     */
+    private static void deleteStaleFiles(Path target, int sequence) throws IOException {
+        while (Files.deleteIfExists(getFilePath(target, true, sequence))) {
+            sequence++;
+        }
+    }
+
+    /**
+     * Deletes the files of a failed export, ignoring the files which cannot be deleted.
+     *
+     * @param files The files of the export.
+     */
+    private static void deleteQuietly(List<Path> files) {
+        for (Path file : files) {
+            try {
+                Files.deleteIfExists(file);
+            } catch (IOException e) {
+                // pass
+            }
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package com.dbmasker.export;
+
+import java.util.Map;
+
+/**
+ * A row encoder turns the rows of a masked export into the text of a file format.
+ */
+interface RowEncoder {
+
+    /**
+     * Appends the text which starts each file, such as the header line of a CSV file.
+     *
+     * @param out The builder receiving the text.
+     */
+    void appendHeader(StringBuilder out);
+
+    /**
+     * Appends the text of a row, line break included.
+     *
+     * @param row The row, keyed by column label.
+     * @param out The builder receiving the text.
+     */
+    void appendRow(Map<String, Object> row, StringBuilder out);
+}
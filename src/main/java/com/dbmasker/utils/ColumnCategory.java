@@ -0,0 +1,113 @@
+package com.dbmasker.utils;
+
+import java.sql.Types;
+import java.util.Locale;
+
+/**
+ This is an enumeration representing the broad categories of column types, used to decide which columns a
+ sensitive data detector can match.
+ */
+public enum ColumnCategory {
+    /**
+     * Text: character and character large object columns.
+     */
+    TEXT(1),
+    /**
+     * Numeric: integer, decimal and floating point columns.
+     */
+    NUMERIC(2),
+    /**
+     * Temporal: date, time and timestamp columns.
+     */
+    TEMPORAL(3),
+    /**
+     * Boolean: boolean and bit columns.
+     */
+    BOOLEAN(4),
+    /**
+     * Binary: binary and binary large object columns.
+     */
+    BINARY(5),
+    /**
+     * Other: any other type, such as JSON, XML-like or vendor specific columns.
+     */
+    OTHER(6);
+
+    private final int category;
+
+    /**
+     * Constructor for ColumnCategory enum.
+     * @param category the code representing the column category.
+     */
+    ColumnCategory(int category) {
+        this.category = category;
+    }
+
+    /**
+     * Getter for the code representing the column category.
+     * @return the code representing the column category.
+     */
+    public int getCategory() {
+        return category;
+    }
+
+    /**
+     * Method for getting the ColumnCategory based on the code representing the column category.
+     * @param code the code representing the column category.
+     * @return the ColumnCategory corresponding to the code provided.
+     * @throws IllegalArgumentException if an invalid code is provided.
+     */
+    public static ColumnCategory valueOf(int code) {
+        for (ColumnCategory columnCategory : ColumnCategory.values()) {
+            if (columnCategory.getCategory() == code) {
+                return columnCategory;
+            }
+        }
+        throw new IllegalArgumentException("Invalid code: " + code);
+    }
+
+    /**
+     * Method for getting the ColumnCategory of a SQL type.
+     * @param sqlType the SQL type of the column, from java.sql.Types.
+     * @return the ColumnCategory of the SQL type.
+     */
+    public static ColumnCategory ofSqlType(int sqlType) {
+        return switch (sqlType) {
+            case Types.CHAR, Types.VARCHAR, Types.LONGVARCHAR, Types.NCHAR, Types.NVARCHAR, Types.LONGNVARCHAR,
+                    Types.CLOB, Types.NCLOB, Types.SQLXML -> TEXT;
+            case Types.TINYINT, Types.SMALLINT, Types.INTEGER, Types.BIGINT, Types.DECIMAL, Types.NUMERIC,
+                    Types.REAL, Types.FLOAT, Types.DOUBLE -> NUMERIC;
+            case Types.DATE, Types.TIME, Types.TIMESTAMP, Types.TIME_WITH_TIMEZONE, Types.TIMESTAMP_WITH_TIMEZONE -> TEMPORAL;
+            case Types.BIT, Types.BOOLEAN -> BOOLEAN;
+            case Types.BINARY, Types.VARBINARY, Types.LONGVARBINARY, Types.BLOB -> BINARY;
+            default -> OTHER;
+        };
+    }
+
+    /**
+     * Method for getting the ColumnCategory of a column from its SQL type and its type name. The type name refines
+     * the text and other categories, for the drivers which report every column of an unknown type as text,
+     * such as SQLite for BLOB, DATE or BOOLEAN columns.
+     * @param sqlType the SQL type of the column, from java.sql.Types.
+     * @param typeName the database-specific type name of the column, or null if unknown.
+     * @return the ColumnCategory of the column.
+     */
+    public static ColumnCategory of(int sqlType, String typeName) {
+        ColumnCategory category = ofSqlType(sqlType);
+        if ((category != TEXT && category != OTHER) || typeName == null) {
+            return category;
+        }
+
+        String name = typeName.toUpperCase(Locale.ENGLISH);
+        if (name.contains("BLOB") || name.contains("BINARY") || name.equals("BYTEA")) {
+            return BINARY;
+        }
+        if (name.startsWith("DATE") || name.startsWith("TIME")) {
+            return TEMPORAL;
+        }
+        if (name.equals("BOOL") || name.equals("BOOLEAN")) {
+            return BOOLEAN;
+        }
+        return category;
+    }
+}
@@ -1,12 +1,43 @@
 package com.dbmasker.utils;
 
 import com.dbmasker.api.DBSecManager;
+import com.dbmasker.data.PoolOptions;
+
+import java.security.SecureRandom;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * The Config class uses the Singleton pattern to manage global configuration.
  */
 public class Config {
 
+    /**
+     * The default time in milliseconds a cached row count is kept.
+     */
+    public static final long DEFAULT_COUNT_CACHE_TTL = 60_000;
+
+    /**
+     * The default number of tables of a database scanned at the same time by a schema scan.
+     */
+    public static final int DEFAULT_SCAN_PARALLELISM = 4;
+
+    /**
+     * The default time in milliseconds cached table metadata is kept, 0 meaning the metadata cache is disabled.
+     */
+    public static final long DEFAULT_METADATA_CACHE_TTL = 0;
+
+    /**
+     * Whether DBManager.createConnection borrows from a shared connection pool by default.
+     */
+    public static final boolean DEFAULT_CONNECTION_POOLING = false;
+
+    /**
+     * The default number of prepared statements cached per connection, 0 as the statement cache is opt-in.
+     */
+    public static final int DEFAULT_STATEMENT_CACHE_SIZE = 0;
+
     // The single instance of Config
     private static Config config;
 
@@ -17,6 +48,30 @@ public class Config {
     // Whether to handle rename
     private boolean handleRename;
 
+    // The default strategy to count the rows of a table for paged reads
+    private CountStrategy countStrategy;
+
+    // The time in milliseconds a cached row count is kept
+    private long countCacheTtl;
+
+    // The number of tables scanned at the same time by a schema scan, by database type
+    private final Map<String, Integer> scanParallelism;
+
+    // The time in milliseconds cached table metadata is kept, 0 to disable the metadata cache
+    private long metadataCacheTtl;
+
+    // Whether DBManager.createConnection borrows from a shared connection pool
+    private boolean connectionPooling;
+
+    // The options of the shared connection pools created by DBManager
+    private PoolOptions poolOptions;
+
+    // The number of prepared statements cached per connection, 0 to disable the statement cache
+    private int statementCacheSize;
+
+    // The key the keyset page tokens are encrypted with
+    private volatile byte[] pageTokenKey;
+
     /**
      * Private constructor initializes dataSize to DBSecManager.MATCH_DATA_SIZE.
      * This constructor is private as we want to restrict the instantiation of Config to only through getInstance method.
@@ -24,6 +79,15 @@ public class Config {
     private Config() {
         dataSize = DBSecManager.MATCH_DATA_SIZE;
         handleRename = true;
+        countStrategy = CountStrategy.EXACT;
+        countCacheTtl = DEFAULT_COUNT_CACHE_TTL;
+        scanParallelism = new ConcurrentHashMap<>();
+        metadataCacheTtl = DEFAULT_METADATA_CACHE_TTL;
+        connectionPooling = DEFAULT_CONNECTION_POOLING;
+        poolOptions = new PoolOptions();
+        statementCacheSize = DEFAULT_STATEMENT_CACHE_SIZE;
+        pageTokenKey = new byte[32];
+        new SecureRandom().nextBytes(pageTokenKey);
     }
 
     /**
@@ -75,5 +139,174 @@ public class Config {
     public void setHandleRename(boolean handleRename) {
         this.handleRename = handleRename;
     }
-}
 
+    /**
+     * Returns the default strategy to count the rows of a table for paged reads.
+     *
+     * @return The default count strategy
+     */
+    public CountStrategy getCountStrategy() {
+        return countStrategy;
+    }
+
+    /**
+     * Sets the default strategy to count the rows of a table for paged reads.
+     *
+     * @param countStrategy The new default count strategy
+     */
+    public void setCountStrategy(CountStrategy countStrategy) {
+        this.countStrategy = countStrategy;
+    }
+
+    /**
+     * Returns the time in milliseconds a cached row count is kept.
+     *
+     * @return The time in milliseconds a cached row count is kept
+     */
+    public long getCountCacheTtl() {
+        return countCacheTtl;
+    }
+
+    /**
+     * Sets the time in milliseconds a cached row count is kept. Cached row counts always expire, so the
+     * CountStrategy.EXACT strategy is the way to disable the cache.
+     *
+     * @param countCacheTtl The new time in milliseconds a cached row count is kept, greater than 0
+     * @throws IllegalArgumentException if the time is not greater than 0
+     */
+    public void setCountCacheTtl(long countCacheTtl) {
+        if (countCacheTtl <= 0) {
+            throw new IllegalArgumentException(ErrorMessages.INVALID_COUNT_CACHE_TTL_ERROR);
+        }
+        this.countCacheTtl = countCacheTtl;
+    }
+
+    /**
+     * Returns the maximum number of tables of a database type scanned at the same time by a schema scan,
+     * which is also the maximum number of connections the scan opens.
+     *
+     * @param dbType The type of the database (e.g., SQLite, MySQL, PostgreSQL)
+     * @return The scan parallelism of the database type, DEFAULT_SCAN_PARALLELISM if it was not set
+     */
+    public int getScanParallelism(String dbType) {
+        return scanParallelism.getOrDefault(dbType.toLowerCase(Locale.ENGLISH), DEFAULT_SCAN_PARALLELISM);
+    }
+
+    /**
+     * Sets the maximum number of tables of a database type scanned at the same time by a schema scan,
+     * for example 1 to keep a production Oracle or DM database to a single scanning connection.
+     *
+     * @param dbType The type of the database (e.g., SQLite, MySQL, PostgreSQL)
+     * @param parallelism The new scan parallelism of the database type, at least 1
+     */
+    public void setScanParallelism(String dbType, int parallelism) {
+        scanParallelism.put(dbType.toLowerCase(Locale.ENGLISH), parallelism);
+    }
+
+    /**
+     * Returns the time in milliseconds cached table metadata is kept.
+     *
+     * @return The time in milliseconds cached table metadata is kept, 0 if the metadata cache is disabled
+     */
+    public long getMetadataCacheTtl() {
+        return metadataCacheTtl;
+    }
+
+    /**
+     * Sets the time in milliseconds cached table metadata (column types, primary and unique keys) is kept
+     * when generating SQL statements or reading pages. 0 disables the metadata cache.
+     *
+     * @param metadataCacheTtl The new time in milliseconds cached table metadata is kept, at least 0
+     * @throws IllegalArgumentException if the time is negative
+     */
+    public void setMetadataCacheTtl(long metadataCacheTtl) {
+        if (metadataCacheTtl < 0) {
+            throw new IllegalArgumentException(ErrorMessages.INVALID_METADATA_CACHE_TTL_ERROR);
+        }
+        this.metadataCacheTtl = metadataCacheTtl;
+    }
+
+    /**
+     * Returns whether DBManager.createConnection borrows from a shared connection pool.
+     *
+     * @return Whether connection pooling is enabled
+     */
+    public boolean getConnectionPooling() {
+        return connectionPooling;
+    }
+
+    /**
+     * Sets whether DBManager.createConnection borrows from a shared connection pool, one per driver, URL and user,
+     * instead of opening a new physical connection. Closing a pooled connection returns it to its pool.
+     *
+     * @param connectionPooling Whether connection pooling is enabled
+     */
+    public void setConnectionPooling(boolean connectionPooling) {
+        this.connectionPooling = connectionPooling;
+    }
+
+    /**
+     * Returns the options of the shared connection pools created by DBManager.
+     *
+     * @return The pool options
+     */
+    public PoolOptions getPoolOptions() {
+        return poolOptions;
+    }
+
+    /**
+     * Sets the options of the shared connection pools created by DBManager. Pools which already exist keep the
+     * options they were created with.
+     *
+     * @param poolOptions The new pool options
+     */
+    public void setPoolOptions(PoolOptions poolOptions) {
+        this.poolOptions = poolOptions;
+    }
+
+    /**
+     * Returns the number of prepared statements cached per connection.
+     *
+     * @return The statement cache size, 0 if the statement cache is disabled
+     */
+    public int getStatementCacheSize() {
+        return statementCacheSize;
+    }
+
+    /**
+     * Sets the number of prepared statements cached per connection for the catalog, count and paging queries.
+     * 0 disables the statement cache. Connections which already cached more statements shrink on their next query.
+     * Each cached statement keeps a cursor open on the database session, which counts against limits such as the
+     * OPEN_CURSORS of Oracle.
+     *
+     * @param statementCacheSize The new statement cache size
+     */
+    public void setStatementCacheSize(int statementCacheSize) {
+        this.statementCacheSize = statementCacheSize;
+    }
+
+    /**
+     * Returns the key the keyset page tokens are encrypted with.
+     *
+     * @return A copy of the page token key
+     */
+    public byte[] getPageTokenKey() {
+        return pageTokenKey.clone();
+    }
+
+    /**
+     * Sets the key the keyset page tokens are encrypted with, so that their holder can neither read nor alter
+     * the key values. The default key is random and generated when the configuration is created, so the tokens
+     * of a process are rejected by the others; processes sharing their tokens set the same key. Tokens encrypted
+     * with the previous key are rejected.
+     *
+     * @param pageTokenKey The new page token key, copied
+     * @throws IllegalArgumentException if the key is null or empty
+     */
+    public void setPageTokenKey(byte[] pageTokenKey) {
+        if (pageTokenKey == null || pageTokenKey.length == 0) {
+            throw new IllegalArgumentException(ErrorMessages.INVALID_PAGE_TOKEN_KEY_ERROR);
+        }
+        this.pageTokenKey = pageTokenKey.clone();
+    }
+}
@@ -0,0 +1,54 @@
+package com.dbmasker.utils;
+
+/**
+ This is an enumeration representing the available strategies to count the rows of a table for paged reads.
+ */
+public enum CountStrategy {
+    /**
+     * Exact: the rows are counted with SELECT COUNT(*) on every call.
+     */
+    EXACT(1),
+    /**
+     * Cached: the exact count of each table is cached and reused until it expires, after Config.getCountCacheTtl()
+     * milliseconds.
+     */
+    CACHED(2),
+    /**
+     * Estimate: the row count is read from the statistics of the database catalog, falling back to an exact count
+     * when the database or the table has no statistics.
+     */
+    ESTIMATE(3);
+
+    private final int strategy;
+
+    /**
+     * Constructor for CountStrategy enum.
+     * @param strategy the code representing the count strategy.
+     */
+    CountStrategy(int strategy) {
+        this.strategy = strategy;
+    }
+
+    /**
+     * Getter for the code representing the count strategy.
+     * @return the code representing the count strategy.
+     */
+    public int getStrategy() {
+        return strategy;
+    }
+
+    /**
+     * Method for getting the CountStrategy based on the code representing the count strategy.
+     * @param code the code representing the count strategy.
+     * @return the CountStrategy corresponding to the code provided.
+     * @throws IllegalArgumentException if an invalid code is provided.
+     */
+    public static CountStrategy valueOf(int code) {
+        for (CountStrategy countStrategy : CountStrategy.values()) {
+            if (countStrategy.getStrategy() == code) {
+                return countStrategy;
+            }
+        }
+        throw new IllegalArgumentException("Invalid code: " + code);
+    }
+}
@@ -19,6 +19,11 @@ public final class ErrorMessages {
      */
     public static final String NULL_CONNECTION_OR_DB_TYPE_ERROR = "Connection or database type must not be null.";
 
+    /**
+     * Error message when connection is null.
+     */
+    public static final String NULL_CONNECTION_ERROR = "Connection must not be null.";
+
     /**
      * Error message when table or view name is null.
      */
@@ -39,11 +44,131 @@ public final class ErrorMessages {
      */
     public static final String NULL_OBFUSCATION_RULES_ERROR = "obfuscation rules must not be null.";
 
+    /**
+     * Error message when count strategy is null.
+     */
+    public static final String NULL_COUNT_STRATEGY_ERROR = "count strategy must not be null.";
+
+    /**
+     * Error message when scan options are null.
+     */
+    public static final String NULL_SCAN_OPTIONS_ERROR = "scan options must not be null.";
+
+    /**
+     * Error message when the sample percentage of a scan is invalid.
+     */
+    public static final String INVALID_SAMPLE_PERCENT_ERROR = "Sample percent must be greater than 0 and at most 100.";
+
+    /**
+     * Error message when the row or time budget of a scan is invalid.
+     */
+    public static final String INVALID_SCAN_BUDGET_ERROR = "Scan budget must not be negative.";
+
+    /**
+     * Error message when the connection supplier is null.
+     */
+    public static final String NULL_CONNECTION_SUPPLIER_ERROR = "connection supplier must not be null.";
+
+    /**
+     * Error message when the parallelism of a schema scan is invalid.
+     */
+    public static final String INVALID_SCAN_PARALLELISM_ERROR = "Scan parallelism must be greater than 0.";
+
+    /**
+     * Error message when the connection supplier returns no connection.
+     */
+    public static final String NULL_SUPPLIED_CONNECTION_ERROR = "connection supplier returned no connection.";
+
+    /**
+     * Error message when a schema scan is interrupted.
+     */
+    public static final String SCHEMA_SCANNING_INTERRUPTED_ERROR = "Schema scan interrupted";
+
     /**
      * Error message when sql list is null.
      */
     public static final String NULL_SQL_LIST_ERROR = "Sql list must not be null.";
 
+    /**
+     * Error message when the parallelism of a query batch is invalid.
+     */
+    public static final String INVALID_QUERY_PARALLELISM_ERROR = "Query parallelism must be greater than 0.";
+
+    /**
+     * Error message when a statement of a parallel query batch is not a query.
+     */
+    public static final String NON_QUERY_SQL_ERROR = "Only SELECT queries can be executed in parallel: ";
+
+    /**
+     * Error message when a parallel query batch is interrupted.
+     */
+    public static final String QUERY_BATCH_INTERRUPTED_ERROR = "Query batch interrupted";
+
+    /**
+     * Error message when the executor of the asynchronous API is null.
+     */
+    public static final String NULL_EXECUTOR_ERROR = "executor must not be null.";
+
+    /**
+     * Error message when the timeout of an asynchronous call is negative.
+     */
+    public static final String INVALID_TIMEOUT_ERROR = "Timeout must not be negative.";
+
+    /**
+     * Error message when an asynchronous call creates a statement after it was cancelled.
+     */
+    public static final String CALL_CANCELLED_ERROR = "Call cancelled";
+
+    /**
+     * Error message when a row publisher, which can only be read once, gets a second subscriber.
+     */
+    public static final String PUBLISHER_ALREADY_SUBSCRIBED_ERROR = "Row publisher accepts a single subscriber.";
+
+    /**
+     * Error message when a subscriber requests a non-positive number of rows.
+     */
+    public static final String INVALID_DEMAND_ERROR = "Number of requested rows must be positive: ";
+
+    /**
+     * Error message when the labels, types and type names of a column header do not have the same length.
+     */
+    public static final String COLUMN_HEADER_LENGTH_ERROR = "Column labels, types and type names must have the same length.";
+
+    /**
+     * Error message when a row of a compact result does not have one value per column.
+     */
+    public static final String ROW_SIZE_MISMATCH_ERROR = "Number of row values must be the number of columns: ";
+
+    /**
+     * Error message when the number of rows of a columnar batch is not positive.
+     */
+    public static final String INVALID_BATCH_SIZE_ERROR = "Batch size must be greater than 0.";
+
+    /**
+     * Error message when the callback receiving the columnar batches is null.
+     */
+    public static final String NULL_BATCH_CALLBACK_ERROR = "Batch callback must not be null.";
+
+    /**
+     * Error message when a columnar batch does not have one vector of the batch size per column.
+     */
+    public static final String BATCH_VECTOR_MISMATCH_ERROR = "Column batch must have one vector of the batch size per column.";
+
+    /**
+     * Error message when a column is not found in a columnar batch.
+     */
+    public static final String COLUMN_NOT_IN_BATCH_ERROR = "Column not found in batch: ";
+
+    /**
+     * Error message when the target file of an export is null.
+     */
+    public static final String NULL_EXPORT_TARGET_ERROR = "Export target must not be null.";
+
+    /**
+     * Error message when the options of an export are invalid.
+     */
+    public static final String INVALID_EXPORT_OPTIONS_ERROR = "Export format must be set, rotation limits must not be negative and buffer size must be at least 1024.";
+
     /**
      * Error message when sql script is null.
      */
@@ -54,6 +179,31 @@ public final class ErrorMessages {
      */
     public static final String NULL_REGEX_LIST_ERROR = "regex list must not be null.";
 
+    /**
+     * Error message when detector list is null.
+     */
+    public static final String NULL_DETECTOR_LIST_ERROR = "detector list must not be null.";
+
+    /**
+     * Error message when the scan state store of an incremental scan is null.
+     */
+    public static final String NULL_SCAN_STATE_STORE_ERROR = "scan state store must not be null.";
+
+    /**
+     * Error message when a scan state file cannot be parsed.
+     */
+    public static final String INVALID_SCAN_STATE_FILE_ERROR = "Invalid scan state file: ";
+
+    /**
+     * Error message when a catalog snapshot file cannot be parsed.
+     */
+    public static final String INVALID_CATALOG_SNAPSHOT_FILE_ERROR = "Invalid catalog snapshot file: ";
+
+    /**
+     * Error message when the catalog snapshot to refresh is null.
+     */
+    public static final String NULL_CATALOG_SNAPSHOT_ERROR = "catalog snapshot must not be null.";
+
     /**
      * Error message when a connection cannot be closed.
      */
@@ -89,6 +239,36 @@ public final class ErrorMessages {
      */
     public static final String TABLE_SCANNING_ERROR = "Error scanning table ";
 
+    /**
+     * Error message when a row cannot be fetched from a cursor.
+     */
+    public static final String ROW_FETCH_ERROR = "Error fetching row: ";
+
+    /**
+     * Error message when a table has no key usable for keyset pagination.
+     */
+    public static final String NO_UNIQUE_KEY_ERROR = "No primary key or non-null unique key found for keyset pagination: ";
+
+    /**
+     * Error message when a page token is invalid.
+     */
+    public static final String INVALID_PAGE_TOKEN_ERROR = "Invalid page token.";
+
+    /**
+     * Error message when the key signing the page tokens is null or empty.
+     */
+    public static final String INVALID_PAGE_TOKEN_KEY_ERROR = "The page token key must not be null or empty.";
+
+    /**
+     * Error message when the page size is invalid.
+     */
+    public static final String INVALID_PAGE_SIZE_ERROR = "Page size must be greater than 0.";
+
+    /**
+     * Error message when a column is not part of a result set.
+     */
+    public static final String COLUMN_NOT_FOUND_ERROR = "Column not found: ";
+
     /**
      * Error message when schema names cannot be retrieved.
      */
@@ -108,4 +288,59 @@ public final class ErrorMessages {
      * Error message when an unsupported database type is encountered.
      */
     public static final String UNSUPPORTED_DATABASE_TYPE_ERROR = "Unsupported database type: ";
+
+    /**
+     * Error message when the JDBC URL is null.
+     */
+    public static final String NULL_URL_ERROR = "JDBC URL must not be null.";
+
+    /**
+     * Error message when the sizes of a connection pool are invalid.
+     */
+    public static final String INVALID_POOL_SIZE_ERROR = "Pool max size must be at least 1 and min size between 0 and max size.";
+
+    /**
+     * Error message when the time a cached row count is kept is not positive.
+     */
+    public static final String INVALID_COUNT_CACHE_TTL_ERROR = "Count cache ttl must be greater than 0.";
+
+    /**
+     * Error message when the time cached table metadata is kept is negative.
+     */
+    public static final String INVALID_METADATA_CACHE_TTL_ERROR = "Metadata cache ttl must not be negative.";
+
+    /**
+     * Error message when a connection is borrowed from a closed pool.
+     */
+    public static final String POOL_CLOSED_ERROR = "Connection pool is closed.";
+
+    /**
+     * Error message when no pooled connection became available in time.
+     */
+    public static final String POOL_EXHAUSTED_ERROR = "No pooled connection available after ";
+
+    /**
+     * Error message when a closed pooled connection is used.
+     */
+    public static final String CONNECTION_CLOSED_ERROR = "Connection is closed.";
+
+    /**
+     * Error message when an object cannot be unwrapped to the requested interface.
+     */
+    public static final String UNSUPPORTED_UNWRAP_ERROR = "Cannot unwrap to ";
+
+    /**
+     * Warning message when a pooled connection is held for longer than the leak detection threshold.
+     */
+    public static final String CONNECTION_LEAK_WARNING = "Possible connection leak, connection borrowed for too long from ";
+
+    /**
+     * Error message when the secure random source cannot produce noise.
+     */
+    public static final String RANDOM_NOISE_GENERATION_ERROR = "Failed to generate random noise.";
+
+    /**
+     * Warning message when the subscriber of a row publisher throws from onNext, which cancels its subscription.
+     */
+    public static final String SUBSCRIBER_FAILURE_WARNING = "Subscriber threw from onNext, its subscription is cancelled.";
 }
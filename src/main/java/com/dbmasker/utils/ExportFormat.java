@@ -0,0 +1,48 @@
+package com.dbmasker.utils;
+
+/**
+ This is an enumeration representing the file format of a masked export.
+ */
+public enum ExportFormat {
+    /**
+     * CSV: comma separated values quoted as in RFC 4180, with CRLF line breaks and an optional header line.
+     */
+    CSV(1),
+    /**
+     * JSON Lines: one JSON object per row, keyed by column label, each on its own line.
+     */
+    JSON_LINES(2);
+
+    private final int format;
+
+    /**
+     * Constructor for ExportFormat enum.
+     * @param format the code representing the export format.
+     */
+    ExportFormat(int format) {
+        this.format = format;
+    }
+
+    /**
+     * Getter for the code representing the export format.
+     * @return the code representing the export format.
+     */
+    public int getFormat() {
+        return format;
+    }
+
+    /**
+     * Method for getting the ExportFormat based on the code representing the export format.
+     * @param code the code representing the export format.
+     * @return the ExportFormat corresponding to the code provided.
+     * @throws IllegalArgumentException if an invalid code is provided.
+     */
+    public static ExportFormat valueOf(int code) {
+        for (ExportFormat exportFormat : ExportFormat.values()) {
+            if (exportFormat.getFormat() == code) {
+                return exportFormat;
+            }
+        }
+        throw new IllegalArgumentException("Invalid code: " + code);
+    }
+}
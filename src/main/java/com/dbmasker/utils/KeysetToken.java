@@ -0,0 +1,195 @@
+package com.dbmasker.utils;
+
+import javax.crypto.Cipher;
+import javax.crypto.Mac;
+import javax.crypto.spec.GCMParameterSpec;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.SecureRandom;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+
+/**
+ * A continuation token for keyset pagination, holding the table, the key columns and the key values of the last
+ * row of a page.
+ * <p>
+ * The token is encoded as an opaque, url-safe string. Callers should only pass it back to get the next page of the
+ * same table. It is encrypted with AES-GCM under a key derived from Config.getPageTokenKey(), so its holder can
+ * neither read the raw key values, which may be masked in the rows, nor alter them. The schema and table names are
+ * authenticated with the key values, so a token issued for a table is rejected for any other table.
+ */
+public class KeysetToken {
+
+    private static final String SEPARATOR = ".";
+    private static final String HMAC_ALGORITHM = "HmacSHA256";
+    private static final String CIPHER_ALGORITHM = "AES/GCM/NoPadding";
+    private static final byte[] KEY_CONTEXT = "dbmasker keyset token".getBytes(StandardCharsets.UTF_8);
+    private static final int IV_LENGTH = 12;
+    private static final int TAG_LENGTH = 128;
+    private static final SecureRandom IV_SOURCE = new SecureRandom();
+
+    private final String schemaName;
+    private final String tableName;
+    private final List<String> keyColumns;
+    private final List<Object> keyValues;
+
+    /**
+     * Constructor for KeysetToken.
+     *
+     * @param schemaName The schema name of the table, or null or empty for the current schema.
+     * @param tableName  The name of the table the pages are read from.
+     * @param keyColumns The key columns the pages are ordered by.
+     * @param keyValues  The key values of the last row of the page, in the order of the key columns.
+     */
+    public KeysetToken(String schemaName, String tableName, List<String> keyColumns, List<Object> keyValues) {
+        if (tableName == null || keyColumns.isEmpty() || keyColumns.size() != keyValues.size()) {
+            throw new IllegalArgumentException(ErrorMessages.INVALID_PAGE_TOKEN_ERROR);
+        }
+        this.schemaName = schemaName == null ? "" : schemaName;
+        this.tableName = tableName;
+        this.keyColumns = keyColumns;
+        this.keyValues = keyValues;
+    }
+
+    /**
+     * Returns the schema name of the table the pages are read from.
+     *
+     * @return the schema name, empty for the current schema.
+     */
+    public String getSchemaName() {
+        return schemaName;
+    }
+
+    /**
+     * Returns the name of the table the pages are read from.
+     *
+     * @return the table name.
+     */
+    public String getTableName() {
+        return tableName;
+    }
+
+    /**
+     * Returns the key columns the pages are ordered by.
+     *
+     * @return the key columns.
+     */
+    public List<String> getKeyColumns() {
+        return keyColumns;
+    }
+
+    /**
+     * Returns the key values of the last row of the page.
+     *
+     * @return the key values, in the order of the key columns.
+     */
+    public List<Object> getKeyValues() {
+        return keyValues;
+    }
+
+    /**
+     * Encodes the token into an opaque, url-safe string, encrypted with the current page token key.
+     *
+     * @return the encoded token.
+     */
+    public String encode() {
+        StringBuilder payload = new StringBuilder(ValueCodec.encodeText(String.join(",", keyColumns)));
+        for (Object value : keyValues) {
+            payload.append(SEPARATOR).append(ValueCodec.encode(value));
+        }
+        byte[] iv = new byte[IV_LENGTH];
+        IV_SOURCE.nextBytes(iv);
+        byte[] ciphertext = crypt(Cipher.ENCRYPT_MODE, iv, schemaName, tableName,
+                payload.toString().getBytes(StandardCharsets.UTF_8));
+        byte[] token = ByteBuffer.allocate(iv.length + ciphertext.length).put(iv).put(ciphertext).array();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(token);
+    }
+
+    /**
+     * Decodes a token produced by {@link #encode()} for a table.
+     *
+     * @param token      The encoded token.
+     * @param schemaName The schema name of the table, or null or empty for the current schema.
+     * @param tableName  The name of the table the next page is read from.
+     * @return the decoded token.
+     * @throws IllegalArgumentException if the token is not a valid keyset token, was issued for another table, or
+     *                                  is not encrypted with the current page token key.
+     */
+    public static KeysetToken decode(String token, String schemaName, String tableName) {
+        try {
+            byte[] bytes = Base64.getUrlDecoder().decode(token);
+            if (bytes.length <= IV_LENGTH) {
+                throw new IllegalArgumentException(ErrorMessages.INVALID_PAGE_TOKEN_ERROR);
+            }
+            byte[] iv = new byte[IV_LENGTH];
+            System.arraycopy(bytes, 0, iv, 0, IV_LENGTH);
+            byte[] ciphertext = new byte[bytes.length - IV_LENGTH];
+            System.arraycopy(bytes, IV_LENGTH, ciphertext, 0, ciphertext.length);
+            String schema = schemaName == null ? "" : schemaName;
+            String payload = new String(crypt(Cipher.DECRYPT_MODE, iv, schema, tableName, ciphertext),
+                    StandardCharsets.UTF_8);
+
+            String[] parts = payload.split("\\" + SEPARATOR, -1);
+            List<String> keyColumns = List.of(ValueCodec.decodeText(parts[0]).split(","));
+            List<Object> keyValues = new ArrayList<>();
+            for (int i = 1; i < parts.length; i++) {
+                keyValues.add(ValueCodec.decode(parts[i]));
+            }
+            return new KeysetToken(schema, tableName, keyColumns, keyValues);
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException(ErrorMessages.INVALID_PAGE_TOKEN_ERROR, e);
+        }
+    }
+
+    /**
+     * Encrypts or decrypts a token payload with AES-GCM under the key derived from the current page token key,
+     * the schema and table names being authenticated as associated data.
+     *
+     * @param mode       Cipher.ENCRYPT_MODE or Cipher.DECRYPT_MODE.
+     * @param iv         The initialization vector of the token.
+     * @param schemaName The schema name of the table, empty for the current schema.
+     * @param tableName  The name of the table.
+     * @param input      The payload to encrypt, or the ciphertext and tag to decrypt.
+     * @return the ciphertext and tag, or the decrypted payload.
+     * @throws IllegalArgumentException if the ciphertext does not authenticate.
+     */
+    private static byte[] crypt(int mode, byte[] iv, String schemaName, String tableName, byte[] input) {
+        Cipher cipher;
+        try {
+            cipher = Cipher.getInstance(CIPHER_ALGORITHM);
+            cipher.init(mode, new SecretKeySpec(deriveKey(), "AES"), new GCMParameterSpec(TAG_LENGTH, iv));
+        } catch (GeneralSecurityException e) {
+            // Every Java platform supports AES/GCM/NoPadding with 256-bit keys
+            throw new IllegalStateException(e);
+        }
+        // The lengths keep ("a.b", "c") and ("a", "b.c") apart
+        byte[] schema = schemaName.getBytes(StandardCharsets.UTF_8);
+        byte[] table = tableName.getBytes(StandardCharsets.UTF_8);
+        cipher.updateAAD(ByteBuffer.allocate(8 + schema.length + table.length)
+                .putInt(schema.length).put(schema).putInt(table.length).put(table).array());
+        try {
+            return cipher.doFinal(input);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalArgumentException(ErrorMessages.INVALID_PAGE_TOKEN_ERROR, e);
+        }
+    }
+
+    /**
+     * Derives the AES-256 key of the tokens from the current page token key, which can have any length.
+     *
+     * @return the HMAC-SHA256 of a fixed context under the page token key.
+     */
+    private static byte[] deriveKey() {
+        try {
+            Mac mac = Mac.getInstance(HMAC_ALGORITHM);
+            mac.init(new SecretKeySpec(Config.getInstance().getPageTokenKey(), HMAC_ALGORITHM));
+            return mac.doFinal(KEY_CONTEXT);
+        } catch (GeneralSecurityException e) {
+            // Every Java platform supports HmacSHA256
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,191 @@
+package com.dbmasker.utils;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * A bounded, thread-safe cache which evicts the least recently used entry once the maximum size is reached.
+ * Entries can also expire a given time after they were written.
+ * <p>
+ * The cache keeps hit and miss counters so that its efficiency can be monitored.
+ *
+ * @param <K> the type of the keys.
+ * @param <V> the type of the values.
+ */
+public class LruCache<K, V> {
+
+    private final int maxSize;
+    private final long ttlMillis;
+    private final LinkedHashMap<K, Entry<V>> entries;
+    private long hitCount;
+    private long missCount;
+
+    /**
+     * A cached value and the time it was written.
+     *
+     * @param value     The cached value.
+     * @param writeTime The time the value was written, from {@link System#nanoTime()}.
+     * @param <V>       the type of the value.
+     */
+    private record Entry<V>(V value, long writeTime) {
+    }
+
+    /**
+     * Constructor for LruCache, whose entries never expire.
+     *
+     * @param maxSize The maximum number of entries kept in the cache, must be greater than 0.
+     * @throws IllegalArgumentException if maxSize is not greater than 0.
+     */
+    public LruCache(int maxSize) {
+        this(maxSize, 0);
+    }
+
+    /**
+     * Constructor for LruCache.
+     *
+     * @param maxSize   The maximum number of entries kept in the cache, must be greater than 0.
+     * @param ttlMillis The time in milliseconds an entry is kept after it was written, or 0 if entries never expire.
+     * @throws IllegalArgumentException if maxSize is not greater than 0 or ttlMillis is negative.
+     */
+    public LruCache(int maxSize, long ttlMillis) {
+        if (maxSize <= 0) {
+            throw new IllegalArgumentException("Cache size must be greater than 0.");
+        }
+        if (ttlMillis < 0) {
+            throw new IllegalArgumentException("Cache ttl must not be negative.");
+        }
+        this.maxSize = maxSize;
+        this.ttlMillis = ttlMillis;
+        // Access order, so that iteration starts with the least recently used entry
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, Entry<V>> eldest) {
+                return size() > LruCache.this.maxSize;
+            }
+        };
+    }
+
+    /**
+     * Returns the value cached for a key.
+     *
+     * @param key The key to look up.
+     * @return the cached value, or null if the key is not cached or its entry has expired.
+     */
+    public V get(K key) {
+        return get(key, ttlMillis);
+    }
+
+    /**
+     * Returns the value cached for a key, if it was written less than the given time ago.
+     *
+     * @param key          The key to look up.
+     * @param maxAgeMillis The maximum age in milliseconds of the entry, or 0 to accept an entry of any age.
+     * @return the cached value, or null if the key is not cached or its entry is too old.
+     */
+    public synchronized V get(K key, long maxAgeMillis) {
+        Entry<V> entry = entries.get(key);
+        if (entry != null && maxAgeMillis > 0 && System.nanoTime() - entry.writeTime() >= maxAgeMillis * 1_000_000L) {
+            entries.remove(key);
+            entry = null;
+        }
+        if (entry == null) {
+            missCount++;
+            return null;
+        }
+        hitCount++;
+        return entry.value();
+    }
+
+    /**
+     * Caches a value for a key, evicting the least recently used entry if the cache is full.
+     *
+     * @param key   The key of the entry.
+     * @param value The value of the entry, must not be null.
+     */
+    public synchronized void put(K key, V value) {
+        entries.put(key, new Entry<>(value, System.nanoTime()));
+    }
+
+    /**
+     * Returns the value cached for a key, computing and caching it if the key is not cached.
+     * The value is computed outside the lock, so a slow computation does not block other readers.
+     *
+     * @param key             The key to look up.
+     * @param mappingFunction The function computing the value of a missing key, must not return null.
+     * @return the cached or computed value.
+     */
+    public V computeIfAbsent(K key, Function<? super K, ? extends V> mappingFunction) {
+        V value = get(key);
+        if (value != null) {
+            return value;
+        }
+        V computed = mappingFunction.apply(key);
+        synchronized (this) {
+            // Another thread may have cached the key in the meantime, keep its value
+            Entry<V> existing = entries.putIfAbsent(key, new Entry<>(computed, System.nanoTime()));
+            return existing != null ? existing.value() : computed;
+        }
+    }
+
+    /**
+     * Removes the entry of a key from the cache.
+     *
+     * @param key The key to remove.
+     */
+    public synchronized void invalidate(K key) {
+        entries.remove(key);
+    }
+
+    /**
+     * Removes all entries from the cache. The hit and miss counters are kept.
+     */
+    public synchronized void clear() {
+        entries.clear();
+    }
+
+    /**
+     * Returns the number of entries in the cache.
+     *
+     * @return the number of entries in the cache.
+     */
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    /**
+     * Returns the maximum number of entries kept in the cache.
+     *
+     * @return the maximum number of entries.
+     */
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    /**
+     * Returns the time in milliseconds an entry is kept after it was written.
+     *
+     * @return the ttl of the entries, or 0 if entries never expire.
+     */
+    public long getTtlMillis() {
+        return ttlMillis;
+    }
+
+    /**
+     * Returns the number of lookups which found a cached value.
+     *
+     * @return the hit count.
+     */
+    public synchronized long getHitCount() {
+        return hitCount;
+    }
+
+    /**
+     * Returns the number of lookups which did not find a cached value.
+     *
+     * @return the miss count.
+     */
+    public synchronized long getMissCount() {
+        return missCount;
+    }
+}
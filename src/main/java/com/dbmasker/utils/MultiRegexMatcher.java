@@ -0,0 +1,117 @@
+package com.dbmasker.utils;
+
+import java.util.List;
+import java.util.regex.Matcher;
+
+/**
+ * Evaluates a list of regular expressions against a text in a single pass over the text.
+ * <p>
+ * The text is read once to compute its length, its number of ASCII digits and the set of its ASCII characters,
+ * and each regex is first checked against a prefilter derived from the regex (the literal characters, digits and
+ * length every match needs). The regex itself only runs on the texts the prefilter cannot reject, which skips most
+ * cells when scanning with a large library of patterns.
+ * <p>
+ * A MultiRegexMatcher keeps one matcher per regex and is not thread-safe.
+ */
+public class MultiRegexMatcher {
+
+    private final String[] regexes;
+    private final Matcher[] matchers;
+    private final RegexPrefilter[] prefilters;
+
+    /**
+     * Constructor for MultiRegexMatcher.
+     *
+     * @param regexes    The regular expressions.
+     * @param matchers   The matcher of each regex.
+     * @param prefilters The prefilter of each regex.
+     */
+    private MultiRegexMatcher(String[] regexes, Matcher[] matchers, RegexPrefilter[] prefilters) {
+        this.regexes = regexes;
+        this.matchers = matchers;
+        this.prefilters = prefilters;
+    }
+
+    /**
+     * Compiles a list of regular expressions, reusing the patterns cached by PatternCache.
+     *
+     * @param regexList The regular expressions.
+     * @return the matcher of the regexes.
+     * @throws java.util.regex.PatternSyntaxException if a regular expression is invalid.
+     */
+    public static MultiRegexMatcher compile(List<String> regexList) {
+        int size = regexList.size();
+        String[] regexes = new String[size];
+        Matcher[] matchers = new Matcher[size];
+        RegexPrefilter[] prefilters = new RegexPrefilter[size];
+        for (int i = 0; i < size; i++) {
+            regexes[i] = regexList.get(i);
+            matchers[i] = PatternCache.compile(regexes[i]).matcher("");
+            prefilters[i] = RegexPrefilter.of(regexes[i]);
+        }
+        return new MultiRegexMatcher(regexes, matchers, prefilters);
+    }
+
+    /**
+     * Returns the number of regular expressions.
+     *
+     * @return the number of regexes.
+     */
+    public int getRegexCount() {
+        return regexes.length;
+    }
+
+    /**
+     * Returns a regular expression.
+     *
+     * @param index The index of the regex in the compiled list.
+     * @return the regular expression.
+     */
+    public String getRegex(int index) {
+        return regexes[index];
+    }
+
+    /**
+     * Finds which of the selected regular expressions match part of a text.
+     *
+     * @param text     The text to match, null never matches.
+     * @param selected The regexes to evaluate, by index, or null to evaluate all of them.
+     * @param matched  Set to true for each evaluated regex which matches the text, and false otherwise.
+     * @return the number of regexes which matched.
+     */
+    public int match(CharSequence text, boolean[] selected, boolean[] matched) {
+        if (text == null) {
+            for (int i = 0; i < regexes.length; i++) {
+                matched[i] = false;
+            }
+            return 0;
+        }
+
+        // Read the text once for all the prefilters
+        int digitCount = 0;
+        long asciiLow = 0;
+        long asciiHigh = 0;
+        for (int i = 0, length = text.length(); i < length; i++) {
+            char c = text.charAt(i);
+            if (c < 64) {
+                asciiLow |= 1L << c;
+                if (c >= '0' && c <= '9') {
+                    digitCount++;
+                }
+            } else if (c < 128) {
+                asciiHigh |= 1L << (c - 64);
+            }
+        }
+
+        int count = 0;
+        for (int i = 0; i < regexes.length; i++) {
+            matched[i] = (selected == null || selected[i])
+                    && prefilters[i].test(text, digitCount, asciiLow, asciiHigh)
+                    && matchers[i].reset(text).find();
+            if (matched[i]) {
+                count++;
+            }
+        }
+        return count;
+    }
+}
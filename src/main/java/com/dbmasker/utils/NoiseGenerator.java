@@ -0,0 +1,81 @@
+package com.dbmasker.utils;
+
+import com.dbmasker.exception.RandomNoiseGenerationFailedException;
+
+import java.security.ProviderException;
+import java.security.SecureRandom;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * A utility class providing the random sources used to add noise to numeric data.
+ * <p>
+ * All methods are thread-safe. Each thread has its own SecureRandom, and the fast source is the ThreadLocalRandom
+ * of the thread, so that concurrent masking threads never contend on a shared generator. The deterministic source
+ * derives the noise from the seed and the value with a mixing function, without creating a generator per value.
+ */
+public class NoiseGenerator {
+
+    // One non-blocking SecureRandom per thread, created on first use
+    private static final ThreadLocal<SecureRandom> SECURE_RANDOM = ThreadLocal.withInitial(SecureRandom::new);
+
+    private static final long GOLDEN_GAMMA = 0x9e3779b97f4a7c15L;
+    private static final double DOUBLE_UNIT = 0x1.0p-53;
+
+    /**
+     * Default constructor for NoiseGenerator class.
+     */
+    private NoiseGenerator() {
+        throw new UnsupportedOperationException();
+    }
+
+    /**
+     * Returns a random double between 0 (inclusive) and 1 (exclusive) from the given noise source.
+     *
+     * @param mode  The noise source to use. A null mode falls back to {@link NoiseMode#SECURE}.
+     * @param seed  The seed used by {@link NoiseMode#DETERMINISTIC}, ignored by the other modes.
+     * @param value The original value, used by {@link NoiseMode#DETERMINISTIC} to derive the noise.
+     * @return a double between 0 (inclusive) and 1 (exclusive).
+     * @throws RandomNoiseGenerationFailedException if the secure random source fails, such as when its entropy
+     *                                              source cannot be read.
+     */
+    public static double nextDouble(NoiseMode mode, long seed, double value) {
+        if (mode == null) {
+            return nextSecureDouble();
+        }
+        return switch (mode) {
+            case FAST -> ThreadLocalRandom.current().nextDouble();
+            // The same seed and value always give the same noise, whatever the thread or row order
+            case DETERMINISTIC -> nextDeterministicDouble(seed ^ Double.doubleToLongBits(value));
+            default -> nextSecureDouble();
+        };
+    }
+
+    /**
+     * Returns the first double a SplittableRandom created with the given seed would return, computed directly with
+     * the mixing function of SplittableRandom, so that the noise stays the same without allocating a generator.
+     *
+     * @param seed The seed derived from the seed of the rule and the value.
+     * @return a double between 0 (inclusive) and 1 (exclusive).
+     */
+    static double nextDeterministicDouble(long seed) {
+        long z = seed + GOLDEN_GAMMA;
+        z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+        z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+        z = z ^ (z >>> 31);
+        return (z >>> 11) * DOUBLE_UNIT;
+    }
+
+    /**
+     * Returns a random double from the SecureRandom of the current thread.
+     *
+     * @return a double between 0 (inclusive) and 1 (exclusive).
+     * @throws RandomNoiseGenerationFailedException if the SecureRandom cannot be created or seeded.
+     */
+    private static double nextSecureDouble() {
+        try {
+            return SECURE_RANDOM.get().nextDouble();
+        } catch (ProviderException | SecurityException e) {
+            throw new RandomNoiseGenerationFailedException(ErrorMessages.RANDOM_NOISE_GENERATION_ERROR, e);
+        }
+    }
+}
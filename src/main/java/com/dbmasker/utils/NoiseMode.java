@@ -0,0 +1,53 @@
+package com.dbmasker.utils;
+
+/**
+ This is an enumeration representing the available sources of random noise used by the ADD_NOISE obfuscation method.
+ */
+public enum NoiseMode {
+    /**
+     * Secure: noise is drawn from a per-thread, non-blocking SecureRandom. This is the default mode.
+     */
+    SECURE(1),
+    /**
+     * Fast: noise is drawn from a per-thread pseudo random generator, for high throughput masking.
+     */
+    FAST(2),
+    /**
+     * Deterministic: noise is derived from a seed and the original value, so that the same dataset is always
+     * masked the same way. Useful for reproducible test datasets.
+     */
+    DETERMINISTIC(3);
+
+    private final int mode;
+
+    /**
+     * Constructor for NoiseMode enum.
+     * @param mode the code representing the noise mode.
+     */
+    NoiseMode(int mode) {
+        this.mode = mode;
+    }
+
+    /**
+     * Getter for the code representing the noise mode.
+     * @return the code representing the noise mode.
+     */
+    public int getMode() {
+        return mode;
+    }
+
+    /**
+     * Method for getting the NoiseMode based on the code representing the noise mode.
+     * @param code the code representing the noise mode.
+     * @return the NoiseMode corresponding to the code provided.
+     * @throws IllegalArgumentException if an invalid code is provided.
+     */
+    public static NoiseMode valueOf(int code) {
+        for (NoiseMode noiseMode : NoiseMode.values()) {
+            if (noiseMode.getMode() == code) {
+                return noiseMode;
+            }
+        }
+        throw new IllegalArgumentException("Invalid code: " + code);
+    }
+}
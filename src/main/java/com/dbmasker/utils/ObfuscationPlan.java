@@ -0,0 +1,312 @@
+package com.dbmasker.utils;
+
+import com.dbmasker.data.ColumnVector;
+import com.dbmasker.data.DoubleColumnVector;
+import com.dbmasker.data.LongColumnVector;
+import com.dbmasker.data.ObfuscationRule;
+import com.dbmasker.data.ObjectColumnVector;
+import com.dbmasker.data.StringColumnVector;
+
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.util.*;
+
+/**
+ * An obfuscation plan resolves, once per result set, which obfuscation rules apply to which column.
+ * <p>
+ * The plan holds the column labels, the column type names and, for every column, the chain of rules
+ * to apply (or null when the column is not obfuscated), so that rows can be processed with array lookups
+ * only instead of matching every rule against every cell.
+ */
+public class ObfuscationPlan {
+
+    private final String[] columnLabels;
+    private final String[] columnTypes;
+    private final ObfuscationRule[][] rules;
+
+    /**
+     * Constructor for ObfuscationPlan.
+     *
+     * @param columnLabels The column labels, indexed from 0.
+     * @param columnTypes  The column type names, indexed from 0.
+     * @param rules        The rule chain of each column, indexed from 0. A null entry means no obfuscation.
+     */
+    private ObfuscationPlan(String[] columnLabels, String[] columnTypes, ObfuscationRule[][] rules) {
+        this.columnLabels = columnLabels;
+        this.columnTypes = columnTypes;
+        this.rules = rules;
+    }
+
+    /**
+     * Builds an obfuscation plan from the metadata of a result set.
+     *
+     * @param metaData         The metadata of the result set.
+     * @param obfuscationRules A map where the key is the column name and the value is the ObfuscationRule object to apply to that column.
+     * @param renameMap        A map containing column rename rules, where the key is the original column name and the value is the renamed column set.
+     * @return The obfuscation plan of the result set.
+     * @throws SQLException if a database access error occurs
+     */
+    public static ObfuscationPlan build(ResultSetMetaData metaData, Map<String, ObfuscationRule> obfuscationRules,
+                                        Map<String, Set<String>> renameMap) throws SQLException {
+        int columnCount = metaData.getColumnCount();
+        String[] columnLabels = new String[columnCount];
+        String[] columnTypes = new String[columnCount];
+
+        for (int i = 0; i < columnCount; i++) {
+            columnLabels[i] = metaData.getColumnLabel(i + 1);
+            try {
+                columnTypes[i] = metaData.getColumnTypeName(i + 1);
+            } catch (SQLException e) {
+                columnTypes[i] = null;
+            }
+        }
+        return build(columnLabels, columnTypes, obfuscationRules, renameMap);
+    }
+
+    /**
+     * Builds an obfuscation plan from the column labels and types.
+     *
+     * @param columnLabels     The column labels, indexed from 0.
+     * @param columnTypes      The column type names, indexed from 0.
+     * @param obfuscationRules A map where the key is the column name and the value is the ObfuscationRule object to apply to that column.
+     * @param renameMap        A map containing column rename rules, where the key is the original column name and the value is the renamed column set.
+     * @return The obfuscation plan of the columns.
+     */
+    public static ObfuscationPlan build(String[] columnLabels, String[] columnTypes, Map<String, ObfuscationRule> obfuscationRules,
+                                        Map<String, Set<String>> renameMap) {
+        ObfuscationRule[][] rules = new ObfuscationRule[columnLabels.length][];
+        if (obfuscationRules == null || obfuscationRules.isEmpty()) {
+            return new ObfuscationPlan(columnLabels, columnTypes, rules);
+        }
+
+        // Lowercase the rule columns once, keeping the iteration order of the rules map
+        List<String> ruleColumns = new ArrayList<>(obfuscationRules.size());
+        List<ObfuscationRule> ruleList = new ArrayList<>(obfuscationRules.size());
+        for (Map.Entry<String, ObfuscationRule> entry : obfuscationRules.entrySet()) {
+            ruleColumns.add(entry.getKey().toLowerCase(Locale.ENGLISH));
+            ruleList.add(entry.getValue());
+        }
+
+        for (int i = 0; i < columnLabels.length; i++) {
+            String columnName = columnLabels[i].toLowerCase(Locale.ENGLISH);
+            Set<String> renamedColumns = renameMap == null ? Collections.emptySet()
+                    : renameMap.getOrDefault(columnName, Collections.emptySet());
+
+            List<ObfuscationRule> chain = new ArrayList<>();
+            for (int j = 0; j < ruleColumns.size(); j++) {
+                String ruleColumn = ruleColumns.get(j);
+                if (columnName.equals(ruleColumn) || renamedColumns.contains(ruleColumn)) {
+                    chain.add(ruleList.get(j));
+                }
+            }
+            if (!chain.isEmpty()) {
+                rules[i] = chain.toArray(new ObfuscationRule[0]);
+            }
+        }
+        return new ObfuscationPlan(columnLabels, columnTypes, rules);
+    }
+
+    /**
+     * Returns the number of columns in the plan.
+     *
+     * @return the number of columns.
+     */
+    public int getColumnCount() {
+        return columnLabels.length;
+    }
+
+    /**
+     * Returns the label of a column.
+     *
+     * @param index The index of the column, starting at 0.
+     * @return the label of the column.
+     */
+    public String getColumnLabel(int index) {
+        return columnLabels[index];
+    }
+
+    /**
+     * Returns the type name of a column.
+     *
+     * @param index The index of the column, starting at 0.
+     * @return the type name of the column, or null if the driver could not provide it.
+     */
+    public String getColumnType(int index) {
+        return columnTypes[index];
+    }
+
+    /**
+     * Returns the rule chain of a column.
+     *
+     * @param index The index of the column, starting at 0.
+     * @return the rules to apply to the column in order, or null if the column is not obfuscated.
+     */
+    public ObfuscationRule[] getRules(int index) {
+        return rules[index];
+    }
+
+    /**
+     * Returns whether a column is obfuscated.
+     *
+     * @param index The index of the column, starting at 0.
+     * @return true if at least one rule applies to the column, false otherwise.
+     */
+    public boolean isObfuscated(int index) {
+        return rules[index] != null;
+    }
+
+    /**
+     * Applies the rule chain of a column to a value.
+     *
+     * @param index The index of the column, starting at 0.
+     * @param value The value read from the column.
+     * @return the obfuscated value, or the value itself if the column is not obfuscated.
+     */
+    public Object apply(int index, Object value) {
+        ObfuscationRule[] chain = rules[index];
+        if (chain == null) {
+            return value;
+        }
+        for (ObfuscationRule rule : chain) {
+            value = ObfuscationUtils.doObfuscation(value, rule);
+        }
+        return value;
+    }
+
+    /**
+     * Applies the rule chain of a column to a vector of values. A single ADD_NOISE rule over an integer or floating
+     * point vector, or a single GENERALIZE rule over an integer vector, runs as a loop over the primitive array of the
+     * vector; other chains are applied value by value. Null values stay null.
+     *
+     * @param index  The index of the column, starting at 0.
+     * @param vector The values read from the column.
+     * @return the vector of the obfuscated values, or the vector itself if the column is not obfuscated.
+     */
+    public ColumnVector apply(int index, ColumnVector vector) {
+        ObfuscationRule[] chain = rules[index];
+        if (chain == null) {
+            return vector;
+        }
+        if (chain.length == 1 && chain[0].getMethod() == ObfuscationMethod.ADD_NOISE) {
+            if (vector instanceof LongColumnVector longVector) {
+                return addNoise(longVector, chain[0]);
+            }
+            if (vector instanceof DoubleColumnVector doubleVector) {
+                return addNoise(doubleVector, chain[0]);
+            }
+        }
+        if (chain.length == 1 && chain[0].getMethod() == ObfuscationMethod.GENERALIZE
+                && vector instanceof LongColumnVector longVector) {
+            return generalize(longVector, chain[0]);
+        }
+
+        int size = vector.size();
+        Object[] values = new Object[size];
+        boolean allStrings = true;
+        boolean allDoubles = true;
+        for (int i = 0; i < size; i++) {
+            if (vector.isNull(i)) {
+                continue;
+            }
+            values[i] = apply(index, vector.getObject(i));
+            allStrings &= values[i] == null || values[i] instanceof String;
+            allDoubles &= values[i] == null || values[i] instanceof Double;
+        }
+        if (allStrings) {
+            StringColumnVector result = new StringColumnVector(size);
+            for (Object value : values) {
+                result.append((String) value);
+            }
+            return result;
+        }
+        if (allDoubles) {
+            DoubleColumnVector result = new DoubleColumnVector(size);
+            for (Object value : values) {
+                if (value == null) {
+                    result.appendNull();
+                } else {
+                    result.append((Double) value);
+                }
+            }
+            return result;
+        }
+        ObjectColumnVector result = new ObjectColumnVector(size);
+        for (Object value : values) {
+            result.append(value);
+        }
+        return result;
+    }
+
+    /**
+     * Adds noise to each value of an integer vector, as ObfuscationUtils.doObfuscation does to each value.
+     *
+     * @param vector The values read from the column.
+     * @param rule   The ADD_NOISE rule.
+     * @return the vector of the values with added noise.
+     */
+    private static DoubleColumnVector addNoise(LongColumnVector vector, ObfuscationRule rule) {
+        int size = vector.size();
+        long[] values = vector.getValues();
+        DoubleColumnVector result = new DoubleColumnVector(size);
+        for (int i = 0; i < size; i++) {
+            if (vector.isNull(i)) {
+                result.appendNull();
+            } else {
+                result.append(ObfuscationUtils.addNoise(values[i], rule.getNoiseRange(), rule.getNoiseMode(),
+                        rule.getNoiseSeed()));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Adds noise to each value of a floating point vector, as ObfuscationUtils.doObfuscation does to each value.
+     *
+     * @param vector The values read from the column.
+     * @param rule   The ADD_NOISE rule.
+     * @return the vector of the values with added noise.
+     */
+    private static DoubleColumnVector addNoise(DoubleColumnVector vector, ObfuscationRule rule) {
+        int size = vector.size();
+        double[] values = vector.getValues();
+        DoubleColumnVector result = new DoubleColumnVector(size);
+        for (int i = 0; i < size; i++) {
+            if (vector.isNull(i)) {
+                result.appendNull();
+            } else {
+                result.append(ObfuscationUtils.addNoise(values[i], rule.getNoiseRange(), rule.getNoiseMode(),
+                        rule.getNoiseSeed()));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Generalizes each value of an integer vector into its range, as ObfuscationUtils.doObfuscation does to each
+     * value. The label of each range is built once per vector.
+     *
+     * @param vector The values read from the column.
+     * @param rule   The GENERALIZE rule.
+     * @return the dictionary-encoded vector of the ranges.
+     * @throws NumberFormatException if a value does not fit in an int, as when it is parsed value by value
+     */
+    private static StringColumnVector generalize(LongColumnVector vector, ObfuscationRule rule) {
+        int size = vector.size();
+        long[] values = vector.getValues();
+        Map<Integer, String> labels = new HashMap<>();
+        StringColumnVector result = new StringColumnVector(size);
+        for (int i = 0; i < size; i++) {
+            if (vector.isNull(i)) {
+                result.appendNull();
+                continue;
+            }
+            long value = values[i];
+            if (value < Integer.MIN_VALUE || value > Integer.MAX_VALUE) {
+                throw new NumberFormatException("For input string: \"" + value + "\"");
+            }
+            result.append(labels.computeIfAbsent((int) value / rule.getRange() * rule.getRange(),
+                    lowerBound -> lowerBound + "-" + (lowerBound + rule.getRange() - 1)));
+        }
+        return result;
+    }
+}
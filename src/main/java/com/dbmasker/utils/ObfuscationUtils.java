@@ -3,9 +3,6 @@ package com.dbmasker.utils;
 import com.dbmasker.data.ObfuscationRule;
 import com.dbmasker.exception.RandomNoiseGenerationFailedException;
 
-import java.security.NoSuchAlgorithmException;
-import java.security.SecureRandom;
-import java.util.Random;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -79,11 +76,33 @@ public class ObfuscationUtils {
             return input;
         }
 
-        Pattern pattern = Pattern.compile(regex);
+        Pattern pattern = PatternCache.compile(regex);
         Matcher matcher = pattern.matcher(input);
         return matcher.replaceAll(replacement);
     }
 
+    /**
+     * Replaces all occurrences of the regular expression of a rule with the replacement string of the rule,
+     * reusing the compiled pattern and the matcher of the rule.
+     *
+     * @param input           The input string to be processed.
+     * @param obfuscationRule The rule holding the regular expression and the replacement string.
+     * @return The resulting string with all matched occurrences replaced by the replacement string.
+     */
+    public static String replaceWithRegex(String input, ObfuscationRule obfuscationRule) {
+        if (input == null || input.isEmpty() || obfuscationRule.getRegex() == null || obfuscationRule.getReplacement() == null) {
+            return input;
+        }
+
+        Matcher matcher = obfuscationRule.getMatcher(input);
+        try {
+            return matcher.replaceAll(obfuscationRule.getReplacement());
+        } finally {
+            // Release the input, which the matcher kept by the thread would otherwise keep reachable
+            matcher.reset("");
+        }
+    }
+
     /**
      * Generalizes an integer value by grouping it into a range.
      * @param data The integer value to be generalized.
@@ -98,21 +117,32 @@ public class ObfuscationUtils {
     }
 
     /**
-     * Adds random noise to the given original value within the specified noise range.
+     * Adds random noise to the given original value within the specified noise range, using a secure noise source.
      *
      * @param originalValue The original double value to which noise will be added.
      * @param noiseRange The range of the random noise to be added. The actual noise added
      *                   will be between -noiseRange/2 and +noiseRange/2.
      * @return The double value with added noise within the specified noise range.
+     * @throws RandomNoiseGenerationFailedException if the secure noise source fails.
      */
     public static double addNoise(double originalValue, double noiseRange) {
-        try {
-            Random random = SecureRandom.getInstanceStrong();
-            double noise = random.nextDouble() * noiseRange - (noiseRange / 2);
-            return originalValue + noise;
-        } catch (NoSuchAlgorithmException e) {
-            throw new RandomNoiseGenerationFailedException("Failed to generate random noise", e);
-        }
+        return addNoise(originalValue, noiseRange, NoiseMode.SECURE, 0);
+    }
+
+    /**
+     * Adds random noise to the given original value within the specified noise range.
+     *
+     * @param originalValue The original double value to which noise will be added.
+     * @param noiseRange The range of the random noise to be added. The actual noise added
+     *                   will be between -noiseRange/2 and +noiseRange/2.
+     * @param noiseMode The source of the random noise.
+     * @param noiseSeed The seed used by the deterministic noise mode, ignored by the other modes.
+     * @return The double value with added noise within the specified noise range.
+     * @throws RandomNoiseGenerationFailedException if the secure noise source fails.
+     */
+    public static double addNoise(double originalValue, double noiseRange, NoiseMode noiseMode, long noiseSeed) {
+        double noise = NoiseGenerator.nextDouble(noiseMode, noiseSeed, originalValue) * noiseRange - (noiseRange / 2);
+        return originalValue + noise;
     }
 
     /**
@@ -130,10 +160,10 @@ public class ObfuscationUtils {
             case MASK ->
                     mask(data.toString(), obfuscationRule.getStart(), obfuscationRule.getEnd(), obfuscationRule.getMaskChar());
             case TRUNCATE -> truncate(data.toString(), obfuscationRule.getStart(), obfuscationRule.getEnd());
-            case REPLACE ->
-                    replaceWithRegex(data.toString(), obfuscationRule.getRegex(), obfuscationRule.getReplacement());
+            case REPLACE -> replaceWithRegex(data.toString(), obfuscationRule);
             case GENERALIZE -> generalize(Integer.parseInt(data.toString()), obfuscationRule.getRange());
-            case ADD_NOISE -> addNoise(Double.parseDouble(data.toString()), obfuscationRule.getNoiseRange());
+            case ADD_NOISE -> addNoise(Double.parseDouble(data.toString()), obfuscationRule.getNoiseRange(),
+                    obfuscationRule.getNoiseMode(), obfuscationRule.getNoiseSeed());
             default -> throw new IllegalArgumentException("Invalid obfuscation method");
         };
     }
@@ -0,0 +1,68 @@
+package com.dbmasker.utils;
+
+import java.util.regex.Pattern;
+
+/**
+ * A utility class caching compiled regular expressions, shared by the obfuscation rules and the data scanner.
+ */
+public class PatternCache {
+
+    /**
+     * The maximum number of compiled patterns kept in the cache.
+     */
+    public static final int MAX_SIZE = 512;
+
+    private static final LruCache<String, Pattern> CACHE = new LruCache<>(MAX_SIZE);
+
+    /**
+     * Default constructor for PatternCache class.
+     */
+    private PatternCache() {
+        throw new UnsupportedOperationException();
+    }
+
+    /**
+     * Returns the compiled pattern of a regular expression, compiling it only if it is not cached.
+     *
+     * @param regex The regular expression to compile.
+     * @return the compiled pattern.
+     * @throws java.util.regex.PatternSyntaxException if the regular expression is invalid.
+     */
+    public static Pattern compile(String regex) {
+        return CACHE.computeIfAbsent(regex, Pattern::compile);
+    }
+
+    /**
+     * Returns the number of lookups which found a compiled pattern in the cache.
+     *
+     * @return the hit count.
+     */
+    public static long getHitCount() {
+        return CACHE.getHitCount();
+    }
+
+    /**
+     * Returns the number of lookups which had to compile the pattern.
+     *
+     * @return the miss count.
+     */
+    public static long getMissCount() {
+        return CACHE.getMissCount();
+    }
+
+    /**
+     * Returns the number of compiled patterns in the cache.
+     *
+     * @return the number of compiled patterns.
+     */
+    public static int size() {
+        return CACHE.size();
+    }
+
+    /**
+     * Removes all compiled patterns from the cache.
+     */
+    public static void clear() {
+        CACHE.clear();
+    }
+}
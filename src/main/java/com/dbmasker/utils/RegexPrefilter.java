@@ -0,0 +1,344 @@
+package com.dbmasker.utils;
+
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * A cheap necessary condition of a regular expression, used to reject most texts before running the regex.
+ * <p>
+ * The condition is derived from the top-level sequence of the regex: the literal characters every match contains,
+ * the minimum number of ASCII digits matched by {@code \d} or digit-only character classes, and the minimum length
+ * of a match. Groups, optional atoms and anything the analysis does not understand contribute nothing, and regexes
+ * with a top-level alternation or inline flags get no condition at all, so a text rejected by the prefilter can
+ * never match the regex.
+ */
+public final class RegexPrefilter {
+
+    /**
+     * The prefilter accepting every text.
+     */
+    public static final RegexPrefilter NONE = new RegexPrefilter(new char[0], 0, 0);
+
+    // Inline flags such as (?i) or (?x) change how literals and whitespace match
+    private static final Pattern INLINE_FLAGS = Pattern.compile("\\(\\?[a-zA-Z-]");
+
+    // The kinds of atoms of a regex
+    private static final int LITERAL = 1;
+    private static final int DIGIT = 2;
+    private static final int OTHER = 3;
+    private static final int ZERO_WIDTH = 4;
+
+    private final char[] requiredChars;
+    private final int minDigits;
+    private final int minLength;
+
+    /**
+     * Constructor for RegexPrefilter.
+     *
+     * @param requiredChars The literal characters every match contains.
+     * @param minDigits     The minimum number of ASCII digits of a match.
+     * @param minLength     The minimum length of a match.
+     */
+    private RegexPrefilter(char[] requiredChars, int minDigits, int minLength) {
+        this.requiredChars = requiredChars;
+        this.minDigits = minDigits;
+        this.minLength = minLength;
+    }
+
+    /**
+     * Derives the prefilter of a regular expression.
+     *
+     * @param regex The regular expression.
+     * @return the prefilter of the regex, or NONE if no condition can be derived.
+     */
+    public static RegexPrefilter of(String regex) {
+        if (INLINE_FLAGS.matcher(regex).find()) {
+            return NONE;
+        }
+
+        Set<Character> requiredChars = new LinkedHashSet<>();
+        int minDigits = 0;
+        int minLength = 0;
+        int n = regex.length();
+        int i = 0;
+        while (i < n) {
+            char c = regex.charAt(i);
+            int kind;
+            char literal = 0;
+            switch (c) {
+                case '|', ')', '*', '+', '?', '{' -> {
+                    return NONE;
+                }
+                case '^', '$' -> {
+                    kind = ZERO_WIDTH;
+                    i++;
+                }
+                case '.' -> {
+                    kind = OTHER;
+                    i++;
+                }
+                case '(' -> {
+                    i = groupEnd(regex, i);
+                    if (i < 0) {
+                        return NONE;
+                    }
+                    kind = ZERO_WIDTH;
+                }
+                case '[' -> {
+                    int end = classEnd(regex, i);
+                    if (end < 0) {
+                        return NONE;
+                    }
+                    kind = isDigitClass(regex.substring(i + 1, end)) ? DIGIT : OTHER;
+                    i = end + 1;
+                }
+                case '\\' -> {
+                    if (i + 1 >= n) {
+                        return NONE;
+                    }
+                    char escaped = regex.charAt(i + 1);
+                    i += 2;
+                    if (escaped == 'd') {
+                        kind = DIGIT;
+                    } else if ("bBAzZG".indexOf(escaped) >= 0) {
+                        kind = ZERO_WIDTH;
+                    } else if ("pP".indexOf(escaped) >= 0) {
+                        kind = OTHER;
+                        if (i < n && regex.charAt(i) == '{') {
+                            i = regex.indexOf('}', i) + 1;
+                            if (i == 0) {
+                                return NONE;
+                            }
+                        } else {
+                            i++;
+                        }
+                    } else if ("wsDWShHvVRX".indexOf(escaped) >= 0) {
+                        kind = OTHER;
+                    } else if ("tnrfae".indexOf(escaped) >= 0) {
+                        kind = LITERAL;
+                        literal = "\t\n\r\f\u0007\u001B".charAt("tnrfae".indexOf(escaped));
+                    } else if (Character.isLetterOrDigit(escaped)) {
+                        // Back references, quoting and code point escapes are not analysed
+                        return NONE;
+                    } else {
+                        kind = LITERAL;
+                        literal = escaped;
+                    }
+                }
+                default -> {
+                    kind = LITERAL;
+                    literal = c;
+                    i++;
+                }
+            }
+
+            // The quantifier of the atom gives its minimum number of repetitions
+            int min = 1;
+            if (i < n) {
+                char quantifier = regex.charAt(i);
+                boolean quantified = true;
+                if (quantifier == '?' || quantifier == '*') {
+                    min = 0;
+                    i++;
+                } else if (quantifier == '+') {
+                    i++;
+                } else if (quantifier == '{') {
+                    int close = regex.indexOf('}', i);
+                    if (close < 0) {
+                        return NONE;
+                    }
+                    String bounds = regex.substring(i + 1, close);
+                    int comma = bounds.indexOf(',');
+                    try {
+                        min = Integer.parseInt(comma < 0 ? bounds : bounds.substring(0, comma));
+                    } catch (NumberFormatException e) {
+                        return NONE;
+                    }
+                    i = close + 1;
+                } else {
+                    quantified = false;
+                }
+                // Lazy and possessive quantifiers have the same minimum
+                if (quantified && i < n && (regex.charAt(i) == '?' || regex.charAt(i) == '+')) {
+                    i++;
+                }
+            }
+
+            if (kind == ZERO_WIDTH) {
+                continue;
+            }
+            minLength += min;
+            if (kind == DIGIT) {
+                minDigits += min;
+            } else if (kind == LITERAL && min > 0) {
+                requiredChars.add(literal);
+            }
+        }
+
+        if (requiredChars.isEmpty() && minDigits == 0 && minLength == 0) {
+            return NONE;
+        }
+        char[] chars = new char[requiredChars.size()];
+        int index = 0;
+        for (Character requiredChar : requiredChars) {
+            chars[index++] = requiredChar;
+        }
+        return new RegexPrefilter(chars, minDigits, minLength);
+    }
+
+    /**
+     * Returns whether a text may match the regex, given the features computed once for all the regexes.
+     *
+     * @param text        The text.
+     * @param digitCount  The number of ASCII digits of the text.
+     * @param asciiLow    The bit set of the ASCII characters 0 to 63 present in the text.
+     * @param asciiHigh   The bit set of the ASCII characters 64 to 127 present in the text.
+     * @return false if the text cannot match the regex, true otherwise.
+     */
+    public boolean test(CharSequence text, int digitCount, long asciiLow, long asciiHigh) {
+        if (text.length() < minLength || digitCount < minDigits) {
+            return false;
+        }
+        for (char requiredChar : requiredChars) {
+            if (requiredChar < 64) {
+                if ((asciiLow & (1L << requiredChar)) == 0) {
+                    return false;
+                }
+            } else if (requiredChar < 128) {
+                if ((asciiHigh & (1L << (requiredChar - 64))) == 0) {
+                    return false;
+                }
+            } else if (text.toString().indexOf(requiredChar) < 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Getter for the literal characters every match contains.
+     *
+     * @return the required characters.
+     */
+    public char[] getRequiredChars() {
+        return requiredChars.clone();
+    }
+
+    /**
+     * Getter for the minimum number of ASCII digits of a match.
+     *
+     * @return the minimum number of digits.
+     */
+    public int getMinDigits() {
+        return minDigits;
+    }
+
+    /**
+     * Getter for the minimum length of a match.
+     *
+     * @return the minimum length.
+     */
+    public int getMinLength() {
+        return minLength;
+    }
+
+    /**
+     * Returns the index following the group starting at an index.
+     *
+     * @param regex The regular expression.
+     * @param start The index of the opening parenthesis.
+     * @return the index following the closing parenthesis, or -1 if the group cannot be delimited.
+     */
+    private static int groupEnd(String regex, int start) {
+        int depth = 0;
+        int i = start;
+        while (i < regex.length()) {
+            char c = regex.charAt(i);
+            if (c == '\\') {
+                i += 2;
+                continue;
+            }
+            if (c == '[') {
+                i = classEnd(regex, i);
+                if (i < 0) {
+                    return -1;
+                }
+            } else if (c == '(') {
+                depth++;
+            } else if (c == ')' && --depth == 0) {
+                return i + 1;
+            }
+            i++;
+        }
+        return -1;
+    }
+
+    /**
+     * Returns the index of the bracket closing the character class starting at an index.
+     *
+     * @param regex The regular expression.
+     * @param start The index of the opening bracket.
+     * @return the index of the closing bracket, or -1 for nested or unterminated classes.
+     */
+    private static int classEnd(String regex, int start) {
+        int i = start + 1;
+        if (i < regex.length() && regex.charAt(i) == '^') {
+            i++;
+        }
+        // A bracket right after the opening one is a literal
+        if (i < regex.length() && regex.charAt(i) == ']') {
+            i++;
+        }
+        while (i < regex.length()) {
+            char c = regex.charAt(i);
+            if (c == '\\') {
+                i += 2;
+                continue;
+            }
+            if (c == '[') {
+                return -1;
+            }
+            if (c == ']') {
+                return i;
+            }
+            i++;
+        }
+        return -1;
+    }
+
+    /**
+     * Returns whether a character class only matches ASCII digits.
+     *
+     * @param content The content of the class, between the brackets.
+     * @return true if the class is made of digits, digit ranges and \d only.
+     */
+    private static boolean isDigitClass(String content) {
+        if (content.isEmpty() || content.startsWith("^") || content.contains("&&")) {
+            return false;
+        }
+        int i = 0;
+        while (i < content.length()) {
+            char c = content.charAt(i);
+            if (c == '\\') {
+                if (i + 1 >= content.length() || content.charAt(i + 1) != 'd') {
+                    return false;
+                }
+                i += 2;
+            } else if (c >= '0' && c <= '9') {
+                if (i + 2 < content.length() && content.charAt(i + 1) == '-') {
+                    char end = content.charAt(i + 2);
+                    if (end < '0' || end > '9') {
+                        return false;
+                    }
+                    i += 3;
+                } else {
+                    i++;
+                }
+            } else {
+                return false;
+            }
+        }
+        return true;
+    }
+}
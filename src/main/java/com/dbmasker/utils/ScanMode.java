@@ -0,0 +1,57 @@
+package com.dbmasker.utils;
+
+/**
+ This is an enumeration representing how an incremental scan handled a table.
+ */
+public enum ScanMode {
+    /**
+     * Full: the table was new, changed or without a usable watermark, and was scanned entirely.
+     * <p>
+     * Where the row count and the watermark cannot show the rows updated in place, a table is only skipped or
+     * scanned incrementally with a modification stamp from the catalog. Without it, every table is scanned
+     * entirely: always on DM, and on SQL Server when the user lacks the VIEW SERVER STATE permission.
+     */
+    FULL(1),
+    /**
+     * Incremental: the table only grew, only the rows past the watermark were scanned and the results were
+     * merged with the previous ones.
+     */
+    INCREMENTAL(2),
+    /**
+     * Skipped: the fingerprint of the table did not change, the previous results were reused without reading any row.
+     */
+    SKIPPED(3);
+
+    private final int mode;
+
+    /**
+     * Constructor for ScanMode enum.
+     * @param mode the code representing the scan mode.
+     */
+    ScanMode(int mode) {
+        this.mode = mode;
+    }
+
+    /**
+     * Getter for the code representing the scan mode.
+     * @return the code representing the scan mode.
+     */
+    public int getMode() {
+        return mode;
+    }
+
+    /**
+     * Method for getting the ScanMode based on the code representing the scan mode.
+     * @param code the code representing the scan mode.
+     * @return the ScanMode corresponding to the code provided.
+     * @throws IllegalArgumentException if an invalid code is provided.
+     */
+    public static ScanMode valueOf(int code) {
+        for (ScanMode scanMode : ScanMode.values()) {
+            if (scanMode.getMode() == code) {
+                return scanMode;
+            }
+        }
+        throw new IllegalArgumentException("Invalid code: " + code);
+    }
+}
@@ -0,0 +1,236 @@
+package com.dbmasker.utils;
+
+import com.dbmasker.data.SensitiveColumn;
+import com.dbmasker.data.TableFingerprint;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A local file holding the fingerprint of each table scanned incrementally, with the sensitive columns found in it,
+ * so that incremental scans work offline and across runs.
+ * <p>
+ * The file is a text file with one line per table, followed by one line per sensitive column of the table. Every
+ * field is encoded by {@link ValueCodec}, so that names and regexes keep their type and never contain the field
+ * separator. The matched values are sensitive data and stay in memory only: the columns loaded from the file have
+ * no match data. The store is thread-safe, and {@link #save()} replaces the file atomically where the file system
+ * supports it.
+ */
+public class ScanStateStore {
+
+    private static final String HEADER = "# dbmasker scan state 1";
+    private static final String SEPARATOR = " ";
+    private static final String TABLE_LINE = "T";
+    private static final String COLUMN_LINE = "C";
+
+    private final Path file;
+    private final Map<String, TableFingerprint> fingerprints = new LinkedHashMap<>();
+
+    /**
+     * Constructor for ScanStateStore.
+     *
+     * @param file The file of the store.
+     */
+    private ScanStateStore(Path file) {
+        this.file = file;
+    }
+
+    /**
+     * Loads a store from its file, or creates an empty store if the file does not exist yet.
+     *
+     * @param file The file of the store.
+     * @return the store.
+     * @throws IOException if the file cannot be read or is not a scan state file.
+     */
+    public static ScanStateStore load(Path file) throws IOException {
+        ScanStateStore store = new ScanStateStore(file);
+        if (!Files.exists(file)) {
+            return store;
+        }
+
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            String line = reader.readLine();
+            if (!HEADER.equals(line)) {
+                throw new IOException(ErrorMessages.INVALID_SCAN_STATE_FILE_ERROR + file);
+            }
+            TableFingerprint fingerprint = null;
+            List<SensitiveColumn> sensitiveColumns = null;
+            int lineNumber = 1;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (line.isEmpty()) {
+                    continue;
+                }
+                try {
+                    String[] fields = line.split(SEPARATOR, -1);
+                    if (TABLE_LINE.equals(fields[0])) {
+                        store.putFingerprint(fingerprint, sensitiveColumns);
+                        sensitiveColumns = new ArrayList<>();
+                        fingerprint = new TableFingerprint((String) ValueCodec.decode(fields[1]),
+                                (String) ValueCodec.decode(fields[2]), (String) ValueCodec.decode(fields[3]),
+                                toLong(ValueCodec.decode(fields[4])), (String) ValueCodec.decode(fields[5]),
+                                (String) ValueCodec.decode(fields[6]), toBigDecimal(ValueCodec.decode(fields[7])),
+                                toLong(ValueCodec.decode(fields[8])), sensitiveColumns);
+                    } else if (COLUMN_LINE.equals(fields[0]) && fingerprint != null) {
+                        // Files written by earlier versions follow with the matched values, which are dropped
+                        sensitiveColumns.add(new SensitiveColumn(fingerprint.getSchemaName(), fingerprint.getTableName(),
+                                (String) ValueCodec.decode(fields[1]), (String) ValueCodec.decode(fields[2])));
+                    } else {
+                        throw new IllegalArgumentException(line);
+                    }
+                } catch (RuntimeException e) {
+                    throw new IOException(ErrorMessages.INVALID_SCAN_STATE_FILE_ERROR + file + ":" + lineNumber, e);
+                }
+            }
+            store.putFingerprint(fingerprint, sensitiveColumns);
+        }
+        return store;
+    }
+
+    /**
+     * Writes the fingerprints of the store to its file, replacing the previous content. The sensitive columns are
+     * written without their match data.
+     *
+     * @throws IOException if the file cannot be written.
+     */
+    public synchronized void save() throws IOException {
+        Path directory = file.toAbsolutePath().getParent();
+        if (directory != null) {
+            Files.createDirectories(directory);
+        }
+        Path tempFile = Files.createTempFile(directory, file.getFileName().toString(), ".tmp");
+        try {
+            try (BufferedWriter writer = Files.newBufferedWriter(tempFile, StandardCharsets.UTF_8)) {
+                writer.write(HEADER);
+                writer.newLine();
+                for (TableFingerprint fingerprint : fingerprints.values()) {
+                    writer.write(String.join(SEPARATOR, TABLE_LINE,
+                            ValueCodec.encode(fingerprint.getSchemaName()),
+                            ValueCodec.encode(fingerprint.getTableName()),
+                            ValueCodec.encode(fingerprint.getScanKey()),
+                            ValueCodec.encode(fingerprint.getRowCount()),
+                            ValueCodec.encode(fingerprint.getModificationStamp()),
+                            ValueCodec.encode(fingerprint.getWatermarkColumn()),
+                            ValueCodec.encode(fingerprint.getWatermark()),
+                            ValueCodec.encode(fingerprint.getScanTime())));
+                    writer.newLine();
+                    for (SensitiveColumn column : fingerprint.getSensitiveColumns()) {
+                        writer.write(String.join(SEPARATOR, COLUMN_LINE,
+                                ValueCodec.encode(column.getColumnName()),
+                                ValueCodec.encode(column.getRegex())));
+                        writer.newLine();
+                    }
+                }
+            }
+            try {
+                Files.move(tempFile, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(tempFile, file, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            Files.deleteIfExists(tempFile);
+        }
+    }
+
+    /**
+     * Returns the fingerprint of a table.
+     *
+     * @param schemaName The name of the schema where the table is located, null for the default schema.
+     * @param tableName  The name of the table or view.
+     * @return the fingerprint of the last incremental scan of the table, or null if the table was never scanned.
+     */
+    public synchronized TableFingerprint get(String schemaName, String tableName) {
+        return fingerprints.get(getKey(schemaName, tableName));
+    }
+
+    /**
+     * Records the fingerprint of a table, replacing the previous one.
+     *
+     * @param fingerprint The fingerprint of the table.
+     */
+    public synchronized void put(TableFingerprint fingerprint) {
+        fingerprints.put(getKey(fingerprint.getSchemaName(), fingerprint.getTableName()), fingerprint);
+    }
+
+    /**
+     * Forgets the fingerprint of a table, so that its next incremental scan is a full scan.
+     *
+     * @param schemaName The name of the schema where the table is located, null for the default schema.
+     * @param tableName  The name of the table or view.
+     */
+    public synchronized void remove(String schemaName, String tableName) {
+        fingerprints.remove(getKey(schemaName, tableName));
+    }
+
+    /**
+     * Returns the fingerprints of all the tables of the store.
+     *
+     * @return the fingerprints, in the order the tables were first recorded.
+     */
+    public synchronized List<TableFingerprint> getAll() {
+        return new ArrayList<>(fingerprints.values());
+    }
+
+    /**
+     * Getter for the file of the store.
+     *
+     * @return the file of the store.
+     */
+    public Path getFile() {
+        return file;
+    }
+
+    /**
+     * Records a fingerprint read from the file, once all its sensitive columns are read.
+     *
+     * @param fingerprint      The fingerprint, or null before the first table.
+     * @param sensitiveColumns The sensitive columns of the table.
+     */
+    private void putFingerprint(TableFingerprint fingerprint, List<SensitiveColumn> sensitiveColumns) {
+        if (fingerprint != null) {
+            put(fingerprint.withSensitiveColumns(sensitiveColumns));
+        }
+    }
+
+    /**
+     * Builds the key of a table in the store. Empty and null schemas both designate the default schema.
+     *
+     * @param schemaName The name of the schema where the table is located.
+     * @param tableName  The name of the table or view.
+     * @return the key of the table.
+     */
+    private static String getKey(String schemaName, String tableName) {
+        return (schemaName == null ? "" : schemaName) + '\0' + tableName;
+    }
+
+    /**
+     * Converts a decoded number to a Long.
+     *
+     * @param value The decoded value.
+     * @return the value as a Long, or null.
+     */
+    private static Long toLong(Object value) {
+        return value == null ? null : ((Number) value).longValue();
+    }
+
+    /**
+     * Converts a decoded number to a BigDecimal.
+     *
+     * @param value The decoded value.
+     * @return the value as a BigDecimal, or null.
+     */
+    private static BigDecimal toBigDecimal(Object value) {
+        return value == null ? null : new BigDecimal(value.toString());
+    }
+}
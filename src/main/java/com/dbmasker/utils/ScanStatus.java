@@ -0,0 +1,65 @@
+package com.dbmasker.utils;
+
+/**
+ This is an enumeration representing the reasons why a sensitive data scan stopped.
+ */
+public enum ScanStatus {
+    /**
+     * Completed: every row of the table, or of the sample, was scanned.
+     */
+    COMPLETED(1),
+    /**
+     * Saturated: every column collected enough matches for every regular expression, or was ruled out,
+     * and the remaining rows were skipped.
+     */
+    SATURATED(2),
+    /**
+     * Row budget exhausted: the maximum number of rows was scanned, the results may be partial.
+     */
+    ROW_BUDGET_EXHAUSTED(3),
+    /**
+     * Time budget exhausted: the maximum duration was reached, the results may be partial.
+     */
+    TIME_BUDGET_EXHAUSTED(4);
+
+    private final int status;
+
+    /**
+     * Constructor for ScanStatus enum.
+     * @param status the code representing the scan status.
+     */
+    ScanStatus(int status) {
+        this.status = status;
+    }
+
+    /**
+     * Getter for the code representing the scan status.
+     * @return the code representing the scan status.
+     */
+    public int getStatus() {
+        return status;
+    }
+
+    /**
+     * Returns whether the scan stopped on a budget before the matches were all collected.
+     * @return true if the results of the scan may be partial, false otherwise.
+     */
+    public boolean isPartial() {
+        return this == ROW_BUDGET_EXHAUSTED || this == TIME_BUDGET_EXHAUSTED;
+    }
+
+    /**
+     * Method for getting the ScanStatus based on the code representing the scan status.
+     * @param code the code representing the scan status.
+     * @return the ScanStatus corresponding to the code provided.
+     * @throws IllegalArgumentException if an invalid code is provided.
+     */
+    public static ScanStatus valueOf(int code) {
+        for (ScanStatus scanStatus : ScanStatus.values()) {
+            if (scanStatus.getStatus() == code) {
+                return scanStatus;
+            }
+        }
+        throw new IllegalArgumentException("Invalid code: " + code);
+    }
+}
@@ -0,0 +1,112 @@
+package com.dbmasker.utils;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.sql.Date;
+import java.sql.Time;
+import java.sql.Timestamp;
+import java.util.Base64;
+
+/**
+ * A utility class encoding column values into url-safe strings which keep their type, shared by the keyset
+ * page tokens and the scan state files.
+ * <p>
+ * Each value is encoded as a type tag followed by its text in url-safe base64, so that the encoded value
+ * contains no separator nor whitespace and is decoded with the same type. Integers are widened to long, and
+ * values of other types are decoded as their string representation.
+ */
+public class ValueCodec {
+
+    /**
+     * Default constructor for ValueCodec class.
+     */
+    private ValueCodec() {
+        throw new UnsupportedOperationException();
+    }
+
+    /**
+     * Encodes a value with a type tag, so that it is decoded with the same type.
+     *
+     * @param value The value.
+     * @return the encoded value.
+     */
+    public static String encode(Object value) {
+        char tag;
+        String text;
+        if (value == null) {
+            return "N";
+        } else if (value instanceof Integer || value instanceof Long || value instanceof Short || value instanceof Byte) {
+            tag = 'L';
+            text = value.toString();
+        } else if (value instanceof BigDecimal bigDecimal) {
+            tag = 'M';
+            text = bigDecimal.toPlainString();
+        } else if (value instanceof BigInteger) {
+            tag = 'M';
+            text = value.toString();
+        } else if (value instanceof Double || value instanceof Float) {
+            tag = 'F';
+            text = value.toString();
+        } else if (value instanceof Timestamp) {
+            tag = 'T';
+            text = value.toString();
+        } else if (value instanceof Date) {
+            tag = 'D';
+            text = value.toString();
+        } else if (value instanceof Time) {
+            tag = 'H';
+            text = value.toString();
+        } else {
+            tag = 'S';
+            text = value.toString();
+        }
+        return tag + encodeText(text);
+    }
+
+    /**
+     * Decodes a value encoded by {@link #encode(Object)}.
+     *
+     * @param part The encoded value.
+     * @return the value.
+     * @throws IllegalArgumentException if the encoded value is not valid.
+     */
+    public static Object decode(String part) {
+        char tag = part.charAt(0);
+        if (tag == 'N') {
+            return null;
+        }
+        String text = decodeText(part.substring(1));
+        return switch (tag) {
+            case 'L' -> Long.parseLong(text);
+            case 'M' -> new BigDecimal(text);
+            case 'F' -> Double.parseDouble(text);
+            case 'T' -> Timestamp.valueOf(text);
+            case 'D' -> Date.valueOf(text);
+            case 'H' -> Time.valueOf(text);
+            case 'S' -> text;
+            default -> throw new IllegalArgumentException("Invalid value tag: " + tag);
+        };
+    }
+
+    /**
+     * Encodes a string with url-safe base64.
+     *
+     * @param text The string to encode.
+     * @return the encoded string.
+     */
+    public static String encodeText(String text) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(text.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decodes a string encoded by {@link #encodeText(String)}.
+     *
+     * @param part The encoded string.
+     * @return the decoded string.
+     * @throws IllegalArgumentException if the string is not valid base64.
+     */
+    public static String decodeText(String part) {
+        return new String(Base64.getUrlDecoder().decode(part), StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,61 @@
+package com.dbmasker.utils;
+
+/**
+ This is an enumeration representing the storage of a column in a columnar result batch.
+ */
+public enum VectorKind {
+    /**
+     * Long: integer values read with ResultSet.getLong into a primitive array.
+     */
+    LONG(1),
+    /**
+     * Double: floating point values read with ResultSet.getDouble into a primitive array.
+     */
+    DOUBLE(2),
+    /**
+     * String: character values read with ResultSet.getString, each distinct value stored once in a dictionary.
+     */
+    STRING(3),
+    /**
+     * Timestamp: date and timestamp values read with ResultSet.getTimestamp into primitive arrays of
+     * milliseconds since the epoch and nanoseconds.
+     */
+    TIMESTAMP(4),
+    /**
+     * Object: any other value, read as the row-oriented operations read it.
+     */
+    OBJECT(5);
+
+    private final int kind;
+
+    /**
+     * Constructor for VectorKind enum.
+     * @param kind the code representing the vector kind.
+     */
+    VectorKind(int kind) {
+        this.kind = kind;
+    }
+
+    /**
+     * Getter for the code representing the vector kind.
+     * @return the code representing the vector kind.
+     */
+    public int getKind() {
+        return kind;
+    }
+
+    /**
+     * Method for getting the VectorKind based on the code representing the vector kind.
+     * @param code the code representing the vector kind.
+     * @return the VectorKind corresponding to the code provided.
+     * @throws IllegalArgumentException if an invalid code is provided.
+     */
+    public static VectorKind valueOf(int code) {
+        for (VectorKind vectorKind : VectorKind.values()) {
+            if (vectorKind.getKind() == code) {
+                return vectorKind;
+            }
+        }
+        throw new IllegalArgumentException("Invalid code: " + code);
+    }
+}
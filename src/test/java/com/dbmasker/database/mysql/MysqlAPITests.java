@@ -446,6 +446,46 @@ class MysqlAPITests {
         }
     }
 
+    @Test
+    void testGetDataWithKeysetSameTableInTwoSchemas() throws SQLException {
+        // keyset_items exists in both databases, keyed by a reserved word here and by another column there
+        DBManager.executeUpdateSQL(connection, dbType, "CREATE TABLE keyset_items (`order` INT PRIMARY KEY, code VARCHAR(10))");
+        DBManager.executeUpdateSQL(connection, dbType, "INSERT INTO keyset_items VALUES (3, 'c'), (1, 'a'), (2, 'b')");
+        DBManager.executeUpdateSQL(connection, dbType, "CREATE DATABASE db_mysql_keyset");
+        try {
+            DBManager.executeUpdateSQL(connection, dbType, "CREATE TABLE db_mysql_keyset.keyset_items (`order` INT, code VARCHAR(10) PRIMARY KEY)");
+            DBManager.executeUpdateSQL(connection, dbType, "INSERT INTO db_mysql_keyset.keyset_items VALUES (1, 'z'), (2, 'y'), (3, 'x')");
+
+            Map<String, Object> result = DBManager.getDataWithKeyset(connection, dbType, "db_mysql_test", "keyset_items", null, 2, null);
+            Assertions.assertEquals(List.of(1, 2), DbUtils.getResultList(result).stream().map(row -> row.get("order")).toList());
+            String pageToken = (String) result.get("nextPageToken");
+            result = DBManager.getDataWithKeyset(connection, dbType, "db_mysql_test", "keyset_items", List.of("code"), 2, pageToken);
+            Assertions.assertEquals(List.of(Map.of("code", "c")), DbUtils.getResultList(result));
+            Assertions.assertNull(result.get("nextPageToken"));
+
+            // the current database is used when the schema is empty
+            result = DBManager.getDataWithKeyset(connection, dbType, "", "keyset_items", null, 3, null);
+            Assertions.assertEquals(List.of(1, 2, 3), DbUtils.getResultList(result).stream().map(row -> row.get("order")).toList());
+
+            result = DBManager.getDataWithKeyset(connection, dbType, "db_mysql_keyset", "keyset_items", null, 2, null);
+            Assertions.assertEquals(List.of("x", "y"), DbUtils.getResultList(result).stream().map(row -> row.get("code")).toList());
+            String otherToken = (String) result.get("nextPageToken");
+            result = DBManager.getDataWithKeyset(connection, dbType, "db_mysql_keyset", "keyset_items", null, 2, otherToken);
+            Assertions.assertEquals(List.of("z"), DbUtils.getResultList(result).stream().map(row -> row.get("code")).toList());
+
+            // a token of one database is rejected by the other
+            try {
+                DBManager.getDataWithKeyset(connection, dbType, "db_mysql_test", "keyset_items", null, 2, otherToken);
+                Assertions.fail();
+            } catch (IllegalArgumentException e) {
+                Assertions.assertEquals(ErrorMessages.INVALID_PAGE_TOKEN_ERROR, e.getMessage());
+            }
+        } finally {
+            DBManager.executeUpdateSQL(connection, dbType, "DROP DATABASE IF EXISTS db_mysql_keyset");
+            DBManager.executeUpdateSQL(connection, dbType, "DROP TABLE IF EXISTS keyset_items");
+        }
+    }
+
     @Test
     void testExecuteQuerySQL() throws SQLException, ClassNotFoundException {
         createTable(connection, dbType);
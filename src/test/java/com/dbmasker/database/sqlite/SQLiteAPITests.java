@@ -1,20 +1,50 @@
 package com.dbmasker.database.sqlite;
 
 import com.dbmasker.api.DBManager;
+import com.dbmasker.api.DBSecManager;
+import com.dbmasker.data.CatalogRefresh;
+import com.dbmasker.data.CatalogSnapshot;
+import com.dbmasker.data.ColumnBatch;
+import com.dbmasker.data.ColumnHeader;
+import com.dbmasker.data.CompactResult;
+import com.dbmasker.data.LongColumnVector;
+import com.dbmasker.data.ObfuscationRule;
+import com.dbmasker.data.PoolOptions;
+import com.dbmasker.data.ScanOptions;
+import com.dbmasker.data.StringColumnVector;
 import com.dbmasker.data.TableAttribute;
 import com.dbmasker.data.TableIndex;
 import com.dbmasker.data.TableMetaData;
+import com.dbmasker.data.TableScanResult;
+import com.dbmasker.database.CatalogSnapshotStore;
+import com.dbmasker.database.ConnectionPools;
 import com.dbmasker.database.DbType;
+import com.dbmasker.database.PooledDataSource;
+import com.dbmasker.database.StatementCache;
+import com.dbmasker.utils.Config;
+import com.dbmasker.utils.ObfuscationMethod;
+import com.dbmasker.utils.CountStrategy;
 import com.dbmasker.utils.DbUtils;
 import com.dbmasker.utils.ErrorMessages;
+import com.dbmasker.utils.NoiseMode;
+import com.dbmasker.utils.VectorKind;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 
 import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.sql.Connection;
+import java.sql.DriverManager;
 import java.sql.SQLException;
+import java.sql.SQLTimeoutException;
+import java.sql.Statement;
+import java.sql.Types;
 import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 class SQLiteAPITests {
 
@@ -330,6 +360,149 @@ class SQLiteAPITests {
         Assertions.assertEquals(0, DBManager.getIndex(connection, dbType, null, "fakeTable").size());
     }
 
+    @Test
+    void testGetCatalogSnapshot() throws SQLException, ClassNotFoundException {
+        Connection connection = DBManager.createConnection(driver, url, username, password);
+        createTable(connection, dbType);
+        DBManager.executeUpdateSQL(connection, dbType, "CREATE TABLE departments (id INTEGER PRIMARY KEY, name TEXT)");
+        DBManager.executeUpdateSQL(connection, dbType, "CREATE INDEX idx_departments_name ON departments (name)");
+
+        CatalogSnapshot snapshot = DBManager.getCatalogSnapshot(connection, dbType, "");
+        Assertions.assertEquals(DBManager.getTables(connection, dbType, ""), snapshot.getTableNames());
+        Assertions.assertEquals(new HashSet<>(DBManager.getMetaData(connection, dbType, "")), new HashSet<>(snapshot.getMetaData()));
+        for (String table : snapshot.getTableNames()) {
+            List<String> expectColumns = DBManager.getTableAttribute(connection, dbType, "", table).stream()
+                    .map(TableAttribute::getName).toList();
+            Assertions.assertEquals(expectColumns, snapshot.getTableAttributes(table).stream().map(TableAttribute::getName).toList());
+            Assertions.assertEquals(DBManager.getPrimaryKeys(connection, dbType, "", table), snapshot.getPrimaryKeys(table));
+            Assertions.assertEquals(new HashSet<>(DBManager.getIndex(connection, dbType, "", table)),
+                    new HashSet<>(snapshot.getIndexes(table)));
+        }
+        Assertions.assertEquals(DBManager.getUniqueKeys(connection, dbType, "", "employees"), snapshot.getUniqueKeys("employees"));
+        Assertions.assertTrue(snapshot.getUniqueKeys("departments").isEmpty());
+        Assertions.assertTrue(snapshot.getTableAttributes("employees").get(0).isPrimaryKey());
+        Assertions.assertEquals("TEXT", snapshot.getColumnTypes("employees").get("email"));
+
+        // more test cases
+        Assertions.assertFalse(snapshot.containsTable("fakeTable"));
+        Assertions.assertTrue(snapshot.getTableAttributes("fakeTable").isEmpty());
+
+        try {
+            DBManager.getCatalogSnapshot(null, dbType, "");
+            Assertions.fail();
+        } catch (IllegalArgumentException e) {
+            Assertions.assertEquals(e.getMessage(), ErrorMessages.NULL_CONNECTION_OR_DB_TYPE_ERROR);
+        }
+    }
+
+    @Test
+    void testRefreshCatalogSnapshot() throws SQLException, ClassNotFoundException {
+        Connection connection = DBManager.createConnection(driver, url, username, password);
+        createTable(connection, dbType);
+        DBManager.executeUpdateSQL(connection, dbType, "CREATE TABLE departments (id INTEGER PRIMARY KEY, name TEXT)");
+        DBManager.executeUpdateSQL(connection, dbType, "CREATE TABLE archive (id INTEGER)");
+
+        Map<String, String> stamps = DBManager.getTableDdlStamps(connection, dbType, "");
+        CatalogSnapshot snapshot = DBManager.getCatalogSnapshot(connection, dbType, "");
+        Assertions.assertEquals(new HashSet<>(snapshot.getTableNames()), stamps.keySet());
+
+        CatalogRefresh refresh = DBManager.refreshCatalogSnapshot(connection, dbType, snapshot, stamps);
+        Assertions.assertFalse(refresh.hasChanges());
+        Assertions.assertSame(snapshot, refresh.getSnapshot());
+
+        DBManager.executeUpdateSQL(connection, dbType, "ALTER TABLE departments ADD COLUMN budget INTEGER");
+        DBManager.executeUpdateSQL(connection, dbType, "CREATE UNIQUE INDEX idx_departments_name ON departments (name)");
+        DBManager.executeUpdateSQL(connection, dbType, "CREATE TABLE projects (id INTEGER PRIMARY KEY)");
+        DBManager.executeUpdateSQL(connection, dbType, "DROP TABLE archive");
+        refresh = DBManager.refreshCatalogSnapshot(connection, dbType, snapshot, stamps);
+        Assertions.assertTrue(refresh.hasChanges());
+        Assertions.assertEquals(List.of("projects"), refresh.getAddedTables());
+        Assertions.assertEquals(List.of("departments"), refresh.getChangedTables());
+        Assertions.assertEquals(List.of("archive"), refresh.getRemovedTables());
+
+        CatalogSnapshot refreshed = refresh.getSnapshot();
+        CatalogSnapshot expected = DBManager.getCatalogSnapshot(connection, dbType, "");
+        Assertions.assertEquals(new HashSet<>(expected.getTableNames()), new HashSet<>(refreshed.getTableNames()));
+        for (String table : expected.getTableNames()) {
+            Assertions.assertEquals(expected.getMetaData(table), refreshed.getMetaData(table));
+            Assertions.assertEquals(expected.getPrimaryKeys(table), refreshed.getPrimaryKeys(table));
+            Assertions.assertEquals(expected.getUniqueKeys(table), refreshed.getUniqueKeys(table));
+            Assertions.assertEquals(new HashSet<>(expected.getIndexes(table)), new HashSet<>(refreshed.getIndexes(table)));
+        }
+        Assertions.assertEquals("INTEGER", refreshed.getColumnTypes("departments").get("budget"));
+        Assertions.assertTrue(snapshot.containsTable("archive"));
+
+        // more test cases
+        refresh = DBManager.refreshCatalogSnapshot(connection, dbType, refreshed, refresh.getTableStamps());
+        Assertions.assertFalse(refresh.hasChanges());
+
+        // Without stamps only the tables whose definition differs are reported
+        refresh = DBManager.refreshCatalogSnapshot(connection, dbType, refreshed, null);
+        Assertions.assertFalse(refresh.hasChanges());
+        Assertions.assertSame(refreshed, refresh.getSnapshot());
+        DBManager.executeUpdateSQL(connection, dbType, "CREATE INDEX idx_projects_id ON projects (id)");
+        refresh = DBManager.refreshCatalogSnapshot(connection, dbType, refreshed, null);
+        Assertions.assertEquals(List.of("projects"), refresh.getChangedTables());
+        Assertions.assertTrue(refresh.getAddedTables().isEmpty());
+
+        try {
+            DBManager.refreshCatalogSnapshot(connection, dbType, null, stamps);
+            Assertions.fail();
+        } catch (IllegalArgumentException e) {
+            Assertions.assertEquals(e.getMessage(), ErrorMessages.NULL_CATALOG_SNAPSHOT_ERROR);
+        }
+        DBManager.closeConnection(connection);
+    }
+
+    @Test
+    void testCatalogSnapshotStore() throws SQLException, ClassNotFoundException, IOException {
+        Connection connection = DBManager.createConnection(driver, url, username, password);
+        createTable(connection, dbType);
+        Path file = Files.createTempFile("dbmasker-catalog", ".bin");
+        Files.delete(file);
+        try {
+            CatalogSnapshotStore store = CatalogSnapshotStore.open(file, dbType, "");
+            Assertions.assertNull(store.getSnapshot());
+            Assertions.assertTrue(store.validate(connection));
+            Assertions.assertTrue(Files.exists(file));
+            Assertions.assertFalse(store.validate(connection));
+
+            // A restarted process reads the saved snapshot without querying the catalog
+            CatalogSnapshotStore restarted = CatalogSnapshotStore.open(file, dbType, "");
+            CatalogSnapshot snapshot = restarted.getSnapshot();
+            CatalogSnapshot expected = store.getSnapshot();
+            Assertions.assertEquals(expected.getTableNames(), snapshot.getTableNames());
+            Assertions.assertEquals(expected.getMetaData(), snapshot.getMetaData());
+            Assertions.assertEquals(expected.getColumnTypes("employees"), snapshot.getColumnTypes("employees"));
+            Assertions.assertEquals(expected.getPrimaryKeys("employees"), snapshot.getPrimaryKeys("employees"));
+            Assertions.assertEquals(expected.getUniqueKeys("employees"), snapshot.getUniqueKeys("employees"));
+            Assertions.assertEquals(expected.getIndexes("employees"), snapshot.getIndexes("employees"));
+            Assertions.assertEquals(store.getTableStamps(), restarted.getTableStamps());
+            Assertions.assertFalse(restarted.validate(connection));
+
+            // A changed table definition is seen by the background validation
+            DBManager.executeUpdateSQL(connection, dbType, "ALTER TABLE employees ADD COLUMN phone TEXT");
+            ExecutorService executor = Executors.newSingleThreadExecutor();
+            try {
+                Assertions.assertTrue(restarted.validateAsync(
+                        () -> DriverManager.getConnection(url, username, password), executor).join());
+            } finally {
+                executor.shutdown();
+            }
+            Assertions.assertEquals("TEXT", restarted.getSnapshot().getColumnTypes("employees").get("phone"));
+            Assertions.assertEquals("TEXT", CatalogSnapshotStore.open(file, dbType, "").getSnapshot()
+                    .getColumnTypes("employees").get("phone"));
+
+            // more test cases
+            Assertions.assertNull(CatalogSnapshotStore.open(file, DbType.MYSQL.getDbName(), "").getSnapshot());
+            Files.writeString(file, "not a catalog snapshot file");
+            Assertions.assertThrows(IOException.class, () -> CatalogSnapshotStore.open(file, dbType, "").getSnapshot());
+        } finally {
+            Files.deleteIfExists(file);
+            DBManager.closeConnection(connection);
+        }
+    }
+
     @Test
     void testExecuteUpdateSQL() throws SQLException, ClassNotFoundException {
         Connection connection = DBManager.createConnection(driver, url, username, password);
@@ -933,6 +1106,142 @@ class SQLiteAPITests {
         Assertions.assertEquals(resultList.size(), 0);
     }
 
+    @Test
+    void testGetDataWithPageCountStrategy() throws SQLException, ClassNotFoundException {
+        Connection connection = DBManager.createConnection(driver, url, username, password);
+        createTable(connection, dbType);
+        insertData(connection, dbType);
+        insertData1(connection, dbType);
+
+        Map<String, Object> result = DBManager.getDataWithPage(connection, dbType, "", "employees", null, 1, 5, CountStrategy.EXACT);
+        Assertions.assertEquals(result.get("totalPages"), 1);
+        Assertions.assertEquals(result.get("countStrategy"), CountStrategy.EXACT);
+
+        // the first cached read counts the rows, the next ones reuse the count
+        result = DBManager.getDataWithPage(connection, dbType, "", "employees", null, 1, 1, CountStrategy.CACHED);
+        Assertions.assertEquals(result.get("totalPages"), 2);
+        Assertions.assertEquals(result.get("countStrategy"), CountStrategy.EXACT);
+
+        insertData2(connection, dbType);
+        result = DBManager.getDataWithPage(connection, dbType, "", "employees", null, 1, 1, CountStrategy.CACHED);
+        Assertions.assertEquals(result.get("totalPages"), 2);
+        Assertions.assertEquals(result.get("countStrategy"), CountStrategy.CACHED);
+
+        // SQLite has no catalog statistics, the estimate falls back to an exact count
+        result = DBManager.getDataWithPage(connection, dbType, "", "employees", null, 1, 1, CountStrategy.ESTIMATE);
+        Assertions.assertEquals(result.get("totalPages"), 12);
+        Assertions.assertEquals(result.get("countStrategy"), CountStrategy.EXACT);
+
+        result = DBManager.getDataWithPage(connection, dbType, "", "employees", null, -1, 1, CountStrategy.ESTIMATE);
+        Assertions.assertEquals(result.get("totalPages"), 1);
+        Assertions.assertNull(result.get("countStrategy"));
+
+        // more test cases
+        try {
+            DBManager.getDataWithPage(connection, dbType, "", "employees", null, 1, 1, null);
+            Assertions.fail();
+        } catch (IllegalArgumentException e) {
+            Assertions.assertEquals(e.getMessage(), ErrorMessages.NULL_COUNT_STRATEGY_ERROR);
+        }
+
+        try {
+            Config.getInstance().setCountCacheTtl(0);
+            Assertions.fail();
+        } catch (IllegalArgumentException e) {
+            Assertions.assertEquals(e.getMessage(), ErrorMessages.INVALID_COUNT_CACHE_TTL_ERROR);
+        }
+        Assertions.assertEquals(Config.DEFAULT_COUNT_CACHE_TTL, Config.getInstance().getCountCacheTtl());
+    }
+
+    @Test
+    void testGetDataWithKeyset() throws SQLException, ClassNotFoundException {
+        Connection connection = DBManager.createConnection(driver, url, username, password);
+        createTable(connection, dbType);
+        insertData(connection, dbType);
+        insertData1(connection, dbType);
+        insertData2(connection, dbType);
+
+        List<Map<String, Object>> allData = DBManager.getTableOrViewData(connection, dbType, "", "employees");
+
+        List<Map<String, Object>> pagedData = new ArrayList<>();
+        String pageToken = null;
+        int pages = 0;
+        do {
+            Map<String, Object> result = DBManager.getDataWithKeyset(connection, dbType, "", "employees", null, 5, pageToken);
+            pagedData.addAll(DbUtils.getResultList(result));
+            pageToken = (String) result.get("nextPageToken");
+            pages++;
+        } while (pageToken != null);
+        Assertions.assertEquals(3, pages);
+        Assertions.assertEquals(allData, pagedData);
+
+        // the key column is fetched to build the token but not returned
+        List<String> columnNames = new ArrayList<>();
+        columnNames.add("first_name");
+        Map<String, Object> result = DBManager.getDataWithKeyset(connection, dbType, null, "employees", columnNames, 4, null);
+        List<Map<String, Object>> resultList = DbUtils.getResultList(result);
+        Assertions.assertEquals(4, resultList.size());
+        Assertions.assertEquals(Map.of("first_name", "John"), resultList.get(0));
+
+        result = DBManager.getDataWithKeyset(connection, dbType, null, "employees", columnNames, 4, (String) result.get("nextPageToken"));
+        resultList = DbUtils.getResultList(result);
+        Assertions.assertEquals(Map.of("first_name", "Charlie"), resultList.get(0));
+
+        result = DBManager.getDataWithKeyset(connection, dbType, null, "employees", null, 12, null);
+        Assertions.assertEquals(12, DbUtils.getResultList(result).size());
+        Assertions.assertNull(result.get("nextPageToken"));
+
+        // composite primary key
+        DBManager.executeUpdateSQL(connection, dbType, "CREATE TABLE scores (team TEXT NOT NULL, member INTEGER NOT NULL, score INTEGER, PRIMARY KEY (team, member))");
+        DBManager.executeUpdateSQL(connection, dbType, "INSERT INTO scores VALUES ('b', 1, 10), ('a', 2, 20), ('a', 1, 30), ('b', 2, 40), ('c', 1, 50)");
+        result = DBManager.getDataWithKeyset(connection, dbType, "", "scores", null, 2, null);
+        result = DBManager.getDataWithKeyset(connection, dbType, "", "scores", null, 2, (String) result.get("nextPageToken"));
+        resultList = DbUtils.getResultList(result);
+        Assertions.assertEquals(10, resultList.get(0).get("score"));
+        Assertions.assertEquals(40, resultList.get(1).get("score"));
+
+        // more test cases
+        DBManager.executeUpdateSQL(connection, dbType, "CREATE TABLE logs (message TEXT)");
+        try {
+            DBManager.getDataWithKeyset(connection, dbType, "", "logs", null, 5, null);
+            Assertions.fail();
+        } catch (SQLException e) {
+            Assertions.assertTrue(e.getMessage().startsWith(ErrorMessages.NO_UNIQUE_KEY_ERROR));
+        }
+
+        try {
+            DBManager.getDataWithKeyset(connection, dbType, "", "employees", null, 5, "fakeToken");
+            Assertions.fail();
+        } catch (IllegalArgumentException e) {
+            Assertions.assertEquals(ErrorMessages.INVALID_PAGE_TOKEN_ERROR, e.getMessage());
+        }
+
+        // a token of a table is rejected by another table with the same key columns
+        DBManager.executeUpdateSQL(connection, dbType, "CREATE TABLE managers (id INTEGER PRIMARY KEY, name TEXT)");
+        String employeesToken = (String) DBManager.getDataWithKeyset(connection, dbType, "", "employees", null, 5, null)
+                .get("nextPageToken");
+        try {
+            DBManager.getDataWithKeyset(connection, dbType, "", "managers", null, 5, employeesToken);
+            Assertions.fail();
+        } catch (IllegalArgumentException e) {
+            Assertions.assertEquals(ErrorMessages.INVALID_PAGE_TOKEN_ERROR, e.getMessage());
+        }
+
+        try {
+            DBManager.getDataWithKeyset(connection, dbType, "", "employees", null, 0, null);
+            Assertions.fail();
+        } catch (IllegalArgumentException e) {
+            Assertions.assertEquals(ErrorMessages.INVALID_PAGE_SIZE_ERROR, e.getMessage());
+        }
+
+        try {
+            DBManager.getDataWithKeyset(connection, dbType, "", null, null, 5, null);
+            Assertions.fail();
+        } catch (IllegalArgumentException e) {
+            Assertions.assertEquals(ErrorMessages.NULL_TABLE_OR_VIEW_NAME_ERROR, e.getMessage());
+        }
+    }
+
     @Test
     void testMultiTypeData() throws SQLException, ClassNotFoundException {
         Connection connection = DBManager.createConnection(driver, url, username, password);
@@ -976,4 +1285,501 @@ class SQLiteAPITests {
         Assertions.assertEquals(expectMap.get("MyDateTime"), result.get(0).get("MyDateTime"));
         Assertions.assertArrayEquals((byte[]) expectMap.get("MyBlob"), (byte[]) result.get(0).get("MyBlob"));
     }
+
+    @Test
+    void testPooledDataSource() throws SQLException, ClassNotFoundException, InterruptedException {
+        PoolOptions options = new PoolOptions();
+        options.setMaxSize(2);
+        options.setMaxWaitMillis(100);
+        options.setValidationIntervalMillis(0);
+        try (PooledDataSource dataSource = new PooledDataSource(driver, url, username, password, options)) {
+            Connection connection = dataSource.getConnection();
+            createTable(connection, dbType);
+            connection.close();
+            Assertions.assertTrue(connection.isClosed());
+            Assertions.assertEquals(1, dataSource.getIdleCount());
+
+            // The idle connection is reused
+            connection = dataSource.getConnection();
+            Assertions.assertEquals(1, dataSource.getTotalCount());
+            Assertions.assertEquals(1, dataSource.getActiveCount());
+
+            // A pending transaction is rolled back when the connection is returned
+            connection.setAutoCommit(false);
+            insertData(connection, dbType);
+            connection.close();
+            connection = dataSource.getConnection();
+            Assertions.assertTrue(connection.getAutoCommit());
+            Assertions.assertEquals(0, DBManager.executeQuerySQL(connection, dbType, "SELECT * FROM employees").size());
+
+            // The transaction isolation changed by the borrower is restored when the connection is returned
+            int isolation = connection.getTransactionIsolation();
+            connection.setTransactionIsolation(isolation == Connection.TRANSACTION_SERIALIZABLE
+                    ? Connection.TRANSACTION_READ_UNCOMMITTED : Connection.TRANSACTION_SERIALIZABLE);
+            connection.close();
+            connection = dataSource.getConnection();
+            Assertions.assertEquals(isolation, connection.getTransactionIsolation());
+            Assertions.assertEquals(1, dataSource.getTotalCount());
+
+            // The pool is exhausted, the third caller times out
+            Connection connection1 = dataSource.getConnection();
+            try {
+                dataSource.getConnection();
+                Assertions.fail("Expected an SQLTimeoutException to be thrown");
+            } catch (SQLTimeoutException e) {
+                // pass
+            }
+
+            // A waiting caller gets the connection which is returned
+            Connection[] borrowed = new Connection[1];
+            Thread waiter = new Thread(() -> {
+                try {
+                    borrowed[0] = dataSource.getConnection();
+                } catch (SQLException e) {
+                    // the assertion below fails
+                }
+            });
+            waiter.start();
+            connection1.close();
+            waiter.join();
+            Assertions.assertNotNull(borrowed[0]);
+            borrowed[0].close();
+
+            // The objects of a borrowed connection hand out the borrowed connection, never the physical one
+            Statement statement = connection.createStatement();
+            Assertions.assertSame(connection, statement.getConnection());
+            Assertions.assertSame(connection, statement.executeQuery("SELECT 1").getStatement().getConnection());
+            Assertions.assertSame(connection, connection.getMetaData().getConnection());
+            Assertions.assertSame(connection, connection.unwrap(Connection.class));
+
+            // The statements left open are closed when the connection is returned
+            connection.close();
+            Assertions.assertTrue(statement.isClosed());
+            connection = dataSource.getConnection();
+            Assertions.assertEquals(0, DBManager.executeQuerySQL(connection, dbType, "SELECT * FROM employees").size());
+            connection.close();
+            Assertions.assertEquals(2, dataSource.getTotalCount());
+
+            try {
+                connection.createStatement();
+                Assertions.fail("Expected an SQLException to be thrown");
+            } catch (SQLException e) {
+                Assertions.assertEquals(ErrorMessages.CONNECTION_CLOSED_ERROR, e.getMessage());
+            }
+        }
+
+        // Idle eviction keeps the minimum size, leak detection reports connections held for too long
+        options = new PoolOptions();
+        options.setMinSize(1);
+        options.setIdleTimeoutMillis(20);
+        options.setLeakDetectionMillis(20);
+        PooledDataSource dataSource = new PooledDataSource(driver, url, username, password, options);
+        Connection connection = dataSource.getConnection();
+        Connection connection1 = dataSource.getConnection();
+        Assertions.assertEquals(2, dataSource.getTotalCount());
+        Thread.sleep(50);
+        dataSource.evictIdleConnections();
+        Assertions.assertEquals(2, dataSource.getLeakCount());
+        connection.close();
+        connection1.close();
+        Thread.sleep(50);
+        dataSource.evictIdleConnections();
+        Assertions.assertEquals(1, dataSource.getTotalCount());
+        dataSource.close();
+        Assertions.assertEquals(0, dataSource.getTotalCount());
+
+        // more test cases
+        try {
+            dataSource.getConnection();
+            Assertions.fail("Expected an SQLException to be thrown");
+        } catch (SQLException e) {
+            Assertions.assertEquals(ErrorMessages.POOL_CLOSED_ERROR, e.getMessage());
+        }
+        try {
+            options.setMinSize(options.getMaxSize() + 1);
+            new PooledDataSource(driver, url, username, password, options);
+            Assertions.fail("Expected an IllegalArgumentException to be thrown");
+        } catch (IllegalArgumentException e) {
+            // pass
+        }
+        try {
+            new PooledDataSource("org.unknown.Driver", url, username, password, null);
+            Assertions.fail("Expected a ClassNotFoundException to be thrown");
+        } catch (ClassNotFoundException e) {
+            // pass
+        }
+    }
+
+    @Test
+    void testConnectionPooling() throws SQLException, ClassNotFoundException {
+        Config.getInstance().setConnectionPooling(true);
+        try {
+            Connection connection = DBManager.createConnection(driver, url, username, password);
+            createTable(connection, dbType);
+            insertData(connection, dbType);
+            DBManager.closeConnection(connection);
+
+            PooledDataSource dataSource = DBManager.getDataSource(driver, url, username, password);
+            Assertions.assertSame(dataSource, DBManager.getDataSource(driver, url, username, password));
+            Assertions.assertEquals(1, dataSource.getIdleCount());
+            connection = DBManager.createConnection(driver, url, username, password);
+            Assertions.assertEquals(1, dataSource.getTotalCount());
+            Assertions.assertEquals(1, DBManager.executeQuerySQL(connection, dbType, "SELECT * FROM employees").size());
+            DBManager.closeConnection(connection);
+
+            // The pool supplies the connections of a schema scan
+            ScanOptions scanOptions = new ScanOptions();
+            List<TableScanResult> results = DBSecManager.scanSchemaData(dataSource, dbType, "",
+                    List.of("^[A-Z][a-z]+$"), scanOptions, null);
+            Assertions.assertFalse(results.isEmpty());
+            Assertions.assertEquals(0, dataSource.getActiveCount());
+        } finally {
+            Config.getInstance().setConnectionPooling(Config.DEFAULT_CONNECTION_POOLING);
+            DBManager.closeDataSources();
+        }
+        Assertions.assertEquals(0, ConnectionPools.size());
+
+        // more test cases
+        try {
+            DBManager.getDataSource(driver, null, username, password);
+            Assertions.fail("Expected an IllegalArgumentException to be thrown");
+        } catch (IllegalArgumentException e) {
+            // pass
+        }
+    }
+
+    @Test
+    void testExecuteQuerySQLBatchParallel() throws SQLException, ClassNotFoundException {
+        Connection connection = DBManager.createConnection(driver, url, username, password);
+        createTable(connection, dbType);
+        insertData2(connection, dbType);
+        DBManager.closeConnection(connection);
+
+        List<String> sqlList = new ArrayList<>();
+        for (int i = 1; i <= 10; i++) {
+            sqlList.add("SELECT first_name, email FROM employees WHERE id = " + i);
+        }
+        sqlList.add("SELECT COUNT(*) AS total FROM employees");
+
+        PoolOptions options = new PoolOptions();
+        options.setMaxSize(3);
+        try (PooledDataSource dataSource = new PooledDataSource(driver, url, username, password, options)) {
+            // The results keep the order of the queries
+            List<List<Map<String, Object>>> results = DBManager.executeQuerySQLBatch(dataSource, dbType, sqlList, 3);
+            Assertions.assertEquals(sqlList.size(), results.size());
+            Assertions.assertEquals("Alice", results.get(0).get(0).get("first_name"));
+            Assertions.assertEquals("Eva", results.get(4).get(0).get("first_name"));
+            Assertions.assertEquals("Jane", results.get(9).get(0).get("first_name"));
+            Assertions.assertEquals(10, results.get(10).get(0).get("total"));
+            Assertions.assertTrue(dataSource.getTotalCount() <= 3);
+            Assertions.assertEquals(0, dataSource.getActiveCount());
+
+            // The obfuscation rules apply to every result
+            ObfuscationRule obfuscationRule = new ObfuscationRule();
+            obfuscationRule.setMethod(ObfuscationMethod.REPLACE);
+            obfuscationRule.setRegex(".+");
+            obfuscationRule.setReplacement("[email redacted]");
+            results = DBSecManager.execQuerySQLBatchWithMask(dataSource, dbType, sqlList.subList(0, 2),
+                    Map.of("email", obfuscationRule), 2);
+            Assertions.assertEquals("Bob", results.get(1).get(0).get("first_name"));
+            Assertions.assertEquals("[email redacted]", results.get(1).get(0).get("email"));
+
+            // The first failure stops the batch and is reported
+            List<String> failingList = new ArrayList<>(sqlList);
+            failingList.add(3, "SELECT * FROM missing_table");
+            try {
+                DBManager.executeQuerySQLBatch(dataSource, dbType, failingList, 3);
+                Assertions.fail("Expected an SQLException to be thrown");
+            } catch (SQLException e) {
+                Assertions.assertTrue(e.getMessage().contains("missing_table"));
+            }
+            Assertions.assertEquals(0, dataSource.getActiveCount());
+
+            // A statement starting with WITH which writes is rolled back, and the connections are reusable
+            try {
+                DBManager.executeQuerySQLBatch(dataSource, dbType,
+                        List.of("WITH gone AS (SELECT 1) DELETE FROM employees"), 1);
+            } catch (SQLException e) {
+                // pass, the driver may reject an update run as a query
+            }
+            try (Connection pooled = dataSource.getConnection()) {
+                Assertions.assertTrue(pooled.getAutoCommit());
+                Assertions.assertEquals(10, DBManager.executeQuerySQL(pooled, dbType,
+                        "SELECT * FROM employees").size());
+            }
+        }
+
+        // more test cases
+        try {
+            DBManager.executeQuerySQLBatch(() -> DriverManager.getConnection(url, username, password), dbType,
+                    List.of("DELETE FROM employees"), 2);
+            Assertions.fail("Expected an IllegalArgumentException to be thrown");
+        } catch (IllegalArgumentException e) {
+            Assertions.assertTrue(e.getMessage().startsWith(ErrorMessages.NON_QUERY_SQL_ERROR));
+        }
+
+        try {
+            DBManager.executeQuerySQLBatch(() -> DriverManager.getConnection(url, username, password), dbType, sqlList, 0);
+            Assertions.fail("Expected an IllegalArgumentException to be thrown");
+        } catch (IllegalArgumentException e) {
+            Assertions.assertEquals(ErrorMessages.INVALID_QUERY_PARALLELISM_ERROR, e.getMessage());
+        }
+
+        try {
+            DBManager.executeQuerySQLBatch(null, dbType, sqlList, 2);
+            Assertions.fail("Expected an IllegalArgumentException to be thrown");
+        } catch (IllegalArgumentException e) {
+            Assertions.assertEquals(ErrorMessages.NULL_CONNECTION_SUPPLIER_ERROR, e.getMessage());
+        }
+    }
+
+    @Test
+    void testExecuteQueryCompact() throws SQLException, ClassNotFoundException {
+        Connection connection = DBManager.createConnection(driver, url, username, password);
+        createTable(connection, dbType);
+        insertData2(connection, dbType);
+
+        String sql = "SELECT id, first_name, email, age FROM employees ORDER BY id";
+        CompactResult result = DBManager.executeQueryCompact(connection, dbType, sql);
+        ColumnHeader header = result.getHeader();
+        Assertions.assertEquals(List.of("id", "first_name", "email", "age"), header.getColumnLabels());
+        Assertions.assertEquals(Types.INTEGER, header.getColumnType(0));
+        Assertions.assertEquals("TEXT", header.getColumnTypeName(1));
+        Assertions.assertEquals(10, result.size());
+        Assertions.assertEquals("Alice", result.getValue(0, 1));
+        Assertions.assertEquals(36, result.getValue(9, "age"));
+        Assertions.assertEquals(4, result.getValues(0).length);
+
+        // The map views are equal to the rows of the list of maps
+        Assertions.assertEquals(DBManager.executeQuerySQL(connection, dbType, sql), result.asMaps());
+        Assertions.assertEquals("Bob", result.getRow(1).get("first_name"));
+
+        // The last column wins for duplicate labels, as in the list of maps
+        sql = "SELECT id, first_name AS id FROM employees ORDER BY id";
+        result = DBManager.executeQueryCompact(connection, dbType, sql);
+        Assertions.assertEquals(1, result.getRow(0).size());
+        Assertions.assertEquals(DBManager.executeQuerySQL(connection, dbType, sql), result.asMaps());
+
+        ObfuscationRule obfuscationRule = new ObfuscationRule();
+        obfuscationRule.setMethod(ObfuscationMethod.REPLACE);
+        obfuscationRule.setRegex(".+");
+        obfuscationRule.setReplacement("[email redacted]");
+        result = DBSecManager.execQueryCompactWithMask(connection, dbType, "SELECT email FROM employees",
+                Map.of("email", obfuscationRule));
+        Assertions.assertEquals("[email redacted]", result.getValue(0, 0));
+
+        // more test cases
+        try {
+            DBManager.executeQueryCompact(connection, dbType, null);
+            Assertions.fail("Expected an IllegalArgumentException to be thrown");
+        } catch (IllegalArgumentException e) {
+            Assertions.assertEquals(ErrorMessages.NULL_SQL_ERROR, e.getMessage());
+        }
+
+        try {
+            result.addRow(new Object[2]);
+            Assertions.fail("Expected an IllegalArgumentException to be thrown");
+        } catch (IllegalArgumentException e) {
+            Assertions.assertEquals(ErrorMessages.ROW_SIZE_MISMATCH_ERROR + 1, e.getMessage());
+        }
+
+        DBManager.closeConnection(connection);
+    }
+
+    @Test
+    void testExecuteQueryColumnar() throws SQLException, ClassNotFoundException {
+        Connection connection = DBManager.createConnection(driver, url, username, password);
+        createTable(connection, dbType);
+        insertData2(connection, dbType);
+
+        String sql = "SELECT id, first_name, age FROM employees ORDER BY id";
+        List<ColumnBatch> batches = new ArrayList<>();
+        long rowCount = DBManager.executeQueryColumnar(connection, dbType, sql, 4, batches::add);
+        Assertions.assertEquals(10, rowCount);
+        Assertions.assertEquals(List.of(4, 4, 2), batches.stream().map(ColumnBatch::getRowCount).toList());
+        ColumnBatch batch = batches.get(0);
+        Assertions.assertEquals(VectorKind.LONG, batch.getVector("id").getKind());
+        Assertions.assertEquals(VectorKind.STRING, batch.getVector("first_name").getKind());
+        Assertions.assertEquals("Alice", ((StringColumnVector) batch.getVector(1)).getString(0));
+        long ageSum = 0;
+        for (ColumnBatch columnBatch : batches) {
+            LongColumnVector ages = (LongColumnVector) columnBatch.getVector("age");
+            long[] values = ages.getValues();
+            for (int i = 0; i < ages.size(); i++) {
+                ageSum += values[i];
+            }
+        }
+        Assertions.assertEquals(317, ageSum);
+        Assertions.assertEquals(36L, batches.get(2).getValue(1, 2));
+
+        // GENERALIZE produces a dictionary-encoded vector of the ranges
+        ObfuscationRule generalizeRule = new ObfuscationRule();
+        generalizeRule.setMethod(ObfuscationMethod.GENERALIZE);
+        generalizeRule.setRange(10);
+        batches.clear();
+        DBSecManager.execQueryColumnarWithMask(connection, dbType, sql, Map.of("age", generalizeRule), 100, batches::add);
+        StringColumnVector ranges = (StringColumnVector) batches.get(0).getVector("age");
+        Assertions.assertEquals(List.of("30-39", "20-29", "40-49"), ranges.getDictionary());
+        Assertions.assertEquals("40-49", ranges.getString(3));
+
+        // ADD_NOISE over the primitive vector gives the values of the row-oriented query
+        ObfuscationRule noiseRule = new ObfuscationRule();
+        noiseRule.setMethod(ObfuscationMethod.ADD_NOISE);
+        noiseRule.setNoiseRange(10);
+        noiseRule.setNoiseMode(NoiseMode.DETERMINISTIC);
+        noiseRule.setNoiseSeed(42);
+        List<Map<String, Object>> rows = DBSecManager.execQuerySQLWithMask(connection, dbType, sql, Map.of("age", noiseRule));
+        batches.clear();
+        DBSecManager.execQueryColumnarWithMask(connection, dbType, sql, Map.of("age", noiseRule), 100, batches::add);
+        Assertions.assertEquals(VectorKind.DOUBLE, batches.get(0).getVector("age").getKind());
+        for (int i = 0; i < rows.size(); i++) {
+            Assertions.assertEquals(rows.get(i).get("age"), batches.get(0).getValue(i, 2));
+        }
+
+        // Null values are kept in the null bitmap and stay null when obfuscated
+        DBManager.executeUpdateSQL(connection, dbType, "UPDATE employees SET age = NULL WHERE first_name = 'Bob'");
+        batches.clear();
+        DBSecManager.execQueryColumnarWithMask(connection, dbType, sql, Map.of("age", noiseRule), 100, batches::add);
+        Assertions.assertTrue(batches.get(0).getVector("age").isNull(1));
+        Assertions.assertNull(batches.get(0).getValue(1, 2));
+        Assertions.assertFalse(batches.get(0).getVector("age").isNull(0));
+
+        // A query without rows gives a single empty batch
+        batches.clear();
+        rowCount = DBManager.executeQueryColumnar(connection, dbType, "SELECT id FROM employees WHERE 1 = 0", 4, batches::add);
+        Assertions.assertEquals(0, rowCount);
+        Assertions.assertEquals(1, batches.size());
+        Assertions.assertEquals(0, batches.get(0).getRowCount());
+
+        // more test cases
+        try {
+            DBManager.executeQueryColumnar(connection, dbType, sql, 0, batches::add);
+            Assertions.fail("Expected an IllegalArgumentException to be thrown");
+        } catch (IllegalArgumentException e) {
+            Assertions.assertEquals(ErrorMessages.INVALID_BATCH_SIZE_ERROR, e.getMessage());
+        }
+
+        try {
+            DBSecManager.execQueryColumnarWithMask(connection, dbType, sql, new HashMap<>(), 4, null);
+            Assertions.fail("Expected an IllegalArgumentException to be thrown");
+        } catch (IllegalArgumentException e) {
+            Assertions.assertEquals(ErrorMessages.NULL_BATCH_CALLBACK_ERROR, e.getMessage());
+        }
+
+        try {
+            batch.getVector("salary");
+            Assertions.fail("Expected an IllegalArgumentException to be thrown");
+        } catch (IllegalArgumentException e) {
+            Assertions.assertEquals(ErrorMessages.COLUMN_NOT_IN_BATCH_ERROR + "salary", e.getMessage());
+        }
+
+        DBManager.closeConnection(connection);
+    }
+
+    @Test
+    void testStatementCache() throws SQLException, ClassNotFoundException {
+        Connection connection = DBManager.createConnection(driver, url, username, password);
+        createTable(connection, dbType);
+        insertData2(connection, dbType);
+        // The statement cache is opt-in
+        Assertions.assertEquals(0, Config.DEFAULT_STATEMENT_CACHE_SIZE);
+        Config.getInstance().setStatementCacheSize(32);
+
+        // Every page of the table reuses the same count and page statements
+        long hitCount = StatementCache.getHitCount();
+        List<String> firstNames = new ArrayList<>();
+        for (int page = 1; page <= 4; page++) {
+            Map<String, Object> result = DBManager.getDataWithPage(connection, dbType, "", "employees", null, page, 3);
+            Assertions.assertEquals(4, result.get("totalPages"));
+            for (Map<String, Object> row : (List<Map<String, Object>>) result.get("results")) {
+                firstNames.add((String) row.get("first_name"));
+            }
+        }
+        Assertions.assertEquals(10, firstNames.size());
+        Assertions.assertEquals("Alice", firstNames.get(0));
+        Assertions.assertEquals("Jane", firstNames.get(9));
+        Assertions.assertEquals(hitCount + 6, StatementCache.getHitCount());
+        Assertions.assertEquals(2, StatementCache.size(connection));
+
+        // The least recently used statements are closed once the cache is full
+        Config.getInstance().setStatementCacheSize(1);
+        try {
+            DBManager.getDataWithPage(connection, dbType, "", "employees", null, 1, 3);
+            Assertions.assertEquals(1, StatementCache.size(connection));
+        } finally {
+            Config.getInstance().setStatementCacheSize(32);
+        }
+
+        // Altering the table closes the cached statements of the connection
+        DBManager.executeUpdateSQL(connection, dbType, "ALTER TABLE employees ADD COLUMN salary INTEGER");
+        DBManager.invalidateMetadataCache(connection, "", "employees");
+        Assertions.assertEquals(0, StatementCache.size(connection));
+        Map<String, Object> result = DBManager.getDataWithPage(connection, dbType, "", "employees", null, 1, 3);
+        Assertions.assertTrue(((List<Map<String, Object>>) result.get("results")).get(0).containsKey("salary"));
+
+        // Only a statement invalidated on the server is prepared again, and never inside a transaction
+        String sql = "SELECT COUNT(*) FROM employees";
+        StatementCache.query(connection, sql, List.of(), rs -> rs.next());
+        int[] calls = new int[1];
+        StatementCache.ResultSetReader<Boolean> failingReader = rs -> {
+            calls[0]++;
+            throw new SQLException("failed", calls[0] == 1 ? "0A000" : "42000");
+        };
+        try {
+            StatementCache.query(connection, sql, List.of(), failingReader);
+            Assertions.fail();
+        } catch (SQLException e) {
+            Assertions.assertEquals(2, calls[0]);
+            Assertions.assertEquals("42000", e.getSQLState());
+        }
+        StatementCache.query(connection, sql, List.of(), rs -> rs.next());
+        calls[0] = 1;
+        try {
+            StatementCache.query(connection, sql, List.of(), failingReader);
+            Assertions.fail();
+        } catch (SQLException e) {
+            Assertions.assertEquals(2, calls[0]);
+        }
+        StatementCache.query(connection, sql, List.of(), rs -> rs.next());
+        calls[0] = 0;
+        connection.setAutoCommit(false);
+        try {
+            StatementCache.query(connection, sql, List.of(), failingReader);
+            Assertions.fail();
+        } catch (SQLException e) {
+            Assertions.assertEquals(1, calls[0]);
+            Assertions.assertEquals("0A000", e.getSQLState());
+        } finally {
+            connection.setAutoCommit(true);
+        }
+        DBManager.closeConnection(connection);
+
+        // Pooled connections share the statements of their physical connection, closed with the pool
+        Connection returned;
+        try (PooledDataSource dataSource = new PooledDataSource(driver, url, username, password, null)) {
+            try (Connection pooled = dataSource.getConnection()) {
+                DBManager.getDataWithPage(pooled, dbType, "", "employees", null, 1, 3);
+            }
+            hitCount = StatementCache.getHitCount();
+            try (Connection pooled = dataSource.getConnection()) {
+                DBManager.getDataWithPage(pooled, dbType, "", "employees", null, 2, 3);
+                Assertions.assertEquals(2, StatementCache.size(pooled));
+                returned = pooled;
+            }
+            Assertions.assertEquals(hitCount + 2, StatementCache.getHitCount());
+            Assertions.assertEquals(2, StatementCache.size(returned));
+        }
+        Assertions.assertEquals(0, StatementCache.size(returned));
+
+        // The cache can be disabled
+        Config.getInstance().setStatementCacheSize(0);
+        try {
+            connection = DBManager.createConnection(driver, url, username, password);
+            DBManager.getDataWithPage(connection, dbType, "", "employees", null, 1, 3);
+            Assertions.assertEquals(0, StatementCache.size(connection));
+            DBManager.closeConnection(connection);
+        } finally {
+            Config.getInstance().setStatementCacheSize(Config.DEFAULT_STATEMENT_CACHE_SIZE);
+        }
+    }
 }
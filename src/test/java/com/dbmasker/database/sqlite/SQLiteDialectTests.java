@@ -2,9 +2,18 @@ package com.dbmasker.database.sqlite;
 
 import com.dbmasker.api.DBDialectManager;
 import com.dbmasker.api.DBManager;
+import com.dbmasker.api.DBSession;
+import com.dbmasker.database.Database;
+import com.dbmasker.database.DatabaseProvider;
+import com.dbmasker.database.DatabaseRegistry;
 import com.dbmasker.database.DbType;
+import com.dbmasker.database.MetadataCache;
+import com.dbmasker.database.SQLite;
 import com.dbmasker.dialect.Dialect;
 import com.dbmasker.dialect.DialectFactory;
+import com.dbmasker.dialect.SQLiteDialect;
+import com.dbmasker.utils.Config;
+import com.dbmasker.utils.ErrorMessages;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
@@ -17,6 +26,7 @@ import java.sql.SQLException;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 class SQLiteDialectTests {
 
@@ -330,4 +340,157 @@ class SQLiteDialectTests {
         result = DBManager.getTableOrViewData(connection, dbType, null, "MyTable");
         Assertions.assertEquals(0, result.size());
     }
+
+    @Test
+    void testMetadataCache() throws SQLException {
+        createTable2(connection, dbType);
+
+        Map<String, Object> data = new HashMap<>();
+        data.put("MyInteger", 1);
+        data.put("MyBlob", "DBMasker");
+
+        Config.getInstance().setMetadataCacheTtl(60_000);
+        try {
+            MetadataCache.clear();
+            long hitCount = MetadataCache.getHitCount();
+            String sql = DBDialectManager.generateInsertSql(connection, dbType, null, "MyTable", data);
+            Assertions.assertEquals(hitCount, MetadataCache.getHitCount());
+            Assertions.assertEquals(sql, DBDialectManager.generateInsertSql(connection, dbType, null, "MyTable", data));
+            Assertions.assertEquals(hitCount + 1, MetadataCache.getHitCount());
+            Assertions.assertTrue(MetadataCache.getHitRate() > 0);
+
+            Map<String, Object> condition = new HashMap<>();
+            condition.put("MyInteger", 1);
+            condition.put("MyDecimal", 1.5);
+            Map<String, Object> setData = new HashMap<>();
+            setData.put("MyDecimal", 2.5);
+            sql = DBDialectManager.generateUpdateSql(connection, dbType, null, "MyTable", setData, condition, true);
+            Assertions.assertFalse(sql.contains("MyDecimal = 1.5"));
+            DBDialectManager.generateUpdateSql(connection, dbType, null, "MyTable", setData, condition, true);
+            Assertions.assertEquals(hitCount + 4, MetadataCache.getHitCount());
+
+            // The new column is not seen until the table is invalidated
+            DBManager.executeUpdateSQL(connection, dbType, "ALTER TABLE MyTable ADD COLUMN MyExtra TEXT");
+            data.put("MyExtra", "x");
+            Assertions.assertFalse(DBDialectManager.generateInsertSql(connection, dbType, null, "MyTable", data).contains("'x'"));
+            DBManager.invalidateMetadataCache(connection, null, "MyTable");
+            Assertions.assertTrue(DBDialectManager.generateInsertSql(connection, dbType, null, "MyTable", data).contains("'x'"));
+        } finally {
+            Config.getInstance().setMetadataCacheTtl(Config.DEFAULT_METADATA_CACHE_TTL);
+            MetadataCache.clear();
+        }
+
+        // The cache is disabled by default
+        long missCount = MetadataCache.getMissCount();
+        DBDialectManager.generateInsertSql(connection, dbType, null, "MyTable", data);
+        Assertions.assertEquals(missCount, MetadataCache.getMissCount());
+        Assertions.assertEquals(0, MetadataCache.size());
+
+        // more test cases
+        try {
+            DBManager.invalidateMetadataCache(null, null, "MyTable");
+            Assertions.fail("Expected an IllegalArgumentException to be thrown");
+        } catch (IllegalArgumentException e) {
+            // pass
+        }
+
+        try {
+            Config.getInstance().setMetadataCacheTtl(-1);
+            Assertions.fail();
+        } catch (IllegalArgumentException e) {
+            Assertions.assertEquals(ErrorMessages.INVALID_METADATA_CACHE_TTL_ERROR, e.getMessage());
+        }
+        Assertions.assertEquals(Config.DEFAULT_METADATA_CACHE_TTL, Config.getInstance().getMetadataCacheTtl());
+    }
+
+    @Test
+    void testDatabaseRegistry() throws SQLException {
+        Assertions.assertSame(DatabaseRegistry.getDatabase(dbType), DatabaseRegistry.getDatabase("SQLite"));
+        Assertions.assertSame(DatabaseRegistry.getDialect(dbType), DatabaseRegistry.getDialect(dbType));
+        Assertions.assertTrue(DatabaseRegistry.isSupported(dbType));
+        Assertions.assertFalse(DatabaseRegistry.isSupported("customsqlite"));
+
+        DatabaseRegistry.register(new DatabaseProvider() {
+            @Override
+            public String getDbType() {
+                return "customsqlite";
+            }
+
+            @Override
+            public Database createDatabase() {
+                return new SQLite();
+            }
+
+            @Override
+            public Dialect createDialect() {
+                return new SQLiteDialect();
+            }
+        });
+        try {
+            Assertions.assertTrue(DatabaseRegistry.isSupported("customsqlite"));
+            Assertions.assertTrue(DatabaseRegistry.getDatabase("customsqlite") instanceof SQLite);
+            createTable2(connection, "customsqlite");
+            Map<String, Object> data = new HashMap<>();
+            data.put("MyInteger", 1);
+            data.put("MyBlob", "DBMasker");
+            Assertions.assertEquals(DBDialectManager.generateInsertSql(connection, dbType, null, "MyTable", data),
+                    DBDialectManager.generateInsertSql(connection, "customsqlite", null, "MyTable", data));
+        } finally {
+            DatabaseRegistry.unregister("customsqlite");
+        }
+        Assertions.assertFalse(DatabaseRegistry.isSupported("customsqlite"));
+
+        // more test cases
+        try {
+            DatabaseRegistry.getDatabase("customsqlite");
+            Assertions.fail("Expected an UnsupportedOperationException to be thrown");
+        } catch (UnsupportedOperationException e) {
+            // pass
+        }
+        try {
+            DatabaseRegistry.getDialect("elasticsearch");
+            Assertions.fail("Expected an UnsupportedOperationException to be thrown");
+        } catch (UnsupportedOperationException e) {
+            // pass
+        }
+    }
+
+    @Test
+    void testDBSession() throws SQLException {
+        createTable2(connection, dbType);
+
+        DBSession session = DBSession.open(connection, dbType);
+        Assertions.assertSame(connection, session.getConnection());
+        Assertions.assertSame(DatabaseRegistry.getDatabase(dbType), session.getDatabase());
+        Assertions.assertSame(DatabaseRegistry.getDialect(dbType), session.getDialect());
+        Assertions.assertEquals(Set.of("MyInteger"), session.getPrimaryKeys(null, "MyTable"));
+        Assertions.assertEquals(5, session.getColumnTypes(null, "MyTable").size());
+
+        Map<String, Object> data = new HashMap<>();
+        data.put("MyInteger", 1);
+        data.put("MyBlob", "DBMasker");
+        String sql = session.generateInsertSql(null, "MyTable", data);
+        Assertions.assertEquals(DBDialectManager.generateInsertSql(connection, dbType, null, "MyTable", data), sql);
+        session.executeSQL(sql);
+        Assertions.assertEquals(1, session.executeSQL("SELECT * FROM MyTable").size());
+
+        Map<String, Object> condition = new HashMap<>();
+        condition.put("MyInteger", 1);
+        Assertions.assertEquals(DBDialectManager.generateDeleteSql(connection, dbType, null, "MyTable", condition, true),
+                session.generateDeleteSql(null, "MyTable", condition, true));
+
+        // more test cases
+        try {
+            DBSession.open(null, dbType);
+            Assertions.fail("Expected an IllegalArgumentException to be thrown");
+        } catch (IllegalArgumentException e) {
+            // pass
+        }
+        try {
+            DBSession.open(connection, "unknown");
+            Assertions.fail("Expected an UnsupportedOperationException to be thrown");
+        } catch (UnsupportedOperationException e) {
+            // pass
+        }
+    }
 }
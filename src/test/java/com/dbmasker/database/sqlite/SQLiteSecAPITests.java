@@ -1,25 +1,65 @@
 package com.dbmasker.database.sqlite;
 
+import com.dbmasker.api.AsyncDBSecManager;
 import com.dbmasker.api.DBManager;
 import com.dbmasker.api.DBSecManager;
+import com.dbmasker.data.Detector;
+import com.dbmasker.data.ExportOptions;
+import com.dbmasker.data.ExportResult;
+import com.dbmasker.data.FetchOptions;
 import com.dbmasker.data.ObfuscationRule;
+import com.dbmasker.data.ScanOptions;
+import com.dbmasker.data.ScanResult;
 import com.dbmasker.data.SensitiveColumn;
+import com.dbmasker.data.TableAttribute;
+import com.dbmasker.data.TableFingerprint;
+import com.dbmasker.data.TableScanResult;
+import com.dbmasker.database.ConnectionSupplier;
+import com.dbmasker.utils.ColumnCategory;
 import com.dbmasker.utils.Config;
 import com.dbmasker.database.DbType;
+import com.dbmasker.database.RowCursor;
+import com.dbmasker.database.RowPublisher;
+import com.dbmasker.database.StatementCache;
 import com.dbmasker.utils.DbUtils;
 import com.dbmasker.utils.ErrorMessages;
+import com.dbmasker.utils.ExportFormat;
 import com.dbmasker.utils.ObfuscationMethod;
+import com.dbmasker.utils.ScanMode;
+import com.dbmasker.utils.ScanStateStore;
+import com.dbmasker.utils.ScanStatus;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 
 import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.sql.Connection;
+import java.sql.DriverManager;
 import java.sql.SQLException;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumSet;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Flow;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
 
 class SQLiteSecAPITests {
 
@@ -640,4 +680,771 @@ class SQLiteSecAPITests {
 
         Config.getInstance().setHandleRename(true);
     }
+
+    @Test
+    void testOpenCursorWithMask() throws SQLException, ClassNotFoundException {
+        Connection connection = DBManager.createConnection(driver, url, username, password);
+        createTable(connection, dbType);
+        insertData2(connection, dbType);
+
+        ObfuscationRule obfuscationRule = new ObfuscationRule();
+        obfuscationRule.setMethod(ObfuscationMethod.GENERALIZE);
+        obfuscationRule.setRange(10);
+
+        Map<String, ObfuscationRule> obfuscationRuleMap = new HashMap<>();
+        obfuscationRuleMap.put("age", obfuscationRule);
+
+        List<Map<String, Object>> expectResult = DBSecManager.getDataWithMask(connection, dbType, "", "employees", obfuscationRuleMap);
+
+        List<Map<String, Object>> result = new ArrayList<>();
+        RowCursor cursor = DBSecManager.getDataCursorWithMask(connection, dbType, "", "employees", obfuscationRuleMap);
+        try (cursor) {
+            Assertions.assertEquals(List.of("id", "first_name", "last_name", "email", "age"), cursor.getColumnLabels());
+            while (cursor.hasNext()) {
+                result.add(cursor.next());
+            }
+            Assertions.assertEquals(10, cursor.getRowCount());
+        }
+        Assertions.assertTrue(cursor.isClosed());
+        Assertions.assertFalse(cursor.hasNext());
+        Assertions.assertEquals(expectResult, result);
+
+        String sql = "SELECT first_name, age FROM employees WHERE age > 30";
+        try (RowCursor queryCursor = DBSecManager.openCursorWithMask(connection, dbType, sql, obfuscationRuleMap)) {
+            List<Object> ages = queryCursor.stream().map(row -> row.get("age")).collect(Collectors.toList());
+            Assertions.assertEquals(List.of("30-39", "40-49", "30-39", "30-39", "30-39"), ages);
+        }
+
+        FetchOptions fetchOptions = new FetchOptions();
+        fetchOptions.setFetchSize(3);
+        try (RowCursor fetchCursor = DBSecManager.getDataCursorWithMask(connection, dbType, null, "employees", obfuscationRuleMap, fetchOptions)) {
+            Assertions.assertEquals(expectResult, fetchCursor.stream().collect(Collectors.toList()));
+        }
+        Assertions.assertTrue(connection.getAutoCommit());
+
+        // more test cases
+        try {
+            DBSecManager.openCursorWithMask(connection, dbType, "SELECT * FROM fakeTable", obfuscationRuleMap);
+            Assertions.fail();
+        } catch (SQLException e) {
+            //pass
+        }
+
+        try {
+            DBSecManager.openCursorWithMask(connection, dbType, null, obfuscationRuleMap);
+            Assertions.fail();
+        } catch (IllegalArgumentException e) {
+            Assertions.assertEquals(e.getMessage(), ErrorMessages.NULL_SQL_ERROR);
+        }
+
+        try {
+            DBSecManager.getDataCursorWithMask(connection, dbType, "", "employees", null);
+            Assertions.fail();
+        } catch (IllegalArgumentException e) {
+            Assertions.assertEquals(e.getMessage(), ErrorMessages.NULL_OBFUSCATION_RULES_ERROR);
+        }
+    }
+
+    @Test
+    void testScanTableDataWithOptions() throws SQLException, ClassNotFoundException {
+        Connection connection = DBManager.createConnection(driver, url, username, password);
+        createTable(connection, dbType);
+        insertData(connection, dbType);
+        insertData2(connection, dbType);
+        DBManager.executeUpdateSQL(connection, dbType,
+                "INSERT INTO employees (first_name, last_name, email, age) VALUES ('Kate', 'Lee', 'kate.lee@example.com', NULL)");
+
+        String emailRegex = "\\b[A-Za-z0-9._%+-]+@[A-Za-z0-9.-]+\\.[A-Za-z]{2,}\\b";
+        List<String> regexList = new ArrayList<>();
+        regexList.add(emailRegex);
+
+        // The id, name and age columns never match, so the whole table is scanned
+        ScanResult result = DBSecManager.scanTableData(connection, dbType, "", "employees", regexList, new ScanOptions());
+        Assertions.assertEquals(ScanStatus.COMPLETED, result.getStatus());
+        Assertions.assertFalse(result.isPartial());
+        Assertions.assertEquals(12, result.getRowsScanned());
+        Assertions.assertEquals(1, result.getSensitiveColumns().size());
+        Assertions.assertEquals(DBSecManager.scanTableData(connection, dbType, "", "employees", regexList),
+                result.getSensitiveColumns());
+
+        // Every column matches, the scan stops once each of them has collected enough matches
+        List<String> anyRegexList = List.of(".+");
+        result = DBSecManager.scanTableData(connection, dbType, "", "employees", anyRegexList, new ScanOptions());
+        Assertions.assertEquals(ScanStatus.SATURATED, result.getStatus());
+        Assertions.assertEquals(DBSecManager.MATCH_DATA_SIZE, result.getRowsScanned());
+        Assertions.assertEquals(5, result.getSensitiveColumns().size());
+
+        // NULL values are skipped, the age column cannot saturate before the last row
+        Config.getInstance().setDataSize(12);
+        result = DBSecManager.scanTableData(connection, dbType, "", "employees", anyRegexList, new ScanOptions());
+        Assertions.assertEquals(ScanStatus.COMPLETED, result.getStatus());
+        Assertions.assertEquals(11, result.getSensitiveColumns().get(4).getMatchData().size());
+        Config.getInstance().setDataSize(DBSecManager.MATCH_DATA_SIZE);
+
+        ScanOptions scanOptions = new ScanOptions();
+        scanOptions.setMaxRows(3);
+        result = DBSecManager.scanTableData(connection, dbType, "", "employees", regexList, scanOptions);
+        Assertions.assertEquals(ScanStatus.ROW_BUDGET_EXHAUSTED, result.getStatus());
+        Assertions.assertTrue(result.isPartial());
+        Assertions.assertEquals(3, result.getRowsScanned());
+        Assertions.assertEquals(List.of("john.doe@example.com", "alice.smith@example.com", "bob.johnson@example.com"),
+                result.getSensitiveColumns().get(0).getMatchData());
+
+        scanOptions = new ScanOptions();
+        scanOptions.setSamplePercent(50);
+        scanOptions.setMaxMillis(60_000);
+        result = DBSecManager.scanTableData(connection, dbType, null, "employees", regexList, scanOptions);
+        Assertions.assertFalse(result.isPartial());
+        Assertions.assertTrue(result.getRowsScanned() <= 12);
+
+        // '_' in the table name must not pick up the columns of a table matching it as a pattern
+        DBManager.executeUpdateSQL(connection, dbType, "CREATE TABLE a_b (id INTEGER, email TEXT)");
+        DBManager.executeUpdateSQL(connection, dbType, "CREATE TABLE aXb (id INTEGER, phone TEXT)");
+        DBManager.executeUpdateSQL(connection, dbType, "INSERT INTO a_b VALUES (1, 'kate.lee@example.com')");
+        result = DBSecManager.scanTableData(connection, dbType, "", "a_b", anyRegexList, new ScanOptions());
+        Assertions.assertEquals(ScanStatus.COMPLETED, result.getStatus());
+        Assertions.assertEquals(2, result.getSensitiveColumns().size());
+        Assertions.assertTrue(result.getSensitiveColumns().stream().noneMatch(c -> "phone".equals(c.getColumnName())));
+
+        // more test cases
+        try {
+            DBSecManager.scanTableData(connection, dbType, "", "employees", regexList, null);
+            Assertions.fail();
+        } catch (IllegalArgumentException e) {
+            Assertions.assertEquals(e.getMessage(), ErrorMessages.NULL_SCAN_OPTIONS_ERROR);
+        }
+
+        try {
+            scanOptions = new ScanOptions();
+            scanOptions.setSamplePercent(0);
+            DBSecManager.scanTableData(connection, dbType, "", "employees", regexList, scanOptions);
+            Assertions.fail();
+        } catch (IllegalArgumentException e) {
+            Assertions.assertEquals(e.getMessage(), ErrorMessages.INVALID_SAMPLE_PERCENT_ERROR);
+        }
+
+        try {
+            new ScanOptions().setSamplePercent(150);
+            Assertions.fail();
+        } catch (IllegalArgumentException e) {
+            Assertions.assertEquals(e.getMessage(), ErrorMessages.INVALID_SAMPLE_PERCENT_ERROR);
+        }
+
+        try {
+            scanOptions = new ScanOptions();
+            scanOptions.setMaxRows(-1);
+            DBSecManager.scanTableData(connection, dbType, "", "employees", regexList, scanOptions);
+            Assertions.fail();
+        } catch (IllegalArgumentException e) {
+            Assertions.assertEquals(e.getMessage(), ErrorMessages.INVALID_SCAN_BUDGET_ERROR);
+        }
+
+        try {
+            DBSecManager.scanTableData(connection, dbType, "", "fakeTable", regexList, new ScanOptions());
+            Assertions.fail();
+        } catch (SQLException e) {
+            //pass
+        }
+    }
+
+    @Test
+    void testScanSchemaData() throws SQLException, ClassNotFoundException {
+        Connection connection = DBManager.createConnection(driver, url, username, password);
+        createTable(connection, dbType);
+        insertData(connection, dbType);
+        insertData1(connection, dbType);
+        createView(connection, dbType);
+        DBManager.executeUpdateSQL(connection, dbType, "CREATE TABLE departments (id INTEGER PRIMARY KEY, name TEXT)");
+
+        String regex = "\\b[A-Za-z0-9._%+-]+@[A-Za-z0-9.-]+\\.[A-Za-z]{2,}\\b";
+        List<String> regexList = List.of(regex);
+        ConnectionSupplier connectionSupplier = () -> DriverManager.getConnection(url, username, password);
+
+        Config.getInstance().setScanParallelism(dbType, 2);
+        List<TableScanResult> callbackResults = new ArrayList<>();
+        List<TableScanResult> results = DBSecManager.scanSchemaData(connectionSupplier, dbType, "", regexList,
+                new ScanOptions(), callbackResults::add);
+
+        Assertions.assertEquals(3, results.size());
+        Assertions.assertEquals(3, callbackResults.size());
+        Assertions.assertTrue(callbackResults.containsAll(results));
+        Map<String, TableScanResult> resultMap = results.stream()
+                .collect(Collectors.toMap(TableScanResult::getTableName, result -> result));
+        Assertions.assertTrue(resultMap.values().stream().allMatch(TableScanResult::isSuccess));
+        Assertions.assertEquals(DBSecManager.scanTableData(connection, dbType, "", "employees", regexList),
+                resultMap.get("employees").getScanResult().getSensitiveColumns());
+        Assertions.assertEquals(DBSecManager.scanTableData(connection, dbType, "", "employee_view", regexList),
+                resultMap.get("employee_view").getScanResult().getSensitiveColumns());
+        Assertions.assertTrue(resultMap.get("departments").getScanResult().getSensitiveColumns().isEmpty());
+
+        Config.getInstance().setScanParallelism(dbType, 1);
+        results = DBSecManager.scanDatabaseData(connectionSupplier, dbType, regexList, new ScanOptions(), null);
+        Assertions.assertEquals(3, results.size());
+        Config.getInstance().setScanParallelism(dbType, Config.DEFAULT_SCAN_PARALLELISM);
+
+        // more test cases
+        try {
+            DBSecManager.scanSchemaData(() -> null, dbType, "", regexList, new ScanOptions(), null);
+            Assertions.fail();
+        } catch (SQLException e) {
+            Assertions.assertEquals(e.getMessage(), ErrorMessages.NULL_SUPPLIED_CONNECTION_ERROR);
+        }
+
+        try {
+            DBSecManager.scanSchemaData(null, dbType, "", regexList, new ScanOptions(), null);
+            Assertions.fail();
+        } catch (IllegalArgumentException e) {
+            Assertions.assertEquals(e.getMessage(), ErrorMessages.NULL_CONNECTION_SUPPLIER_ERROR);
+        }
+
+        try {
+            Config.getInstance().setScanParallelism(dbType, 0);
+            DBSecManager.scanSchemaData(connectionSupplier, dbType, "", regexList, new ScanOptions(), null);
+            Assertions.fail();
+        } catch (IllegalArgumentException e) {
+            Assertions.assertEquals(e.getMessage(), ErrorMessages.INVALID_SCAN_PARALLELISM_ERROR);
+        } finally {
+            Config.getInstance().setScanParallelism(dbType, Config.DEFAULT_SCAN_PARALLELISM);
+        }
+    }
+
+    @Test
+    void testScanTableWithDetectors() throws SQLException, ClassNotFoundException {
+        Connection connection = DBManager.createConnection(driver, url, username, password);
+        String sql = """
+                CREATE TABLE customers (
+                    id INTEGER PRIMARY KEY,
+                    code VARCHAR(4),
+                    phone VARCHAR(20),
+                    note TEXT,
+                    photo BLOB
+                );
+                """;
+        DBManager.executeUpdateSQL(connection, dbType, sql);
+        DBManager.executeUpdateSQL(connection, dbType, """
+                INSERT INTO customers (id, code, phone, note, photo) VALUES
+                   (1, '1381', '13812345678', 'call 13987654321', x'3133383132333435363738'),
+                   (2, '1390', '13900001111', NULL, NULL);
+                """);
+
+        String phoneRegex = "1[3-9]\\d{9}";
+        Detector phoneDetector = new Detector(phoneRegex);
+        Map<String, TableAttribute> attributes = DBManager.getTableAttribute(connection, dbType, "", "customers").stream()
+                .collect(Collectors.toMap(TableAttribute::getName, attribute -> attribute));
+        Assertions.assertTrue(phoneDetector.isEligible(attributes.get("phone")));
+        Assertions.assertTrue(phoneDetector.isEligible(attributes.get("note")));
+        Assertions.assertFalse(phoneDetector.isEligible(attributes.get("code")));
+        Assertions.assertFalse(phoneDetector.isEligible(attributes.get("photo")));
+
+        ScanResult result = DBSecManager.scanTableWithDetectors(connection, dbType, "", "customers",
+                List.of(phoneDetector), new ScanOptions());
+        Assertions.assertEquals(ScanStatus.COMPLETED, result.getStatus());
+        Assertions.assertEquals(2, result.getRowsScanned());
+        List<String> columnNames = result.getSensitiveColumns().stream().map(SensitiveColumn::getColumnName).collect(Collectors.toList());
+        Assertions.assertEquals(List.of("phone", "note"), columnNames);
+
+        // Numeric columns are left out when the detector only applies to text
+        createTable(connection, dbType);
+        insertData(connection, dbType);
+        insertData1(connection, dbType);
+        Detector numberDetector = new Detector("^[1-9][0-9]*$", EnumSet.of(ColumnCategory.TEXT), 0);
+        result = DBSecManager.scanTableWithDetectors(connection, dbType, "", "employees", List.of(numberDetector), new ScanOptions());
+        Assertions.assertTrue(result.getSensitiveColumns().isEmpty());
+        Assertions.assertEquals(2, result.getRowsScanned());
+
+        // No eligible column, the table is not read at all
+        Detector dateDetector = new Detector("^\\d{4}-\\d{2}-\\d{2}$", EnumSet.of(ColumnCategory.TEMPORAL), 0);
+        result = DBSecManager.scanTableWithDetectors(connection, dbType, "", "employees", List.of(dateDetector), new ScanOptions());
+        Assertions.assertEquals(ScanStatus.SATURATED, result.getStatus());
+        Assertions.assertEquals(0, result.getRowsScanned());
+
+        // more test cases
+        try {
+            DBSecManager.scanTableWithDetectors(connection, dbType, "", "employees", null, new ScanOptions());
+            Assertions.fail();
+        } catch (IllegalArgumentException e) {
+            Assertions.assertEquals(e.getMessage(), ErrorMessages.NULL_DETECTOR_LIST_ERROR);
+        }
+
+        DBManager.executeUpdateSQL(connection, dbType, "DROP TABLE customers");
+    }
+
+    @Test
+    void testScanSchemaIncremental() throws SQLException, ClassNotFoundException, IOException {
+        Connection connection = DBManager.createConnection(driver, url, username, password);
+        createTable(connection, dbType);
+        insertData(connection, dbType);
+        insertData1(connection, dbType);
+        createView(connection, dbType);
+
+        Path stateFile = Path.of("/tmp/db_sqlite_scan_state.txt");
+        Files.deleteIfExists(stateFile);
+        String regex = "\\b[A-Za-z0-9._%+-]+@[A-Za-z0-9.-]+\\.[A-Za-z]{2,}\\b";
+        List<Detector> detectors = List.of(new Detector(regex));
+        ConnectionSupplier connectionSupplier = () -> DriverManager.getConnection(url, username, password);
+
+        // The first scan reads every table
+        ScanStateStore stateStore = ScanStateStore.load(stateFile);
+        List<TableScanResult> results = DBSecManager.scanSchemaIncremental(connectionSupplier, dbType, "", detectors,
+                new ScanOptions(), stateStore, null);
+        Map<String, TableScanResult> resultMap = results.stream()
+                .collect(Collectors.toMap(TableScanResult::getTableName, result -> result));
+        Assertions.assertEquals(ScanMode.FULL, resultMap.get("employees").getMode());
+        Assertions.assertEquals(2, resultMap.get("employees").getScanResult().getRowsScanned());
+        stateStore.save();
+
+        stateStore = ScanStateStore.load(stateFile);
+        TableFingerprint fingerprint = stateStore.get("", "employees");
+        Assertions.assertEquals("id", fingerprint.getWatermarkColumn());
+        Assertions.assertEquals(0, BigDecimal.valueOf(2).compareTo(fingerprint.getWatermark()));
+        // The matched values are not written to the file
+        Assertions.assertFalse(Files.readString(stateFile).contains("example.com"));
+        Assertions.assertEquals(resultMap.get("employees").getScanResult().getSensitiveColumns().stream()
+                        .map(SensitiveColumn::getColumnName).toList(),
+                fingerprint.getSensitiveColumns().stream().map(SensitiveColumn::getColumnName).toList());
+        Assertions.assertTrue(fingerprint.getSensitiveColumns().get(0).getMatchData().isEmpty());
+
+        // An unchanged table is skipped, a view without watermark is scanned again
+        results = DBSecManager.scanSchemaIncremental(connectionSupplier, dbType, "", detectors,
+                new ScanOptions(), stateStore, null);
+        resultMap = results.stream().collect(Collectors.toMap(TableScanResult::getTableName, result -> result));
+        Assertions.assertEquals(ScanMode.SKIPPED, resultMap.get("employees").getMode());
+        Assertions.assertEquals(0, resultMap.get("employees").getScanResult().getRowsScanned());
+        Assertions.assertEquals(fingerprint.getSensitiveColumns(), resultMap.get("employees").getScanResult().getSensitiveColumns());
+        Assertions.assertEquals(ScanMode.FULL, resultMap.get("employee_view").getMode());
+        Assertions.assertNull(resultMap.get("employees").getStampRefreshError());
+
+        // SQLite has no catalog counters to refresh, so a requested refresh changes nothing
+        ScanOptions refreshOptions = new ScanOptions();
+        Assertions.assertFalse(refreshOptions.isRefreshModificationStamps());
+        refreshOptions.setRefreshModificationStamps(true);
+        results = DBSecManager.scanSchemaIncremental(connectionSupplier, dbType, "", detectors,
+                refreshOptions, stateStore, null);
+        resultMap = results.stream().collect(Collectors.toMap(TableScanResult::getTableName, result -> result));
+        Assertions.assertEquals(ScanMode.SKIPPED, resultMap.get("employees").getMode());
+        Assertions.assertNull(resultMap.get("employees").getStampRefreshError());
+
+        // A table which only grew is scanned past its watermark, and the matches are merged
+        insertData2(connection, dbType);
+        results = DBSecManager.scanSchemaIncremental(connectionSupplier, dbType, "", detectors,
+                new ScanOptions(), stateStore, null);
+        resultMap = results.stream().collect(Collectors.toMap(TableScanResult::getTableName, result -> result));
+        Assertions.assertEquals(ScanMode.INCREMENTAL, resultMap.get("employees").getMode());
+        Assertions.assertEquals(10, resultMap.get("employees").getScanResult().getRowsScanned());
+        Assertions.assertEquals(DBSecManager.scanTableData(connection, dbType, "", "employees", List.of(regex)).stream()
+                        .map(SensitiveColumn::getColumnName).toList(),
+                resultMap.get("employees").getScanResult().getSensitiveColumns().stream()
+                        .map(SensitiveColumn::getColumnName).toList());
+        Assertions.assertEquals(0, BigDecimal.valueOf(12).compareTo(stateStore.get("", "employees").getWatermark()));
+
+        // Other detectors invalidate the previous results
+        results = DBSecManager.scanSchemaIncremental(connectionSupplier, dbType, "",
+                List.of(new Detector(regex), new Detector("^[A-Z][a-z]+$")), new ScanOptions(), stateStore, null);
+        resultMap = results.stream().collect(Collectors.toMap(TableScanResult::getTableName, result -> result));
+        Assertions.assertEquals(ScanMode.FULL, resultMap.get("employees").getMode());
+
+        // more test cases
+        try {
+            DBSecManager.scanSchemaIncremental(connectionSupplier, dbType, "", detectors, new ScanOptions(), null, null);
+            Assertions.fail();
+        } catch (IllegalArgumentException e) {
+            Assertions.assertEquals(e.getMessage(), ErrorMessages.NULL_SCAN_STATE_STORE_ERROR);
+        }
+
+        Files.deleteIfExists(stateFile);
+    }
+
+    @Test
+    void testAsyncAPI() throws SQLException, ClassNotFoundException, InterruptedException {
+        Connection connection = DBManager.createConnection(driver, url, username, password);
+        createTable(connection, dbType);
+        insertData2(connection, dbType);
+
+        ObfuscationRule obfuscationRule = new ObfuscationRule();
+        obfuscationRule.setMethod(ObfuscationMethod.REPLACE);
+        obfuscationRule.setRegex(".+");
+        obfuscationRule.setReplacement("[email redacted]");
+        Map<String, ObfuscationRule> obfuscationRuleMap = Map.of("email", obfuscationRule);
+
+        List<Map<String, Object>> result = AsyncDBSecManager.getDataWithMask(connection, dbType, "", "employees",
+                obfuscationRuleMap, 0).join();
+        Assertions.assertEquals(10, result.size());
+        Assertions.assertEquals("[email redacted]", result.get(0).get("email"));
+
+        int statementCacheSize = Config.getInstance().getStatementCacheSize();
+        Config.getInstance().setStatementCacheSize(32);
+        Map<String, Object> page = AsyncDBSecManager.getDataWithPageAndMask(connection, dbType, "", "employees",
+                null, 1, 4, obfuscationRuleMap, 5000).join();
+        Assertions.assertEquals(3, page.get("totalPages"));
+        // The statements of the call, bounded by its timeout, are not cached for later calls
+        Assertions.assertEquals(0, StatementCache.size(connection));
+        Config.getInstance().setStatementCacheSize(statementCacheSize);
+        Assertions.assertTrue(AsyncDBSecManager.getTables(connection, dbType, "", 5000).join().contains("employees"));
+        Assertions.assertEquals(Set.of("id"), AsyncDBSecManager.getPrimaryKeys(connection, dbType, "", "employees", 0).join());
+
+        // The timeout cancels the running statement, so the connection is usable again right away
+        String slowSql = """
+                WITH RECURSIVE c(x) AS (SELECT 1 UNION ALL SELECT x + 1 FROM c WHERE x < 2000000000)
+                SELECT COUNT(*) AS total FROM c
+                """;
+        CompletableFuture<List<Map<String, Object>>> slow = AsyncDBSecManager.execQuerySQLWithMask(connection, dbType,
+                slowSql, new HashMap<>(), 200);
+        try {
+            slow.join();
+            Assertions.fail("Expected a TimeoutException");
+        } catch (CompletionException e) {
+            Assertions.assertTrue(e.getCause() instanceof TimeoutException);
+        }
+        Assertions.assertEquals(10, DBManager.executeQuerySQL(connection, dbType, "SELECT * FROM employees").size());
+
+        // Cancelling the future cancels the running statement too
+        slow = AsyncDBSecManager.execQuerySQLWithMask(connection, dbType, slowSql, new HashMap<>(), 0);
+        Thread.sleep(100);
+        slow.cancel(true);
+        Assertions.assertTrue(slow.isCancelled());
+        Assertions.assertEquals(10, DBManager.executeQuerySQL(connection, dbType, "SELECT * FROM employees").size());
+
+        // more test cases
+        try {
+            AsyncDBSecManager.getDataWithMask(null, dbType, "", "employees", obfuscationRuleMap, 0).join();
+            Assertions.fail("Expected an IllegalArgumentException");
+        } catch (CompletionException e) {
+            Assertions.assertEquals(ErrorMessages.NULL_CONNECTION_OR_DB_TYPE_ERROR, e.getCause().getMessage());
+        }
+
+        try {
+            AsyncDBSecManager.getSchema(connection, dbType, -1).join();
+            Assertions.fail("Expected an IllegalArgumentException");
+        } catch (CompletionException e) {
+            Assertions.assertEquals(ErrorMessages.INVALID_TIMEOUT_ERROR, e.getCause().getMessage());
+        }
+
+        try {
+            AsyncDBSecManager.setExecutor(null);
+            Assertions.fail("Expected an IllegalArgumentException");
+        } catch (IllegalArgumentException e) {
+            Assertions.assertEquals(ErrorMessages.NULL_EXECUTOR_ERROR, e.getMessage());
+        }
+
+        DBManager.closeConnection(connection);
+    }
+
+    @Test
+    void testPublishQueryWithMask() throws SQLException, ClassNotFoundException, InterruptedException {
+        Connection connection = DBManager.createConnection(driver, url, username, password);
+        createTable(connection, dbType);
+        insertData2(connection, dbType);
+
+        ObfuscationRule obfuscationRule = new ObfuscationRule();
+        obfuscationRule.setMethod(ObfuscationMethod.REPLACE);
+        obfuscationRule.setRegex(".+");
+        obfuscationRule.setReplacement("[email redacted]");
+        Map<String, ObfuscationRule> obfuscationRuleMap = Map.of("email", obfuscationRule);
+
+        FetchOptions fetchOptions = new FetchOptions();
+        fetchOptions.setFetchSize(3);
+        Flow.Publisher<Map<String, Object>> publisher = AsyncDBSecManager.publishQueryWithMask(connection, dbType,
+                "SELECT first_name, email FROM employees ORDER BY id", obfuscationRuleMap, fetchOptions);
+
+        List<Map<String, Object>> rows = Collections.synchronizedList(new ArrayList<>());
+        BlockingQueue<Object> signals = new LinkedBlockingQueue<>();
+        Flow.Subscription[] subscription = new Flow.Subscription[1];
+        publisher.subscribe(new Flow.Subscriber<>() {
+            @Override
+            public void onSubscribe(Flow.Subscription s) {
+                subscription[0] = s;
+            }
+
+            @Override
+            public void onNext(Map<String, Object> item) {
+                rows.add(item);
+                signals.add(item);
+            }
+
+            @Override
+            public void onError(Throwable throwable) {
+                signals.add(throwable);
+            }
+
+            @Override
+            public void onComplete() {
+                signals.add("complete");
+            }
+        });
+
+        // Rows are only delivered as they are requested
+        subscription[0].request(2);
+        Assertions.assertNotNull(signals.poll(5, TimeUnit.SECONDS));
+        Assertions.assertNotNull(signals.poll(5, TimeUnit.SECONDS));
+        Assertions.assertNull(signals.poll(200, TimeUnit.MILLISECONDS));
+        Assertions.assertEquals(2, rows.size());
+        Assertions.assertEquals("Alice", rows.get(0).get("first_name"));
+        Assertions.assertEquals("[email redacted]", rows.get(1).get("email"));
+
+        subscription[0].request(Long.MAX_VALUE);
+        Object signal;
+        do {
+            signal = signals.poll(5, TimeUnit.SECONDS);
+            Assertions.assertNotNull(signal);
+        } while (!"complete".equals(signal));
+        Assertions.assertEquals(10, rows.size());
+        Assertions.assertEquals("Jane", rows.get(9).get("first_name"));
+
+        // The rows can only be read once
+        BlockingQueue<Throwable> errors = new LinkedBlockingQueue<>();
+        publisher.subscribe(new Flow.Subscriber<>() {
+            @Override
+            public void onSubscribe(Flow.Subscription s) {
+                s.request(1);
+            }
+
+            @Override
+            public void onNext(Map<String, Object> item) {
+                Assertions.fail("Expected no row");
+            }
+
+            @Override
+            public void onError(Throwable throwable) {
+                errors.add(throwable);
+            }
+
+            @Override
+            public void onComplete() {
+                Assertions.fail("Expected an error");
+            }
+        });
+        Throwable error = errors.poll(5, TimeUnit.SECONDS);
+        Assertions.assertTrue(error instanceof IllegalStateException);
+        Assertions.assertEquals(ErrorMessages.PUBLISHER_ALREADY_SUBSCRIBED_ERROR, error.getMessage());
+
+        // A failing query is reported through onError
+        Flow.Publisher<Map<String, Object>> failing = AsyncDBSecManager.publishDataWithMask(connection, dbType, "",
+                "missing_table", obfuscationRuleMap, null);
+        failing.subscribe(new Flow.Subscriber<>() {
+            @Override
+            public void onSubscribe(Flow.Subscription s) {
+                s.request(1);
+            }
+
+            @Override
+            public void onNext(Map<String, Object> item) {
+                Assertions.fail("Expected no row");
+            }
+
+            @Override
+            public void onError(Throwable throwable) {
+                errors.add(throwable);
+            }
+
+            @Override
+            public void onComplete() {
+                Assertions.fail("Expected an error");
+            }
+        });
+        Assertions.assertTrue(errors.poll(5, TimeUnit.SECONDS) instanceof SQLException);
+
+        // A subscriber throwing from onNext is cancelled without being signalled again
+        BlockingQueue<Object> throwingSignals = new LinkedBlockingQueue<>();
+        Flow.Publisher<Map<String, Object>> throwing = AsyncDBSecManager.publishQueryWithMask(connection, dbType,
+                "SELECT first_name FROM employees ORDER BY id", obfuscationRuleMap, fetchOptions);
+        throwing.subscribe(new Flow.Subscriber<>() {
+            @Override
+            public void onSubscribe(Flow.Subscription s) {
+                s.request(Long.MAX_VALUE);
+            }
+
+            @Override
+            public void onNext(Map<String, Object> item) {
+                throwingSignals.add(item);
+                throw new IllegalStateException("subscriber failure");
+            }
+
+            @Override
+            public void onError(Throwable throwable) {
+                throwingSignals.add(throwable);
+            }
+
+            @Override
+            public void onComplete() {
+                throwingSignals.add("complete");
+            }
+        });
+        Assertions.assertTrue(throwingSignals.poll(5, TimeUnit.SECONDS) instanceof Map);
+        Assertions.assertNull(throwingSignals.poll(200, TimeUnit.MILLISECONDS));
+
+        // An executor rejecting a drain closes the open cursor before signalling onError
+        RowCursor[] cursor = new RowCursor[1];
+        boolean[] shutdown = new boolean[1];
+        Flow.Publisher<Map<String, Object>> rejecting = new RowPublisher(() -> cursor[0] = DBSecManager.openCursorWithMask(
+                connection, dbType, "SELECT first_name FROM employees ORDER BY id", obfuscationRuleMap), task -> {
+            if (shutdown[0]) {
+                throw new RejectedExecutionException();
+            }
+            task.run();
+        });
+        List<Object> rejectingSignals = new ArrayList<>();
+        Flow.Subscription[] rejectingSubscription = new Flow.Subscription[1];
+        rejecting.subscribe(new Flow.Subscriber<>() {
+            @Override
+            public void onSubscribe(Flow.Subscription s) {
+                rejectingSubscription[0] = s;
+            }
+
+            @Override
+            public void onNext(Map<String, Object> item) {
+                rejectingSignals.add(item);
+            }
+
+            @Override
+            public void onError(Throwable throwable) {
+                rejectingSignals.add(throwable);
+            }
+
+            @Override
+            public void onComplete() {
+                rejectingSignals.add("complete");
+            }
+        });
+        rejectingSubscription[0].request(2);
+        Assertions.assertFalse(cursor[0].isClosed());
+        shutdown[0] = true;
+        rejectingSubscription[0].request(1);
+        Assertions.assertTrue(cursor[0].isClosed());
+        Assertions.assertEquals(3, rejectingSignals.size());
+        Assertions.assertTrue(rejectingSignals.get(2) instanceof RejectedExecutionException);
+
+        // more test cases
+        try {
+            AsyncDBSecManager.publishQueryWithMask(connection, dbType, null, obfuscationRuleMap, null);
+            Assertions.fail("Expected an IllegalArgumentException");
+        } catch (IllegalArgumentException e) {
+            Assertions.assertEquals(ErrorMessages.NULL_SQL_ERROR, e.getMessage());
+        }
+
+        DBManager.closeConnection(connection);
+    }
+
+    @Test
+    void testExportWithMask() throws SQLException, ClassNotFoundException, IOException {
+        Connection connection = DBManager.createConnection(driver, url, username, password);
+        createTable(connection, dbType);
+        insertData2(connection, dbType);
+
+        ObfuscationRule obfuscationRule = new ObfuscationRule();
+        obfuscationRule.setMethod(ObfuscationMethod.REPLACE);
+        obfuscationRule.setRegex(".+");
+        obfuscationRule.setReplacement("a,\"b\"");
+        Map<String, ObfuscationRule> obfuscationRules = Map.of("email", obfuscationRule);
+        String sql = "SELECT id, first_name, email, age FROM employees ORDER BY id";
+
+        // CSV fields are quoted as in RFC 4180
+        Path csvFile = Path.of("/tmp/db_sqlite_export.csv");
+        ExportResult result = DBSecManager.exportQueryWithMask(connection, dbType, sql, obfuscationRules, csvFile, null);
+        Assertions.assertEquals(10, result.getRowCount());
+        Assertions.assertEquals(List.of(csvFile), result.getFiles());
+        Assertions.assertEquals(Files.size(csvFile), result.getByteCount());
+        Assertions.assertTrue(result.getRowsPerSecond() > 0);
+        String csv = Files.readString(csvFile);
+        Assertions.assertTrue(csv.startsWith("id,first_name,email,age\r\n1,Alice,\"a,\"\"b\"\"\",30\r\n"));
+        Assertions.assertEquals(11, csv.split("\r\n").length);
+        Files.delete(csvFile);
+
+        // JSON Lines, gzip compressed and rotated every 4 rows
+        ExportOptions exportOptions = new ExportOptions();
+        exportOptions.setFormat(ExportFormat.JSON_LINES);
+        exportOptions.setGzip(true);
+        exportOptions.setMaxRowsPerFile(4);
+        result = DBSecManager.exportDataWithMask(connection, dbType, "", "employees", obfuscationRules,
+                Path.of("/tmp/db_sqlite_export.jsonl.gz"), exportOptions);
+        Assertions.assertEquals(List.of(Path.of("/tmp/db_sqlite_export-00001.jsonl.gz"),
+                Path.of("/tmp/db_sqlite_export-00002.jsonl.gz"), Path.of("/tmp/db_sqlite_export-00003.jsonl.gz")),
+                result.getFiles());
+        List<String> lines = new ArrayList<>();
+        long byteCount = 0;
+        for (Path file : result.getFiles()) {
+            byteCount += Files.size(file);
+            try (InputStream in = new GZIPInputStream(Files.newInputStream(file))) {
+                lines.addAll(List.of(new String(in.readAllBytes(), StandardCharsets.UTF_8).split("\n")));
+            }
+            Files.delete(file);
+        }
+        Assertions.assertEquals(byteCount, result.getByteCount());
+        Assertions.assertEquals(10, lines.size());
+        Assertions.assertEquals("{\"id\":1,\"first_name\":\"Alice\",\"last_name\":\"Smith\",\"email\":\"a,\\\"b\\\"\",\"age\":30}",
+                lines.get(0));
+
+        // Rotation on the size of the files, with the header repeated in each file
+        exportOptions = new ExportOptions();
+        exportOptions.setMaxBytesPerFile(100);
+        result = DBSecManager.exportQueryWithMask(connection, dbType, sql, new HashMap<>(), csvFile, exportOptions);
+        Assertions.assertTrue(result.getFiles().size() > 1);
+        long rowCount = 0;
+        for (Path file : result.getFiles()) {
+            List<String> fileLines = Files.readAllLines(file);
+            Assertions.assertEquals("id,first_name,email,age", fileLines.get(0));
+            rowCount += fileLines.size() - 1;
+            Files.delete(file);
+        }
+        Assertions.assertEquals(10, rowCount);
+
+        // A shorter rotated export deletes the files of a previous, longer one which follow its last file
+        List<Path> staleFiles = List.of(Path.of("/tmp/db_sqlite_export-00003.jsonl.gz"),
+                Path.of("/tmp/db_sqlite_export-00004.jsonl.gz"));
+        for (Path file : staleFiles) {
+            Files.writeString(file, "previous");
+        }
+        exportOptions = new ExportOptions();
+        exportOptions.setFormat(ExportFormat.JSON_LINES);
+        exportOptions.setGzip(true);
+        exportOptions.setMaxRowsPerFile(5);
+        result = DBSecManager.exportDataWithMask(connection, dbType, "", "employees", obfuscationRules,
+                Path.of("/tmp/db_sqlite_export.jsonl.gz"), exportOptions);
+        Assertions.assertEquals(2, result.getFiles().size());
+        Assertions.assertTrue(staleFiles.stream().noneMatch(Files::exists));
+        for (Path file : result.getFiles()) {
+            Files.delete(file);
+        }
+
+        // more test cases
+        try {
+            DBSecManager.exportQueryWithMask(connection, dbType, sql, obfuscationRules, null, null);
+            Assertions.fail("Expected an IllegalArgumentException to be thrown");
+        } catch (IllegalArgumentException e) {
+            Assertions.assertEquals(ErrorMessages.NULL_EXPORT_TARGET_ERROR, e.getMessage());
+        }
+
+        exportOptions = new ExportOptions();
+        exportOptions.setBufferSize(16);
+        try {
+            DBSecManager.exportQueryWithMask(connection, dbType, sql, obfuscationRules, csvFile, exportOptions);
+            Assertions.fail("Expected an IllegalArgumentException to be thrown");
+        } catch (IllegalArgumentException e) {
+            Assertions.assertEquals(ErrorMessages.INVALID_EXPORT_OPTIONS_ERROR, e.getMessage());
+        }
+
+        try {
+            DBSecManager.exportQueryWithMask(connection, dbType, "SELECT * FROM missing", obfuscationRules, csvFile, null);
+            Assertions.fail("Expected an SQLException to be thrown");
+        } catch (SQLException e) {
+            Assertions.assertFalse(Files.exists(csvFile));
+        }
+
+        // A failing export keeps the existing file and leaves no temporary file
+        Files.writeString(csvFile, "previous");
+        String failingSql = "SELECT id, CASE WHEN id > 5 THEN abs(-9223372036854775807 - 1) ELSE id END AS value " +
+                "FROM employees ORDER BY id";
+        try {
+            DBSecManager.exportQueryWithMask(connection, dbType, failingSql, obfuscationRules, csvFile, null);
+            Assertions.fail("Expected an SQLException to be thrown");
+        } catch (SQLException e) {
+            Assertions.assertEquals("previous", Files.readString(csvFile));
+            try (Stream<Path> files = Files.list(csvFile.getParent())) {
+                Assertions.assertTrue(files.noneMatch(file -> file.getFileName().toString()
+                        .startsWith("." + csvFile.getFileName())));
+            }
+        }
+        Files.delete(csvFile);
+
+        DBManager.closeConnection(connection);
+    }
 }
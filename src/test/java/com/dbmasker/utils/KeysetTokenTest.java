@@ -0,0 +1,65 @@
+package com.dbmasker.utils;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.List;
+
+class KeysetTokenTest {
+
+    @Test
+    void testEncodeDecode() {
+        List<String> keyColumns = List.of("tenant", "id", "amount", "created", "day");
+        List<Object> keyValues = Arrays.asList("a.b,c", 42L, new BigDecimal("10.50"),
+                Timestamp.valueOf("2023-05-01 10:00:00"), Date.valueOf("2023-05-01"));
+        String token = new KeysetToken("sales", "orders", keyColumns, keyValues).encode();
+
+        KeysetToken decoded = KeysetToken.decode(token, "sales", "orders");
+        Assertions.assertEquals("sales", decoded.getSchemaName());
+        Assertions.assertEquals("orders", decoded.getTableName());
+        Assertions.assertEquals(keyColumns, decoded.getKeyColumns());
+        Assertions.assertEquals(keyValues, decoded.getKeyValues());
+
+        // integers are widened to long, and a null schema is the current schema
+        decoded = KeysetToken.decode(new KeysetToken(null, "orders", List.of("id"), List.of(7)).encode(), "", "orders");
+        Assertions.assertEquals(List.of(7L), decoded.getKeyValues());
+
+        // the key values are encrypted, and two tokens of the same values differ
+        String next = new KeysetToken("sales", "orders", List.of("id"), List.of("secret-key-value")).encode();
+        Assertions.assertNotEquals(next, new KeysetToken("sales", "orders", List.of("id"), List.of("secret-key-value")).encode());
+        Assertions.assertFalse(new String(Base64.getUrlDecoder().decode(next), StandardCharsets.ISO_8859_1).contains("secret"));
+        Assertions.assertFalse(next.contains(ValueCodec.encode("secret-key-value")));
+
+        // a token issued for another table is rejected
+        Assertions.assertThrows(IllegalArgumentException.class, () -> KeysetToken.decode(next, "sales", "customers"));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> KeysetToken.decode(next, "hr", "orders"));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> KeysetToken.decode(next, "sale", "sorders"));
+
+        // a token which was altered, or encrypted with another key, is rejected
+        byte[] bytes = Base64.getUrlDecoder().decode(next);
+        bytes[bytes.length - 1] ^= 1;
+        String altered = Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+        Assertions.assertThrows(IllegalArgumentException.class, () -> KeysetToken.decode(altered, "sales", "orders"));
+        byte[] key = Config.getInstance().getPageTokenKey();
+        try {
+            Config.getInstance().setPageTokenKey("another key".getBytes(StandardCharsets.UTF_8));
+            Assertions.assertThrows(IllegalArgumentException.class, () -> KeysetToken.decode(next, "sales", "orders"));
+        } finally {
+            Config.getInstance().setPageTokenKey(key);
+        }
+        Assertions.assertEquals(List.of("secret-key-value"), KeysetToken.decode(next, "sales", "orders").getKeyValues());
+
+        // more test cases
+        Assertions.assertThrows(IllegalArgumentException.class, () -> KeysetToken.decode("fakeToken", "sales", "orders"));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> KeysetToken.decode(token + ".Xabc", "sales", "orders"));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> KeysetToken.decode("", "sales", "orders"));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> new KeysetToken("sales", "orders", List.of("id"), List.of()));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> Config.getInstance().setPageTokenKey(new byte[0]));
+    }
+}
@@ -0,0 +1,65 @@
+package com.dbmasker.utils;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.regex.Pattern;
+
+class LruCacheTest {
+
+    @Test
+    void testLruEviction() {
+        LruCache<String, Integer> cache = new LruCache<>(2);
+        cache.put("a", 1);
+        cache.put("b", 2);
+
+        // "a" becomes the most recently used entry, so "b" is evicted
+        Assertions.assertEquals(1, cache.get("a"));
+        cache.put("c", 3);
+        Assertions.assertEquals(2, cache.size());
+        Assertions.assertNull(cache.get("b"));
+        Assertions.assertEquals(3, cache.get("c"));
+
+        Assertions.assertEquals(2, cache.getHitCount());
+        Assertions.assertEquals(1, cache.getMissCount());
+
+        Assertions.assertEquals(4, cache.computeIfAbsent("d", key -> 4));
+        Assertions.assertEquals(4, cache.computeIfAbsent("d", key -> 5));
+        Assertions.assertNull(cache.get("a"));
+
+        cache.invalidate("d");
+        Assertions.assertNull(cache.get("d"));
+        cache.clear();
+        Assertions.assertEquals(0, cache.size());
+
+        Assertions.assertThrows(IllegalArgumentException.class, () -> new LruCache<String, Integer>(0));
+    }
+
+    @Test
+    void testExpiration() throws InterruptedException {
+        LruCache<String, Integer> cache = new LruCache<>(10, 50);
+        cache.put("a", 1);
+        Assertions.assertEquals(1, cache.get("a"));
+        Assertions.assertEquals(1, cache.get("a", 0));
+
+        Thread.sleep(100);
+        Assertions.assertNull(cache.get("a"));
+        Assertions.assertEquals(0, cache.size());
+
+        cache.put("b", 2);
+        Thread.sleep(20);
+        Assertions.assertNull(cache.get("b", 10));
+        Assertions.assertEquals(50, cache.getTtlMillis());
+
+        Assertions.assertThrows(IllegalArgumentException.class, () -> new LruCache<String, Integer>(10, -1));
+    }
+
+    @Test
+    void testPatternCache() {
+        Pattern pattern = PatternCache.compile("\\d{3}-\\d{4}");
+        long hitCount = PatternCache.getHitCount();
+        Assertions.assertSame(pattern, PatternCache.compile("\\d{3}-\\d{4}"));
+        Assertions.assertEquals(hitCount + 1, PatternCache.getHitCount());
+        Assertions.assertTrue(PatternCache.size() <= PatternCache.MAX_SIZE);
+    }
+}
@@ -0,0 +1,73 @@
+package com.dbmasker.utils;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+class MultiRegexMatcherTest {
+
+    private static final String EMAIL_REGEX = "\\b[A-Za-z0-9._%+-]+@[A-Za-z0-9.-]+\\.[A-Za-z]{2,}\\b";
+    private static final String ID_CARD_REGEX = "^[1-9]\\d{5}(18|19|20)\\d{2}(0[1-9]|1[0-2])(0[1-9]|[12]\\d|3[01])\\d{3}[0-9Xx]$";
+    private static final String PHONE_REGEX = "^1[3-9]\\d{9}$";
+
+    @Test
+    void testPrefilter() {
+        RegexPrefilter email = RegexPrefilter.of(EMAIL_REGEX);
+        Assertions.assertArrayEquals(new char[]{'@', '.'}, email.getRequiredChars());
+        Assertions.assertEquals(0, email.getMinDigits());
+        Assertions.assertEquals(6, email.getMinLength());
+
+        RegexPrefilter idCard = RegexPrefilter.of(ID_CARD_REGEX);
+        Assertions.assertEquals(11, idCard.getMinDigits());
+        Assertions.assertEquals(12, idCard.getMinLength());
+
+        RegexPrefilter phone = RegexPrefilter.of(PHONE_REGEX);
+        Assertions.assertArrayEquals(new char[]{'1'}, phone.getRequiredChars());
+        Assertions.assertEquals(10, phone.getMinDigits());
+        Assertions.assertEquals(11, phone.getMinLength());
+
+        Assertions.assertEquals(2, RegexPrefilter.of("a{2,}b?c*").getMinLength());
+        Assertions.assertArrayEquals(new char[]{'a'}, RegexPrefilter.of("a{2,}b?c*").getRequiredChars());
+
+        // more test cases
+        Assertions.assertSame(RegexPrefilter.NONE, RegexPrefilter.of("foo|bar"));
+        Assertions.assertSame(RegexPrefilter.NONE, RegexPrefilter.of("(?i)secret"));
+        Assertions.assertSame(RegexPrefilter.NONE, RegexPrefilter.of("(a)\\1"));
+        Assertions.assertSame(RegexPrefilter.NONE, RegexPrefilter.of(".*"));
+        Assertions.assertSame(RegexPrefilter.NONE, RegexPrefilter.of("\\Q@\\E"));
+        Assertions.assertEquals(2, RegexPrefilter.of("[0-9][^0-9]").getMinLength());
+        Assertions.assertEquals(1, RegexPrefilter.of("[0-9][^0-9]").getMinDigits());
+    }
+
+    @Test
+    void testMatch() {
+        MultiRegexMatcher matcher = MultiRegexMatcher.compile(List.of(EMAIL_REGEX, ID_CARD_REGEX, PHONE_REGEX, "abc++"));
+        Assertions.assertEquals(4, matcher.getRegexCount());
+        Assertions.assertEquals(PHONE_REGEX, matcher.getRegex(2));
+
+        boolean[] matched = new boolean[4];
+        Assertions.assertEquals(1, matcher.match("john.doe@example.com", null, matched));
+        Assertions.assertTrue(matched[0]);
+        Assertions.assertFalse(matched[1]);
+
+        Assertions.assertEquals(1, matcher.match("11010519491231002X", null, matched));
+        Assertions.assertTrue(matched[1]);
+
+        Assertions.assertEquals(1, matcher.match("13812345678", null, matched));
+        Assertions.assertTrue(matched[2]);
+
+        Assertions.assertEquals(0, matcher.match("John", null, matched));
+        Assertions.assertEquals(0, matcher.match(null, null, matched));
+
+        // Unselected regexes are not evaluated
+        boolean[] selected = {false, true, true, true};
+        Assertions.assertEquals(0, matcher.match("jane@example.com", selected, matched));
+        Assertions.assertFalse(matched[0]);
+
+        // more test cases
+        Assertions.assertEquals(1, matcher.match("xxabcc", null, matched));
+        Assertions.assertTrue(matched[3]);
+        Assertions.assertEquals(1, matcher.match("邮箱：john@example.com", null, matched));
+    }
+}
@@ -0,0 +1,78 @@
+package com.dbmasker.utils;
+
+import com.dbmasker.data.ObfuscationRule;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+
+class ObfuscationPlanTest {
+
+    @Test
+    void testBuildPlan() {
+        ObfuscationRule maskRule = new ObfuscationRule();
+        maskRule.setMethod(ObfuscationMethod.MASK);
+        maskRule.setStart(1);
+        maskRule.setEnd(3);
+
+        ObfuscationRule truncateRule = new ObfuscationRule();
+        truncateRule.setMethod(ObfuscationMethod.TRUNCATE);
+        truncateRule.setStart(0);
+        truncateRule.setEnd(4);
+
+        Map<String, ObfuscationRule> obfuscationRules = new LinkedHashMap<>();
+        obfuscationRules.put("FIRST_NAME", maskRule);
+        obfuscationRules.put("email", truncateRule);
+
+        String[] labels = {"id", "First_Name", "mail", "age"};
+        String[] types = {"INTEGER", "TEXT", "TEXT", null};
+        Map<String, Set<String>> renameMap = DbUtils.getColumnRename("SELECT id, first_name, email AS mail, age FROM employees");
+        ObfuscationPlan plan = ObfuscationPlan.build(labels, types, obfuscationRules, renameMap);
+
+        Assertions.assertEquals(4, plan.getColumnCount());
+        Assertions.assertEquals("First_Name", plan.getColumnLabel(1));
+        Assertions.assertEquals("TEXT", plan.getColumnType(2));
+        Assertions.assertNull(plan.getColumnType(3));
+
+        Assertions.assertFalse(plan.isObfuscated(0));
+        Assertions.assertTrue(plan.isObfuscated(1));
+        Assertions.assertTrue(plan.isObfuscated(2));
+        Assertions.assertFalse(plan.isObfuscated(3));
+
+        Assertions.assertEquals(1, plan.apply(0, 1));
+        Assertions.assertEquals("J**n", plan.apply(1, "John"));
+        Assertions.assertEquals("john", plan.apply(2, "john.doe@example.com"));
+        Assertions.assertNull(plan.apply(3, null));
+
+        // more test cases
+        plan = ObfuscationPlan.build(labels, types, new HashMap<>(), new HashMap<>());
+        Assertions.assertEquals("John", plan.apply(1, "John"));
+
+        plan = ObfuscationPlan.build(labels, types, obfuscationRules, null);
+        Assertions.assertFalse(plan.isObfuscated(2));
+    }
+
+    @Test
+    void testRuleChainOrder() {
+        ObfuscationRule truncateRule = new ObfuscationRule();
+        truncateRule.setMethod(ObfuscationMethod.TRUNCATE);
+        truncateRule.setStart(0);
+        truncateRule.setEnd(4);
+
+        ObfuscationRule maskRule = new ObfuscationRule();
+        maskRule.setMethod(ObfuscationMethod.MASK);
+        maskRule.setStart(2);
+        maskRule.setEnd(10);
+
+        // The alias and the original column both have a rule, they are applied in the order of the rules map
+        Map<String, ObfuscationRule> obfuscationRules = new LinkedHashMap<>();
+        obfuscationRules.put("fn", truncateRule);
+        obfuscationRules.put("first_name", maskRule);
+
+        Map<String, Set<String>> renameMap = DbUtils.getColumnRename("SELECT first_name AS fn FROM employees");
+        ObfuscationPlan plan = ObfuscationPlan.build(new String[]{"fn"}, new String[]{"TEXT"}, obfuscationRules, renameMap);
+
+        Assertions.assertEquals(2, plan.getRules(0).length);
+        Assertions.assertEquals("Ch**", plan.apply(0, "Charlie"));
+    }
+}
@@ -5,6 +5,7 @@ import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 
 import java.security.NoSuchAlgorithmException;
+import java.util.SplittableRandom;
 
 class ObfuscationUtilsTest {
 
@@ -80,6 +81,18 @@ class ObfuscationUtilsTest {
         regex = "(\\w{3})\\w*(\\w{4})";
         replacement = "$1****$2";
         Assertions.assertEquals("110****0026", ObfuscationUtils.replaceWithRegex(input, regex, replacement));
+
+        // the rule keeps its compiled pattern and reuses its matcher
+        ObfuscationRule replaceRule = new ObfuscationRule();
+        replaceRule.setRegex("(\\d{3})\\d{4}(\\d{4})");
+        replaceRule.setReplacement("$1****$2");
+        Assertions.assertEquals("186****6621", ObfuscationUtils.replaceWithRegex("18678776621", replaceRule));
+        Assertions.assertEquals("139****0000", ObfuscationUtils.replaceWithRegex("13912340000", replaceRule));
+        Assertions.assertSame(replaceRule.getPattern(), replaceRule.getPattern());
+
+        replaceRule.setRegex("\\d");
+        replaceRule.setReplacement("X");
+        Assertions.assertEquals("aXbX", ObfuscationUtils.replaceWithRegex("a1b2", replaceRule));
     }
 
     @Test
@@ -100,6 +113,37 @@ class ObfuscationUtilsTest {
         Assertions.assertTrue(noisyValue <= (originalValue + noiseRange / 2));
     }
 
+    @Test
+    void testAddNoiseWithMode() {
+        double originalValue = 10.0;
+        double noiseRange = 1.0;
+        for (NoiseMode noiseMode : NoiseMode.values()) {
+            double noisyValue = ObfuscationUtils.addNoise(originalValue, noiseRange, noiseMode, 42);
+            Assertions.assertTrue(noisyValue >= (originalValue - noiseRange / 2));
+            Assertions.assertTrue(noisyValue <= (originalValue + noiseRange / 2));
+        }
+
+        // deterministic mode gives the same noise for the same seed and value
+        Assertions.assertEquals(ObfuscationUtils.addNoise(originalValue, noiseRange, NoiseMode.DETERMINISTIC, 42),
+                ObfuscationUtils.addNoise(originalValue, noiseRange, NoiseMode.DETERMINISTIC, 42));
+        Assertions.assertNotEquals(ObfuscationUtils.addNoise(originalValue, noiseRange, NoiseMode.DETERMINISTIC, 42),
+                ObfuscationUtils.addNoise(originalValue, noiseRange, NoiseMode.DETERMINISTIC, 43));
+        // and the first double of a SplittableRandom with the same seed, without creating one
+        for (long seed : new long[]{0, 42, -1, Long.MIN_VALUE, Double.doubleToLongBits(originalValue)}) {
+            Assertions.assertEquals(new SplittableRandom(seed).nextDouble(), NoiseGenerator.nextDeterministicDouble(seed));
+        }
+
+        ObfuscationRule addNoiseRule = new ObfuscationRule();
+        addNoiseRule.setMethod(ObfuscationMethod.ADD_NOISE);
+        addNoiseRule.setNoiseRange(0.5);
+        addNoiseRule.setNoiseMode(NoiseMode.DETERMINISTIC);
+        addNoiseRule.setNoiseSeed(7);
+        Assertions.assertEquals(ObfuscationUtils.doObfuscation(5.0, addNoiseRule), ObfuscationUtils.doObfuscation(5.0, addNoiseRule));
+
+        Assertions.assertEquals(NoiseMode.FAST, NoiseMode.valueOf(2));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> NoiseMode.valueOf(0));
+    }
+
     @Test
     void testDoObfuscation() throws NoSuchAlgorithmException {
         ObfuscationRule maskRule = new ObfuscationRule();
@@ -0,0 +1,54 @@
+package com.dbmasker.utils;
+
+import com.dbmasker.data.SensitiveColumn;
+import com.dbmasker.data.TableFingerprint;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Date;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+class ScanStateStoreTest {
+
+    @Test
+    void testSaveLoad() throws IOException {
+        Path file = Files.createTempFile("dbmasker-scan-state", ".txt");
+        Files.delete(file);
+        try {
+            ScanStateStore store = ScanStateStore.load(file);
+            Assertions.assertTrue(store.getAll().isEmpty());
+
+            List<Object> matchData = new ArrayList<>(Arrays.asList("john doe@example.com\nline", 42L,
+                    new BigDecimal("10.50"), Date.valueOf("2023-05-01")));
+            SensitiveColumn column = new SensitiveColumn("public", "my table", "e mail", "\\b\\w+@\\w+\\.com\\b", matchData);
+            TableFingerprint fingerprint = new TableFingerprint("public", "my table", "key|id INTEGER(10)", 12L,
+                    "3,0,0", "id", new BigDecimal("12"), 1690000000000L, List.of(column));
+            store.put(fingerprint);
+            store.put(new TableFingerprint(null, "other", "key", null, null, null, null, 0L, new ArrayList<>()));
+            store.save();
+
+            ScanStateStore loaded = ScanStateStore.load(file);
+            Assertions.assertEquals(2, loaded.getAll().size());
+            // The matched values are sensitive and never written to the file
+            Assertions.assertFalse(Files.readString(file).contains("example.com"));
+            Assertions.assertEquals(fingerprint.withSensitiveColumns(List.of(new SensitiveColumn("public", "my table",
+                    "e mail", "\\b\\w+@\\w+\\.com\\b"))), loaded.get("public", "my table"));
+            Assertions.assertEquals(store.get("", "other"), loaded.get(null, "other"));
+
+            // more test cases
+            loaded.remove("public", "my table");
+            Assertions.assertNull(loaded.get("public", "my table"));
+
+            Files.writeString(file, "not a scan state file\n");
+            Assertions.assertThrows(IOException.class, () -> ScanStateStore.load(file));
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+}